@@ -0,0 +1,106 @@
+/**
+ * BenchData.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+
+import org.o3project.mlo.client.impl.control.MloJaxbEngine;
+
+import org.o3project.mlo.server.dto.FlowDto;
+import org.o3project.mlo.server.dto.RestifCommonDto;
+import org.o3project.mlo.server.dto.RestifComponentDto;
+import org.o3project.mlo.server.dto.RestifRequestDto;
+import org.o3project.mlo.server.dto.RestifResponseDto;
+import org.o3project.mlo.server.dto.SliceDto;
+
+/**
+ * This class creates messages used in benchmarks,
+ * which are shaped like the messages sent by the multi-request tool.
+ */
+final class BenchData {
+
+	private static final int BAND_WIDTH = 10;
+
+	private static final int DELAY = 20;
+
+	private BenchData() {
+	}
+
+	/**
+	 * Creates a create-slice request.
+	 * @param sliceIdx the slice index.
+	 * @param flowCount the number of flows.
+	 * @return the request DTO.
+	 */
+	static RestifRequestDto createRequest(int sliceIdx, int flowCount) {
+		RestifRequestDto reqDto = new RestifRequestDto();
+		reqDto.common = createCommon("clientMlo", "mlo", "Request");
+		reqDto.slice = createSlice(sliceIdx, flowCount);
+		return reqDto;
+	}
+
+	/**
+	 * Creates a slice list response.
+	 * @param sliceCount the number of slices.
+	 * @param flowCount the number of flows per slice.
+	 * @return the response DTO.
+	 */
+	static RestifResponseDto createResponse(int sliceCount, int flowCount) {
+		RestifResponseDto resDto = new RestifResponseDto();
+		resDto.common = createCommon("mlo", "clientMlo", "Response");
+		resDto.slices = new ArrayList<SliceDto>();
+		for (int idx = 0; idx < sliceCount; idx++) {
+			SliceDto slice = createSlice(idx, flowCount);
+			slice.id = idx + 1;
+			resDto.slices.add(slice);
+		}
+		return resDto;
+	}
+
+	/**
+	 * Serializes an object to bytes.
+	 * @param obj the object.
+	 * @return the XML bytes.
+	 */
+	static byte[] toXml(Object obj) {
+		ByteArrayOutputStream ostream = new ByteArrayOutputStream();
+		MloJaxbEngine.getDefault().marshal(obj, ostream);
+		return ostream.toByteArray();
+	}
+
+	private static RestifCommonDto createCommon(String src, String dst, String operation) {
+		RestifComponentDto srcComponent = new RestifComponentDto();
+		srcComponent.name = src;
+		RestifComponentDto dstComponent = new RestifComponentDto();
+		dstComponent.name = dst;
+		RestifCommonDto common = new RestifCommonDto();
+		common.version = 1;
+		common.srcComponent = srcComponent;
+		common.dstComponent = dstComponent;
+		common.operation = operation;
+		return common;
+	}
+
+	private static SliceDto createSlice(int sliceIdx, int flowCount) {
+		SliceDto slice = new SliceDto();
+		slice.name = String.format("slice%08d", sliceIdx);
+		slice.flows = new ArrayList<FlowDto>();
+		for (int idx = 0; idx < flowCount; idx++) {
+			String sPortNo = String.format("%08d", idx + 1);
+			FlowDto flow = new FlowDto();
+			flow.name = String.format("flow%08d", sliceIdx * flowCount + idx);
+			flow.srcCENodeName = "tokyo123";
+			flow.srcCEPortNo = sPortNo;
+			flow.dstCENodeName = "osaka123";
+			flow.dstCEPortNo = sPortNo;
+			flow.reqBandWidth = BAND_WIDTH;
+			flow.reqDelay = DELAY;
+			flow.protectionLevel = "0";
+			slice.flows.add(flow);
+		}
+		return slice;
+	}
+}
@@ -0,0 +1,52 @@
+/**
+ * BenchmarkMain.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.bench;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * This class is the entry point of the benchmark jar.
+ * This runs the JMH command line, which writes results as JSON to "jmh-result.json" by default,
+ * so that results of builds can be compared by tools.
+ * The result format and file can be changed with "-rf" and "-rff" options of JMH.
+ */
+public final class BenchmarkMain {
+
+	private static final String OPT_RESULT_FORMAT = "-rf";
+
+	private static final String OPT_RESULT_FILE = "-rff";
+
+	private static final String DEFAULT_RESULT_FORMAT = "json";
+
+	private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+	private BenchmarkMain() {
+	}
+
+	/**
+	 * Main method.
+	 * @param args the JMH command line arguments.
+	 * @throws RunnerException Failed to run benchmarks.
+	 * @throws IOException Failed to write results.
+	 */
+	public static void main(String[] args) throws RunnerException, IOException {
+		List<String> argList = new ArrayList<String>(Arrays.asList(args));
+		if (!argList.contains(OPT_RESULT_FORMAT)) {
+			argList.add(0, OPT_RESULT_FORMAT);
+			argList.add(1, DEFAULT_RESULT_FORMAT);
+		}
+		if (!argList.contains(OPT_RESULT_FILE)) {
+			argList.add(0, OPT_RESULT_FILE);
+			argList.add(1, DEFAULT_RESULT_FILE);
+		}
+		Main.main(argList.toArray(new String[argList.size()]));
+	}
+}
@@ -0,0 +1,129 @@
+/**
+ * RequestBuildBenchmark.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.bench;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.o3project.mlo.client.impl.control.ClientConfigImpl;
+import org.o3project.mlo.client.impl.control.ClientConfigProviderImpl;
+import org.o3project.mlo.client.impl.control.MloGetMethodImpl;
+import org.o3project.mlo.client.impl.control.SliceDataManagerImpl;
+import org.o3project.mlo.client.impl.control.SliceMultiRequestImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.o3project.mlo.server.dto.FlowDto;
+import org.o3project.mlo.server.dto.RestifRequestDto;
+import org.o3project.mlo.server.dto.SliceDto;
+
+/**
+ * This class measures the cost of building requests before they are serialized.
+ * <pre>
+ * java -jar target/benchmarks.jar RequestBuildBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestBuildBenchmark {
+
+	private static final int SLICE_COUNT = 10;
+
+	private static final int BAND_WIDTH = 10;
+
+	private static final int DELAY = 20;
+
+	/**
+	 * The number of flows per slice.
+	 */
+	@Param({"1", "10", "100"})
+	public int flowCount;
+
+	private MloGetMethodImpl getMethod;
+
+	private Map<String, String> params;
+
+	private SliceMultiRequestImpl multiRequest;
+
+	private SliceDto reqSlice;
+
+	private SliceDto registeredSlice;
+
+	/**
+	 * Prepares the components and slices.
+	 */
+	@Setup
+	public void setUp() {
+		ClientConfigImpl clientConfig = new ClientConfigImpl();
+		// The default properties only.
+		clientConfig.setConfigProvider(new ClientConfigProviderImpl(null));
+
+		getMethod = new MloGetMethodImpl();
+		getMethod.setClientConfig(clientConfig);
+		params = new HashMap<String, String>();
+		params.put("owner", "clientMlo");
+
+		multiRequest = new SliceMultiRequestImpl(clientConfig);
+		reqSlice = multiRequest.createSliceDtos(1, flowCount, BAND_WIDTH, DELAY).get(0);
+		registeredSlice = multiRequest.createSliceDtos(1, flowCount, BAND_WIDTH, DELAY).get(0);
+		registeredSlice.id = 1;
+		int flowId = 1;
+		for (FlowDto flow : registeredSlice.flows) {
+			flow.id = flowId;
+			flowId += 1;
+		}
+	}
+
+	/**
+	 * Constructs the URL of the slice list request.
+	 * @return the URL.
+	 */
+	@Benchmark
+	public String constructUrl() {
+		return getMethod.constructUrl(SliceDataManagerImpl.PATH_LIST_SLICE, params);
+	}
+
+	/**
+	 * Wraps a slice in a request DTO.
+	 * @return the request DTO.
+	 */
+	@Benchmark
+	public RestifRequestDto createRequestDto() {
+		return SliceDataManagerImpl.createRequestDto("clientMlo", reqSlice);
+	}
+
+	/**
+	 * Creates slices for the create mode of the multi-request tool.
+	 * @return the slices.
+	 */
+	@Benchmark
+	public List<SliceDto> createSliceDtos() {
+		return multiRequest.createSliceDtos(SLICE_COUNT, flowCount, BAND_WIDTH, DELAY);
+	}
+
+	/**
+	 * Creates the update request of a slice for the update mode of the multi-request tool.
+	 * @return the slice.
+	 */
+	@Benchmark
+	public SliceDto updateSliceDto() {
+		return multiRequest.updateSliceDto(registeredSlice, BAND_WIDTH, DELAY);
+	}
+}
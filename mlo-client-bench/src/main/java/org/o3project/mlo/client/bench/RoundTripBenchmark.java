@@ -0,0 +1,223 @@
+/**
+ * RoundTripBenchmark.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.o3project.mlo.client.control.MloAccessException;
+import org.o3project.mlo.client.control.MloClientException;
+import org.o3project.mlo.client.control.MloInvoker;
+import org.o3project.mlo.client.control.MloMethod;
+import org.o3project.mlo.client.control.SliceHandler;
+import org.o3project.mlo.client.impl.control.ClientConfigImpl;
+import org.o3project.mlo.client.impl.control.ClientConfigProviderImpl;
+import org.o3project.mlo.client.impl.control.MloGetMethodImpl;
+import org.o3project.mlo.client.impl.control.MloJaxbEngine;
+import org.o3project.mlo.client.impl.control.MloPostMethodImpl;
+import org.o3project.mlo.client.impl.control.MloSerdesImpl;
+import org.o3project.mlo.client.impl.control.SliceDataManagerImpl;
+import org.o3project.mlo.client.impl.control.SliceMultiRequestImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.o3project.mlo.server.dto.FlowDto;
+import org.o3project.mlo.server.dto.RestifCommonDto;
+import org.o3project.mlo.server.dto.RestifComponentDto;
+import org.o3project.mlo.server.dto.RestifRequestDto;
+import org.o3project.mlo.server.dto.RestifResponseDto;
+import org.o3project.mlo.server.dto.SliceDto;
+
+/**
+ * This class measures the client-side cost of a {@link SliceDataManagerImpl} operation,
+ * that is, building, serializing the request, and deserializing and checking the response.
+ * The invoker serializes requests and returns prepared response bytes in memory, without network.
+ * <pre>
+ * java -jar target/benchmarks.jar RoundTripBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RoundTripBenchmark {
+
+	private static final int LIST_SLICE_COUNT = 100;
+
+	private static final int BAND_WIDTH = 10;
+
+	private static final int DELAY = 20;
+
+	private static final int OSTREAM_SIZE = 4096;
+
+	/**
+	 * This class is the invoker which keeps responses in memory.
+	 */
+	private static final class InMemoryMloInvoker implements MloInvoker {
+
+		private final Map<String, byte[]> resXmls = new HashMap<String, byte[]>();
+
+		/* (non-Javadoc)
+		 * @see org.o3project.mlo.client.control.MloInvoker#invoke(org.o3project.mlo.client.control.MloMethod, org.o3project.mlo.server.dto.RestifRequestDto, java.lang.String, java.util.Map)
+		 */
+		@Override
+		public RestifResponseDto invoke(MloMethod method, RestifRequestDto reqDto, String path,
+				Map<String, String> params) throws MloAccessException {
+			method.constructUrl(path, params);
+			if (method.isSetDoOutput()) {
+				method.handleReqOutput(reqDto, new ByteArrayOutputStream(OSTREAM_SIZE));
+			}
+			return method.handleResInput(new ByteArrayInputStream(resXmls.get(path)));
+		}
+	}
+
+	/**
+	 * The number of flows per slice.
+	 */
+	@Param({"1", "10", "100"})
+	public int flowCount;
+
+	private SliceDataManagerImpl sliceDataManager;
+
+	private SliceDto createSlice;
+
+	private SliceDto readSlice;
+
+	/**
+	 * Prepares the slice data manager and responses.
+	 */
+	@Setup
+	public void setUp() {
+		ClientConfigImpl clientConfig = new ClientConfigImpl();
+		// The default properties only.
+		clientConfig.setConfigProvider(new ClientConfigProviderImpl(null));
+		MloSerdesImpl serdes = new MloSerdesImpl();
+		MloGetMethodImpl getMethod = new MloGetMethodImpl();
+		getMethod.setMloSerdes(serdes);
+		getMethod.setClientConfig(clientConfig);
+		MloPostMethodImpl postMethod = new MloPostMethodImpl();
+		postMethod.setMloSerdes(serdes);
+		postMethod.setClientConfig(clientConfig);
+
+		SliceMultiRequestImpl multiRequest = new SliceMultiRequestImpl(clientConfig);
+		createSlice = multiRequest.createSliceDtos(1, flowCount, BAND_WIDTH, DELAY).get(0);
+		SliceDto registered = multiRequest.createSliceDtos(1, flowCount, BAND_WIDTH, DELAY).get(0);
+		registered.id = 1;
+		int flowId = 1;
+		for (FlowDto flow : registered.flows) {
+			flow.id = flowId;
+			flowId += 1;
+		}
+		readSlice = new SliceDto();
+		readSlice.id = registered.id;
+
+		InMemoryMloInvoker invoker = new InMemoryMloInvoker();
+		invoker.resXmls.put(SliceDataManagerImpl.PATH_CREATE_SLICE, toXml(createResponse(registered)));
+		invoker.resXmls.put(SliceDataManagerImpl.PATH_READ_SLICE, toXml(createResponse(registered)));
+		List<SliceDto> listSlices = new ArrayList<SliceDto>();
+		for (int idx = 0; idx < LIST_SLICE_COUNT; idx += 1) {
+			SliceDto slice = new SliceDto();
+			slice.id = idx + 1;
+			slice.name = String.format("slice%08d", idx);
+			listSlices.add(slice);
+		}
+		invoker.resXmls.put(SliceDataManagerImpl.PATH_LIST_SLICE, toXml(createResponse(listSlices.toArray(new SliceDto[0]))));
+
+		sliceDataManager = new SliceDataManagerImpl();
+		sliceDataManager.setClientConfig(clientConfig);
+		sliceDataManager.setMloGetMethod(getMethod);
+		sliceDataManager.setMloPostMethod(postMethod);
+		sliceDataManager.init();
+		sliceDataManager.setMloInvoker(invoker);
+	}
+
+	/**
+	 * Creates a slice.
+	 * @return the response slice.
+	 * @throws MloClientException Failed.
+	 */
+	@Benchmark
+	public SliceDto createSliceInfo() throws MloClientException {
+		return sliceDataManager.createSliceInfo(createSlice);
+	}
+
+	/**
+	 * Reads a slice.
+	 * @return the response slice.
+	 * @throws MloClientException Failed.
+	 */
+	@Benchmark
+	public SliceDto getSliceInfo() throws MloClientException {
+		return sliceDataManager.getSliceInfo(readSlice);
+	}
+
+	/**
+	 * Obtains the slice list.
+	 * @return the slices.
+	 * @throws MloClientException Failed.
+	 */
+	@Benchmark
+	public List<SliceDto> getSliceList() throws MloClientException {
+		return sliceDataManager.getSliceList();
+	}
+
+	/**
+	 * Streams the slice list.
+	 * @return the number of handled slices.
+	 * @throws MloClientException Failed.
+	 */
+	@Benchmark
+	public int forEachSlice() throws MloClientException {
+		final int[] count = new int[1];
+		sliceDataManager.forEachSlice(new SliceHandler() {
+			@Override
+			public void handleSlice(SliceDto slice) {
+				count[0] += 1;
+			}
+		});
+		return count[0];
+	}
+
+	private static RestifResponseDto createResponse(SliceDto... slices) {
+		RestifComponentDto srcComponent = new RestifComponentDto();
+		srcComponent.name = "mlo";
+		RestifComponentDto dstComponent = new RestifComponentDto();
+		dstComponent.name = "clientMlo";
+		RestifCommonDto common = new RestifCommonDto();
+		common.version = 1;
+		common.srcComponent = srcComponent;
+		common.dstComponent = dstComponent;
+		common.operation = "Response";
+		RestifResponseDto resDto = new RestifResponseDto();
+		resDto.common = common;
+		resDto.slices = new ArrayList<SliceDto>();
+		for (SliceDto slice : slices) {
+			resDto.slices.add(slice);
+		}
+		return resDto;
+	}
+
+	private static byte[] toXml(Object obj) {
+		ByteArrayOutputStream ostream = new ByteArrayOutputStream();
+		MloJaxbEngine.getDefault().marshal(obj, ostream);
+		return ostream.toByteArray();
+	}
+}
@@ -0,0 +1,134 @@
+/**
+ * SerdesBenchmark.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXB;
+
+import org.o3project.mlo.client.impl.control.MloJaxbEngine;
+import org.o3project.mlo.client.impl.control.MloSerdesImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.o3project.mlo.server.dto.RestifRequestDto;
+import org.o3project.mlo.server.dto.RestifResponseDto;
+
+/**
+ * This class measures the cost per message of XML serialization in mlo-client,
+ * comparing the static {@link JAXB} methods (legacy) with {@link MloJaxbEngine},
+ * and {@link MloSerdesImpl}, which is used by the HTTP methods.
+ * <pre>
+ * java -jar target/benchmarks.jar SerdesBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerdesBenchmark {
+
+	private static final int OSTREAM_SIZE = 4096;
+
+	private static final int RESPONSE_SLICE_COUNT = 3;
+
+	/**
+	 * The number of flows per slice.
+	 */
+	@Param({"1", "10", "100"})
+	public int flowCount;
+
+	private RestifRequestDto reqDto;
+
+	private byte[] resXml;
+
+	private MloJaxbEngine engine;
+
+	private MloSerdesImpl serdes;
+
+	/**
+	 * Prepares messages.
+	 */
+	@Setup
+	public void setUp() {
+		engine = MloJaxbEngine.getDefault();
+		serdes = new MloSerdesImpl();
+		reqDto = BenchData.createRequest(1, flowCount);
+		resXml = BenchData.toXml(BenchData.createResponse(RESPONSE_SLICE_COUNT, flowCount));
+	}
+
+	/**
+	 * Serializes a request with {@link JAXB#marshal(Object, java.io.OutputStream)}.
+	 * @return the serialized bytes.
+	 */
+	@Benchmark
+	public byte[] marshalRequestLegacy() {
+		ByteArrayOutputStream ostream = new ByteArrayOutputStream(OSTREAM_SIZE);
+		JAXB.marshal(reqDto, ostream);
+		return ostream.toByteArray();
+	}
+
+	/**
+	 * Serializes a request with {@link MloJaxbEngine}.
+	 * @return the serialized bytes.
+	 */
+	@Benchmark
+	public byte[] marshalRequestEngine() {
+		ByteArrayOutputStream ostream = new ByteArrayOutputStream(OSTREAM_SIZE);
+		engine.marshal(reqDto, ostream);
+		return ostream.toByteArray();
+	}
+
+	/**
+	 * Deserializes a response with {@link JAXB#unmarshal(java.io.InputStream, Class)}.
+	 * @return the response DTO.
+	 */
+	@Benchmark
+	public RestifResponseDto unmarshalResponseLegacy() {
+		return JAXB.unmarshal(new ByteArrayInputStream(resXml), RestifResponseDto.class);
+	}
+
+	/**
+	 * Deserializes a response with {@link MloJaxbEngine}.
+	 * @return the response DTO.
+	 */
+	@Benchmark
+	public RestifResponseDto unmarshalResponseEngine() {
+		return engine.unmarshal(new ByteArrayInputStream(resXml), RestifResponseDto.class);
+	}
+
+	/**
+	 * Serializes a request with {@link MloSerdesImpl}.
+	 * @return the serialized bytes.
+	 */
+	@Benchmark
+	public byte[] serializeRequestSerdes() {
+		ByteArrayOutputStream ostream = new ByteArrayOutputStream(OSTREAM_SIZE);
+		serdes.serializeToXml(reqDto, ostream);
+		return ostream.toByteArray();
+	}
+
+	/**
+	 * Deserializes a response with {@link MloSerdesImpl}.
+	 * @return the response DTO.
+	 */
+	@Benchmark
+	public RestifResponseDto deserializeResponseSerdes() {
+		return serdes.deserializeFromXml(new ByteArrayInputStream(resXml));
+	}
+}
@@ -0,0 +1,30 @@
+/**
+ * AsyncMloInvoker.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.control;
+
+import java.util.Map;
+
+import org.o3project.mlo.server.dto.RestifRequestDto;
+import org.o3project.mlo.server.dto.RestifResponseDto;
+
+/**
+ * This interface designates feature to access to mlo-srv asynchronously.
+ * This is the non-blocking counterpart of {@link MloInvoker}.
+ */
+public interface AsyncMloInvoker {
+
+	/**
+	 * Starts to access to mlo-srv, and returns without waiting for the response.
+	 * If the access fails, the future fails with {@link MloAccessException}.
+	 * @param method the HTTP method instance.
+	 * @param reqDto the request DTO.
+	 * @param path the URL path.
+	 * @param params the query parameters.
+	 * @return the future of the response DTO.
+	 */
+	MloFuture<RestifResponseDto> invokeAsync(MloMethod method,
+			RestifRequestDto reqDto, String path, Map<String, String> params);
+
+}
@@ -0,0 +1,53 @@
+/**
+ * AsyncSliceDataManager.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.control;
+
+import java.util.List;
+
+import org.o3project.mlo.server.dto.SliceDto;
+
+/**
+ * This interface designates boundary feature of mlo-srv, which is processed asynchronously.
+ * This is the non-blocking counterpart of {@link SliceDataManager}.
+ * Each future fails with the same {@link MloClientException} as the corresponding method of {@link SliceDataManager},
+ * i.e. {@link MloNbiException} for an error response and {@link MloAccessException} for an access failure.
+ */
+public interface AsyncSliceDataManager {
+
+	/**
+	 * Obtains slice list.
+	 * @return the future of the slices.
+	 */
+	MloFuture<List<SliceDto>> getSliceListAsync();
+	
+	/**
+	 * Obtains a slice.
+	 * @param slice the requested slice DTO.
+	 * @return the future of the slice DTO.
+	 */
+	MloFuture<SliceDto> getSliceInfoAsync(SliceDto slice);
+	
+	/**
+	 * Creates a slice.
+	 * @param slice the requested slice DTO.
+	 * @return the future of the slice DTO.
+	 */
+	MloFuture<SliceDto> createSliceInfoAsync(SliceDto slice);
+	
+	/**
+	 * Updates a slice.
+	 * @param slice the requested slice DTO.
+	 * @return the future of the slice DTO.
+	 */
+	MloFuture<SliceDto> updateSliceInfoAsync(SliceDto slice);
+	
+	/**
+	 * Deletes a slice.
+	 * @param slice the requested slice DTO.
+	 * @return the future of the slice DTO.
+	 */
+	MloFuture<SliceDto> deleteSliceInfoAsync(SliceDto slice);
+	
+}
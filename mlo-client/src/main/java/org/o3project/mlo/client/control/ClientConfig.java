@@ -8,6 +8,18 @@ package org.o3project.mlo.client.control;
  * This interface designates configurations of mlo-client.
  */
 public interface ClientConfig {
+	
+	/**
+	 * Adds a listener called after the configuration has been reloaded.
+	 * @param listener the listener.
+	 */
+	void addClientConfigListener(ClientConfigListener listener);
+	
+	/**
+	 * Removes a listener.
+	 * @param listener the listener.
+	 */
+	void removeClientConfigListener(ClientConfigListener listener);
 
 	/**
 	 * Obtains the base URI of mlo-srv.
@@ -45,6 +57,199 @@ public interface ClientConfig {
 	 */
 	boolean getDummyInvokerSetFlag();
 	
+	/**
+	 * Designates whether the dummy invoker responds with synthetic slices kept in memory.
+	 * @return Returns true if synthetic responses are used.
+	 */
+	boolean getDummySyntheticFlag();
+	
+	/**
+	 * Obtains the number of synthetic slices which the dummy invoker has on start.
+	 * @return the number.
+	 */
+	Integer getDummySyntheticSliceCount();
+	
+	/**
+	 * Obtains the number of flows per synthetic slice.
+	 * @return the number.
+	 */
+	Integer getDummySyntheticFlowsPerSlice();
+	
+	/**
+	 * Obtains the latency which the dummy invoker adds to each response.
+	 * The unit is milliseconds.
+	 * @return the latency.
+	 */
+	Integer getDummyLatencyMsec();
+	
+	/**
+	 * Obtains the percentage of requests which the dummy invoker fails.
+	 * @return the percentage from 0 to 100.
+	 */
+	Integer getDummyFaultPercent();
+	
+	/**
+	 * Designates whether the application keeps connections to mlo-srv alive in a pool.
+	 * @return Returns true if the pooled invoker is used.
+	 */
+	boolean getPooledInvokerSetFlag();
+	
+	/**
+	 * Obtains the maximum number of pooled connections per mlo-srv host.
+	 * @return the number.
+	 */
+	Integer getPoolMaxConnectionsPerHost();
+	
+	/**
+	 * Obtains the timeout after which idle pooled connections are closed.
+	 * The unit is seconds.
+	 * If zero is obtained, idle connections are not closed by timeout.
+	 * @return the timeout.
+	 */
+	Integer getPoolIdleTimeoutSec();
+	
+	/**
+	 * Obtains the maximum lifetime of pooled connections.
+	 * The unit is seconds.
+	 * If zero is obtained, the lifetime is not limited.
+	 * @return the lifetime.
+	 */
+	Integer getPoolMaxLifetimeSec();
+	
+	/**
+	 * Designates whether concurrent identical reads share one request.
+	 * @return Returns true if reads are coalesced.
+	 */
+	boolean getCoalesceFlag();
+	
+	/**
+	 * Obtains the number of I/O threads used by the asynchronous invoker.
+	 * @return the number.
+	 */
+	Integer getAsyncIoThreads();
+	
+	/**
+	 * Designates whether requests to mlo-srv are retried and stopped by a circuit breaker.
+	 * @return Returns true if enabled.
+	 */
+	boolean getResilienceFlag();
+	
+	/**
+	 * Obtains the maximum number of attempts of a request, including the first one.
+	 * @param path the operation path, such as "slices" and "READ".
+	 * @return the number, or null if not configured.
+	 */
+	Integer getRetryMaxAttempts(String path);
+	
+	/**
+	 * Obtains the base delay of retries.
+	 * The unit is milliseconds.
+	 * @return the delay.
+	 */
+	Integer getRetryBaseDelayMsec();
+	
+	/**
+	 * Obtains the maximum delay of retries.
+	 * The unit is milliseconds.
+	 * @return the delay.
+	 */
+	Integer getRetryMaxDelayMsec();
+	
+	/**
+	 * Obtains the number of the last requests whose results decide whether the circuit breaker opens.
+	 * @return the number.
+	 */
+	Integer getCircuitWindowSize();
+	
+	/**
+	 * Obtains the failure rate which opens the circuit breaker.
+	 * The unit is percent.
+	 * @return the rate.
+	 */
+	Integer getCircuitFailureRatePercent();
+	
+	/**
+	 * Obtains the duration in which the opened circuit breaker rejects requests.
+	 * The unit is seconds.
+	 * @return the duration.
+	 */
+	Integer getCircuitOpenSec();
+	
+	/**
+	 * Designates whether the GUI caches slices.
+	 * @return Returns true if slices are cached.
+	 */
+	boolean getSliceCacheFlag();
+	
+	/**
+	 * Obtains the maximum number of slices whose details are cached.
+	 * @return the number.
+	 */
+	Integer getSliceCacheMaxEntries();
+	
+	/**
+	 * Obtains the time to live of cached slices.
+	 * The unit is seconds.
+	 * @return the time to live.
+	 */
+	Integer getSliceCacheTtlSec();
+	
+	/**
+	 * Obtains the CSV file to which load statistics are exported.
+	 * @return the file path, or empty if not exported.
+	 */
+	String getLoadStatsCsvFile();
+	
+	/**
+	 * Obtains the JSON file to which load statistics are exported.
+	 * @return the file path, or empty if not exported.
+	 */
+	String getLoadStatsJsonFile();
+	
+	/**
+	 * Designates whether the number of slice operations in flight in bulk operations is adapted.
+	 * @return Returns true if adapted.
+	 */
+	boolean getBulkConcurrencyAdaptiveFlag();
+	
+	/**
+	 * Obtains the initial number of slice operations in flight in bulk operations.
+	 * @return the number.
+	 */
+	Integer getBulkConcurrencyInitialLimit();
+	
+	/**
+	 * Obtains the minimum number of slice operations in flight in bulk operations.
+	 * @return the number.
+	 */
+	Integer getBulkConcurrencyMinLimit();
+	
+	/**
+	 * Obtains the maximum number of slice operations in flight in bulk operations.
+	 * @return the number.
+	 */
+	Integer getBulkConcurrencyMaxLimit();
+	
+	/**
+	 * Obtains the latency which decreases the number of slice operations in flight,
+	 * relative to the minimum latency observed.
+	 * The unit is percent.
+	 * @return the latency tolerance.
+	 */
+	Integer getBulkConcurrencyLatencyTolerancePercent();
+	
+	/**
+	 * Obtains the percentage of slices whose payloads are logged.
+	 * @return the percentage.
+	 */
+	Integer getPayloadLogSampleRatePercent();
+	
+	/**
+	 * Obtains the maximum number of characters of a logged payload.
+	 * @return the number.
+	 */
+	Integer getPayloadLogMaxChars();
+	
 	/**
 	 * Obtains the topology view URI.
 	 * @return the URI.
@@ -23,6 +23,13 @@ public interface ClientConfigConstants {
 	 */
 	String PROP_KEY_DEBUG_CLIENTS = PROP_KEY_PREFIX_ + "debug.clients";
 	
+	/**
+	 * Property key of flag which designates whether the property file is watched,
+	 * and reloaded when it is changed.
+	 * The type of the property value is boolean.
+	 */
+	String PROP_KEY_CONFIG_WATCH_FLAG = PROP_KEY_PREFIX_ + "config.watch.flag";
+	
 	/*
 	 * For connection to mlo-srv.
 	 */
@@ -59,6 +66,223 @@ public interface ClientConfigConstants {
 	 */
 	String PROP_KEY_SERVER_DUMMY_INVOKER_SET_FLAG       = PROP_KEY_PREFIX_ + "server.dummy.invoker.flag";
 	
+	/**
+	 * Property key of flag which designates whether the dummy invoker keeps slices in memory,
+	 * and responds to requests with synthetic slices instead of the fixed response files.
+	 * The type of the property value is boolean.
+	 */
+	String PROP_KEY_SERVER_DUMMY_SYNTHETIC_FLAG = PROP_KEY_PREFIX_ + "server.dummy.synthetic.flag";
+	
+	/**
+	 * Property key of the number of synthetic slices which the dummy invoker has on start.
+	 * The type of the property value is zero or positive integer.
+	 */
+	String PROP_KEY_SERVER_DUMMY_SYNTHETIC_SLICE_COUNT = PROP_KEY_PREFIX_ + "server.dummy.synthetic.sliceCount";
+	
+	/**
+	 * Property key of the number of flows per synthetic slice.
+	 * The type of the property value is zero or positive integer.
+	 */
+	String PROP_KEY_SERVER_DUMMY_SYNTHETIC_FLOWS_PER_SLICE = PROP_KEY_PREFIX_ + "server.dummy.synthetic.flowsPerSlice";
+	
+	/**
+	 * Property key of the latency which the dummy invoker adds to each response.
+	 * The type of the property value is zero or positive integer.
+	 * The unit is milliseconds.
+	 */
+	String PROP_KEY_SERVER_DUMMY_LATENCY_MSEC = PROP_KEY_PREFIX_ + "server.dummy.latencyMsec";
+	
+	/**
+	 * Property key of the percentage of requests which the dummy invoker fails.
+	 * The type of the property value is integer from 0 to 100.
+	 */
+	String PROP_KEY_SERVER_DUMMY_FAULT_PERCENT = PROP_KEY_PREFIX_ + "server.dummy.faultPercent";
+	
+	/**
+	 * Property key of flag which designates whether mlo-client keeps connections to mlo-srv alive in a pool.
+	 * If false, a new connection is opened for each request.
+	 * The type of the property value is boolean.
+	 */
+	String PROP_KEY_SERVER_POOLED_INVOKER_SET_FLAG = PROP_KEY_PREFIX_ + "server.pooled.invoker.flag";
+	
+	/**
+	 * Property key of the maximum number of pooled connections to a mlo-srv host.
+	 * The type of the property value is positive integer.
+	 */
+	String PROP_KEY_SERVER_POOL_MAX_CONNECTIONS_PER_HOST = PROP_KEY_PREFIX_ + "server.pool.maxConnectionsPerHost";
+	
+	/**
+	 * Property key of the timeout after which idle pooled connections are closed.
+	 * The type of the property value is zero or positive integer.
+	 * The unit is seconds.
+	 */
+	String PROP_KEY_SERVER_POOL_IDLE_TIMEOUT_SEC = PROP_KEY_PREFIX_ + "server.pool.idleTimeoutSec";
+	
+	/**
+	 * Property key of the maximum lifetime of pooled connections.
+	 * The type of the property value is zero or positive integer.
+	 * The unit is seconds.
+	 */
+	String PROP_KEY_SERVER_POOL_MAX_LIFETIME_SEC = PROP_KEY_PREFIX_ + "server.pool.maxLifetimeSec";
+	
+	/**
+	 * Property key of flag which designates whether concurrent identical reads,
+	 * that is, slice lists of the same owner and slice details of the same id, share one request.
+	 * The type of the property value is boolean.
+	 */
+	String PROP_KEY_SERVER_COALESCE_FLAG = PROP_KEY_PREFIX_ + "server.coalesce.flag";
+	
+	/**
+	 * Property key of the number of I/O threads used by the asynchronous invoker.
+	 * The type of the property value is positive integer.
+	 */
+	String PROP_KEY_SERVER_ASYNC_IO_THREADS = PROP_KEY_PREFIX_ + "server.async.ioThreads";
+	
+	/**
+	 * Property key of flag which designates whether requests to mlo-srv are retried,
+	 * and stopped by a circuit breaker while failures are sustained.
+	 * The type of the property value is boolean.
+	 */
+	String PROP_KEY_SERVER_RESILIENCE_FLAG = PROP_KEY_PREFIX_ + "server.resilience.flag";
+	
+	/**
+	 * Property key prefix of the maximum number of attempts of a request, including the first one.
+	 * The operation path, such as "slices" and "READ", follows the prefix.
+	 * Only idempotent operations should be retried.
+	 * The type of the property value is positive integer.
+	 */
+	String PROP_KEY_SERVER_RETRY_MAX_ATTEMPTS_ = PROP_KEY_PREFIX_ + "server.retry.maxAttempts.";
+	
+	/**
+	 * Property key of the base delay of retries, which is doubled for each retry.
+	 * The actual delay is randomized between zero and the doubled delay.
+	 * The type of the property value is zero or positive integer.
+	 * The unit is milliseconds.
+	 */
+	String PROP_KEY_SERVER_RETRY_BASE_DELAY_MSEC = PROP_KEY_PREFIX_ + "server.retry.baseDelayMsec";
+	
+	/**
+	 * Property key of the maximum delay of retries.
+	 * The type of the property value is zero or positive integer.
+	 * The unit is milliseconds.
+	 */
+	String PROP_KEY_SERVER_RETRY_MAX_DELAY_MSEC = PROP_KEY_PREFIX_ + "server.retry.maxDelayMsec";
+	
+	/**
+	 * Property key of the number of the last requests whose results decide whether the circuit breaker opens.
+	 * The type of the property value is positive integer.
+	 */
+	String PROP_KEY_SERVER_CIRCUIT_WINDOW_SIZE = PROP_KEY_PREFIX_ + "server.circuit.windowSize";
+	
+	/**
+	 * Property key of the failure rate of the last requests, which opens the circuit breaker.
+	 * The type of the property value is integer from 1 to 100.
+	 * The unit is percent.
+	 */
+	String PROP_KEY_SERVER_CIRCUIT_FAILURE_RATE_PERCENT = PROP_KEY_PREFIX_ + "server.circuit.failureRatePercent";
+	
+	/**
+	 * Property key of the duration in which the opened circuit breaker rejects requests.
+	 * The type of the property value is zero or positive integer.
+	 * The unit is seconds.
+	 */
+	String PROP_KEY_SERVER_CIRCUIT_OPEN_SEC = PROP_KEY_PREFIX_ + "server.circuit.openSec";
+	
+	/*
+	 * for slice cache
+	 */
+	
+	/**
+	 * Property key of flag which designates whether the GUI caches slices.
+	 * The type of the property value is boolean.
+	 */
+	String PROP_KEY_SLICE_CACHE_FLAG = PROP_KEY_PREFIX_ + "slice.cache.flag";
+	
+	/**
+	 * Property key of the maximum number of slices whose details are cached.
+	 * The type of the property value is zero or positive integer.
+	 */
+	String PROP_KEY_SLICE_CACHE_MAX_ENTRIES = PROP_KEY_PREFIX_ + "slice.cache.maxEntries";
+	
+	/**
+	 * Property key of the time to live of cached slices.
+	 * The type of the property value is zero or positive integer.
+	 * The unit is seconds.
+	 */
+	String PROP_KEY_SLICE_CACHE_TTL_SEC = PROP_KEY_PREFIX_ + "slice.cache.ttlSec";
+	
+	/*
+	 * for load statistics
+	 */
+	
+	/**
+	 * Property key of the CSV file to which the -m and -t load modes export latency statistics.
+	 * The type of the property value is string. If empty, the statistics are not exported.
+	 */
+	String PROP_KEY_LOAD_STATS_CSV_FILE = PROP_KEY_PREFIX_ + "load.stats.csvFile";
+	
+	/**
+	 * Property key of the JSON file to which the -m and -t load modes export latency statistics.
+	 * The type of the property value is string. If empty, the statistics are not exported.
+	 */
+	String PROP_KEY_LOAD_STATS_JSON_FILE = PROP_KEY_PREFIX_ + "load.stats.jsonFile";
+	
+	/*
+	 * for bulk operations
+	 */
+	
+	/**
+	 * Property key of flag which designates whether the number of slice operations in flight
+	 * in the -m create, update and delete modes is adapted to the latency and the errors of mlo-srv.
+	 * If false, the number is fixed.
+	 * The type of the property value is boolean.
+	 */
+	String PROP_KEY_BULK_CONCURRENCY_ADAPTIVE_FLAG = PROP_KEY_PREFIX_ + "bulk.concurrency.adaptive.flag";
+	
+	/**
+	 * Property key of the initial number of slice operations in flight in the adaptive mode.
+	 * The type of the property value is positive integer.
+	 */
+	String PROP_KEY_BULK_CONCURRENCY_INITIAL_LIMIT = PROP_KEY_PREFIX_ + "bulk.concurrency.initialLimit";
+	
+	/**
+	 * Property key of the minimum number of slice operations in flight in the adaptive mode.
+	 * The type of the property value is positive integer.
+	 */
+	String PROP_KEY_BULK_CONCURRENCY_MIN_LIMIT = PROP_KEY_PREFIX_ + "bulk.concurrency.minLimit";
+	
+	/**
+	 * Property key of the maximum number of slice operations in flight in the adaptive mode.
+	 * The type of the property value is positive integer.
+	 */
+	String PROP_KEY_BULK_CONCURRENCY_MAX_LIMIT = PROP_KEY_PREFIX_ + "bulk.concurrency.maxLimit";
+	
+	/**
+	 * Property key of the latency which decreases the number of slice operations in flight,
+	 * relative to the minimum latency observed.
+	 * The type of the property value is integer larger than 100.
+	 * The unit is percent.
+	 */
+	String PROP_KEY_BULK_CONCURRENCY_LATENCY_TOLERANCE_PERCENT = PROP_KEY_PREFIX_ + "bulk.concurrency.latencyTolerancePercent";
+	
+	/*
+	 * for payload logging
+	 */
+	
+	/**
+	 * Property key of the percentage of slices whose request and response payloads are logged
+	 * in the -m modes. Slices are sampled by the slice name.
+	 * The type of the property value is integer from 0 to 100.
+	 */
+	String PROP_KEY_PAYLOAD_LOG_SAMPLE_RATE_PERCENT = PROP_KEY_PREFIX_ + "payload.log.sampleRatePercent";
+	
+	/**
+	 * Property key of the maximum number of characters of a logged payload.
+	 * Longer payloads are truncated.
+	 * The type of the property value is positive integer.
+	 */
+	String PROP_KEY_PAYLOAD_LOG_MAX_CHARS = PROP_KEY_PREFIX_ + "payload.log.maxChars";
+	
 	/*
 	 * for topology view
 	 */
@@ -0,0 +1,18 @@
+/**
+ * ClientConfigListener.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.control;
+
+/**
+ * This interface designates the listener of configuration changes.
+ */
+public interface ClientConfigListener {
+
+	/**
+	 * Is called as call back after the configuration has been reloaded.
+	 * This is called in the thread which reloads the configuration, not in the JavaFX application thread.
+	 * @param clientConfig the reloaded configuration.
+	 */
+	public void configReloaded(ClientConfig clientConfig);
+}
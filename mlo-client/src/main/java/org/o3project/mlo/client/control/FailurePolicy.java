@@ -0,0 +1,38 @@
+/**
+ * FailurePolicy.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.control;
+
+/**
+ * This enumeration designates how multiple slice operations handle a failure of a slice.
+ */
+public enum FailurePolicy {
+	/**
+	 * Stops issuing new operations at the first failure, and reports it to the caller.
+	 */
+	FAIL_FAST,
+
+	/**
+	 * Continues the remaining operations, and reports all failures at the end.
+	 */
+	COLLECT;
+
+	/**
+	 * Obtains the policy from the CLI word, which is case-insensitive, such as "failfast" or "collect".
+	 * @param word the word.
+	 * @return the policy, or null if the word is not a policy.
+	 */
+	public static FailurePolicy fromWord(String word) {
+		if (word == null) {
+			return null;
+		}
+		String normalized = word.replace("_", "").replace("-", "");
+		for (FailurePolicy policy : values()) {
+			if (policy.name().replace("_", "").equalsIgnoreCase(normalized)) {
+				return policy;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,29 @@
+/**
+ * MloCallback.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.control;
+
+/**
+ * This interface designates callback which is notified of the completion of {@link MloFuture}.
+ * The callback is called on a thread of the "mlo-async-callback" executor, not on an I/O thread,
+ * or on the thread which adds it if the operation has already completed.
+ * A blocking callback delays the other callbacks on the executor, so long work should be handed off.
+ * @param <T> the result type.
+ */
+public interface MloCallback<T> {
+
+	/**
+	 * Called when the operation has succeeded.
+	 * @param result the result.
+	 */
+	void completed(T result);
+
+	/**
+	 * Called when the operation has failed.
+	 * If the operation has failed in accessing to mlo-srv or mlo-srv has returned an error response,
+	 * the cause is an instance of {@link MloClientException}.
+	 * @param cause the cause.
+	 */
+	void failed(Throwable cause);
+}
@@ -0,0 +1,23 @@
+/**
+ * MloFuture.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.control;
+
+import java.util.concurrent.Future;
+
+/**
+ * This interface designates the result of an asynchronous operation to mlo-srv.
+ * If the operation fails, {@link #get()} throws {@link java.util.concurrent.ExecutionException}
+ * whose cause is the exception which the synchronous API would have thrown.
+ * @param <T> the result type.
+ */
+public interface MloFuture<T> extends Future<T> {
+
+	/**
+	 * Adds a callback which is called when this future completes.
+	 * If this future has already completed, the callback is called immediately on the calling thread.
+	 * @param callback the callback.
+	 */
+	void addCallback(MloCallback<T> callback);
+}
@@ -54,4 +54,16 @@ public interface RequestorService {
 	 */
 	void requestDemoApl();
 
+	/**
+	 * Runs virtual users concurrently, each of which repeats the operation set of
+	 * {@link #requestMloClient()} or {@link #requestDemoApl()} with its own slice names.
+	 * Throughput, errors and latency are logged periodically,
+	 * and slices left by the virtual users are deleted at the end.
+	 * @param clientType the client type, "mloClient" or "demoApl". Nothing is done for other types.
+	 * @param users the number of virtual users.
+	 * @param durationSec the duration of the run, or zero if the run continues until interrupted.
+	 * @param thinkTimeMsec the think time between operations.
+	 */
+	void requestSoak(String clientType, int users, int durationSec, long thinkTimeMsec);
+
 }
@@ -0,0 +1,65 @@
+/**
+ * SliceBatchResult.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.control;
+
+import org.o3project.mlo.server.dto.SliceDto;
+
+/**
+ * This class is the result of an item of batch slice operations,
+ * such as {@link SliceDataManager#createSliceInfos(java.util.List, int)}.
+ * Either the response or the exception is set.
+ */
+public final class SliceBatchResult {
+
+	private final SliceDto request;
+
+	private final SliceDto response;
+
+	private final Exception exception;
+
+	/**
+	 * A constructor.
+	 * @param request the requested slice DTO.
+	 * @param response the received slice DTO, or null if failed.
+	 * @param exception the exception, or null if succeeded.
+	 */
+	public SliceBatchResult(SliceDto request, SliceDto response, Exception exception) {
+		this.request = request;
+		this.response = response;
+		this.exception = exception;
+	}
+
+	/**
+	 * Obtains the requested slice DTO.
+	 * @return the slice DTO.
+	 */
+	public SliceDto getRequest() {
+		return request;
+	}
+
+	/**
+	 * Obtains the received slice DTO.
+	 * @return the slice DTO, or null if failed.
+	 */
+	public SliceDto getResponse() {
+		return response;
+	}
+
+	/**
+	 * Obtains the exception.
+	 * @return the exception, or null if succeeded.
+	 */
+	public Exception getException() {
+		return exception;
+	}
+
+	/**
+	 * Checks whether the operation has succeeded.
+	 * @return true if succeeded.
+	 */
+	public boolean isSucceeded() {
+		return exception == null;
+	}
+}
@@ -20,6 +20,14 @@ public interface SliceDataManager {
 	 */
 	List<SliceDto> getSliceList() throws MloClientException;
 	
+	/**
+	 * Obtains slice list, and passes each slice to the handler as soon as it is received.
+	 * Unlike {@link #getSliceList()}, the whole list is not held in memory.
+	 * @param handler the handler.
+	 * @throws MloClientException Failed to process, or the handler has failed.
+	 */
+	void forEachSlice(SliceHandler handler) throws MloClientException;
+	
 	/**
 	 * Obtains a slice.
 	 * @param the requested slice DTO.
@@ -52,4 +60,34 @@ public interface SliceDataManager {
 	 */
 	SliceDto deleteSliceInfo(SliceDto slice) throws MloClientException;
 	
+	/**
+	 * Creates slices with bounded parallelism.
+	 * A failure of a slice does not abort others, and is set to the result of the slice.
+	 * @param slices the requested slice DTOs.
+	 * @param parallelism the maximum number of concurrent requests.
+	 * @return the results in the order of the requested slices.
+	 * @throws InterruptedException Interrupted in waiting for the results.
+	 */
+	List<SliceBatchResult> createSliceInfos(List<SliceDto> slices, int parallelism) throws InterruptedException;
+	
+	/**
+	 * Updates slices with bounded parallelism.
+	 * A failure of a slice does not abort others, and is set to the result of the slice.
+	 * @param slices the requested slice DTOs.
+	 * @param parallelism the maximum number of concurrent requests.
+	 * @return the results in the order of the requested slices.
+	 * @throws InterruptedException Interrupted in waiting for the results.
+	 */
+	List<SliceBatchResult> updateSliceInfos(List<SliceDto> slices, int parallelism) throws InterruptedException;
+	
+	/**
+	 * Deletes slices with bounded parallelism.
+	 * A failure of a slice does not abort others, and is set to the result of the slice.
+	 * @param slices the requested slice DTOs.
+	 * @param parallelism the maximum number of concurrent requests.
+	 * @return the results in the order of the requested slices.
+	 * @throws InterruptedException Interrupted in waiting for the results.
+	 */
+	List<SliceBatchResult> deleteSliceInfos(List<SliceDto> slices, int parallelism) throws InterruptedException;
+	
 }
@@ -0,0 +1,28 @@
+/**
+ * SliceHandler.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.control;
+
+import org.o3project.mlo.server.dto.SliceDto;
+
+/**
+ * This interface designates handler of slices, which are received one by one
+ * by {@link SliceDataManager#forEachSlice(SliceHandler)}.
+ * <p>
+ * The handler is called in the thread which receives the slice list,
+ * while the HTTP connection of the list and, with the pooled invoker, its connection pool permit are held.
+ * Therefore a handler which blocks suspends receiving the list, and a handler which waits for other requests
+ * to the same host needs the pool to allow more connections per host than those requests.
+ * </p>
+ */
+public interface SliceHandler {
+
+	/**
+	 * Handles a slice.
+	 * If this method throws an exception, receiving slices is aborted.
+	 * @param slice the slice DTO.
+	 * @throws MloClientException Failed to handle the slice.
+	 */
+	void handleSlice(SliceDto slice) throws MloClientException;
+}
@@ -23,15 +23,47 @@ public interface SliceMultiRequest {
 	 * Updates all slices.
 	 * @param sliceDataManager the slice data manager.
 	 * @param bandWidth the band width.
-	 * @param latency the delay time.
+	 * @param latency the delay time, or null for a random one.
 	 * @throws InterruptedException Interrupted.
 	 */
 	void doUpdateAllSlices(SliceDataManager sliceDataManager, Integer bandWidth, Integer latency) throws InterruptedException;
-	
+
+	/**
+	 * Updates all slices.
+	 * Reading and updating each slice are pipelined, and a failure of a slice is handled as specified by the policy.
+	 * Every flow of a slice is requested, because READ response has no requested parameters to be compared.
+	 * @param sliceDataManager the slice data manager.
+	 * @param bandWidth the band width.
+	 * @param latency the delay time, or null for a random one.
+	 * @param failurePolicy the policy for a failure in reading a slice.
+	 * @throws InterruptedException Interrupted.
+	 */
+	void doUpdateAllSlices(SliceDataManager sliceDataManager, Integer bandWidth, Integer latency, FailurePolicy failurePolicy) throws InterruptedException;
+
 	/**
 	 * Deletes all slices.
 	 * @param sliceDataManager the slice data manager.
 	 * @throws InterruptedException Interrupted.
 	 */
 	void doDeleteAllSlices(SliceDataManager sliceDataManager) throws InterruptedException;
+	
+	/**
+	 * Issues slice operations at a constant rate (open-loop load).
+	 * Latencies are measured from the intended send times.
+	 * @param sliceDataManager the slice data manager.
+	 * @param operation the operation, "create", "read" or "list".
+	 * @param ratePerSec the target rate in requests per second.
+	 * @param durationSec the duration, which includes the ramp-up time.
+	 * @param rampUpSec the time in which the rate increases to the target rate.
+	 * @throws InterruptedException Interrupted.
+	 */
+	void doRateRequests(SliceDataManager sliceDataManager, String operation, Integer ratePerSec, Integer durationSec, Integer rampUpSec) throws InterruptedException;
+	
+	/**
+	 * Executes a workload scenario described in a file.
+	 * @param sliceDataManager the slice data manager.
+	 * @param scenarioFile the scenario file path.
+	 * @throws InterruptedException Interrupted.
+	 */
+	void doScenario(SliceDataManager sliceDataManager, String scenarioFile) throws InterruptedException;
 }
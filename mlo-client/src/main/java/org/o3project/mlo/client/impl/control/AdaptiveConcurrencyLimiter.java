@@ -0,0 +1,246 @@
+/**
+ * AdaptiveConcurrencyLimiter.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * This class limits the number of requests in flight, and adapts the limit by AIMD
+ * (additive increase, multiplicative decrease).
+ * <p>
+ * The limit is increased by one per limit of succeeded requests, that is, about one per round trip.
+ * The limit is decreased by a ratio when a request fails, or when the smoothed latency exceeds
+ * the baseline latency by the tolerance, where the baseline is the minimum latency in the recent requests.
+ * Signals from requests started before the last decrease are ignored, so that a congestion
+ * decreases the limit once.
+ * If the minimum limit equals the maximum limit, the limit is fixed like a semaphore.
+ * </p>
+ * <p>
+ * Each change of the integral limit is recorded with the elapsed time, so that the sustainable
+ * parallelism of mlo-srv can be reported.
+ * </p>
+ * This class is thread-safe.
+ */
+final class AdaptiveConcurrencyLimiter {
+	private static final Log LOG = LogFactory.getLog(AdaptiveConcurrencyLimiter.class);
+
+	private static final double DECREASE_RATIO = 0.9d;
+
+	private static final double LATENCY_SMOOTHING = 0.2d;
+
+	private static final int BASELINE_PERIOD_SAMPLES = 500;
+
+	private static final int MAX_HISTORY_SIZE = 1000;
+
+	private static final int PERCENT = 100;
+
+	/**
+	 * A change of the limit.
+	 */
+	static final class LimitSample {
+		private final long elapsedMsec;
+		private final int limit;
+
+		LimitSample(long elapsedMsec, int limit) {
+			this.elapsedMsec = elapsedMsec;
+			this.limit = limit;
+		}
+
+		/**
+		 * Obtains the elapsed time since the limiter is created.
+		 * @return the elapsed time in milliseconds.
+		 */
+		long getElapsedMsec() {
+			return elapsedMsec;
+		}
+
+		/**
+		 * Obtains the limit.
+		 * @return the limit.
+		 */
+		int getLimit() {
+			return limit;
+		}
+	}
+
+	private final int minLimit;
+
+	private final int maxLimit;
+
+	private final double latencyTolerance;
+
+	private final long createdNanos = System.nanoTime();
+
+	private double limit;
+
+	private int inFlight = 0;
+
+	private long lastDecreaseNanos;
+
+	private double smoothedLatencyNanos = -1d;
+
+	private long baselineLatencyNanos = Long.MAX_VALUE;
+
+	private long periodMinLatencyNanos = Long.MAX_VALUE;
+
+	private int periodSamples = 0;
+
+	private int maxObservedLimit;
+
+	private final List<LimitSample> history = new ArrayList<LimitSample>();
+
+	/**
+	 * A constructor.
+	 * @param initialLimit the initial limit.
+	 * @param minLimit the minimum limit.
+	 * @param maxLimit the maximum limit.
+	 * @param latencyTolerancePercent the latency which decreases the limit, in percent of the baseline latency.
+	 */
+	AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int latencyTolerancePercent) {
+		if (minLimit <= 0 || maxLimit < minLimit) {
+			throw new IllegalArgumentException("Illegal limits: min=" + minLimit + ", max=" + maxLimit);
+		}
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.latencyTolerance = (double) latencyTolerancePercent / PERCENT;
+		this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+		this.lastDecreaseNanos = createdNanos;
+		this.maxObservedLimit = (int) limit;
+		history.add(new LimitSample(0L, (int) limit));
+	}
+
+	/**
+	 * Creates a limiter whose limit is fixed.
+	 * @param limit the limit.
+	 * @return the limiter.
+	 */
+	static AdaptiveConcurrencyLimiter createFixed(int limit) {
+		return new AdaptiveConcurrencyLimiter(limit, limit, limit, PERCENT);
+	}
+
+	/**
+	 * Waits until the number of requests in flight is less than the limit, and then acquires a permit.
+	 * @return the token, which must be passed to {@link #release(long, boolean)}.
+	 * @throws InterruptedException Interrupted in waiting.
+	 */
+	synchronized long acquire() throws InterruptedException {
+		while (inFlight >= (int) limit) {
+			wait();
+		}
+		inFlight += 1;
+		return System.nanoTime();
+	}
+
+	/**
+	 * Releases the permit, and adapts the limit by the result of the request.
+	 * @param token the token returned by {@link #acquire()}.
+	 * @param isFailed true if the request has failed.
+	 */
+	synchronized void release(long token, boolean isFailed) {
+		inFlight -= 1;
+		notifyAll();
+		if (minLimit == maxLimit) {
+			return;
+		}
+
+		long nowNanos = System.nanoTime();
+		long latencyNanos = nowNanos - token;
+		boolean isCongested = isFailed || updateLatency(latencyNanos);
+		int prevLimit = (int) limit;
+		if (isCongested) {
+			if (token - lastDecreaseNanos < 0L) {
+				// Started before the last decrease.
+				return;
+			}
+			limit = Math.max(minLimit, limit * DECREASE_RATIO);
+			lastDecreaseNanos = nowNanos;
+		} else {
+			limit = Math.min(maxLimit, limit + 1d / limit);
+		}
+		if ((int) limit != prevLimit) {
+			recordLimit(nowNanos);
+		}
+	}
+
+	/**
+	 * Obtains the current limit.
+	 * @return the limit.
+	 */
+	synchronized int getLimit() {
+		return (int) limit;
+	}
+
+	/**
+	 * Obtains the maximum limit reached.
+	 * @return the limit.
+	 */
+	synchronized int getMaxObservedLimit() {
+		return maxObservedLimit;
+	}
+
+	/**
+	 * Obtains the maximum limit, which is also the number of threads needed.
+	 * @return the limit.
+	 */
+	int getMaxLimit() {
+		return maxLimit;
+	}
+
+	/**
+	 * Obtains changes of the limit.
+	 * @return the changes in time order.
+	 */
+	synchronized List<LimitSample> getLimitHistory() {
+		return new ArrayList<LimitSample>(history);
+	}
+
+	/**
+	 * Obtains the summary of the limit to be logged.
+	 * @return the summary.
+	 */
+	synchronized String getSummary() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("Concurrency limit: last=%d, max=%d, history[msec:limit]=", (int) limit, maxObservedLimit));
+		for (int idx = 0; idx < history.size(); idx += 1) {
+			LimitSample sample = history.get(idx);
+			sb.append((idx == 0) ? "" : ", ").append(sample.elapsedMsec).append(':').append(sample.limit);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Updates the smoothed latency and the baseline latency.
+	 * @param latencyNanos the latency.
+	 * @return true if the smoothed latency exceeds the tolerance.
+	 */
+	private boolean updateLatency(long latencyNanos) {
+		smoothedLatencyNanos = (smoothedLatencyNanos < 0d) ? latencyNanos
+				: smoothedLatencyNanos + LATENCY_SMOOTHING * (latencyNanos - smoothedLatencyNanos);
+		periodMinLatencyNanos = Math.min(periodMinLatencyNanos, latencyNanos);
+		baselineLatencyNanos = Math.min(baselineLatencyNanos, latencyNanos);
+		periodSamples += 1;
+		if (periodSamples >= BASELINE_PERIOD_SAMPLES) {
+			// Follows the change of the network and mlo-srv.
+			baselineLatencyNanos = periodMinLatencyNanos;
+			periodMinLatencyNanos = Long.MAX_VALUE;
+			periodSamples = 0;
+		}
+		return smoothedLatencyNanos > baselineLatencyNanos * latencyTolerance;
+	}
+
+	private void recordLimit(long nowNanos) {
+		int newLimit = (int) limit;
+		maxObservedLimit = Math.max(maxObservedLimit, newLimit);
+		if (history.size() < MAX_HISTORY_SIZE) {
+			history.add(new LimitSample(TimeUnit.NANOSECONDS.toMillis(nowNanos - createdNanos), newLimit));
+		}
+		LOG.debug("Concurrency limit: " + newLimit);
+	}
+}
@@ -0,0 +1,158 @@
+/**
+ * AsyncMloInvokerImpl.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.o3project.mlo.client.control.AsyncMloInvoker;
+import org.o3project.mlo.client.control.ClientConfig;
+import org.o3project.mlo.client.control.MloAccessException;
+import org.o3project.mlo.client.control.MloCallback;
+import org.o3project.mlo.client.control.MloFuture;
+import org.o3project.mlo.client.control.MloMethod;
+import org.seasar.framework.container.annotation.tiger.Binding;
+import org.seasar.framework.container.annotation.tiger.DestroyMethod;
+import org.seasar.framework.container.annotation.tiger.InitMethod;
+
+import org.o3project.mlo.server.dto.RestifRequestDto;
+import org.o3project.mlo.server.dto.RestifResponseDto;
+
+/**
+ * This class is the implementation class of {@link AsyncMloInvoker} interface.
+ * Requests are processed by {@link MloAsyncHttpClient}, so the number of requests in flight
+ * is not limited by the number of threads.
+ */
+public class AsyncMloInvokerImpl implements AsyncMloInvoker {
+	private static final Log LOG = LogFactory.getLog(AsyncMloInvokerImpl.class);
+
+	private static final int ONE_SECOND = 1000;
+
+	private static final int SC_400_BAD_REQUEST = 400;
+
+	private static final int REQ_BUFFER_SIZE = 2048;
+
+	private static final String SCHEME_HTTP = "http";
+
+	@Binding
+	private ClientConfig clientConfig;
+
+	private MloAsyncHttpClient httpClient;
+
+	/**
+	 * Setter method (for DI setter injection).
+	 * @param clientConfig the instance.
+	 */
+	public void setClientConfig(ClientConfig clientConfig) {
+		this.clientConfig = clientConfig;
+	}
+
+	/**
+	 * Initializes this component.
+	 * I/O threads are started.
+	 * @throws IOException Failed to start I/O threads.
+	 */
+	@InitMethod
+	public void init() throws IOException {
+		int ioThreads = clientConfig.getAsyncIoThreads();
+		httpClient = new MloAsyncHttpClient(ioThreads);
+		LOG.info("Asynchronous invoker started: ioThreads=" + ioThreads);
+		String baseUri = clientConfig.getServerBaseUri();
+		if (baseUri != null && !baseUri.toLowerCase().startsWith(SCHEME_HTTP + ":")) {
+			LOG.warn("The asynchronous invoker supports only http, and fails for " + baseUri);
+		}
+	}
+
+	/**
+	 * Destroys this component.
+	 * I/O threads are stopped, and requests in flight are aborted.
+	 */
+	@DestroyMethod
+	public void destroy() {
+		if (httpClient != null) {
+			httpClient.shutdown();
+		}
+	}
+
+	/**
+	 * Obtains the number of requests in flight.
+	 * @return the number.
+	 */
+	public int getInFlightCount() {
+		return httpClient.getInFlightCount();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.AsyncMloInvoker#invokeAsync(org.o3project.mlo.client.control.MloMethod, org.o3project.mlo.server.dto.RestifRequestDto, java.lang.String, java.util.Map)
+	 */
+	@Override
+	public MloFuture<RestifResponseDto> invokeAsync(final MloMethod method,
+			RestifRequestDto reqDto, String path, Map<String, String> params) {
+		final MloSettableFuture<RestifResponseDto> future = new MloSettableFuture<RestifResponseDto>();
+		URL url = null;
+		byte[] body = null;
+		try {
+			url = new URL(method.constructUrl(path, params));
+			if (!SCHEME_HTTP.equalsIgnoreCase(url.getProtocol())) {
+				future.setException(new MloAccessException("The asynchronous invoker supports only http, "
+						+ "so that " + url.getProtocol() + " cannot be used: " + url
+						+ ". Use the synchronous SliceDataManager for this base URI."));
+				return future;
+			}
+			if (method.isSetDoOutput()) {
+				ByteArrayOutputStream ostream = new ByteArrayOutputStream(REQ_BUFFER_SIZE);
+				method.handleReqOutput(reqDto, ostream);
+				body = ostream.toByteArray();
+			}
+		} catch (IOException e) {
+			future.setException(new MloAccessException("MLO-SERVER cannot be connected:" + e.getMessage(), e));
+			return future;
+		}
+		LOG.info("Invoking asynchronously to ... " + url);
+
+		final MloAsyncHttpClient.Exchange exchange = httpClient.execute(method.getName(), url, body,
+				toMsec(method.getConnectionTimeoutSec()), toMsec(method.getReadTimeoutSec()),
+				new MloCallback<MloAsyncHttpClient.Response>() {
+			@Override
+			public void completed(MloAsyncHttpClient.Response response) {
+				int statusCode = response.getStatusCode();
+				LOG.info("statusCode = " + statusCode);
+				if (statusCode >= SC_400_BAD_REQUEST) {
+					future.setException(new MloAccessException("MloServerAccessError/" + statusCode));
+					return;
+				}
+				try {
+					future.set(method.handleResInput(new ByteArrayInputStream(response.getBody())));
+				} catch (RuntimeException e) {
+					future.setException(e);
+				}
+			}
+
+			@Override
+			public void failed(Throwable cause) {
+				LOG.debug("Exception occurs.", cause);
+				future.setException(new MloAccessException("MLO-SERVER cannot be connected:" + cause.getMessage(), cause));
+			}
+		});
+		// Cancelling the future closes the connection.
+		future.setCancelHandler(new Runnable() {
+			@Override
+			public void run() {
+				exchange.abort();
+			}
+		});
+		return future;
+	}
+
+	private static int toMsec(Integer sec) {
+		return (sec == null) ? 0 : sec * ONE_SECOND;
+	}
+}
@@ -0,0 +1,232 @@
+/**
+ * AsyncSliceDataManagerImpl.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.o3project.mlo.client.control.AsyncMloInvoker;
+import org.o3project.mlo.client.control.AsyncSliceDataManager;
+import org.o3project.mlo.client.control.ClientConfig;
+import org.o3project.mlo.client.control.ClientConfigListener;
+import org.o3project.mlo.client.control.MloCallback;
+import org.o3project.mlo.client.control.MloFuture;
+import org.o3project.mlo.client.control.MloInvoker;
+import org.o3project.mlo.client.control.MloMethod;
+import org.o3project.mlo.client.control.MloNbiException;
+import org.seasar.framework.container.annotation.tiger.Binding;
+import org.seasar.framework.container.annotation.tiger.BindingType;
+import org.seasar.framework.container.annotation.tiger.InitMethod;
+
+import org.o3project.mlo.server.dto.RestifRequestDto;
+import org.o3project.mlo.server.dto.RestifResponseDto;
+import org.o3project.mlo.server.dto.SliceDto;
+
+/**
+ * This class is the implementation class of {@link AsyncSliceDataManager} interface.
+ * Requests and error handling are the same as {@link SliceDataManagerImpl}.
+ * The invoker and the component name are selected again when the configuration is reloaded.
+ */
+public class AsyncSliceDataManagerImpl implements AsyncSliceDataManager, ClientConfigListener {
+
+	private static final Log LOG = LogFactory.getLog(AsyncSliceDataManagerImpl.class);
+
+	private volatile String srcComponentName;
+
+	@Binding
+	private AsyncMloInvoker asyncInvoker;
+
+	@Binding
+	private MloInvoker dummyInvoker;
+
+	@Binding(bindingType=BindingType.NONE)
+	private volatile AsyncMloInvoker asyncMloInvoker;
+
+	@Binding
+	private MloMethod mloGetMethod;
+
+	@Binding
+	private MloMethod mloPostMethod;
+
+	@Binding
+	private ClientConfig clientConfig;
+
+	/**
+	 * Setter method (for DI setter injection).
+	 * @param asyncMloInvoker the instance.
+	 */
+	public void setAsyncMloInvoker(AsyncMloInvoker asyncMloInvoker) {
+		this.asyncMloInvoker = asyncMloInvoker;
+	}
+
+	/**
+	 * Setter method (for DI setter injection).
+	 * @param mloGetMethod the instance.
+	 */
+	public void setMloGetMethod(MloMethod mloGetMethod) {
+		this.mloGetMethod = mloGetMethod;
+	}
+
+	/**
+	 * Setter method (for DI setter injection).
+	 * @param mloPostMethod the instance.
+	 */
+	public void setMloPostMethod(MloMethod mloPostMethod) {
+		this.mloPostMethod = mloPostMethod;
+	}
+
+	/**
+	 * Setter method (for DI setter injection).
+	 * @param clientConfig the ClientConfig to set
+	 */
+	public void setClientConfig(ClientConfig clientConfig) {
+		this.clientConfig = clientConfig;
+	}
+
+	/**
+	 * Initializes this component.
+	 */
+	@InitMethod
+	public void init() {
+		selectInvoker();
+		clientConfig.addClientConfigListener(this);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfigListener#configReloaded(org.o3project.mlo.client.control.ClientConfig)
+	 */
+	@Override
+	public void configReloaded(ClientConfig clientConfig) {
+		selectInvoker();
+	}
+
+	/**
+	 * Selects the invoker and the component name by the configuration.
+	 */
+	private void selectInvoker() {
+		if (clientConfig.getDummyInvokerSetFlag()) {
+			asyncMloInvoker = new MloInvokerAsyncAdapter(dummyInvoker);
+			LOG.info("dummyInvoker set");
+		} else {
+			asyncMloInvoker = asyncInvoker;
+			LOG.info("asyncInvoker set");
+		}
+		srcComponentName = clientConfig.getSrcComponentName();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.AsyncSliceDataManager#getSliceListAsync()
+	 */
+	@Override
+	public MloFuture<List<SliceDto>> getSliceListAsync() {
+		Map<String, String> params = new HashMap<String, String>();
+		params.put("owner", srcComponentName);
+		MloFuture<RestifResponseDto> resFuture = asyncMloInvoker.invokeAsync(mloGetMethod, null, SliceDataManagerImpl.PATH_LIST_SLICE, params);
+		return transform(resFuture, "getSliceList", new ResultExtractor<List<SliceDto>>() {
+			@Override
+			public List<SliceDto> extract(RestifResponseDto resDto) {
+				return resDto.slices;
+			}
+		});
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.AsyncSliceDataManager#getSliceInfoAsync(org.o3project.mlo.server.dto.SliceDto)
+	 */
+	@Override
+	public MloFuture<SliceDto> getSliceInfoAsync(SliceDto slice) {
+		return invokeSliceOperation(slice, SliceDataManagerImpl.PATH_READ_SLICE, "getSliceInfo");
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.AsyncSliceDataManager#createSliceInfoAsync(org.o3project.mlo.server.dto.SliceDto)
+	 */
+	@Override
+	public MloFuture<SliceDto> createSliceInfoAsync(SliceDto slice) {
+		return invokeSliceOperation(slice, SliceDataManagerImpl.PATH_CREATE_SLICE, "createSliceInfo");
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.AsyncSliceDataManager#updateSliceInfoAsync(org.o3project.mlo.server.dto.SliceDto)
+	 */
+	@Override
+	public MloFuture<SliceDto> updateSliceInfoAsync(SliceDto slice) {
+		return invokeSliceOperation(slice, SliceDataManagerImpl.PATH_UPDATE_SLICE, "updateSliceInfo");
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.AsyncSliceDataManager#deleteSliceInfoAsync(org.o3project.mlo.server.dto.SliceDto)
+	 */
+	@Override
+	public MloFuture<SliceDto> deleteSliceInfoAsync(SliceDto slice) {
+		return invokeSliceOperation(slice, SliceDataManagerImpl.PATH_DELETE_SLICE, "deleteSliceInfo");
+	}
+
+	private MloFuture<SliceDto> invokeSliceOperation(SliceDto slice, String path, String operationName) {
+		LOG.debug("##########  SliceId=" + slice.id + ", SliceName=" + slice.name);
+		RestifRequestDto reqDto = SliceDataManagerImpl.createRequestDto(srcComponentName, slice);
+		MloFuture<RestifResponseDto> resFuture = asyncMloInvoker.invokeAsync(mloPostMethod, reqDto, path, null);
+		return transform(resFuture, operationName, new ResultExtractor<SliceDto>() {
+			@Override
+			public SliceDto extract(RestifResponseDto resDto) {
+				return resDto.slices.get(0);
+			}
+		});
+	}
+
+	/**
+	 * Creates a future which completes with the result extracted from the response.
+	 * An error response is mapped to {@link MloNbiException}.
+	 * Cancelling the returned future cancels the request.
+	 * @param resFuture the future of the response.
+	 * @param operationName the operation name used in the error message.
+	 * @param extractor the extractor.
+	 * @return the future of the result.
+	 */
+	private static <T> MloFuture<T> transform(final MloFuture<RestifResponseDto> resFuture,
+			final String operationName, final ResultExtractor<T> extractor) {
+		final MloSettableFuture<T> future = new MloSettableFuture<T>();
+		future.setCancelHandler(new Runnable() {
+			@Override
+			public void run() {
+				resFuture.cancel(true);
+			}
+		});
+		resFuture.addCallback(new MloCallback<RestifResponseDto>() {
+			@Override
+			public void completed(RestifResponseDto resDto) {
+				try {
+					future.set(extractor.extract(SliceDataManagerImpl.checkResponse(resDto, operationName)));
+				} catch (MloNbiException e) {
+					future.setException(e);
+				} catch (RuntimeException e) {
+					future.setException(e);
+				}
+			}
+
+			@Override
+			public void failed(Throwable cause) {
+				future.setException(cause);
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * This interface designates how to extract the result from the response.
+	 * @param <T> the result type.
+	 */
+	private interface ResultExtractor<T> {
+		/**
+		 * Extracts the result.
+		 * @param resDto the response DTO.
+		 * @return the result.
+		 */
+		T extract(RestifResponseDto resDto);
+	}
+}
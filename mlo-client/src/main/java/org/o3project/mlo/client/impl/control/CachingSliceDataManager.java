@@ -0,0 +1,387 @@
+/**
+ * CachingSliceDataManager.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.o3project.mlo.client.control.ClientConfig;
+import org.o3project.mlo.client.control.ClientConfigListener;
+import org.o3project.mlo.client.control.MloClientException;
+import org.o3project.mlo.client.control.SliceBatchResult;
+import org.o3project.mlo.client.control.SliceDataManager;
+import org.o3project.mlo.client.control.SliceHandler;
+import org.seasar.framework.container.annotation.tiger.Binding;
+import org.seasar.framework.container.annotation.tiger.InitMethod;
+
+import org.o3project.mlo.server.dto.SliceDto;
+
+/**
+ * This class is the decorator of {@link SliceDataManager}, which caches slices.
+ * <p>
+ * Slice details obtained by {@link #getSliceInfo(SliceDto)} are kept in a LRU cache with a bounded number of entries,
+ * and the slice list obtained by {@link #getSliceList()} is kept as an entry.
+ * Each entry expires after the TTL.
+ * CREATE and DELETE results are written through to the cached list.
+ * Responses of CREATE and UPDATE have only names and ids, so that details of updated slices are invalidated.
+ * When a request fails, the slice and the list are invalidated, because the state of mlo-srv is unknown.
+ * </p>
+ * <p>
+ * Cached slices are copied in both storing and returning, so that callers can modify them.
+ * {@link #forEachSlice(SliceHandler)} is not cached, because it is used to scan all slices.
+ * </p>
+ * This class is thread-safe.
+ */
+public class CachingSliceDataManager implements SliceDataManager, ClientConfigListener {
+	private static final Log LOG = LogFactory.getLog(CachingSliceDataManager.class);
+
+	private static final int DEFAULT_MAX_ENTRIES = 1000;
+
+	private static final int DEFAULT_TTL_SEC = 10;
+
+	/**
+	 * A cached value with the expiration time.
+	 */
+	private static final class Entry<T> {
+		private final T value;
+		private final long expireNanos;
+
+		Entry(T value, long expireNanos) {
+			this.value = value;
+			this.expireNanos = expireNanos;
+		}
+
+		boolean isExpired(long nowNanos) {
+			return nowNanos - expireNanos >= 0L;
+		}
+	}
+
+	@Binding
+	private SliceDataManager sliceDataManager;
+
+	@Binding
+	private ClientConfig clientConfig;
+
+	private final Object oMutex = new Object();
+
+	private final LinkedHashMap<Integer, Entry<SliceDto>> slices = new LinkedHashMap<Integer, Entry<SliceDto>>(16, 0.75f, true);
+
+	private Entry<List<SliceDto>> sliceList = null;
+
+	/**
+	 * Incremented whenever cached slices are changed by writes,
+	 * so that responses of reads overlapping with the writes are not cached.
+	 */
+	private long generation = 0L;
+
+	private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+	private long ttlNanos = TimeUnit.SECONDS.toNanos(DEFAULT_TTL_SEC);
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	/**
+	 * Setter method (for DI setter injection).
+	 * @param sliceDataManager the decorated instance.
+	 */
+	public void setSliceDataManager(SliceDataManager sliceDataManager) {
+		this.sliceDataManager = sliceDataManager;
+	}
+
+	/**
+	 * Setter method (for DI setter injection).
+	 * @param clientConfig the instance.
+	 */
+	public void setClientConfig(ClientConfig clientConfig) {
+		this.clientConfig = clientConfig;
+	}
+
+	/**
+	 * Initializes this component.
+	 */
+	@InitMethod
+	public void init() {
+		configReloaded(clientConfig);
+		clientConfig.addClientConfigListener(this);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfigListener#configReloaded(org.o3project.mlo.client.control.ClientConfig)
+	 */
+	@Override
+	public void configReloaded(ClientConfig clientConfig) {
+		Integer configMaxEntries = clientConfig.getSliceCacheMaxEntries();
+		Integer configTtlSec = clientConfig.getSliceCacheTtlSec();
+		setCacheParameters((configMaxEntries == null) ? DEFAULT_MAX_ENTRIES : configMaxEntries,
+				TimeUnit.SECONDS.toMillis((configTtlSec == null) ? DEFAULT_TTL_SEC : configTtlSec));
+	}
+
+	/**
+	 * Sets the cache parameters, and discards all cached slices.
+	 * @param maxEntries the maximum number of cached slice details.
+	 * @param ttlMsec the TTL in milliseconds.
+	 */
+	public void setCacheParameters(int maxEntries, long ttlMsec) {
+		synchronized (oMutex) {
+			this.maxEntries = Math.max(0, maxEntries);
+			this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, ttlMsec));
+			slices.clear();
+			sliceList = null;
+			generation += 1;
+		}
+		LOG.info("Slice cache: maxEntries=" + maxEntries + ", ttlMsec=" + ttlMsec);
+	}
+
+	/**
+	 * Discards all cached slices.
+	 */
+	public void invalidateAll() {
+		synchronized (oMutex) {
+			slices.clear();
+			sliceList = null;
+			generation += 1;
+		}
+	}
+
+	/**
+	 * Obtains the number of requests responded from the cache.
+	 * @return the count.
+	 */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * Obtains the number of requests sent to the decorated instance.
+	 * @return the count.
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * Obtains the number of slices evicted by the LRU bound or expired by the TTL.
+	 * @return the count.
+	 */
+	public long getEvictionCount() {
+		return evictionCount.get();
+	}
+
+	/**
+	 * Obtains the number of cached slice details.
+	 * @return the count.
+	 */
+	public int getCachedSliceCount() {
+		synchronized (oMutex) {
+			return slices.size();
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#getSliceList()
+	 */
+	@Override
+	public List<SliceDto> getSliceList() throws MloClientException {
+		long readGeneration;
+		synchronized (oMutex) {
+			if (sliceList != null) {
+				if (!sliceList.isExpired(System.nanoTime())) {
+					hitCount.incrementAndGet();
+					return SliceDtoUtil.copySlices(sliceList.value);
+				}
+				sliceList = null;
+				evictionCount.incrementAndGet();
+			}
+			readGeneration = generation;
+		}
+		missCount.incrementAndGet();
+		List<SliceDto> resSlices;
+		try {
+			resSlices = sliceDataManager.getSliceList();
+		} catch (MloClientException e) {
+			invalidateAll();
+			throw e;
+		}
+		// An empty list is unmarshalled as null, and is cached as an empty list, to which created slices are added.
+		List<SliceDto> cachedSlices = (resSlices == null) ? new ArrayList<SliceDto>() : SliceDtoUtil.copySlices(resSlices);
+		synchronized (oMutex) {
+			if (readGeneration == generation) {
+				sliceList = new Entry<List<SliceDto>>(cachedSlices, System.nanoTime() + ttlNanos);
+			}
+		}
+		return resSlices;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#forEachSlice(org.o3project.mlo.client.control.SliceHandler)
+	 */
+	@Override
+	public void forEachSlice(SliceHandler handler) throws MloClientException {
+		sliceDataManager.forEachSlice(handler);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#getSliceInfo(org.o3project.mlo.server.dto.SliceDto)
+	 */
+	@Override
+	public SliceDto getSliceInfo(SliceDto slice) throws MloClientException {
+		Integer sliceId = slice.id;
+		long readGeneration;
+		synchronized (oMutex) {
+			Entry<SliceDto> entry = (sliceId == null) ? null : slices.get(sliceId);
+			if (entry != null) {
+				if (!entry.isExpired(System.nanoTime())) {
+					hitCount.incrementAndGet();
+					return SliceDtoUtil.copySlice(entry.value);
+				}
+				slices.remove(sliceId);
+				evictionCount.incrementAndGet();
+			}
+			readGeneration = generation;
+		}
+		missCount.incrementAndGet();
+		SliceDto resSlice;
+		try {
+			resSlice = sliceDataManager.getSliceInfo(slice);
+		} catch (MloClientException e) {
+			invalidate(sliceId, true);
+			throw e;
+		}
+		if (resSlice != null && resSlice.id != null) {
+			putSlice(resSlice, readGeneration);
+		}
+		return resSlice;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#createSliceInfo(org.o3project.mlo.server.dto.SliceDto)
+	 */
+	@Override
+	public SliceDto createSliceInfo(SliceDto slice) throws MloClientException {
+		SliceDto resSlice;
+		try {
+			resSlice = sliceDataManager.createSliceInfo(slice);
+		} catch (MloClientException e) {
+			invalidate(null, true);
+			throw e;
+		}
+		synchronized (oMutex) {
+			generation += 1;
+			if (sliceList != null && resSlice != null && resSlice.id != null) {
+				SliceDto listedSlice = new SliceDto();
+				listedSlice.id = resSlice.id;
+				listedSlice.name = resSlice.name;
+				sliceList.value.add(listedSlice);
+			}
+		}
+		return resSlice;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#updateSliceInfo(org.o3project.mlo.server.dto.SliceDto)
+	 */
+	@Override
+	public SliceDto updateSliceInfo(SliceDto slice) throws MloClientException {
+		try {
+			SliceDto resSlice = sliceDataManager.updateSliceInfo(slice);
+			invalidate(slice.id, false);
+			return resSlice;
+		} catch (MloClientException e) {
+			invalidate(slice.id, true);
+			throw e;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#deleteSliceInfo(org.o3project.mlo.server.dto.SliceDto)
+	 */
+	@Override
+	public SliceDto deleteSliceInfo(SliceDto slice) throws MloClientException {
+		SliceDto resSlice;
+		try {
+			resSlice = sliceDataManager.deleteSliceInfo(slice);
+		} catch (MloClientException e) {
+			invalidate(slice.id, true);
+			throw e;
+		}
+		synchronized (oMutex) {
+			generation += 1;
+			slices.remove(slice.id);
+			if (sliceList != null) {
+				Iterator<SliceDto> it = sliceList.value.iterator();
+				while (it.hasNext()) {
+					SliceDto listedSlice = it.next();
+					if (listedSlice.id != null && listedSlice.id.equals(slice.id)) {
+						it.remove();
+					}
+				}
+			}
+		}
+		return resSlice;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#createSliceInfos(java.util.List, int)
+	 */
+	@Override
+	public List<SliceBatchResult> createSliceInfos(List<SliceDto> slices, int parallelism) throws InterruptedException {
+		return SliceBatchExecutor.execute(this, SliceBatchExecutor.CREATE, slices, parallelism);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#updateSliceInfos(java.util.List, int)
+	 */
+	@Override
+	public List<SliceBatchResult> updateSliceInfos(List<SliceDto> slices, int parallelism) throws InterruptedException {
+		return SliceBatchExecutor.execute(this, SliceBatchExecutor.UPDATE, slices, parallelism);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#deleteSliceInfos(java.util.List, int)
+	 */
+	@Override
+	public List<SliceBatchResult> deleteSliceInfos(List<SliceDto> slices, int parallelism) throws InterruptedException {
+		return SliceBatchExecutor.execute(this, SliceBatchExecutor.DELETE, slices, parallelism);
+	}
+
+	private void putSlice(SliceDto resSlice, long readGeneration) {
+		SliceDto cachedSlice = SliceDtoUtil.copySlice(resSlice);
+		synchronized (oMutex) {
+			if (maxEntries == 0 || readGeneration != generation) {
+				return;
+			}
+			slices.put(cachedSlice.id, new Entry<SliceDto>(cachedSlice, System.nanoTime() + ttlNanos));
+			Iterator<Map.Entry<Integer, Entry<SliceDto>>> it = slices.entrySet().iterator();
+			while (slices.size() > maxEntries && it.hasNext()) {
+				it.next();
+				it.remove();
+				evictionCount.incrementAndGet();
+			}
+		}
+	}
+
+	private void invalidate(Integer sliceId, boolean isListInvalidated) {
+		synchronized (oMutex) {
+			generation += 1;
+			if (sliceId != null) {
+				slices.remove(sliceId);
+			}
+			if (isListInvalidated) {
+				sliceList = null;
+			}
+		}
+	}
+}
@@ -0,0 +1,161 @@
+/**
+ * CircuitBreaker.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is a circuit breaker, which stops requests to mlo-srv while failures are sustained.
+ * <p>
+ * In the CLOSED state, the results of the last requests are kept in a count-based window,
+ * and the breaker opens when the window is filled and the failure rate reaches the threshold.
+ * In the OPEN state, requests are rejected until the open duration elapses.
+ * Then the breaker becomes HALF_OPEN and permits one trial request,
+ * which closes the breaker if succeeded, or opens it again if failed.
+ * </p>
+ * This class is thread-safe.
+ */
+final class CircuitBreaker {
+
+	/**
+	 * The state of the circuit breaker.
+	 */
+	enum State {
+		/** Requests are permitted. */
+		CLOSED,
+		/** Requests are rejected. */
+		OPEN,
+		/** One trial request is permitted. */
+		HALF_OPEN
+	}
+
+	private static final int PERCENT = 100;
+
+	private final int windowSize;
+
+	private final int failureRatePercent;
+
+	private final long openNanos;
+
+	private final boolean[] failures;
+
+	private int nRecorded = 0;
+
+	private int nextIdx = 0;
+
+	private int nFailures = 0;
+
+	private State state = State.CLOSED;
+
+	private long openedNanos = 0L;
+
+	private boolean isTrialInFlight = false;
+
+	private long openCount = 0L;
+
+	/**
+	 * A constructor.
+	 * @param windowSize the number of requests whose results are kept.
+	 * @param failureRatePercent the failure rate which opens the breaker, in percent.
+	 * @param openMsec the duration in which requests are rejected, in milliseconds.
+	 */
+	CircuitBreaker(int windowSize, int failureRatePercent, long openMsec) {
+		if (windowSize <= 0) {
+			throw new IllegalArgumentException("windowSize must be positive: " + windowSize);
+		}
+		this.windowSize = windowSize;
+		this.failureRatePercent = failureRatePercent;
+		this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMsec);
+		this.failures = new boolean[windowSize];
+	}
+
+	/**
+	 * Checks whether a request is permitted.
+	 * If permitted, the caller must record the result by {@link #record(boolean)}.
+	 * @return true if permitted.
+	 */
+	synchronized boolean tryAcquire() {
+		if (state == State.OPEN) {
+			if (System.nanoTime() - openedNanos < openNanos) {
+				return false;
+			}
+			state = State.HALF_OPEN;
+			isTrialInFlight = false;
+		}
+		if (state == State.HALF_OPEN) {
+			if (isTrialInFlight) {
+				return false;
+			}
+			isTrialInFlight = true;
+		}
+		return true;
+	}
+
+	/**
+	 * Records the result of a permitted request.
+	 * @param isFailed true if the request has failed.
+	 */
+	synchronized void record(boolean isFailed) {
+		if (state == State.HALF_OPEN) {
+			isTrialInFlight = false;
+			if (isFailed) {
+				open();
+			} else {
+				state = State.CLOSED;
+				clearWindow();
+			}
+			return;
+		}
+		if (state == State.OPEN) {
+			// A request permitted before opening.
+			return;
+		}
+		if (nRecorded == windowSize) {
+			if (failures[nextIdx]) {
+				nFailures -= 1;
+			}
+		} else {
+			nRecorded += 1;
+		}
+		failures[nextIdx] = isFailed;
+		if (isFailed) {
+			nFailures += 1;
+		}
+		nextIdx = (nextIdx + 1) % windowSize;
+		if (nRecorded == windowSize && nFailures * PERCENT >= failureRatePercent * windowSize) {
+			open();
+		}
+	}
+
+	/**
+	 * Obtains the state.
+	 * The OPEN state is reported until a request is tried after the open duration.
+	 * @return the state.
+	 */
+	synchronized State getState() {
+		return state;
+	}
+
+	/**
+	 * Obtains the number of times the breaker has opened.
+	 * @return the count.
+	 */
+	synchronized long getOpenCount() {
+		return openCount;
+	}
+
+	private void open() {
+		state = State.OPEN;
+		openedNanos = System.nanoTime();
+		openCount += 1;
+		clearWindow();
+	}
+
+	private void clearWindow() {
+		nRecorded = 0;
+		nextIdx = 0;
+		nFailures = 0;
+	}
+}
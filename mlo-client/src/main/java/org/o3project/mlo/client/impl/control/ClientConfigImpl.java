@@ -4,20 +4,41 @@
  */
 package org.o3project.mlo.client.impl.control;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.o3project.mlo.client.control.ClientConfig;
 import org.o3project.mlo.client.control.ClientConfigConstants;
+import org.o3project.mlo.client.control.ClientConfigListener;
 import org.seasar.framework.container.annotation.tiger.Binding;
+import org.seasar.framework.container.annotation.tiger.DestroyMethod;
+import org.seasar.framework.container.annotation.tiger.InitMethod;
 
 import org.o3project.mlo.server.logic.ConfigProvider;
 
 /**
  * This class is the implementation class of {@link ClientConfig} interface.
+ * <p>
+ * Values are read from the provider in each call, so that reloaded values are used
+ * by components which read them per request, e.g. URLs and timeouts of {@link MloBaseMethod}.
+ * Components which keep values, e.g. the invoker choice of {@link SliceDataManagerImpl},
+ * are notified by {@link ClientConfigListener}.
+ * </p>
  */
 public class ClientConfigImpl implements ClientConfig, ClientConfigConstants {
+	private static final Log LOG = LogFactory.getLog(ClientConfigImpl.class);
 	
 	@Binding
 	private ConfigProvider configProvider;
 	
+	private final List<ClientConfigListener> listeners = new CopyOnWriteArrayList<ClientConfigListener>();
+	
+	private ConfigFileWatcher watcher = null;
+	
 	/**
 	 * Setter method (for DI setter injection).
 	 * @param configProvider the instance.
@@ -25,6 +46,82 @@ public class ClientConfigImpl implements ClientConfig, ClientConfigConstants {
 	public void setConfigProvider(ConfigProvider configProvider) {
 		this.configProvider = configProvider;
 	}
+	
+	/**
+	 * Initializes this component.
+	 * Starts watching the property file if configured.
+	 */
+	@InitMethod
+	public synchronized void init() {
+		// Only the mlo-client provider can reload the property file.
+		if (!(configProvider instanceof ClientConfigProviderImpl)
+				|| !configProvider.getBooleanProperty(PROP_KEY_CONFIG_WATCH_FLAG)) {
+			return;
+		}
+		File propFile = ((ClientConfigProviderImpl) configProvider).getPropertiesFile();
+		if (propFile == null || propFile.getAbsoluteFile().getParentFile() == null) {
+			return;
+		}
+		watcher = new ConfigFileWatcher(propFile, new Runnable() {
+			@Override
+			public void run() {
+				reload();
+			}
+		});
+		try {
+			watcher.start();
+		} catch (IOException e) {
+			LOG.warn("Failed to watch " + propFile.getAbsolutePath(), e);
+			watcher = null;
+		}
+	}
+	
+	/**
+	 * Destroys this component.
+	 * Stops watching the property file.
+	 */
+	@DestroyMethod
+	public synchronized void destroy() {
+		if (watcher != null) {
+			watcher.stop();
+			watcher = null;
+		}
+	}
+	
+	/**
+	 * Reloads the property file, and notifies listeners.
+	 * Nothing is done if the provider cannot reload.
+	 */
+	public void reload() {
+		if (!(configProvider instanceof ClientConfigProviderImpl)) {
+			return;
+		}
+		((ClientConfigProviderImpl) configProvider).reload();
+		LOG.info("Configuration has been reloaded: baseUri=" + getServerBaseUri());
+		for (ClientConfigListener listener : listeners) {
+			try {
+				listener.configReloaded(this);
+			} catch (RuntimeException e) {
+				LOG.error("Failed to notify a listener of reloading.", e);
+			}
+		}
+	}
+	
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#addClientConfigListener(org.o3project.mlo.client.control.ClientConfigListener)
+	 */
+	@Override
+	public void addClientConfigListener(ClientConfigListener listener) {
+		listeners.add(listener);
+	}
+	
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#removeClientConfigListener(org.o3project.mlo.client.control.ClientConfigListener)
+	 */
+	@Override
+	public void removeClientConfigListener(ClientConfigListener listener) {
+		listeners.remove(listener);
+	}
 
 	/* (non-Javadoc)
 	 * @see org.o3project.mlo.client.control.ClientConfig#getServerBaseUri()
@@ -66,6 +163,246 @@ public class ClientConfigImpl implements ClientConfig, ClientConfigConstants {
 		return configProvider.getBooleanProperty(PROP_KEY_SERVER_DUMMY_INVOKER_SET_FLAG);
 	}
 
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getDummySyntheticFlag()
+	 */
+	@Override
+	public boolean getDummySyntheticFlag() {
+		return configProvider.getBooleanProperty(PROP_KEY_SERVER_DUMMY_SYNTHETIC_FLAG);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getDummySyntheticSliceCount()
+	 */
+	@Override
+	public Integer getDummySyntheticSliceCount() {
+		return configProvider.getIntegerProperty(PROP_KEY_SERVER_DUMMY_SYNTHETIC_SLICE_COUNT);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getDummySyntheticFlowsPerSlice()
+	 */
+	@Override
+	public Integer getDummySyntheticFlowsPerSlice() {
+		return configProvider.getIntegerProperty(PROP_KEY_SERVER_DUMMY_SYNTHETIC_FLOWS_PER_SLICE);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getDummyLatencyMsec()
+	 */
+	@Override
+	public Integer getDummyLatencyMsec() {
+		return configProvider.getIntegerProperty(PROP_KEY_SERVER_DUMMY_LATENCY_MSEC);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getDummyFaultPercent()
+	 */
+	@Override
+	public Integer getDummyFaultPercent() {
+		return configProvider.getIntegerProperty(PROP_KEY_SERVER_DUMMY_FAULT_PERCENT);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getPooledInvokerSetFlag()
+	 */
+	@Override
+	public boolean getPooledInvokerSetFlag() {
+		return configProvider.getBooleanProperty(PROP_KEY_SERVER_POOLED_INVOKER_SET_FLAG);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getPoolMaxConnectionsPerHost()
+	 */
+	@Override
+	public Integer getPoolMaxConnectionsPerHost() {
+		return configProvider.getIntegerProperty(PROP_KEY_SERVER_POOL_MAX_CONNECTIONS_PER_HOST);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getPoolIdleTimeoutSec()
+	 */
+	@Override
+	public Integer getPoolIdleTimeoutSec() {
+		return configProvider.getIntegerProperty(PROP_KEY_SERVER_POOL_IDLE_TIMEOUT_SEC);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getPoolMaxLifetimeSec()
+	 */
+	@Override
+	public Integer getPoolMaxLifetimeSec() {
+		return configProvider.getIntegerProperty(PROP_KEY_SERVER_POOL_MAX_LIFETIME_SEC);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getCoalesceFlag()
+	 */
+	@Override
+	public boolean getCoalesceFlag() {
+		return configProvider.getBooleanProperty(PROP_KEY_SERVER_COALESCE_FLAG);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getAsyncIoThreads()
+	 */
+	@Override
+	public Integer getAsyncIoThreads() {
+		return configProvider.getIntegerProperty(PROP_KEY_SERVER_ASYNC_IO_THREADS);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getResilienceFlag()
+	 */
+	@Override
+	public boolean getResilienceFlag() {
+		return configProvider.getBooleanProperty(PROP_KEY_SERVER_RESILIENCE_FLAG);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getRetryMaxAttempts(java.lang.String)
+	 */
+	@Override
+	public Integer getRetryMaxAttempts(String path) {
+		return configProvider.getIntegerProperty(PROP_KEY_SERVER_RETRY_MAX_ATTEMPTS_ + path);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getRetryBaseDelayMsec()
+	 */
+	@Override
+	public Integer getRetryBaseDelayMsec() {
+		return configProvider.getIntegerProperty(PROP_KEY_SERVER_RETRY_BASE_DELAY_MSEC);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getRetryMaxDelayMsec()
+	 */
+	@Override
+	public Integer getRetryMaxDelayMsec() {
+		return configProvider.getIntegerProperty(PROP_KEY_SERVER_RETRY_MAX_DELAY_MSEC);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getCircuitWindowSize()
+	 */
+	@Override
+	public Integer getCircuitWindowSize() {
+		return configProvider.getIntegerProperty(PROP_KEY_SERVER_CIRCUIT_WINDOW_SIZE);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getCircuitFailureRatePercent()
+	 */
+	@Override
+	public Integer getCircuitFailureRatePercent() {
+		return configProvider.getIntegerProperty(PROP_KEY_SERVER_CIRCUIT_FAILURE_RATE_PERCENT);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getCircuitOpenSec()
+	 */
+	@Override
+	public Integer getCircuitOpenSec() {
+		return configProvider.getIntegerProperty(PROP_KEY_SERVER_CIRCUIT_OPEN_SEC);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getSliceCacheFlag()
+	 */
+	@Override
+	public boolean getSliceCacheFlag() {
+		return configProvider.getBooleanProperty(PROP_KEY_SLICE_CACHE_FLAG);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getSliceCacheMaxEntries()
+	 */
+	@Override
+	public Integer getSliceCacheMaxEntries() {
+		return configProvider.getIntegerProperty(PROP_KEY_SLICE_CACHE_MAX_ENTRIES);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getSliceCacheTtlSec()
+	 */
+	@Override
+	public Integer getSliceCacheTtlSec() {
+		return configProvider.getIntegerProperty(PROP_KEY_SLICE_CACHE_TTL_SEC);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getLoadStatsCsvFile()
+	 */
+	@Override
+	public String getLoadStatsCsvFile() {
+		return configProvider.getProperty(PROP_KEY_LOAD_STATS_CSV_FILE);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getLoadStatsJsonFile()
+	 */
+	@Override
+	public String getLoadStatsJsonFile() {
+		return configProvider.getProperty(PROP_KEY_LOAD_STATS_JSON_FILE);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getBulkConcurrencyAdaptiveFlag()
+	 */
+	@Override
+	public boolean getBulkConcurrencyAdaptiveFlag() {
+		return configProvider.getBooleanProperty(PROP_KEY_BULK_CONCURRENCY_ADAPTIVE_FLAG);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getBulkConcurrencyInitialLimit()
+	 */
+	@Override
+	public Integer getBulkConcurrencyInitialLimit() {
+		return configProvider.getIntegerProperty(PROP_KEY_BULK_CONCURRENCY_INITIAL_LIMIT);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getBulkConcurrencyMinLimit()
+	 */
+	@Override
+	public Integer getBulkConcurrencyMinLimit() {
+		return configProvider.getIntegerProperty(PROP_KEY_BULK_CONCURRENCY_MIN_LIMIT);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getBulkConcurrencyMaxLimit()
+	 */
+	@Override
+	public Integer getBulkConcurrencyMaxLimit() {
+		return configProvider.getIntegerProperty(PROP_KEY_BULK_CONCURRENCY_MAX_LIMIT);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getBulkConcurrencyLatencyTolerancePercent()
+	 */
+	@Override
+	public Integer getBulkConcurrencyLatencyTolerancePercent() {
+		return configProvider.getIntegerProperty(PROP_KEY_BULK_CONCURRENCY_LATENCY_TOLERANCE_PERCENT);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getPayloadLogSampleRatePercent()
+	 */
+	@Override
+	public Integer getPayloadLogSampleRatePercent() {
+		return configProvider.getIntegerProperty(PROP_KEY_PAYLOAD_LOG_SAMPLE_RATE_PERCENT);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfig#getPayloadLogMaxChars()
+	 */
+	@Override
+	public Integer getPayloadLogMaxChars() {
+		return configProvider.getIntegerProperty(PROP_KEY_PAYLOAD_LOG_MAX_CHARS);
+	}
+
 	/* (non-Javadoc)
 	 * @see org.o3project.mlo.client.control.ClientConfig#getTopologyViewUri()
 	 */
@@ -14,9 +14,11 @@ import java.io.OutputStreamWriter;
 import java.net.URL;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -40,7 +42,37 @@ public class ClientConfigProviderImpl implements ConfigProvider, ClientConfigCon
 	
 	private String propertiesFilePath;
 	
-	private Map<String, String> configMap = null;
+	/**
+	 * The immutable configuration loaded at a time.
+	 * Values are parsed once in loading, so that readers need no lock.
+	 */
+	private static final class Snapshot {
+		private final Map<String, String> configMap;
+		private final Map<String, Integer> integerMap;
+		private final Set<String> trueKeys;
+
+		Snapshot(Map<String, String> configs) {
+			Map<String, Integer> integers = new HashMap<String, Integer>();
+			Set<String> trues = new HashSet<String>();
+			for (Map.Entry<String, String> entry : configs.entrySet()) {
+				String value = entry.getValue();
+				if ("true".equalsIgnoreCase(value)) {
+					trues.add(entry.getKey());
+				}
+				try {
+					integers.put(entry.getKey(), Integer.parseInt(value));
+				} catch (NumberFormatException e) {
+					// Not an integer property.
+					LOG.trace("Not an integer property: key=" + entry.getKey());
+				}
+			}
+			configMap = Collections.unmodifiableMap(configs);
+			integerMap = integers;
+			trueKeys = trues;
+		}
+	}
+	
+	private volatile Snapshot snapshot = null;
 	
 	private final Object oMutex = new Object();
 
@@ -50,7 +82,44 @@ public class ClientConfigProviderImpl implements ConfigProvider, ClientConfigCon
 	 */
 	public ClientConfigProviderImpl(String propertiesFilePath) {
 		this.propertiesFilePath = propertiesFilePath;
-		configMap = null;
+	}
+	
+	/**
+	 * Obtains the current snapshot.
+	 * Properties are loaded in the first call.
+	 * @return the snapshot.
+	 */
+	private Snapshot getSnapshot() {
+		Snapshot current = snapshot;
+		if (current == null) {
+			synchronized (oMutex) {
+				current = snapshot;
+				if (current == null) {
+					current = new Snapshot(loadConfigMap(propertiesFilePath));
+					snapshot = current;
+				}
+			}
+		}
+		return current;
+	}
+	
+	/**
+	 * Obtains the property file.
+	 * @return the file, or null if no file is specified.
+	 */
+	public File getPropertiesFile() {
+		return (propertiesFilePath == null) ? null : new File(propertiesFilePath);
+	}
+	
+	/**
+	 * Reloads the default property file and the property file.
+	 * Readers see either the previous configuration or the reloaded one as a whole.
+	 */
+	public void reload() {
+		Snapshot reloaded = new Snapshot(loadConfigMap(propertiesFilePath));
+		synchronized (oMutex) {
+			snapshot = reloaded;
+		}
 	}
 
 	/* (non-Javadoc)
@@ -58,12 +127,7 @@ public class ClientConfigProviderImpl implements ConfigProvider, ClientConfigCon
 	 */
 	@Override
 	public Map<String, String> getProperties() {
-		synchronized (oMutex) {
-			if (configMap == null) {
-				configMap = Collections.unmodifiableMap(loadConfigMap(propertiesFilePath));
-			}
-			return configMap;
-		}
+		return getSnapshot().configMap;
 	}
 	
 	/* (non-Javadoc)
@@ -71,12 +135,7 @@ public class ClientConfigProviderImpl implements ConfigProvider, ClientConfigCon
 	 */
 	@Override
 	public String getProperty(String key) {
-		synchronized (oMutex) {
-			if (configMap == null) {
-				configMap = Collections.unmodifiableMap(loadConfigMap(propertiesFilePath));
-			}
-			return configMap.get(key);
-		}
+		return getSnapshot().configMap.get(key);
 	}
 
 	/* (non-Javadoc)
@@ -84,8 +143,7 @@ public class ClientConfigProviderImpl implements ConfigProvider, ClientConfigCon
 	 */
 	@Override
 	public Boolean getBooleanProperty(String key) {
-		String prop = getProperty(key);
-		return "true".equalsIgnoreCase(prop);
+		return getSnapshot().trueKeys.contains(key);
 	}
 	
 	/* (non-Javadoc)
@@ -93,11 +151,8 @@ public class ClientConfigProviderImpl implements ConfigProvider, ClientConfigCon
 	 */
 	@Override
 	public Integer getIntegerProperty(String key) {
-		String prop = getProperty(key);
-		Integer nProp = null;
-		try {
-			nProp = Integer.parseInt(prop);
-		} catch(NumberFormatException e) {
+		Integer nProp = getSnapshot().integerMap.get(key);
+		if (nProp == null) {
 			LOG.warn("Failed to parse Integer.: key=" + key);
 		}
 		return nProp;
@@ -312,6 +367,7 @@ class ConfigDefinition implements ClientConfigConstants {
 		 * Common
 		 */
 		props.put(PROP_KEY_DEBUG_CLIENTS, "debugClient");
+		props.put(PROP_KEY_CONFIG_WATCH_FLAG, "false");
 		/*
 		 * For mlo-srv.
 		 */
@@ -323,6 +379,46 @@ class ConfigDefinition implements ClientConfigConstants {
 		props.put(PROP_KEY_SERVER_SRC_COMPONENT_NAME, CLIENT_TYPE_DEFAULT);
 		
 		props.put(PROP_KEY_SERVER_DUMMY_INVOKER_SET_FLAG, "false");
+		props.put(PROP_KEY_SERVER_DUMMY_SYNTHETIC_FLAG, "false");
+		props.put(PROP_KEY_SERVER_DUMMY_SYNTHETIC_SLICE_COUNT, "100");
+		props.put(PROP_KEY_SERVER_DUMMY_SYNTHETIC_FLOWS_PER_SLICE, "10");
+		props.put(PROP_KEY_SERVER_DUMMY_LATENCY_MSEC, "0");
+		props.put(PROP_KEY_SERVER_DUMMY_FAULT_PERCENT, "0");
+		
+		props.put(PROP_KEY_SERVER_POOLED_INVOKER_SET_FLAG, "false");
+		props.put(PROP_KEY_SERVER_POOL_MAX_CONNECTIONS_PER_HOST, "50");
+		props.put(PROP_KEY_SERVER_POOL_IDLE_TIMEOUT_SEC, "30");
+		props.put(PROP_KEY_SERVER_POOL_MAX_LIFETIME_SEC, "300");
+		props.put(PROP_KEY_SERVER_COALESCE_FLAG, "false");
+		props.put(PROP_KEY_SERVER_ASYNC_IO_THREADS, "4");
+		
+		props.put(PROP_KEY_SERVER_RESILIENCE_FLAG, "false");
+		props.put(PROP_KEY_SERVER_RETRY_MAX_ATTEMPTS_ + "slices", "3");
+		props.put(PROP_KEY_SERVER_RETRY_MAX_ATTEMPTS_ + "READ", "3");
+		props.put(PROP_KEY_SERVER_RETRY_MAX_ATTEMPTS_ + "CREATE", "1");
+		props.put(PROP_KEY_SERVER_RETRY_MAX_ATTEMPTS_ + "UPDATE", "1");
+		props.put(PROP_KEY_SERVER_RETRY_MAX_ATTEMPTS_ + "DELETE", "1");
+		props.put(PROP_KEY_SERVER_RETRY_BASE_DELAY_MSEC, "100");
+		props.put(PROP_KEY_SERVER_RETRY_MAX_DELAY_MSEC, "2000");
+		props.put(PROP_KEY_SERVER_CIRCUIT_WINDOW_SIZE, "20");
+		props.put(PROP_KEY_SERVER_CIRCUIT_FAILURE_RATE_PERCENT, "50");
+		props.put(PROP_KEY_SERVER_CIRCUIT_OPEN_SEC, "5");
+		
+		props.put(PROP_KEY_SLICE_CACHE_FLAG, "false");
+		props.put(PROP_KEY_SLICE_CACHE_MAX_ENTRIES, "1000");
+		props.put(PROP_KEY_SLICE_CACHE_TTL_SEC, "10");
+		
+		props.put(PROP_KEY_LOAD_STATS_CSV_FILE, "");
+		props.put(PROP_KEY_LOAD_STATS_JSON_FILE, "");
+		
+		props.put(PROP_KEY_BULK_CONCURRENCY_ADAPTIVE_FLAG, "false");
+		props.put(PROP_KEY_BULK_CONCURRENCY_INITIAL_LIMIT, "10");
+		props.put(PROP_KEY_BULK_CONCURRENCY_MIN_LIMIT, "1");
+		props.put(PROP_KEY_BULK_CONCURRENCY_MAX_LIMIT, "200");
+		props.put(PROP_KEY_BULK_CONCURRENCY_LATENCY_TOLERANCE_PERCENT, "200");
+		
+		props.put(PROP_KEY_PAYLOAD_LOG_SAMPLE_RATE_PERCENT, "100");
+		props.put(PROP_KEY_PAYLOAD_LOG_MAX_CHARS, "65536");
 		
 		props.put(PROP_KEY_SERVER_TOPOLOGY_VIEW_URI, "");
 	}
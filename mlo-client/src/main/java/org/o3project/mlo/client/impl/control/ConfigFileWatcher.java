@@ -0,0 +1,149 @@
+/**
+ * ConfigFileWatcher.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * This class watches a property file, and calls back when the file is created or modified.
+ * <p>
+ * The parent directory is watched by {@link WatchService}, because a file itself cannot be watched.
+ * Editors often write a file in several steps, so that events received within
+ * a short delay are handled as one change.
+ * </p>
+ */
+final class ConfigFileWatcher implements Runnable {
+	private static final Log LOG = LogFactory.getLog(ConfigFileWatcher.class);
+
+	private static final long SETTLE_DELAY_MSEC = 200L;
+
+	private static final long STOP_TIMEOUT_MSEC = 1000L;
+
+	private final File file;
+
+	private final Runnable onChange;
+
+	private WatchService watchService = null;
+
+	private Thread thread = null;
+
+	/**
+	 * A constructor.
+	 * @param file the watched file.
+	 * @param onChange the call back called in the watcher thread.
+	 */
+	ConfigFileWatcher(File file, Runnable onChange) {
+		this.file = file.getAbsoluteFile();
+		this.onChange = onChange;
+	}
+
+	/**
+	 * Starts watching.
+	 * @throws IOException Failed to watch the parent directory.
+	 */
+	synchronized void start() throws IOException {
+		if (thread != null) {
+			return;
+		}
+		watchService = FileSystems.getDefault().newWatchService();
+		try {
+			file.getParentFile().toPath().register(watchService,
+					StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+		} catch (IOException e) {
+			watchService.close();
+			watchService = null;
+			throw e;
+		}
+		thread = new Thread(this, "ConfigFileWatcher");
+		thread.setDaemon(true);
+		thread.start();
+		LOG.info("Watching " + file);
+	}
+
+	/**
+	 * Stops watching.
+	 */
+	synchronized void stop() {
+		if (thread == null) {
+			return;
+		}
+		try {
+			watchService.close();
+		} catch (IOException e) {
+			LOG.warn("Failed to close the watch service.", e);
+		}
+		thread.interrupt();
+		try {
+			thread.join(STOP_TIMEOUT_MSEC);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		thread = null;
+		watchService = null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Runnable#run()
+	 */
+	@Override
+	public void run() {
+		WatchService service;
+		synchronized (this) {
+			service = watchService;
+		}
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				WatchKey key = service.take();
+				boolean isChanged = pollChanged(key);
+				while (isChanged) {
+					// Waits until the writer finishes, and merges following events.
+					WatchKey nextKey = service.poll(SETTLE_DELAY_MSEC, TimeUnit.MILLISECONDS);
+					if (nextKey == null) {
+						break;
+					}
+					pollChanged(nextKey);
+				}
+				if (isChanged) {
+					LOG.info("Changed: " + file);
+					try {
+						onChange.run();
+					} catch (RuntimeException e) {
+						LOG.error("Failed to handle the change of " + file, e);
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			LOG.debug("Watcher is interrupted.");
+		} catch (ClosedWatchServiceException e) {
+			LOG.debug("Watch service is closed.");
+		}
+	}
+
+	private boolean pollChanged(WatchKey key) {
+		boolean isChanged = false;
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				isChanged = true;
+			} else if (file.getName().equals(((Path) event.context()).getFileName().toString())) {
+				isChanged = true;
+			}
+		}
+		key.reset();
+		return isChanged;
+	}
+}
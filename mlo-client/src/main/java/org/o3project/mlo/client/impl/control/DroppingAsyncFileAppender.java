@@ -0,0 +1,173 @@
+/**
+ * DroppingAsyncFileAppender.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.RollingFileAppender;
+import org.apache.log4j.spi.LoggingEvent;
+
+/**
+ * This class is the log4j appender which writes logging events to a rolling file asynchronously.
+ * <p>
+ * Logging events are put into a bounded buffer, and are written by a dispatcher thread.
+ * If the buffer is full, the event is dropped instead of blocking the logging thread,
+ * and the number of dropped events is written when the dispatcher catches up.
+ * The AsyncAppender of log4j 1.2.13 always blocks when its buffer is full,
+ * and it cannot be configured by log4j.properties.
+ * </p>
+ * <p>
+ * Messages are rendered in the dispatcher thread, so that formatting of messages such as
+ * {@link PayloadLogger.Payload} is moved off the logging thread.
+ * This appender is configured in the same way as {@link RollingFileAppender}, and also takes
+ * the BufferSize option.
+ * </p>
+ */
+public class DroppingAsyncFileAppender extends RollingFileAppender {
+
+	private static final int DEFAULT_BUFFER_SIZE = 1024;
+
+	private static final long POLL_TIMEOUT_MSEC = 100L;
+
+	private static final long CLOSE_TIMEOUT_MSEC = 5000L;
+
+	private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+	private BlockingQueue<LoggingEvent> buffer;
+
+	private final AtomicLong droppedCount = new AtomicLong();
+
+	private Thread dispatcher;
+
+	private volatile boolean isClosing = false;
+
+	/**
+	 * Sets the number of events which can be buffered (for log4j configuration).
+	 * @param bufferSize the number of events.
+	 */
+	public void setBufferSize(int bufferSize) {
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * Obtains the number of events which can be buffered.
+	 * @return the number of events.
+	 */
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	/**
+	 * Obtains the number of dropped events which are not reported yet.
+	 * @return the number of events.
+	 */
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.apache.log4j.FileAppender#activateOptions()
+	 */
+	@Override
+	public void activateOptions() {
+		super.activateOptions();
+		if (dispatcher != null) {
+			return;
+		}
+		buffer = new ArrayBlockingQueue<LoggingEvent>(Math.max(1, bufferSize));
+		dispatcher = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				dispatch();
+			}
+		}, "DroppingAsyncFileAppender-" + getName());
+		dispatcher.setDaemon(true);
+		dispatcher.start();
+		// Writes the buffered events on exit, because the dispatcher is a daemon thread.
+		Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+			@Override
+			public void run() {
+				close();
+			}
+		}));
+	}
+
+	/* (non-Javadoc)
+	 * @see org.apache.log4j.WriterAppender#append(org.apache.log4j.spi.LoggingEvent)
+	 */
+	@Override
+	public void append(LoggingEvent event) {
+		if (buffer == null || isClosing) {
+			return;
+		}
+		// These depend on the logging thread.
+		event.getThreadName();
+		event.getNDC();
+		event.getMDCCopy();
+		if (!buffer.offer(event)) {
+			droppedCount.incrementAndGet();
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.apache.log4j.WriterAppender#close()
+	 */
+	@Override
+	public void close() {
+		// Not synchronized, because the dispatcher needs the lock of this appender to write.
+		isClosing = true;
+		Thread thread = dispatcher;
+		if (thread != null && thread != Thread.currentThread()) {
+			try {
+				thread.join(CLOSE_TIMEOUT_MSEC);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		synchronized (this) {
+			super.close();
+		}
+	}
+
+	private void dispatch() {
+		while (!isClosing || !buffer.isEmpty()) {
+			LoggingEvent event = null;
+			try {
+				event = buffer.poll(POLL_TIMEOUT_MSEC, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				break;
+			}
+			if (event == null) {
+				continue;
+			}
+			synchronized (this) {
+				if (closed) {
+					break;
+				}
+				appendDroppedCount();
+				super.append(event);
+			}
+		}
+		synchronized (this) {
+			if (!closed) {
+				appendDroppedCount();
+			}
+		}
+	}
+
+	private void appendDroppedCount() {
+		long nDropped = droppedCount.getAndSet(0L);
+		if (nDropped > 0L) {
+			super.append(new LoggingEvent(DroppingAsyncFileAppender.class.getName(),
+					Logger.getLogger(DroppingAsyncFileAppender.class), Level.WARN,
+					nDropped + " logging events are dropped, because the buffer is full.", null));
+		}
+	}
+}
@@ -4,18 +4,26 @@
  */
 package org.o3project.mlo.client.impl.control;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.Map;
-
-import javax.xml.bind.JAXB;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.o3project.mlo.client.control.ClientConfig;
+import org.o3project.mlo.client.control.ClientConfigListener;
 import org.o3project.mlo.client.control.MloAccessException;
 import org.o3project.mlo.client.control.MloInvoker;
 import org.o3project.mlo.client.control.MloMethod;
+import org.seasar.framework.container.annotation.tiger.Binding;
+import org.seasar.framework.container.annotation.tiger.InitMethod;
 import org.seasar.framework.util.ResourceUtil;
 
 import org.o3project.mlo.server.dto.RestifRequestDto;
@@ -25,8 +33,16 @@ import org.o3project.mlo.server.dto.RestifResponseDto;
  * This class is the dummy class of mlo-srv connection.
  * This class is used only in debugging.
  * Even when mlo-srv is not launched, this class returns fake responses like that mlo-srv is launched.
+ * <p>
+ * By default, the fixed response files are returned. The files are read once and cached,
+ * and each response is unmarshalled from the cached bytes, so that callers can modify responses.
+ * In synthetic mode, slices are kept in memory by {@link MloSliceStore}, which is populated
+ * with a configured number of slices and flows, and CREATE, UPDATE and DELETE change the slices.
+ * In both modes, a latency can be added to each response, and a percentage of requests fail
+ * as mlo-srv responds with HTTP status 500.
+ * </p>
  */
-public class DummyMloInvoker implements MloInvoker {
+public class DummyMloInvoker implements MloInvoker, ClientConfigListener {
 	private static final Log LOG = LogFactory.getLog(DummyMloInvoker.class);
 
     private static final String PATH_LIST_SLICE = "slices";
@@ -42,6 +58,57 @@ public class DummyMloInvoker implements MloInvoker {
 	private static final String UPDATE_XML = "dummyInvoker.update.res.xml";
 	private static final String DELETE_XML = "dummyInvoker.delete.res.xml";
 
+	private static final int SC_500_INTERNAL_SERVER_ERROR = 500;
+	private static final int PERCENT = 100;
+	private static final int BUF_SIZE = 4096;
+
+	private final ConcurrentMap<String, byte[]> responseXmls = new ConcurrentHashMap<String, byte[]>();
+
+	private ClientConfig clientConfig;
+
+	private MloSliceStore store = null;
+
+	private volatile long latencyMsec = 0L;
+
+	private volatile int faultPercent = 0;
+
+	/**
+	 * Setter method (for DI setter injection).
+	 * @param clientConfig The instance. 
+	 */
+	@Binding
+	public void setClientConfig(ClientConfig clientConfig) {
+		this.clientConfig = clientConfig;
+	}
+
+	/**
+	 * Initializes this instance.
+	 * In synthetic mode, the slices of the configured client component are created.
+	 */
+	@InitMethod
+	public void init() {
+		configReloaded(clientConfig);
+		clientConfig.addClientConfigListener(this);
+		if (clientConfig.getDummySyntheticFlag()) {
+			int sliceCount = (int) getConfigValue(clientConfig.getDummySyntheticSliceCount());
+			int flowCount = (int) getConfigValue(clientConfig.getDummySyntheticFlowsPerSlice());
+			store = new MloSliceStore();
+			store.populate(clientConfig.getSrcComponentName(), sliceCount, flowCount);
+			LOG.info("Synthetic slices are created: slices=" + sliceCount + ", flowsPerSlice=" + flowCount);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfigListener#configReloaded(org.o3project.mlo.client.control.ClientConfig)
+	 */
+	@Override
+	public void configReloaded(ClientConfig clientConfig) {
+		// The synthetic mode is not changed, because slices are kept.
+		latencyMsec = getConfigValue(clientConfig.getDummyLatencyMsec());
+		faultPercent = (int) getConfigValue(clientConfig.getDummyFaultPercent());
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see org.o3project.mlo.client.control.MloInvoker#invoke(org.o3project.mlo.client.control.MloMethod, org.o3project.mlo.server.dto.RestifRequestDto, java.lang.String, java.util.Map)
@@ -51,6 +118,14 @@ public class DummyMloInvoker implements MloInvoker {
 			RestifRequestDto reqDto, String path, Map<String, String> params)
 			throws MloAccessException {
 		
+		sleepLatency();
+		if (faultPercent > 0 && ThreadLocalRandom.current().nextInt(PERCENT) < faultPercent) {
+			throw new MloAccessException("MloServerAccessError/" + SC_500_INTERNAL_SERVER_ERROR);
+		}
+		if (store != null) {
+			return invokeStore(method, reqDto, path, params);
+		}
+		
 		RestifResponseDto resDto = null;
 		
 		if("POST".equals(method.getName())){
@@ -77,19 +152,73 @@ public class DummyMloInvoker implements MloInvoker {
 		return resDto;
 	}
 	
+	/**
+	 * Creates response of the synthetic slices.
+	 */
+	private RestifResponseDto invokeStore(MloMethod method,
+			RestifRequestDto reqDto, String path, Map<String, String> params) {
+		RestifResponseDto resDto = null;
+		if ("POST".equals(method.getName())) {
+			if (MloSliceStore.isSliceOperation(path)) {
+				resDto = store.handleSliceOperation(path, reqDto);
+			}
+		} else if ("GET".equals(method.getName())) {
+			if (PATH_LIST_SLICE.equals(path)) {
+				resDto = store.handleList((params == null) ? null : params.get("owner"));
+			}
+		}
+		return resDto;
+	}
+
+	private void sleepLatency() throws MloAccessException {
+		if (latencyMsec <= 0L) {
+			return;
+		}
+		try {
+			TimeUnit.MILLISECONDS.sleep(latencyMsec);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MloAccessException("Interrupted in waiting for response of MLO-SERVER", e);
+		}
+	}
+
+	private static long getConfigValue(Integer value) {
+		return (value == null || value < 0) ? 0L : value;
+	}
+
 	/**
 	 * Creates response DTO.
+	 * The response file is read only once, and a new DTO is unmarshalled for each call.
 	 * @param xmlFileName the fake response xml file name.
 	 * @return the response DTO. 
 	 */
 	private RestifResponseDto createDto(String xmlFileName) throws MloAccessException{
-		RestifResponseDto resDto = null;
+		byte[] xml = responseXmls.get(xmlFileName);
+		if (xml == null) {
+			xml = readXml(xmlFileName);
+			responseXmls.putIfAbsent(xmlFileName, xml);
+		}
+		return MloJaxbEngine.getDefault().unmarshal(new ByteArrayInputStream(xml), RestifResponseDto.class);
+	}
+
+	/**
+	 * Reads a fake response xml file.
+	 * @param xmlFileName the fake response xml file name.
+	 * @return the content.
+	 */
+	private static byte[] readXml(String xmlFileName) throws MloAccessException {
 		InputStream istream = null;
 		URL xmlFileUrl = null;
 		try {
 			xmlFileUrl = ResourceUtil.getResource(DATA_BASE_PATH + "/" + xmlFileName);
 			istream = xmlFileUrl.openStream();
-			resDto = JAXB.unmarshal(istream, RestifResponseDto.class);
+			ByteArrayOutputStream bostream = new ByteArrayOutputStream();
+			byte[] buf = new byte[BUF_SIZE];
+			int len;
+			while ((len = istream.read(buf)) >= 0) {
+				bostream.write(buf, 0, len);
+			}
+			return bostream.toByteArray();
 		} catch (IOException e) {
 			// Never pass here.
 			LOG.error(e);
@@ -100,11 +229,8 @@ public class DummyMloInvoker implements MloInvoker {
 					istream.close();
 				} catch (IOException e) {
 					LOG.error(e);
-					resDto = null;
 				}
 			}
 		}
-		
-		return resDto;
 	}
 }
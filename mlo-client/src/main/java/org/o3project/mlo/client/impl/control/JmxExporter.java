@@ -0,0 +1,615 @@
+/**
+ * JmxExporter.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.o3project.mlo.client.control.ClientConfig;
+import org.seasar.framework.container.annotation.tiger.Binding;
+import org.seasar.framework.container.annotation.tiger.BindingType;
+import org.seasar.framework.container.annotation.tiger.DestroyMethod;
+import org.seasar.framework.container.annotation.tiger.InitMethod;
+
+import org.o3project.mlo.server.logic.ConfigProvider;
+
+/**
+ * This class registers MXBeans of mlo-client into the platform MBean server,
+ * so that a running mlo-client can be inspected by JConsole or other JMX clients.
+ * <p>
+ * The following MXBeans are registered in the {@value #DOMAIN} domain:
+ * </p>
+ * <ul>
+ * <li>type=Transport: statistics of requests to mlo-srv recorded by {@link MeteredMloInvoker}.</li>
+ * <li>type=Resilience: the circuit breaker and retries of {@link ResilientMloInvoker}.</li>
+ * <li>type=SliceDataManager: per-operation metrics recorded by {@link MetricsInterceptor}.</li>
+ * <li>type=ClientConfig: the current configuration values, including reloaded ones.</li>
+ * <li>type=Executor: thread pools registered by {@link #registerExecutor(String, ExecutorService)}.</li>
+ * </ul>
+ * <p>
+ * Failures of JMX are logged and ignored, because mlo-client works without JMX.
+ * </p>
+ */
+public class JmxExporter {
+	private static final Log LOG = LogFactory.getLog(JmxExporter.class);
+
+	/** The domain of object names. */
+	public static final String DOMAIN = "org.o3project.mlo.client";
+
+	private static final double[] PERCENTILES = {50.0, 90.0, 99.0};
+
+	private static final AtomicLong EXECUTOR_SEQUENCE = new AtomicLong();
+
+	private MetricsRegistry metricsRegistry;
+
+	private ConfigProvider configProvider;
+
+	private ClientConfig clientConfig;
+
+	private MeteredMloInvoker meteredInvoker;
+
+	private PooledMloInvokerImpl pooledInvoker;
+
+	private ResilientMloInvoker resilientInvoker;
+
+	private final List<ObjectName> registeredNames = new ArrayList<ObjectName>();
+
+	/**
+	 * This interface is the MXBean of requests to mlo-srv.
+	 */
+	public interface TransportMXBean {
+		/**
+		 * Obtains the number of requests, including retries and those in flight.
+		 * @return the count.
+		 */
+		long getRequestCount();
+
+		/**
+		 * Obtains the number of requests in flight.
+		 * @return the count.
+		 */
+		int getInFlight();
+
+		/**
+		 * Obtains the number of bytes of request bodies.
+		 * @return the number of bytes.
+		 */
+		long getBytesOut();
+
+		/**
+		 * Obtains the number of bytes of response bodies.
+		 * @return the number of bytes.
+		 */
+		long getBytesIn();
+
+		/**
+		 * Obtains the number of responses by status code.
+		 * @return the counts keyed by the status code, or "2xx" for successful responses.
+		 */
+		Map<String, Long> getStatusCounts();
+
+		/**
+		 * Obtains the number of connect timeouts.
+		 * @return the count.
+		 */
+		long getConnectTimeoutCount();
+
+		/**
+		 * Obtains the number of read timeouts.
+		 * @return the count.
+		 */
+		long getReadTimeoutCount();
+
+		/**
+		 * Obtains the number of I/O errors other than timeouts.
+		 * @return the count.
+		 */
+		long getIoErrorCount();
+
+		/**
+		 * Obtains the number of open connections.
+		 * This is the number of leased and idle connections of the pool if the pooled invoker is used,
+		 * otherwise the number of requests in flight.
+		 * @return the count.
+		 */
+		int getOpenConnections();
+	}
+
+	/**
+	 * This interface is the MXBean of the resilient invoker.
+	 */
+	public interface ResilienceMXBean {
+		/**
+		 * Obtains the state of the circuit breaker.
+		 * @return the state, CLOSED, OPEN or HALF_OPEN.
+		 */
+		String getCircuitState();
+
+		/**
+		 * Obtains the number of times the circuit breaker has opened.
+		 * @return the count.
+		 */
+		long getCircuitOpenCount();
+
+		/**
+		 * Obtains the number of retries.
+		 * @return the count.
+		 */
+		long getRetryCount();
+
+		/**
+		 * Obtains the number of requests rejected by the opened circuit breaker.
+		 * @return the count.
+		 */
+		long getRejectedCount();
+	}
+
+	/**
+	 * This interface is the MXBean of operations of {@link org.o3project.mlo.client.control.SliceDataManager}.
+	 * Each map is keyed by the metric name, e.g. "SliceDataManager.getSliceInfo".
+	 */
+	public interface SliceDataManagerMXBean {
+		/**
+		 * Obtains the number of calls.
+		 * @return the counts.
+		 */
+		Map<String, Long> getCallCounts();
+
+		/**
+		 * Obtains the number of calls in flight.
+		 * @return the counts.
+		 */
+		Map<String, Integer> getInFlight();
+
+		/**
+		 * Obtains the number of errors by exception type.
+		 * @return the counts keyed by the metric name and the simple name of the exception class,
+		 * e.g. "SliceDataManager.getSliceInfo:MloAccessException".
+		 */
+		Map<String, Long> getErrorCounts();
+
+		/**
+		 * Obtains the 50th percentile latencies.
+		 * @return the latencies in milliseconds.
+		 */
+		Map<String, Double> getP50Msec();
+
+		/**
+		 * Obtains the 90th percentile latencies.
+		 * @return the latencies in milliseconds.
+		 */
+		Map<String, Double> getP90Msec();
+
+		/**
+		 * Obtains the 99th percentile latencies.
+		 * @return the latencies in milliseconds.
+		 */
+		Map<String, Double> getP99Msec();
+
+		/**
+		 * Obtains the maximum latencies.
+		 * @return the latencies in milliseconds.
+		 */
+		Map<String, Double> getMaxMsec();
+
+		/**
+		 * Obtains the metrics as a human-readable table.
+		 * @return the lines of the table.
+		 */
+		String[] getSummary();
+	}
+
+	/**
+	 * This interface is the MXBean of the configuration.
+	 */
+	public interface ClientConfigMXBean {
+		/**
+		 * Obtains the current configuration values.
+		 * @return the values keyed by the property key, in the key order.
+		 */
+		Map<String, String> getProperties();
+	}
+
+	/**
+	 * This interface is the MXBean of a thread pool.
+	 */
+	public interface ThreadPoolMXBean {
+		/**
+		 * Obtains the number of tasks waiting in the queue.
+		 * @return the count.
+		 */
+		int getQueueSize();
+
+		/**
+		 * Obtains the approximate number of threads executing tasks.
+		 * @return the count.
+		 */
+		int getActiveCount();
+
+		/**
+		 * Obtains the current number of threads.
+		 * @return the count.
+		 */
+		int getPoolSize();
+
+		/**
+		 * Obtains the largest number of threads.
+		 * @return the count.
+		 */
+		int getLargestPoolSize();
+
+		/**
+		 * Obtains the maximum number of threads.
+		 * @return the count.
+		 */
+		int getMaximumPoolSize();
+
+		/**
+		 * Obtains the approximate number of submitted tasks.
+		 * @return the count.
+		 */
+		long getTaskCount();
+
+		/**
+		 * Obtains the approximate number of completed tasks.
+		 * @return the count.
+		 */
+		long getCompletedTaskCount();
+	}
+
+	/**
+	 * Setter method (for DI setter injection).
+	 * @param metricsRegistry The instance.
+	 */
+	@Binding
+	public void setMetricsRegistry(MetricsRegistry metricsRegistry) {
+		this.metricsRegistry = metricsRegistry;
+	}
+
+	/**
+	 * Setter method (for DI setter injection).
+	 * @param configProvider The instance.
+	 */
+	@Binding
+	public void setConfigProvider(ConfigProvider configProvider) {
+		this.configProvider = configProvider;
+	}
+
+	/**
+	 * Setter method (for DI setter injection).
+	 * @param clientConfig The instance.
+	 */
+	@Binding
+	public void setClientConfig(ClientConfig clientConfig) {
+		this.clientConfig = clientConfig;
+	}
+
+	/**
+	 * Setter method (for DI setter injection).
+	 * @param meteredInvoker The instance.
+	 */
+	@Binding(bindingType = BindingType.MAY)
+	public void setMeteredInvoker(MeteredMloInvoker meteredInvoker) {
+		this.meteredInvoker = meteredInvoker;
+	}
+
+	/**
+	 * Setter method (for DI setter injection).
+	 * @param pooledInvoker The instance.
+	 */
+	@Binding(bindingType = BindingType.MAY)
+	public void setPooledInvoker(PooledMloInvokerImpl pooledInvoker) {
+		this.pooledInvoker = pooledInvoker;
+	}
+
+	/**
+	 * Setter method (for DI setter injection).
+	 * @param resilientInvoker The instance.
+	 */
+	@Binding(bindingType = BindingType.MAY)
+	public void setResilientInvoker(ResilientMloInvoker resilientInvoker) {
+		this.resilientInvoker = resilientInvoker;
+	}
+
+	/**
+	 * Registers MXBeans of components.
+	 * MXBeans registered by another container are replaced.
+	 */
+	@InitMethod
+	public synchronized void register() {
+		if (meteredInvoker != null) {
+			registerReplacing("Transport", new TransportAdapter());
+		}
+		if (resilientInvoker != null) {
+			registerReplacing("Resilience", new ResilienceAdapter());
+		}
+		registerReplacing("SliceDataManager", new SliceDataManagerAdapter());
+		registerReplacing("ClientConfig", new ClientConfigAdapter());
+	}
+
+	/**
+	 * Unregisters MXBeans of components.
+	 */
+	@DestroyMethod
+	public synchronized void unregister() {
+		for (ObjectName name : registeredNames) {
+			unregister(name);
+		}
+		registeredNames.clear();
+	}
+
+	/**
+	 * Registers the MXBean of a thread pool.
+	 * The object name is "org.o3project.mlo.client:type=Executor,name=[name]-[sequence number]".
+	 * @param name the name of the thread pool.
+	 * @param executorService the thread pool.
+	 * @return the object name, or null if not registered, e.g. the thread pool is not {@link ThreadPoolExecutor}.
+	 */
+	public static ObjectName registerExecutor(String name, ExecutorService executorService) {
+		if (!(executorService instanceof ThreadPoolExecutor)) {
+			return null;
+		}
+		final ThreadPoolExecutor executor = (ThreadPoolExecutor) executorService;
+		ThreadPoolMXBean mxBean = new ThreadPoolMXBean() {
+			@Override
+			public int getQueueSize() {
+				return executor.getQueue().size();
+			}
+
+			@Override
+			public int getActiveCount() {
+				return executor.getActiveCount();
+			}
+
+			@Override
+			public int getPoolSize() {
+				return executor.getPoolSize();
+			}
+
+			@Override
+			public int getLargestPoolSize() {
+				return executor.getLargestPoolSize();
+			}
+
+			@Override
+			public int getMaximumPoolSize() {
+				return executor.getMaximumPoolSize();
+			}
+
+			@Override
+			public long getTaskCount() {
+				return executor.getTaskCount();
+			}
+
+			@Override
+			public long getCompletedTaskCount() {
+				return executor.getCompletedTaskCount();
+			}
+		};
+		try {
+			ObjectName objectName = new ObjectName(DOMAIN + ":type=Executor,name="
+					+ ObjectName.quote(name + "-" + EXECUTOR_SEQUENCE.incrementAndGet()));
+			getMBeanServer().registerMBean(mxBean, objectName);
+			return objectName;
+		} catch (JMException | RuntimeException e) {
+			LOG.warn("Failed to register the MXBean of " + name, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Unregisters an MXBean.
+	 * @param objectName the object name, or null.
+	 */
+	public static void unregister(ObjectName objectName) {
+		if (objectName == null) {
+			return;
+		}
+		try {
+			MBeanServer mBeanServer = getMBeanServer();
+			if (mBeanServer.isRegistered(objectName)) {
+				mBeanServer.unregisterMBean(objectName);
+			}
+		} catch (JMException | RuntimeException e) {
+			LOG.warn("Failed to unregister the MXBean " + objectName, e);
+		}
+	}
+
+	private void registerReplacing(String type, Object mxBean) {
+		try {
+			ObjectName objectName = new ObjectName(DOMAIN + ":type=" + type);
+			MBeanServer mBeanServer = getMBeanServer();
+			if (mBeanServer.isRegistered(objectName)) {
+				mBeanServer.unregisterMBean(objectName);
+			}
+			mBeanServer.registerMBean(mxBean, objectName);
+			registeredNames.add(objectName);
+			LOG.info("MXBean registered: " + objectName);
+		} catch (JMException | RuntimeException e) {
+			LOG.warn("Failed to register the MXBean of " + type, e);
+		}
+	}
+
+	private static MBeanServer getMBeanServer() {
+		return ManagementFactory.getPlatformMBeanServer();
+	}
+
+	/**
+	 * This class is the implementation of {@link TransportMXBean}.
+	 */
+	private final class TransportAdapter implements TransportMXBean {
+		@Override
+		public long getRequestCount() {
+			return meteredInvoker.getStatistics().getRequestCount();
+		}
+
+		@Override
+		public int getInFlight() {
+			return meteredInvoker.getStatistics().getInFlight();
+		}
+
+		@Override
+		public long getBytesOut() {
+			return meteredInvoker.getStatistics().getBytesOut();
+		}
+
+		@Override
+		public long getBytesIn() {
+			return meteredInvoker.getStatistics().getBytesIn();
+		}
+
+		@Override
+		public Map<String, Long> getStatusCounts() {
+			return meteredInvoker.getStatistics().getStatusCounts();
+		}
+
+		@Override
+		public long getConnectTimeoutCount() {
+			return meteredInvoker.getStatistics().getConnectTimeoutCount();
+		}
+
+		@Override
+		public long getReadTimeoutCount() {
+			return meteredInvoker.getStatistics().getReadTimeoutCount();
+		}
+
+		@Override
+		public long getIoErrorCount() {
+			return meteredInvoker.getStatistics().getIoErrorCount();
+		}
+
+		@Override
+		public int getOpenConnections() {
+			if (pooledInvoker != null && clientConfig.getPooledInvokerSetFlag()
+					&& !clientConfig.getDummyInvokerSetFlag()) {
+				MloConnectionPoolStats stats = pooledInvoker.getPoolStats();
+				return stats.getLeased() + stats.getIdle();
+			}
+			// MloInvokerImpl opens a connection per request.
+			return getInFlight();
+		}
+	}
+
+	/**
+	 * This class is the implementation of {@link ResilienceMXBean}.
+	 */
+	private final class ResilienceAdapter implements ResilienceMXBean {
+		@Override
+		public String getCircuitState() {
+			return resilientInvoker.getCircuitState();
+		}
+
+		@Override
+		public long getCircuitOpenCount() {
+			return resilientInvoker.getCircuitOpenCount();
+		}
+
+		@Override
+		public long getRetryCount() {
+			return resilientInvoker.getRetryCount();
+		}
+
+		@Override
+		public long getRejectedCount() {
+			return resilientInvoker.getRejectedCount();
+		}
+	}
+
+	/**
+	 * This class is the implementation of {@link SliceDataManagerMXBean}.
+	 */
+	private final class SliceDataManagerAdapter implements SliceDataManagerMXBean {
+		@Override
+		public Map<String, Long> getCallCounts() {
+			Map<String, Long> counts = new TreeMap<String, Long>();
+			for (String name : metricsRegistry.getNames()) {
+				counts.put(name, metricsRegistry.getMethodMetrics(name).getCallCount());
+			}
+			return counts;
+		}
+
+		@Override
+		public Map<String, Integer> getInFlight() {
+			Map<String, Integer> counts = new TreeMap<String, Integer>();
+			for (String name : metricsRegistry.getNames()) {
+				counts.put(name, metricsRegistry.getMethodMetrics(name).getInFlight());
+			}
+			return counts;
+		}
+
+		@Override
+		public Map<String, Long> getErrorCounts() {
+			Map<String, Long> counts = new TreeMap<String, Long>();
+			for (String name : metricsRegistry.getNames()) {
+				for (Map.Entry<String, Long> entry : metricsRegistry.getMethodMetrics(name).getErrorCounts().entrySet()) {
+					counts.put(name + ":" + entry.getKey(), entry.getValue());
+				}
+			}
+			return counts;
+		}
+
+		@Override
+		public Map<String, Double> getP50Msec() {
+			return getPercentileMsec(PERCENTILES[0]);
+		}
+
+		@Override
+		public Map<String, Double> getP90Msec() {
+			return getPercentileMsec(PERCENTILES[1]);
+		}
+
+		@Override
+		public Map<String, Double> getP99Msec() {
+			return getPercentileMsec(PERCENTILES[2]);
+		}
+
+		@Override
+		public Map<String, Double> getMaxMsec() {
+			Map<String, Double> latencies = new TreeMap<String, Double>();
+			for (String name : metricsRegistry.getNames()) {
+				LatencyHistogram histogram = metricsRegistry.getMethodMetrics(name).getHistogram();
+				latencies.put(name, MetricsRegistry.toMsec(histogram.getMaxUsec()));
+			}
+			return latencies;
+		}
+
+		@Override
+		public String[] getSummary() {
+			List<String> lines = metricsRegistry.formatSummary();
+			return lines.toArray(new String[lines.size()]);
+		}
+
+		private Map<String, Double> getPercentileMsec(double percentile) {
+			Map<String, Double> latencies = new TreeMap<String, Double>();
+			for (String name : metricsRegistry.getNames()) {
+				LatencyHistogram histogram = metricsRegistry.getMethodMetrics(name).getHistogram();
+				latencies.put(name, MetricsRegistry.toMsec(histogram.getValueAtPercentile(percentile)));
+			}
+			return latencies;
+		}
+	}
+
+	/**
+	 * This class is the implementation of {@link ClientConfigMXBean}.
+	 */
+	private final class ClientConfigAdapter implements ClientConfigMXBean {
+		@Override
+		public Map<String, String> getProperties() {
+			return new TreeMap<String, String>(configProvider.getProperties());
+		}
+	}
+}
@@ -0,0 +1,178 @@
+/**
+ * LatencyHistogram.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class is a histogram of latencies in the style of HdrHistogram.
+ * <p>
+ * Latencies are recorded in microseconds into log-linear buckets:
+ * values under {@value #SUB_BUCKET_COUNT} are exact, and larger values are grouped so that
+ * the relative error of a percentile is less than 1/{@value #SUB_BUCKET_HALF_COUNT}.
+ * The memory size is fixed regardless of the number of recorded values.
+ * </p>
+ * This class is thread-safe, and recording is lock-free.
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 7;
+
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+	private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+
+	/** The highest trackable value is about 2^40 usec, that is, 12 days. */
+	private static final int MAX_SHIFT = 40 - (SUB_BUCKET_BITS - 1);
+
+	private static final long MAX_TRACKABLE_USEC = (((long) SUB_BUCKET_COUNT) << MAX_SHIFT) - 1;
+
+	private static final int BUCKET_COUNT = SUB_BUCKET_HALF_COUNT * (MAX_SHIFT + 1) + SUB_BUCKET_COUNT;
+
+	private static final double PERCENT = 100.0;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+	private final AtomicLong totalCount = new AtomicLong();
+
+	private final AtomicLong totalUsec = new AtomicLong();
+
+	private final AtomicLong maxUsec = new AtomicLong();
+
+	/**
+	 * Records a latency.
+	 * @param elapsed the latency.
+	 * @param unit the time unit of the latency.
+	 */
+	public void record(long elapsed, TimeUnit unit) {
+		recordUsec(unit.toMicros(elapsed));
+	}
+
+	/**
+	 * Records a latency in microseconds.
+	 * Negative values are recorded as zero, and too large values are recorded as the highest trackable value.
+	 * @param usec the latency.
+	 */
+	public void recordUsec(long usec) {
+		long value = Math.min(Math.max(usec, 0L), MAX_TRACKABLE_USEC);
+		counts.incrementAndGet(indexOf(value));
+		totalCount.incrementAndGet();
+		totalUsec.addAndGet(value);
+		long currentMax = maxUsec.get();
+		while (value > currentMax && !maxUsec.compareAndSet(currentMax, value)) {
+			currentMax = maxUsec.get();
+		}
+	}
+
+	/**
+	 * Obtains the number of recorded values.
+	 * @return the count.
+	 */
+	public long getTotalCount() {
+		return totalCount.get();
+	}
+
+	/**
+	 * Obtains the maximum recorded value.
+	 * @return the value in microseconds, or zero if nothing is recorded.
+	 */
+	public long getMaxUsec() {
+		return maxUsec.get();
+	}
+
+	/**
+	 * Obtains the mean of recorded values.
+	 * @return the value in microseconds, or zero if nothing is recorded.
+	 */
+	public double getMeanUsec() {
+		long count = totalCount.get();
+		return (count == 0) ? 0.0 : ((double) totalUsec.get()) / count;
+	}
+
+	/**
+	 * Obtains the value at the percentile.
+	 * The value is the highest value equivalent to the bucket, but not more than the maximum recorded value.
+	 * @param percentile the percentile, from 0.0 to 100.0.
+	 * @return the value in microseconds, or zero if nothing is recorded.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long count = totalCount.get();
+		if (count == 0) {
+			return 0L;
+		}
+		double ratio = Math.min(Math.max(percentile, 0.0), PERCENT) / PERCENT;
+		long targetCount = Math.max(1L, (long) Math.ceil(ratio * count));
+		long accumulated = 0L;
+		for (int idx = 0; idx < BUCKET_COUNT; idx += 1) {
+			accumulated += counts.get(idx);
+			if (accumulated >= targetCount) {
+				return Math.min(highestEquivalentValue(idx), getMaxUsec());
+			}
+		}
+		return getMaxUsec();
+	}
+
+	/**
+	 * Adds all values recorded in another histogram to this histogram.
+	 * @param other the other histogram.
+	 */
+	public void add(LatencyHistogram other) {
+		for (int idx = 0; idx < BUCKET_COUNT; idx += 1) {
+			long count = other.counts.get(idx);
+			if (count > 0) {
+				counts.addAndGet(idx, count);
+			}
+		}
+		totalCount.addAndGet(other.totalCount.get());
+		totalUsec.addAndGet(other.totalUsec.get());
+		long otherMax = other.maxUsec.get();
+		long currentMax = maxUsec.get();
+		while (otherMax > currentMax && !maxUsec.compareAndSet(currentMax, otherMax)) {
+			currentMax = maxUsec.get();
+		}
+	}
+
+	/**
+	 * Calculates the bucket index of the value.
+	 * @param value the value, which is zero or positive.
+	 * @return the index.
+	 */
+	static int indexOf(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+		return SUB_BUCKET_HALF_COUNT * shift + (int) (value >>> shift);
+	}
+
+	/**
+	 * Calculates the lowest value in the bucket.
+	 * @param index the bucket index.
+	 * @return the value.
+	 */
+	static long lowestEquivalentValue(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = index / SUB_BUCKET_HALF_COUNT - 1;
+		long mantissa = index - SUB_BUCKET_HALF_COUNT * shift;
+		return mantissa << shift;
+	}
+
+	/**
+	 * Calculates the highest value in the bucket.
+	 * @param index the bucket index.
+	 * @return the value.
+	 */
+	static long highestEquivalentValue(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = index / SUB_BUCKET_HALF_COUNT - 1;
+		return lowestEquivalentValue(index) + (1L << shift) - 1;
+	}
+}
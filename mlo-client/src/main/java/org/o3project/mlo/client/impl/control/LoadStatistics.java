@@ -0,0 +1,328 @@
+/**
+ * LoadStatistics.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * This class holds latency histograms and error counts per operation in a load run,
+ * and reports percentiles and throughput of the run.
+ * <p>
+ * Operations are reported in the order of {@link #OPERATIONS}, followed by other operations in the recorded order.
+ * </p>
+ * This class is thread-safe.
+ */
+public class LoadStatistics {
+	private static final Log LOG = LogFactory.getLog(LoadStatistics.class);
+
+	/** Operation name of getting the slice list. */
+	public static final String OP_LIST = "list";
+
+	/** Operation name of reading a slice. */
+	public static final String OP_READ = "read";
+
+	/** Operation name of creating a slice. */
+	public static final String OP_CREATE = "create";
+
+	/** Operation name of updating a slice. */
+	public static final String OP_UPDATE = "update";
+
+	/** Operation name of deleting a slice. */
+	public static final String OP_DELETE = "delete";
+
+	private static final String[] OPERATIONS = {OP_CREATE, OP_READ, OP_UPDATE, OP_DELETE, OP_LIST};
+
+	private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+	private static final String[] PERCENTILE_LABELS = {"p50", "p90", "p99", "p99.9"};
+
+	private static final double USEC_PER_MSEC = 1000.0;
+
+	private static final double NSEC_PER_SEC = 1000000000.0;
+
+	private static final String CHARSET = "UTF-8";
+
+	private final ConcurrentMap<String, OperationStats> statsMap = new ConcurrentHashMap<String, OperationStats>();
+
+	private final List<String> otherOperations = new ArrayList<String>();
+
+	private volatile long startNanos = System.nanoTime();
+
+	private volatile long endNanos = -1L;
+
+	/**
+	 * This class holds the statistics of an operation.
+	 */
+	public static final class OperationStats {
+		private final LatencyHistogram histogram = new LatencyHistogram();
+
+		private final AtomicLong errorCount = new AtomicLong();
+
+		/**
+		 * Obtains the latency histogram of the operation, which includes failed requests.
+		 * @return the histogram.
+		 */
+		public LatencyHistogram getHistogram() {
+			return histogram;
+		}
+
+		/**
+		 * Obtains the number of failed requests.
+		 * @return the count.
+		 */
+		public long getErrorCount() {
+			return errorCount.get();
+		}
+
+		/**
+		 * Obtains the number of all requests.
+		 * @return the count.
+		 */
+		public long getCount() {
+			return histogram.getTotalCount();
+		}
+	}
+
+	/**
+	 * Starts the run.
+	 * The elapsed time of the run, which is used for throughput, is measured from this point.
+	 */
+	public void start() {
+		startNanos = System.nanoTime();
+		endNanos = -1L;
+	}
+
+	/**
+	 * Stops the run.
+	 */
+	public void stop() {
+		endNanos = System.nanoTime();
+	}
+
+	/**
+	 * Obtains the elapsed time of the run.
+	 * If the run has not been stopped, the time until now is returned.
+	 * @return the time in nanoseconds.
+	 */
+	public long getElapsedNanos() {
+		long end = endNanos;
+		return ((end < 0) ? System.nanoTime() : end) - startNanos;
+	}
+
+	/**
+	 * Records a request.
+	 * @param operation the operation name.
+	 * @param elapsedNanos the latency in nanoseconds.
+	 * @param isSucceeded true if the request succeeded.
+	 */
+	public void record(String operation, long elapsedNanos, boolean isSucceeded) {
+		OperationStats stats = getOperationStats(operation);
+		stats.histogram.record(elapsedNanos, TimeUnit.NANOSECONDS);
+		if (!isSucceeded) {
+			stats.errorCount.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Obtains the statistics of the operation.
+	 * @param operation the operation name.
+	 * @return the statistics, which is created if not exists.
+	 */
+	public OperationStats getOperationStats(String operation) {
+		OperationStats stats = statsMap.get(operation);
+		if (stats == null) {
+			OperationStats newStats = new OperationStats();
+			stats = statsMap.putIfAbsent(operation, newStats);
+			if (stats == null) {
+				stats = newStats;
+				if (!isKnownOperation(operation)) {
+					synchronized (otherOperations) {
+						otherOperations.add(operation);
+					}
+				}
+			}
+		}
+		return stats;
+	}
+
+	/**
+	 * Obtains the names of recorded operations in the report order.
+	 * @return the names.
+	 */
+	public List<String> getOperations() {
+		List<String> operations = new ArrayList<String>();
+		for (String operation : OPERATIONS) {
+			if (statsMap.containsKey(operation)) {
+				operations.add(operation);
+			}
+		}
+		synchronized (otherOperations) {
+			operations.addAll(otherOperations);
+		}
+		return operations;
+	}
+
+	/**
+	 * Formats the summary of the run as a human-readable table.
+	 * @return the lines of the table.
+	 */
+	public List<String> formatSummary() {
+		List<String> lines = new ArrayList<String>();
+		double elapsedSec = getElapsedNanos() / NSEC_PER_SEC;
+		lines.add(String.format(Locale.US, "Elapsed time: %.3f [sec]", elapsedSec));
+		lines.add(String.format(Locale.US, "%-8s %8s %7s %10s %10s %10s %10s %10s %10s",
+				"op", "count", "errors", "ops/sec",
+				PERCENTILE_LABELS[0] + "[ms]", PERCENTILE_LABELS[1] + "[ms]",
+				PERCENTILE_LABELS[2] + "[ms]", PERCENTILE_LABELS[3] + "[ms]", "max[ms]"));
+		for (String operation : getOperations()) {
+			OperationStats stats = statsMap.get(operation);
+			LatencyHistogram histogram = stats.getHistogram();
+			lines.add(String.format(Locale.US, "%-8s %8d %7d %10.1f %10.3f %10.3f %10.3f %10.3f %10.3f",
+					operation, stats.getCount(), stats.getErrorCount(), getThroughput(stats, elapsedSec),
+					toMsec(histogram.getValueAtPercentile(PERCENTILES[0])),
+					toMsec(histogram.getValueAtPercentile(PERCENTILES[1])),
+					toMsec(histogram.getValueAtPercentile(PERCENTILES[2])),
+					toMsec(histogram.getValueAtPercentile(PERCENTILES[3])),
+					toMsec(histogram.getMaxUsec())));
+		}
+		return lines;
+	}
+
+	/**
+	 * Writes the statistics as CSV, which has a header line and a line per operation.
+	 * @param writer the writer, which is not closed.
+	 * @throws IOException Failed to write.
+	 */
+	public void writeCsv(Writer writer) throws IOException {
+		double elapsedSec = getElapsedNanos() / NSEC_PER_SEC;
+		StringBuilder sb = new StringBuilder();
+		sb.append("operation,count,errors,elapsed_sec,throughput_per_sec,mean_ms");
+		for (String label : PERCENTILE_LABELS) {
+			sb.append(',').append(label).append("_ms");
+		}
+		sb.append(",max_ms\n");
+		for (String operation : getOperations()) {
+			OperationStats stats = statsMap.get(operation);
+			LatencyHistogram histogram = stats.getHistogram();
+			sb.append(operation)
+				.append(',').append(stats.getCount())
+				.append(',').append(stats.getErrorCount())
+				.append(',').append(format(elapsedSec))
+				.append(',').append(format(getThroughput(stats, elapsedSec)))
+				.append(',').append(format(histogram.getMeanUsec() / USEC_PER_MSEC));
+			for (double percentile : PERCENTILES) {
+				sb.append(',').append(format(toMsec(histogram.getValueAtPercentile(percentile))));
+			}
+			sb.append(',').append(format(toMsec(histogram.getMaxUsec()))).append('\n');
+		}
+		writer.write(sb.toString());
+		writer.flush();
+	}
+
+	/**
+	 * Writes the statistics as JSON.
+	 * @param writer the writer, which is not closed.
+	 * @throws IOException Failed to write.
+	 */
+	public void writeJson(Writer writer) throws IOException {
+		double elapsedSec = getElapsedNanos() / NSEC_PER_SEC;
+		StringBuilder sb = new StringBuilder();
+		sb.append("{\n  \"elapsedSec\": ").append(format(elapsedSec)).append(",\n  \"operations\": {");
+		String separator = "\n";
+		for (String operation : getOperations()) {
+			OperationStats stats = statsMap.get(operation);
+			LatencyHistogram histogram = stats.getHistogram();
+			sb.append(separator).append("    \"").append(escapeJson(operation)).append("\": {")
+				.append("\"count\": ").append(stats.getCount())
+				.append(", \"errors\": ").append(stats.getErrorCount())
+				.append(", \"throughputPerSec\": ").append(format(getThroughput(stats, elapsedSec)))
+				.append(", \"meanMs\": ").append(format(histogram.getMeanUsec() / USEC_PER_MSEC));
+			for (int idx = 0; idx < PERCENTILES.length; idx += 1) {
+				sb.append(", \"").append(PERCENTILE_LABELS[idx]).append("Ms\": ")
+					.append(format(toMsec(histogram.getValueAtPercentile(PERCENTILES[idx]))));
+			}
+			sb.append(", \"maxMs\": ").append(format(toMsec(histogram.getMaxUsec()))).append('}');
+			separator = ",\n";
+		}
+		sb.append("\n  }\n}\n");
+		writer.write(sb.toString());
+		writer.flush();
+	}
+
+	/**
+	 * Logs the summary, and exports the statistics to the files.
+	 * @param csvFilePath the CSV file path, or null or empty if not exported.
+	 * @param jsonFilePath the JSON file path, or null or empty if not exported.
+	 */
+	public void report(String csvFilePath, String jsonFilePath) {
+		for (String line : formatSummary()) {
+			LOG.info(line);
+		}
+		try {
+			if (csvFilePath != null && !csvFilePath.isEmpty()) {
+				try (Writer writer = new OutputStreamWriter(new FileOutputStream(csvFilePath), CHARSET)) {
+					writeCsv(writer);
+				}
+				LOG.info("Statistics have been exported to " + csvFilePath);
+			}
+			if (jsonFilePath != null && !jsonFilePath.isEmpty()) {
+				try (Writer writer = new OutputStreamWriter(new FileOutputStream(jsonFilePath), CHARSET)) {
+					writeJson(writer);
+				}
+				LOG.info("Statistics have been exported to " + jsonFilePath);
+			}
+		} catch (IOException e) {
+			LOG.error("Failed to export statistics.", e);
+		}
+	}
+
+	private static boolean isKnownOperation(String operation) {
+		for (String known : OPERATIONS) {
+			if (known.equals(operation)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static double getThroughput(OperationStats stats, double elapsedSec) {
+		return (elapsedSec <= 0.0) ? 0.0 : (stats.getCount() - stats.getErrorCount()) / elapsedSec;
+	}
+
+	private static double toMsec(long usec) {
+		return usec / USEC_PER_MSEC;
+	}
+
+	private static String format(double value) {
+		return String.format(Locale.US, "%.3f", value);
+	}
+
+	private static String escapeJson(String value) {
+		StringBuilder sb = new StringBuilder();
+		for (char ch : value.toCharArray()) {
+			if (ch == '"' || ch == '\\') {
+				sb.append('\\').append(ch);
+			} else if (ch < ' ') {
+				sb.append(String.format("\\u%04x", (int) ch));
+			} else {
+				sb.append(ch);
+			}
+		}
+		return sb.toString();
+	}
+}
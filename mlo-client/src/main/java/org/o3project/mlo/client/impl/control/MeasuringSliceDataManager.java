@@ -0,0 +1,163 @@
+/**
+ * MeasuringSliceDataManager.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.util.List;
+
+import org.o3project.mlo.client.control.MloClientException;
+import org.o3project.mlo.client.control.SliceBatchResult;
+import org.o3project.mlo.client.control.SliceDataManager;
+import org.o3project.mlo.client.control.SliceHandler;
+
+import org.o3project.mlo.server.dto.SliceDto;
+
+/**
+ * This class is a decorator of {@link SliceDataManager} interface,
+ * which records the latency and the result of each request into {@link LoadStatistics}.
+ * A request is recorded as failed if it throws an exception.
+ */
+public class MeasuringSliceDataManager implements SliceDataManager {
+
+	private final SliceDataManager delegate;
+
+	private final LoadStatistics statistics;
+
+	/**
+	 * A constructor.
+	 * @param delegate the decorated instance.
+	 * @param statistics the statistics into which requests are recorded.
+	 */
+	public MeasuringSliceDataManager(SliceDataManager delegate, LoadStatistics statistics) {
+		this.delegate = delegate;
+		this.statistics = statistics;
+	}
+
+	/**
+	 * Obtains the statistics.
+	 * @return the statistics.
+	 */
+	public LoadStatistics getStatistics() {
+		return statistics;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#getSliceList()
+	 */
+	@Override
+	public List<SliceDto> getSliceList() throws MloClientException {
+		long startNanos = System.nanoTime();
+		boolean isSucceeded = false;
+		try {
+			List<SliceDto> slices = delegate.getSliceList();
+			isSucceeded = true;
+			return slices;
+		} finally {
+			statistics.record(LoadStatistics.OP_LIST, System.nanoTime() - startNanos, isSucceeded);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#forEachSlice(org.o3project.mlo.client.control.SliceHandler)
+	 */
+	@Override
+	public void forEachSlice(SliceHandler handler) throws MloClientException {
+		long startNanos = System.nanoTime();
+		boolean isSucceeded = false;
+		try {
+			delegate.forEachSlice(handler);
+			isSucceeded = true;
+		} finally {
+			statistics.record(LoadStatistics.OP_LIST, System.nanoTime() - startNanos, isSucceeded);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#getSliceInfo(org.o3project.mlo.server.dto.SliceDto)
+	 */
+	@Override
+	public SliceDto getSliceInfo(SliceDto slice) throws MloClientException {
+		long startNanos = System.nanoTime();
+		boolean isSucceeded = false;
+		try {
+			SliceDto resSlice = delegate.getSliceInfo(slice);
+			isSucceeded = true;
+			return resSlice;
+		} finally {
+			statistics.record(LoadStatistics.OP_READ, System.nanoTime() - startNanos, isSucceeded);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#createSliceInfo(org.o3project.mlo.server.dto.SliceDto)
+	 */
+	@Override
+	public SliceDto createSliceInfo(SliceDto slice) throws MloClientException {
+		long startNanos = System.nanoTime();
+		boolean isSucceeded = false;
+		try {
+			SliceDto resSlice = delegate.createSliceInfo(slice);
+			isSucceeded = true;
+			return resSlice;
+		} finally {
+			statistics.record(LoadStatistics.OP_CREATE, System.nanoTime() - startNanos, isSucceeded);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#updateSliceInfo(org.o3project.mlo.server.dto.SliceDto)
+	 */
+	@Override
+	public SliceDto updateSliceInfo(SliceDto slice) throws MloClientException {
+		long startNanos = System.nanoTime();
+		boolean isSucceeded = false;
+		try {
+			SliceDto resSlice = delegate.updateSliceInfo(slice);
+			isSucceeded = true;
+			return resSlice;
+		} finally {
+			statistics.record(LoadStatistics.OP_UPDATE, System.nanoTime() - startNanos, isSucceeded);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#deleteSliceInfo(org.o3project.mlo.server.dto.SliceDto)
+	 */
+	@Override
+	public SliceDto deleteSliceInfo(SliceDto slice) throws MloClientException {
+		long startNanos = System.nanoTime();
+		boolean isSucceeded = false;
+		try {
+			SliceDto resSlice = delegate.deleteSliceInfo(slice);
+			isSucceeded = true;
+			return resSlice;
+		} finally {
+			statistics.record(LoadStatistics.OP_DELETE, System.nanoTime() - startNanos, isSucceeded);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#createSliceInfos(java.util.List, int)
+	 */
+	@Override
+	public List<SliceBatchResult> createSliceInfos(List<SliceDto> slices, int parallelism) throws InterruptedException {
+		return SliceBatchExecutor.execute(this, SliceBatchExecutor.CREATE, slices, parallelism);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#updateSliceInfos(java.util.List, int)
+	 */
+	@Override
+	public List<SliceBatchResult> updateSliceInfos(List<SliceDto> slices, int parallelism) throws InterruptedException {
+		return SliceBatchExecutor.execute(this, SliceBatchExecutor.UPDATE, slices, parallelism);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#deleteSliceInfos(java.util.List, int)
+	 */
+	@Override
+	public List<SliceBatchResult> deleteSliceInfos(List<SliceDto> slices, int parallelism) throws InterruptedException {
+		return SliceBatchExecutor.execute(this, SliceBatchExecutor.DELETE, slices, parallelism);
+	}
+}
@@ -0,0 +1,198 @@
+/**
+ * MeteredMloInvoker.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+
+import org.o3project.mlo.client.control.MloAccessException;
+import org.o3project.mlo.client.control.MloInvoker;
+import org.o3project.mlo.client.control.MloMethod;
+import org.seasar.framework.container.annotation.tiger.Binding;
+import org.seasar.framework.container.annotation.tiger.BindingType;
+
+import org.o3project.mlo.server.dto.RestifRequestDto;
+import org.o3project.mlo.server.dto.RestifResponseDto;
+
+/**
+ * This class is the decorator of {@link MloInvoker}, which records each request into {@link TransportStatistics}.
+ * <p>
+ * Bytes are counted on the streams passed to {@link MloMethod}, so that the decorated invoker
+ * is given a wrapped method. Therefore this invoker must be inside decorators which check the type
+ * of the method, such as {@link ResilientMloInvoker}. Each retry is recorded as a request.
+ * </p>
+ * This class is thread-safe.
+ */
+public class MeteredMloInvoker implements MloInvoker {
+
+	private volatile MloInvoker delegate;
+
+	private final TransportStatistics statistics = new TransportStatistics();
+
+	/**
+	 * Sets the decorated invoker.
+	 * This is not injected by DI, because the invoker is selected by {@link SliceDataManagerImpl}.
+	 * @param delegate the invoker.
+	 */
+	@Binding(bindingType = BindingType.NONE)
+	public void setDelegate(MloInvoker delegate) {
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Obtains the statistics.
+	 * @return the statistics.
+	 */
+	public TransportStatistics getStatistics() {
+		return statistics;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.MloInvoker#invoke(org.o3project.mlo.client.control.MloMethod, org.o3project.mlo.server.dto.RestifRequestDto, java.lang.String, java.util.Map)
+	 */
+	@Override
+	public RestifResponseDto invoke(MloMethod method, RestifRequestDto reqDto, String path, Map<String, String> params)
+			throws MloAccessException {
+		statistics.startRequest();
+		try {
+			RestifResponseDto resDto = delegate.invoke(new CountingMethod(method, statistics), reqDto, path, params);
+			statistics.recordSuccess();
+			return resDto;
+		} catch (MloAccessException e) {
+			statistics.recordFailure(e);
+			throw e;
+		} finally {
+			statistics.endRequest();
+		}
+	}
+
+	/**
+	 * This class is the decorator of {@link MloMethod}, which counts bytes of request and response bodies.
+	 */
+	private static final class CountingMethod implements MloMethod {
+		private final MloMethod method;
+		private final TransportStatistics statistics;
+
+		CountingMethod(MloMethod method, TransportStatistics statistics) {
+			this.method = method;
+			this.statistics = statistics;
+		}
+
+		@Override
+		public String getName() {
+			return method.getName();
+		}
+
+		@Override
+		public boolean isSetDoOutput() {
+			return method.isSetDoOutput();
+		}
+
+		@Override
+		public void handleReqOutput(RestifRequestDto reqDto, OutputStream ostream) {
+			CountingOutputStream countingStream = new CountingOutputStream(ostream);
+			try {
+				method.handleReqOutput(reqDto, countingStream);
+			} finally {
+				statistics.addBytesOut(countingStream.count);
+			}
+		}
+
+		@Override
+		public RestifResponseDto handleResInput(InputStream istream) {
+			CountingInputStream countingStream = new CountingInputStream(istream);
+			try {
+				return method.handleResInput(countingStream);
+			} finally {
+				statistics.addBytesIn(countingStream.count);
+			}
+		}
+
+		@Override
+		public Integer getConnectionTimeoutSec() {
+			return method.getConnectionTimeoutSec();
+		}
+
+		@Override
+		public Integer getReadTimeoutSec() {
+			return method.getReadTimeoutSec();
+		}
+
+		@Override
+		public String constructUrl(String path, Map<String, String> params) {
+			return method.constructUrl(path, params);
+		}
+	}
+
+	/**
+	 * This class counts written bytes.
+	 */
+	private static final class CountingOutputStream extends FilterOutputStream {
+		private long count = 0L;
+
+		CountingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			count += 1L;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+		}
+	}
+
+	/**
+	 * This class counts read bytes.
+	 */
+	private static final class CountingInputStream extends FilterInputStream {
+		private long count = 0L;
+
+		CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = in.read();
+			if (b >= 0) {
+				count += 1L;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int nRead = in.read(b, off, len);
+			if (nRead > 0) {
+				count += nRead;
+			}
+			return nRead;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long nSkipped = in.skip(n);
+			count += nSkipped;
+			return nSkipped;
+		}
+
+		@Override
+		public boolean markSupported() {
+			// Counting would be wrong after reset.
+			return false;
+		}
+	}
+}
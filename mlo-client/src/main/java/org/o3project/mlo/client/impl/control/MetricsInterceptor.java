@@ -0,0 +1,98 @@
+/**
+ * MetricsInterceptor.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.seasar.framework.aop.interceptors.AbstractInterceptor;
+import org.seasar.framework.container.annotation.tiger.Binding;
+
+/**
+ * This class is the interceptor which records metrics of each method call into {@link MetricsRegistry}.
+ * <p>
+ * The metric name is the simple name of the measured interface and the method name,
+ * e.g. "SliceDataManager.getSliceInfo". Overloaded methods share the metrics.
+ * If the measured interface is designated, methods which are not declared by it,
+ * such as listener methods of the component, are not recorded.
+ * </p>
+ * This class is thread-safe.
+ */
+public class MetricsInterceptor extends AbstractInterceptor {
+
+	private static final long serialVersionUID = 1L;
+
+	/** The name which denotes that the method is not measured. */
+	private static final String NOT_MEASURED = "";
+
+	private transient MetricsRegistry metricsRegistry;
+
+	private transient Class<?> measuredInterface;
+
+	private final transient ConcurrentMap<Method, String> nameCache = new ConcurrentHashMap<Method, String>();
+
+	/**
+	 * Setter method (for DI setter injection).
+	 * @param metricsRegistry The instance.
+	 */
+	@Binding
+	public void setMetricsRegistry(MetricsRegistry metricsRegistry) {
+		this.metricsRegistry = metricsRegistry;
+	}
+
+	/**
+	 * Sets the interface whose methods are measured.
+	 * @param measuredInterface the interface, or null if all methods are measured.
+	 */
+	public void setMeasuredInterface(Class<?> measuredInterface) {
+		this.measuredInterface = measuredInterface;
+		nameCache.clear();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.aopalliance.intercept.MethodInterceptor#invoke(org.aopalliance.intercept.MethodInvocation)
+	 */
+	@Override
+	public Object invoke(MethodInvocation invocation) throws Throwable {
+		String name = getMetricName(invocation.getMethod());
+		if (NOT_MEASURED.equals(name)) {
+			return invocation.proceed();
+		}
+		MetricsRegistry.MethodMetrics metrics = metricsRegistry.getMethodMetrics(name);
+		long startNanos = metrics.start();
+		Throwable error = null;
+		try {
+			return invocation.proceed();
+		} catch (Throwable e) {
+			error = e;
+			throw e;
+		} finally {
+			metrics.end(startNanos, error);
+		}
+	}
+
+	private String getMetricName(Method method) {
+		String name = nameCache.get(method);
+		if (name == null) {
+			name = createMetricName(method);
+			nameCache.put(method, name);
+		}
+		return name;
+	}
+
+	private String createMetricName(Method method) {
+		if (measuredInterface == null) {
+			return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+		}
+		try {
+			measuredInterface.getMethod(method.getName(), method.getParameterTypes());
+		} catch (NoSuchMethodException e) {
+			return NOT_MEASURED;
+		}
+		return measuredInterface.getSimpleName() + "." + method.getName();
+	}
+}
@@ -0,0 +1,177 @@
+/**
+ * MetricsRegistry.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class holds metrics per method of components, which are recorded by {@link MetricsInterceptor}.
+ * <p>
+ * Each method has the call count, the error counts by exception type, the number of calls in flight
+ * and the latency histogram. The metrics are accumulated since the start of the process, and
+ * are read by the GUI, the CLI load modes and JMX through the "metricsRegistry" component.
+ * </p>
+ * This class is thread-safe.
+ */
+public class MetricsRegistry {
+
+	private static final double[] PERCENTILES = {50.0, 90.0, 99.0};
+
+	private static final double USEC_PER_MSEC = 1000.0;
+
+	private final ConcurrentMap<String, MethodMetrics> metricsMap = new ConcurrentHashMap<String, MethodMetrics>();
+
+	/**
+	 * This class holds the metrics of a method.
+	 */
+	public static final class MethodMetrics {
+		private final AtomicLong callCount = new AtomicLong();
+		private final AtomicInteger inFlight = new AtomicInteger();
+		private final ConcurrentMap<String, AtomicLong> errorCounts = new ConcurrentHashMap<String, AtomicLong>();
+		private final LatencyHistogram histogram = new LatencyHistogram();
+
+		/**
+		 * Records the start of a call.
+		 * @return the start time, which must be passed to {@link #end(long, Throwable)}.
+		 */
+		public long start() {
+			callCount.incrementAndGet();
+			inFlight.incrementAndGet();
+			return System.nanoTime();
+		}
+
+		/**
+		 * Records the end of a call.
+		 * @param startNanos the start time returned by {@link #start()}.
+		 * @param error the thrown exception, or null if succeeded.
+		 */
+		public void end(long startNanos, Throwable error) {
+			histogram.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+			inFlight.decrementAndGet();
+			if (error != null) {
+				String type = error.getClass().getSimpleName();
+				AtomicLong count = errorCounts.get(type);
+				if (count == null) {
+					AtomicLong newCount = new AtomicLong();
+					count = errorCounts.putIfAbsent(type, newCount);
+					if (count == null) {
+						count = newCount;
+					}
+				}
+				count.incrementAndGet();
+			}
+		}
+
+		/**
+		 * Obtains the number of calls, including those in flight.
+		 * @return the count.
+		 */
+		public long getCallCount() {
+			return callCount.get();
+		}
+
+		/**
+		 * Obtains the number of calls in flight.
+		 * @return the count.
+		 */
+		public int getInFlight() {
+			return inFlight.get();
+		}
+
+		/**
+		 * Obtains the number of errors of all types.
+		 * @return the count.
+		 */
+		public long getErrorCount() {
+			long total = 0L;
+			for (AtomicLong count : errorCounts.values()) {
+				total += count.get();
+			}
+			return total;
+		}
+
+		/**
+		 * Obtains the number of errors by exception type, e.g. MloNbiException and MloAccessException.
+		 * @return the counts keyed by the simple name of the exception class, in the name order.
+		 */
+		public Map<String, Long> getErrorCounts() {
+			Map<String, Long> counts = new TreeMap<String, Long>();
+			for (Map.Entry<String, AtomicLong> entry : errorCounts.entrySet()) {
+				counts.put(entry.getKey(), entry.getValue().get());
+			}
+			return counts;
+		}
+
+		/**
+		 * Obtains the latency histogram of finished calls.
+		 * @return the histogram.
+		 */
+		public LatencyHistogram getHistogram() {
+			return histogram;
+		}
+	}
+
+	/**
+	 * Obtains the metrics of the method, which are created if not recorded yet.
+	 * @param name the metric name.
+	 * @return the metrics.
+	 */
+	public MethodMetrics getMethodMetrics(String name) {
+		MethodMetrics metrics = metricsMap.get(name);
+		if (metrics == null) {
+			MethodMetrics newMetrics = new MethodMetrics();
+			metrics = metricsMap.putIfAbsent(name, newMetrics);
+			if (metrics == null) {
+				metrics = newMetrics;
+			}
+		}
+		return metrics;
+	}
+
+	/**
+	 * Obtains the names of the recorded methods.
+	 * @return the names in the name order.
+	 */
+	public List<String> getNames() {
+		List<String> names = new ArrayList<String>(metricsMap.keySet());
+		Collections.sort(names);
+		return names;
+	}
+
+	/**
+	 * Formats the metrics as a human-readable table.
+	 * @return the lines of the table.
+	 */
+	public List<String> formatSummary() {
+		List<String> lines = new ArrayList<String>();
+		lines.add(String.format(Locale.US, "%-40s %8s %8s %8s %10s %10s %10s %10s  %s",
+				"method", "calls", "inFlight", "errors", "p50[ms]", "p90[ms]", "p99[ms]", "max[ms]", "errorsByType"));
+		for (String name : getNames()) {
+			MethodMetrics metrics = metricsMap.get(name);
+			LatencyHistogram histogram = metrics.getHistogram();
+			lines.add(String.format(Locale.US, "%-40s %8d %8d %8d %10.3f %10.3f %10.3f %10.3f  %s",
+					name, metrics.getCallCount(), metrics.getInFlight(), metrics.getErrorCount(),
+					toMsec(histogram.getValueAtPercentile(PERCENTILES[0])),
+					toMsec(histogram.getValueAtPercentile(PERCENTILES[1])),
+					toMsec(histogram.getValueAtPercentile(PERCENTILES[2])),
+					toMsec(histogram.getMaxUsec()), metrics.getErrorCounts()));
+		}
+		return lines;
+	}
+
+	static double toMsec(long usec) {
+		return usec / USEC_PER_MSEC;
+	}
+}
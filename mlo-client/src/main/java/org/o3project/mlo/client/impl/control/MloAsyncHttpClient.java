@@ -0,0 +1,423 @@
+/**
+ * MloAsyncHttpClient.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousChannelGroup;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.InterruptedByTimeoutException;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.o3project.mlo.client.control.MloCallback;
+
+/**
+ * This class is a non-blocking HTTP/1.1 client to mlo-srv.
+ * All exchanges are multiplexed over a fixed number of I/O threads
+ * by {@link AsynchronousChannelGroup}, so no thread waits for a response.
+ * Requests are encoded and responses are decoded by {@link MloHttpCodec}, as {@link MloHttpConnection} does.
+ * <p>
+ * Each exchange uses its own connection, which is closed by the server after the response,
+ * and the whole response is received before it is decoded.
+ * Callbacks are called on callback threads, so that decoding, e.g. unmarshalling XML, does not block I/O threads.
+ * Only "http" scheme is supported, because TLS is not provided for asynchronous channels.
+ * </p>
+ */
+class MloAsyncHttpClient {
+	private static final Log LOG = LogFactory.getLog(MloAsyncHttpClient.class);
+
+	private static final String SCHEME_HTTP = "http";
+
+	private static final int DEFAULT_HTTP_PORT = 80;
+
+	private static final int READ_BUFFER_SIZE = 8192;
+
+	private final AsynchronousChannelGroup group;
+
+	private final ScheduledExecutorService timer;
+
+	private final ExecutorService callbackExecutor;
+
+	private final AtomicInteger inFlightCount = new AtomicInteger();
+
+	/**
+	 * A constructor.
+	 * @param ioThreads the number of I/O threads.
+	 * @throws IOException Failed to create the channel group.
+	 */
+	MloAsyncHttpClient(int ioThreads) throws IOException {
+		if (ioThreads <= 0) {
+			throw new IllegalArgumentException("ioThreads must be positive: " + ioThreads);
+		}
+		group = AsynchronousChannelGroup.withFixedThreadPool(ioThreads, new DaemonThreadFactory("mlo-async-io"));
+		timer = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("mlo-async-timer"));
+		callbackExecutor = Executors.newFixedThreadPool(ioThreads, new DaemonThreadFactory("mlo-async-callback"));
+	}
+
+	/**
+	 * Starts an exchange.
+	 * The callback is called on a callback thread when the whole response has been received,
+	 * or when the exchange has failed or has been aborted.
+	 * @param methodName the HTTP method name.
+	 * @param url the URL, whose scheme must be "http".
+	 * @param body the request body, or null if no body is sent.
+	 * @param connectTimeoutMsec the connection timeout [msec]. Zero means infinite.
+	 * @param readTimeoutMsec the read timeout [msec]. Zero means infinite.
+	 * @param callback the callback.
+	 * @return the exchange, which can be aborted.
+	 */
+	Exchange execute(String methodName, URL url, byte[] body,
+			int connectTimeoutMsec, int readTimeoutMsec, MloCallback<Response> callback) {
+		if (!SCHEME_HTTP.equalsIgnoreCase(url.getProtocol())) {
+			throw new IllegalArgumentException("Only http is supported by the asynchronous client: " + url);
+		}
+		ByteBuffer request = ByteBuffer.wrap(concat(MloHttpCodec.encodeRequestHead(methodName, url, body, false), body));
+		Exchange exchange = new Exchange(url, request, connectTimeoutMsec, readTimeoutMsec, callback);
+		exchange.start();
+		return exchange;
+	}
+
+	/**
+	 * Obtains the number of exchanges in progress.
+	 * @return the number.
+	 */
+	int getInFlightCount() {
+		return inFlightCount.get();
+	}
+
+	/**
+	 * Closes all connections, and stops I/O threads.
+	 */
+	void shutdown() {
+		timer.shutdownNow();
+		callbackExecutor.shutdownNow();
+		try {
+			group.shutdownNow();
+		} catch (IOException e) {
+			LOG.debug("Failed to shutdown channel group.", e);
+		}
+	}
+
+	private static byte[] concat(byte[] head, byte[] body) {
+		if (body == null) {
+			return head;
+		}
+		byte[] bytes = new byte[head.length + body.length];
+		System.arraycopy(head, 0, bytes, 0, head.length);
+		System.arraycopy(body, 0, bytes, head.length, body.length);
+		return bytes;
+	}
+
+	/**
+	 * Parses a whole response.
+	 * @param data the received bytes.
+	 * @return the response.
+	 * @throws IOException The response is malformed.
+	 */
+	static Response parseResponse(byte[] data) throws IOException {
+		InputStream istream = new ByteArrayInputStream(data);
+		MloHttpCodec.ResponseHead head = MloHttpCodec.readResponseHead(istream);
+		if (head == null) {
+			throw new EOFException("The server closed the connection without response.");
+		}
+		ByteArrayOutputStream body = new ByteArrayOutputStream(data.length);
+		try (InputStream bodyStream = MloHttpCodec.createBodyStream(head, istream)) {
+			byte[] buf = new byte[READ_BUFFER_SIZE];
+			int nRead = 0;
+			while ((nRead = bodyStream.read(buf)) >= 0) {
+				body.write(buf, 0, nRead);
+			}
+		}
+		return new Response(head.getStatusCode(), head.getHeaders(), body.toByteArray());
+	}
+
+	private static void closeQuietly(AsynchronousSocketChannel channel) {
+		if (channel == null) {
+			return;
+		}
+		try {
+			channel.close();
+		} catch (IOException e) {
+			LOG.debug("Failed to close channel.", e);
+		}
+	}
+
+	/**
+	 * This class is the state of an exchange, which proceeds connect, write, and read by completion handlers.
+	 */
+	final class Exchange {
+		private final URL url;
+		private final ByteBuffer request;
+		private final int connectTimeoutMsec;
+		private final int readTimeoutMsec;
+		private final MloCallback<Response> callback;
+		private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+		private final ByteArrayOutputStream received = new ByteArrayOutputStream(READ_BUFFER_SIZE);
+		private final AtomicBoolean isFinished = new AtomicBoolean(false);
+		private final AtomicBoolean isConnectTimedOut = new AtomicBoolean(false);
+		private volatile AsynchronousSocketChannel channel;
+
+		/**
+		 * A constructor.
+		 * @param url the URL.
+		 * @param request the request bytes.
+		 * @param connectTimeoutMsec the connection timeout [msec].
+		 * @param readTimeoutMsec the read timeout [msec].
+		 * @param callback the callback.
+		 */
+		private Exchange(URL url, ByteBuffer request,
+				int connectTimeoutMsec, int readTimeoutMsec, MloCallback<Response> callback) {
+			this.url = url;
+			this.request = request;
+			this.connectTimeoutMsec = connectTimeoutMsec;
+			this.readTimeoutMsec = readTimeoutMsec;
+			this.callback = callback;
+		}
+
+		/**
+		 * Aborts this exchange, and closes the connection.
+		 * The callback fails with {@link CancellationException} unless the exchange has finished.
+		 */
+		void abort() {
+			fail(new CancellationException("The exchange has been aborted: " + url));
+		}
+
+		private void start() {
+			inFlightCount.incrementAndGet();
+			try {
+				channel = AsynchronousSocketChannel.open(group);
+				channel.setOption(StandardSocketOptions.TCP_NODELAY, Boolean.TRUE);
+			} catch (IOException e) {
+				fail(e);
+				return;
+			}
+			int port = url.getPort() < 0 ? DEFAULT_HTTP_PORT : url.getPort();
+			final ScheduledFuture<?> connectTimer = scheduleConnectTimeout();
+			try {
+				channel.connect(new InetSocketAddress(url.getHost(), port), null, new CompletionHandler<Void, Void>() {
+					@Override
+					public void completed(Void result, Void attachment) {
+						cancelTimer(connectTimer);
+						write();
+					}
+
+					@Override
+					public void failed(Throwable exc, Void attachment) {
+						cancelTimer(connectTimer);
+						if (isConnectTimedOut.get()) {
+							fail(new SocketTimeoutException("connect timed out"));
+						} else {
+							fail(exc);
+						}
+					}
+				});
+			} catch (RuntimeException e) {
+				cancelTimer(connectTimer);
+				fail(e);
+			}
+		}
+
+		private ScheduledFuture<?> scheduleConnectTimeout() {
+			if (connectTimeoutMsec <= 0) {
+				return null;
+			}
+			return timer.schedule(new Runnable() {
+				@Override
+				public void run() {
+					isConnectTimedOut.set(true);
+					closeQuietly(channel);
+				}
+			}, connectTimeoutMsec, TimeUnit.MILLISECONDS);
+		}
+
+		private void cancelTimer(ScheduledFuture<?> connectTimer) {
+			if (connectTimer != null) {
+				connectTimer.cancel(false);
+			}
+		}
+
+		private void write() {
+			channel.write(request, null, new CompletionHandler<Integer, Void>() {
+				@Override
+				public void completed(Integer result, Void attachment) {
+					if (request.hasRemaining()) {
+						write();
+					} else {
+						read();
+					}
+				}
+
+				@Override
+				public void failed(Throwable exc, Void attachment) {
+					fail(exc);
+				}
+			});
+		}
+
+		private void read() {
+			readBuffer.clear();
+			channel.read(readBuffer, readTimeoutMsec, TimeUnit.MILLISECONDS, null, new CompletionHandler<Integer, Void>() {
+				@Override
+				public void completed(Integer result, Void attachment) {
+					if (result < 0) {
+						succeed();
+						return;
+					}
+					received.write(readBuffer.array(), 0, result);
+					read();
+				}
+
+				@Override
+				public void failed(Throwable exc, Void attachment) {
+					if (exc instanceof InterruptedByTimeoutException) {
+						fail(new SocketTimeoutException("Read timed out"));
+					} else {
+						fail(exc);
+					}
+				}
+			});
+		}
+
+		private void succeed() {
+			if (!finish()) {
+				return;
+			}
+			final byte[] data = received.toByteArray();
+			dispatch(new Runnable() {
+				@Override
+				public void run() {
+					Response response = null;
+					try {
+						response = parseResponse(data);
+					} catch (IOException e) {
+						callback.failed(e);
+						return;
+					}
+					callback.completed(response);
+				}
+			});
+		}
+
+		private void fail(final Throwable exc) {
+			if (!finish()) {
+				return;
+			}
+			dispatch(new Runnable() {
+				@Override
+				public void run() {
+					callback.failed(exc);
+				}
+			});
+		}
+
+		private boolean finish() {
+			if (!isFinished.compareAndSet(false, true)) {
+				return false;
+			}
+			inFlightCount.decrementAndGet();
+			closeQuietly(channel);
+			return true;
+		}
+
+		private void dispatch(Runnable task) {
+			try {
+				callbackExecutor.execute(task);
+			} catch (RejectedExecutionException e) {
+				// Shut down.
+				LOG.debug("Callback is discarded: " + url, e);
+			}
+		}
+	}
+
+	/**
+	 * This class is a response received by {@link MloAsyncHttpClient}.
+	 */
+	static final class Response {
+		private final int statusCode;
+		private final Map<String, String> headers;
+		private final byte[] body;
+
+		/**
+		 * A constructor.
+		 * @param statusCode the status code.
+		 * @param headers the headers, whose names are lower-cased.
+		 * @param body the body.
+		 */
+		Response(int statusCode, Map<String, String> headers, byte[] body) {
+			this.statusCode = statusCode;
+			this.headers = headers;
+			this.body = body;
+		}
+
+		/**
+		 * Obtains the status code.
+		 * @return the status code.
+		 */
+		int getStatusCode() {
+			return statusCode;
+		}
+
+		/**
+		 * Obtains a header value.
+		 * @param name the header name.
+		 * @return the value, or null.
+		 */
+		String getHeader(String name) {
+			return headers.get(name.toLowerCase());
+		}
+
+		/**
+		 * Obtains the body.
+		 * @return the body.
+		 */
+		byte[] getBody() {
+			return body;
+		}
+	}
+
+	/**
+	 * This class creates daemon threads with a name prefix.
+	 */
+	private static final class DaemonThreadFactory implements ThreadFactory {
+		private final String prefix;
+		private final AtomicInteger threadCount = new AtomicInteger();
+
+		/**
+		 * A constructor.
+		 * @param prefix the thread name prefix.
+		 */
+		DaemonThreadFactory(String prefix) {
+			this.prefix = prefix;
+		}
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, prefix + "-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
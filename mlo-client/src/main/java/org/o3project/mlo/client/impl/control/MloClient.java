@@ -5,13 +5,17 @@
 package org.o3project.mlo.client.impl.control;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import javax.management.ObjectName;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.o3project.mlo.client.control.CredentialListener;
 import org.o3project.mlo.client.control.ClientConfig;
+import org.o3project.mlo.client.control.ClientConfigListener;
 import org.o3project.mlo.client.control.ClientConfigConstants;
 import org.o3project.mlo.client.control.FXMLUtil;
 import org.o3project.mlo.client.control.Credential;
@@ -26,6 +30,7 @@ import org.seasar.framework.container.SingletonS2Container;
 import org.seasar.framework.container.factory.SingletonS2ContainerFactory;
 
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.event.ActionEvent;
@@ -84,6 +89,8 @@ public class MloClient extends Application implements CredentialListener, Change
 	
 	private ExecutorService executorService;
 	
+	private ObjectName executorObjectName;
+	
 	private SliceTaskFactory sliceTaskFactory;
 	
 	/*
@@ -101,15 +108,21 @@ public class MloClient extends Application implements CredentialListener, Change
 			SingletonS2ContainerFactory.init();
 			LOG.info("S2Container has been initialized.");
 			
-			sliceDataManager = SingletonS2Container.getComponent("sliceDataManager");
 			clientConfig = SingletonS2Container.getComponent("clientConfig");
+			if (clientConfig.getSliceCacheFlag()) {
+				sliceDataManager = SingletonS2Container.getComponent("cachingSliceDataManager");
+			} else {
+				sliceDataManager = SingletonS2Container.getComponent("sliceDataManager");
+			}
 			LOG.info("S2 task has been started.");
 		} catch (RuntimeException e) {
 			LOG.fatal("Failed to initialize S2.", e);
 			throw e;
 		}
 		
-		executorService = Executors.newSingleThreadExecutor();
+		// ThreadPoolExecutor instead of Executors.newSingleThreadExecutor(), so that its queue is exposed by JMX.
+		executorService = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>());
+		executorObjectName = JmxExporter.registerExecutor("MloClient", executorService);
 		
 		sliceTaskFactory = new SliceTaskFactoryImpl(this);
 		
@@ -127,6 +140,17 @@ public class MloClient extends Application implements CredentialListener, Change
 		resultDlgCtrl = FXMLUtil.createController(ResultDialogboxControllerImpl.class, "resultDialogbox.fxml");
 	
 		infoViewCtrl.setTopologyViewUrl(clientConfig.getTopologyViewUri());
+		clientConfig.addClientConfigListener(new ClientConfigListener() {
+			@Override
+			public void configReloaded(final ClientConfig reloadedConfig) {
+				Platform.runLater(new Runnable() {
+					@Override
+					public void run() {
+						infoViewCtrl.updateTopologyViewUrl(reloadedConfig.getTopologyViewUri());
+					}
+				});
+			}
+		});
 		
 		if(ClientConfigConstants.CLIENT_TYPE_OTHER.equals(clientConfig.getSrcComponentName())){
 		}
@@ -158,6 +182,7 @@ public class MloClient extends Application implements CredentialListener, Change
 		LOG.info("MloClient#stop() starts.");
 		try {
 			final int waitSec = 2;
+			JmxExporter.unregister(executorObjectName);
 			executorService.shutdownNow();
 			executorService.awaitTermination(waitSec, TimeUnit.SECONDS);
 			
@@ -0,0 +1,272 @@
+/**
+ * MloConnectionPool.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * This class is the bounded per-host pool of persistent connections to mlo-srv.
+ * <ul>
+ *  <li>At most maxPerHost connections are leased or idle for each host at a time.
+ *  <li>Idle connections are closed after idleTimeoutMsec.
+ *  <li>Connections are closed when maxLifetimeMsec has passed since they were opened.
+ * </ul>
+ * This class is thread-safe.
+ */
+class MloConnectionPool {
+	private static final Log LOG = LogFactory.getLog(MloConnectionPool.class);
+
+	private static final long MIN_EVICTION_INTERVAL_MSEC = 1000L;
+
+	private static final long VALIDATE_AFTER_INACTIVITY_MSEC = 2000L;
+
+	private final int maxPerHost;
+
+	private final long idleTimeoutMsec;
+
+	private final long maxLifetimeMsec;
+
+	private final ConcurrentMap<String, HostPool> hostPools = new ConcurrentHashMap<String, HostPool>();
+
+	private final ScheduledExecutorService evictor;
+
+	private volatile boolean isShutdown = false;
+
+	private final AtomicLong createdCount = new AtomicLong();
+
+	private final AtomicLong reusedCount = new AtomicLong();
+
+	private final AtomicLong closedCount = new AtomicLong();
+
+	private final AtomicLong idleEvictedCount = new AtomicLong();
+
+	private final AtomicLong expiredCount = new AtomicLong();
+
+	private final AtomicLong staleCount = new AtomicLong();
+
+	private final AtomicLong leaseTimeoutCount = new AtomicLong();
+
+	/**
+	 * A constructor.
+	 * @param maxPerHost the maximum number of connections per host.
+	 * @param idleTimeoutMsec the idle timeout [msec]. Zero or negative means no idle timeout.
+	 * @param maxLifetimeMsec the maximum lifetime [msec]. Zero or negative means no limit.
+	 */
+	MloConnectionPool(int maxPerHost, long idleTimeoutMsec, long maxLifetimeMsec) {
+		if (maxPerHost <= 0) {
+			throw new IllegalArgumentException("maxPerHost must be positive: " + maxPerHost);
+		}
+		this.maxPerHost = maxPerHost;
+		this.idleTimeoutMsec = idleTimeoutMsec;
+		this.maxLifetimeMsec = maxLifetimeMsec;
+
+		long interval = MIN_EVICTION_INTERVAL_MSEC;
+		if (idleTimeoutMsec > 0L) {
+			interval = Math.max(interval, idleTimeoutMsec / 2);
+		}
+		evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "mlo-connection-evictor");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		evictor.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				evictExpired();
+			}
+		}, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Leases a connection to the host of the URL.
+	 * An idle connection is reused if available, otherwise a new connection is opened.
+	 * The leased connection must be returned by {@link #release(MloHttpConnection)}.
+	 * @param url the URL.
+	 * @param connectTimeoutMsec the connection timeout [msec], which is also used as the lease timeout. Zero means infinite.
+	 * @return the connection.
+	 * @throws IOException Failed to connect, or no connection became available in time.
+	 * @throws InterruptedException Interrupted while waiting for a connection.
+	 */
+	MloHttpConnection lease(URL url, int connectTimeoutMsec) throws IOException, InterruptedException {
+		if (isShutdown) {
+			throw new IOException("The connection pool has been shut down.");
+		}
+		HostPool hostPool = getHostPool(MloHttpConnection.getHostKey(url));
+		if (connectTimeoutMsec > 0) {
+			if (!hostPool.permits.tryAcquire(connectTimeoutMsec, TimeUnit.MILLISECONDS)) {
+				leaseTimeoutCount.incrementAndGet();
+				throw new IOException("Timeout waiting for connection from pool: " + hostPool.hostKey);
+			}
+		} else {
+			hostPool.permits.acquire();
+		}
+
+		boolean isLeased = false;
+		try {
+			MloHttpConnection conn = null;
+			long now = System.currentTimeMillis();
+			while ((conn = hostPool.idle.pollFirst()) != null) {
+				if (isExpired(conn, now)) {
+					closeConnection(conn);
+				} else if (now - conn.getLastUsedAt() > VALIDATE_AFTER_INACTIVITY_MSEC && conn.isStale()) {
+					staleCount.incrementAndGet();
+					closeConnection(conn);
+				} else {
+					reusedCount.incrementAndGet();
+					break;
+				}
+			}
+			if (conn == null) {
+				conn = MloHttpConnection.open(url, connectTimeoutMsec);
+				createdCount.incrementAndGet();
+				LOG.debug("New connection has been opened: " + hostPool.hostKey);
+			}
+			isLeased = true;
+			return conn;
+		} finally {
+			if (!isLeased) {
+				hostPool.permits.release();
+			}
+		}
+	}
+
+	/**
+	 * Returns a leased connection to this pool.
+	 * Connections which are not reusable or have been expired are closed.
+	 * @param conn the connection.
+	 */
+	void release(MloHttpConnection conn) {
+		HostPool hostPool = getHostPool(conn.getHostKey());
+		try {
+			if (!isShutdown && conn.isReusable() && !isLifetimeExpired(conn, System.currentTimeMillis())) {
+				hostPool.idle.offerFirst(conn);
+			} else {
+				closeConnection(conn);
+			}
+		} finally {
+			hostPool.permits.release();
+		}
+	}
+
+	/**
+	 * Closes idle connections which have been expired.
+	 */
+	void evictExpired() {
+		long now = System.currentTimeMillis();
+		for (HostPool hostPool : hostPools.values()) {
+			Iterator<MloHttpConnection> it = hostPool.idle.iterator();
+			while (it.hasNext()) {
+				MloHttpConnection conn = it.next();
+				if (isExpired(conn, now) && hostPool.idle.removeFirstOccurrence(conn)) {
+					closeConnection(conn);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Closes all idle connections, and stops the eviction thread.
+	 * Leased connections are closed when they are released.
+	 */
+	void shutdown() {
+		isShutdown = true;
+		evictor.shutdownNow();
+		for (HostPool hostPool : hostPools.values()) {
+			MloHttpConnection conn = null;
+			while ((conn = hostPool.idle.pollFirst()) != null) {
+				closeConnection(conn);
+			}
+		}
+	}
+
+	/**
+	 * Obtains the snapshot of the statistics of this pool.
+	 * @return the statistics.
+	 */
+	MloConnectionPoolStats getStats() {
+		int leased = 0;
+		int idle = 0;
+		for (HostPool hostPool : hostPools.values()) {
+			idle += hostPool.idle.size();
+			leased += maxPerHost - hostPool.permits.availablePermits();
+		}
+		return new MloConnectionPoolStats(maxPerHost, hostPools.size(), leased, idle,
+				createdCount.get(), reusedCount.get(), closedCount.get(),
+				idleEvictedCount.get(), expiredCount.get(), staleCount.get(), leaseTimeoutCount.get());
+	}
+
+	private HostPool getHostPool(String hostKey) {
+		HostPool hostPool = hostPools.get(hostKey);
+		if (hostPool == null) {
+			HostPool newPool = new HostPool(hostKey, maxPerHost);
+			hostPool = hostPools.putIfAbsent(hostKey, newPool);
+			if (hostPool == null) {
+				hostPool = newPool;
+			}
+		}
+		return hostPool;
+	}
+
+	private boolean isExpired(MloHttpConnection conn, long now) {
+		if (isLifetimeExpired(conn, now)) {
+			return true;
+		}
+		if (idleTimeoutMsec > 0L && now - conn.getLastUsedAt() >= idleTimeoutMsec) {
+			idleEvictedCount.incrementAndGet();
+			return true;
+		}
+		return false;
+	}
+
+	private boolean isLifetimeExpired(MloHttpConnection conn, long now) {
+		if (maxLifetimeMsec > 0L && now - conn.getCreatedAt() >= maxLifetimeMsec) {
+			expiredCount.incrementAndGet();
+			return true;
+		}
+		return false;
+	}
+
+	private void closeConnection(MloHttpConnection conn) {
+		conn.close();
+		closedCount.incrementAndGet();
+		LOG.debug("Connection has been closed: " + conn.getHostKey() + ", used " + conn.getUseCount() + " times");
+	}
+
+	/**
+	 * This class holds connections to a host.
+	 */
+	private static final class HostPool {
+		private final String hostKey;
+		private final Semaphore permits;
+		private final LinkedBlockingDeque<MloHttpConnection> idle = new LinkedBlockingDeque<MloHttpConnection>();
+
+		/**
+		 * A constructor.
+		 * @param hostKey the host key.
+		 * @param maxPerHost the maximum number of connections.
+		 */
+		HostPool(String hostKey, int maxPerHost) {
+			this.hostKey = hostKey;
+			this.permits = new Semaphore(maxPerHost, true);
+		}
+	}
+}
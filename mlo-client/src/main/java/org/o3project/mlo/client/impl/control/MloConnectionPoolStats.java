@@ -0,0 +1,162 @@
+/**
+ * MloConnectionPoolStats.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+/**
+ * This class is the immutable snapshot of the statistics of the connection pool
+ * used by {@link PooledMloInvokerImpl}.
+ */
+public final class MloConnectionPoolStats {
+
+	private final int maxPerHost;
+
+	private final int hostCount;
+
+	private final int leased;
+
+	private final int idle;
+
+	private final long created;
+
+	private final long reused;
+
+	private final long closed;
+
+	private final long idleEvicted;
+
+	private final long expired;
+
+	private final long stale;
+
+	private final long leaseTimeouts;
+
+	/**
+	 * A constructor.
+	 * @param maxPerHost the maximum number of connections per host.
+	 * @param hostCount the number of hosts.
+	 * @param leased the number of leased connections.
+	 * @param idle the number of idle connections.
+	 * @param created the total number of opened connections.
+	 * @param reused the total number of reuses of idle connections.
+	 * @param closed the total number of closed connections.
+	 * @param idleEvicted the total number of connections closed by idle timeout.
+	 * @param expired the total number of connections closed by maximum lifetime.
+	 * @param stale the total number of connections found to be closed by the server.
+	 * @param leaseTimeouts the total number of timeouts in waiting for a connection.
+	 */
+	MloConnectionPoolStats(int maxPerHost, int hostCount, int leased, int idle,
+			long created, long reused, long closed,
+			long idleEvicted, long expired, long stale, long leaseTimeouts) {
+		this.maxPerHost = maxPerHost;
+		this.hostCount = hostCount;
+		this.leased = leased;
+		this.idle = idle;
+		this.created = created;
+		this.reused = reused;
+		this.closed = closed;
+		this.idleEvicted = idleEvicted;
+		this.expired = expired;
+		this.stale = stale;
+		this.leaseTimeouts = leaseTimeouts;
+	}
+
+	/**
+	 * Obtains the maximum number of connections per host.
+	 * @return the number.
+	 */
+	public int getMaxPerHost() {
+		return maxPerHost;
+	}
+
+	/**
+	 * Obtains the number of hosts which the pool has connected to.
+	 * @return the number.
+	 */
+	public int getHostCount() {
+		return hostCount;
+	}
+
+	/**
+	 * Obtains the number of connections currently in use.
+	 * @return the number.
+	 */
+	public int getLeased() {
+		return leased;
+	}
+
+	/**
+	 * Obtains the number of idle connections kept alive in the pool.
+	 * @return the number.
+	 */
+	public int getIdle() {
+		return idle;
+	}
+
+	/**
+	 * Obtains the total number of connections opened.
+	 * @return the number.
+	 */
+	public long getCreated() {
+		return created;
+	}
+
+	/**
+	 * Obtains the total number of requests served by reused connections.
+	 * @return the number.
+	 */
+	public long getReused() {
+		return reused;
+	}
+
+	/**
+	 * Obtains the total number of connections closed.
+	 * @return the number.
+	 */
+	public long getClosed() {
+		return closed;
+	}
+
+	/**
+	 * Obtains the total number of connections closed by idle timeout.
+	 * @return the number.
+	 */
+	public long getIdleEvicted() {
+		return idleEvicted;
+	}
+
+	/**
+	 * Obtains the total number of connections closed by maximum lifetime.
+	 * @return the number.
+	 */
+	public long getExpired() {
+		return expired;
+	}
+
+	/**
+	 * Obtains the total number of idle connections found to be closed by the server.
+	 * @return the number.
+	 */
+	public long getStale() {
+		return stale;
+	}
+
+	/**
+	 * Obtains the total number of timeouts in waiting for a free connection.
+	 * @return the number.
+	 */
+	public long getLeaseTimeouts() {
+		return leaseTimeouts;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return String.format(
+				"leased=%d, idle=%d, maxPerHost=%d, hosts=%d, created=%d, reused=%d, closed=%d, idleEvicted=%d, expired=%d, stale=%d, leaseTimeouts=%d",
+				leased, idle, maxPerHost, hostCount, created, reused, closed, idleEvicted, expired, stale, leaseTimeouts);
+	}
+}
@@ -0,0 +1,365 @@
+/**
+ * MloHttpCodec.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class encodes HTTP/1.1 requests to mlo-srv and decodes responses.
+ * It is shared by the blocking client {@link MloHttpConnection} and
+ * the non-blocking client {@link MloAsyncHttpClient}.
+ */
+final class MloHttpCodec {
+
+	private static final String CRLF = "\r\n";
+
+	private static final String CHARSET_HEADER = "ISO-8859-1";
+
+	private static final int SC_100_CONTINUE = 100;
+
+	private static final int SC_200_OK = 200;
+
+	private static final int SC_204_NO_CONTENT = 204;
+
+	private static final int SC_304_NOT_MODIFIED = 304;
+
+	private static final int HEX_RADIX = 16;
+
+	private static final int HEAD_BUFFER_SIZE = 256;
+
+	private static final int LINE_BUFFER_SIZE = 64;
+
+	private MloHttpCodec() {
+		// Utility class.
+	}
+
+	/**
+	 * Encodes the request line and headers.
+	 * @param methodName the HTTP method name.
+	 * @param url the URL.
+	 * @param body the request body, or null if no body is sent.
+	 * @param isKeepAlive true if the connection is kept alive after the response.
+	 * @return the encoded bytes, which are followed by the body.
+	 */
+	static byte[] encodeRequestHead(String methodName, URL url, byte[] body, boolean isKeepAlive) {
+		String file = url.getFile();
+		if (file == null || file.isEmpty()) {
+			file = "/";
+		}
+		StringBuilder sb = new StringBuilder(HEAD_BUFFER_SIZE);
+		sb.append(methodName).append(' ').append(file).append(" HTTP/1.1").append(CRLF);
+		sb.append("Host: ").append(url.getHost());
+		if (url.getPort() >= 0) {
+			sb.append(':').append(url.getPort());
+		}
+		sb.append(CRLF);
+		sb.append("User-Agent: mlo-client").append(CRLF);
+		sb.append("Accept: application/xml, */*").append(CRLF);
+		sb.append("Connection: ").append(isKeepAlive ? "keep-alive" : "close").append(CRLF);
+		if (body != null) {
+			sb.append("Content-Type: application/xml; charset=UTF-8").append(CRLF);
+			sb.append("Content-Length: ").append(body.length).append(CRLF);
+		}
+		sb.append(CRLF);
+		try {
+			return sb.toString().getBytes(CHARSET_HEADER);
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Reads the status line and headers of a response.
+	 * Interim responses, e.g. "100 Continue", are skipped.
+	 * @param istream the stream, which is positioned at the body upon return.
+	 * @return the head, or null if the stream has reached the end before any response.
+	 * @throws IOException Failed to read, or the response is malformed.
+	 */
+	static ResponseHead readResponseHead(InputStream istream) throws IOException {
+		ResponseHead head = null;
+		do {
+			String statusLine = readLine(istream);
+			if (statusLine == null) {
+				return null;
+			}
+			head = new ResponseHead(statusLine, parseStatusCode(statusLine), readHeaders(istream));
+		} while (head.statusCode >= SC_100_CONTINUE && head.statusCode < SC_200_OK);
+		return head;
+	}
+
+	/**
+	 * Creates the stream of the response body, which ends at the end of the body.
+	 * Closing the stream does not close the underlying stream.
+	 * @param head the response head.
+	 * @param istream the stream positioned at the body.
+	 * @return the body stream.
+	 */
+	static InputStream createBodyStream(ResponseHead head, InputStream istream) {
+		if (head.statusCode == SC_204_NO_CONTENT || head.statusCode == SC_304_NOT_MODIFIED) {
+			return new ContentLengthInputStream(istream, 0L);
+		} else if (head.isChunked()) {
+			return new ChunkedInputStream(istream);
+		} else if (head.getHeader("content-length") != null) {
+			return new ContentLengthInputStream(istream, Long.parseLong(head.getHeader("content-length").trim()));
+		}
+		// The body is delimited by closing the connection.
+		return istream;
+	}
+
+	private static int parseStatusCode(String statusLine) throws IOException {
+		// e.g. "HTTP/1.1 200 OK"
+		String[] tokens = statusLine.split(" ", 3);
+		if (tokens.length < 2 || !tokens[0].startsWith("HTTP/")) {
+			throw new IOException("Invalid status line: " + statusLine);
+		}
+		try {
+			return Integer.parseInt(tokens[1]);
+		} catch (NumberFormatException e) {
+			throw new IOException("Invalid status line: " + statusLine, e);
+		}
+	}
+
+	private static Map<String, String> readHeaders(InputStream istream) throws IOException {
+		Map<String, String> headers = new HashMap<String, String>();
+		String line = null;
+		while ((line = readLine(istream)) != null && !line.isEmpty()) {
+			int idx = line.indexOf(':');
+			if (idx > 0) {
+				headers.put(line.substring(0, idx).trim().toLowerCase(), line.substring(idx + 1).trim());
+			}
+		}
+		if (line == null) {
+			throw new EOFException("Unexpected end of stream in response headers.");
+		}
+		return headers;
+	}
+
+	/**
+	 * Reads a line terminated with CRLF or LF.
+	 * @param istream the stream.
+	 * @return the line without terminator, or null if the stream has reached the end.
+	 * @throws IOException Failed to read.
+	 */
+	static String readLine(InputStream istream) throws IOException {
+		ByteArrayOutputStream line = new ByteArrayOutputStream(LINE_BUFFER_SIZE);
+		int ch = -1;
+		while ((ch = istream.read()) >= 0) {
+			if (ch == '\n') {
+				break;
+			}
+			if (ch != '\r') {
+				line.write(ch);
+			}
+		}
+		if (ch < 0 && line.size() == 0) {
+			return null;
+		}
+		return line.toString(CHARSET_HEADER);
+	}
+
+	/**
+	 * This class is the status line and headers of a response.
+	 */
+	static final class ResponseHead {
+		private final String statusLine;
+		private final int statusCode;
+		private final Map<String, String> headers;
+
+		/**
+		 * A constructor.
+		 * @param statusLine the status line.
+		 * @param statusCode the status code.
+		 * @param headers the headers, whose names are lower-cased.
+		 */
+		ResponseHead(String statusLine, int statusCode, Map<String, String> headers) {
+			this.statusLine = statusLine;
+			this.statusCode = statusCode;
+			this.headers = headers;
+		}
+
+		/**
+		 * Obtains the status code.
+		 * @return the status code.
+		 */
+		int getStatusCode() {
+			return statusCode;
+		}
+
+		/**
+		 * Obtains the headers.
+		 * @return the headers, whose names are lower-cased.
+		 */
+		Map<String, String> getHeaders() {
+			return headers;
+		}
+
+		/**
+		 * Obtains a header value.
+		 * @param name the header name.
+		 * @return the value, or null.
+		 */
+		String getHeader(String name) {
+			return headers.get(name.toLowerCase());
+		}
+
+		/**
+		 * Specifies whether the server keeps the connection alive after this response.
+		 * @return true if the connection can be reused.
+		 */
+		boolean isKeepAlive() {
+			String connHeader = getHeader("connection");
+			if (statusLine.startsWith("HTTP/1.0")) {
+				return connHeader != null && "keep-alive".equalsIgnoreCase(connHeader);
+			}
+			if (connHeader != null && "close".equalsIgnoreCase(connHeader)) {
+				return false;
+			}
+			// The body delimited by closing the connection cannot be followed by another response.
+			return statusCode == SC_204_NO_CONTENT || statusCode == SC_304_NOT_MODIFIED
+					|| isChunked() || getHeader("content-length") != null;
+		}
+
+		private boolean isChunked() {
+			String transferEncoding = getHeader("transfer-encoding");
+			return transferEncoding != null && transferEncoding.toLowerCase().contains("chunked");
+		}
+	}
+
+	/**
+	 * This class is the input stream of a response body with Content-Length.
+	 */
+	static class ContentLengthInputStream extends InputStream {
+		private final InputStream in;
+		private long remaining;
+
+		/**
+		 * A constructor.
+		 * @param in the underlying stream.
+		 * @param length the content length.
+		 */
+		ContentLengthInputStream(InputStream in, long length) {
+			this.in = in;
+			this.remaining = length;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (remaining <= 0) {
+				return -1;
+			}
+			int ch = in.read();
+			if (ch < 0) {
+				throw new EOFException("Unexpected end of stream in response body.");
+			}
+			remaining -= 1;
+			return ch;
+		}
+
+		@Override
+		public int read(byte[] buf, int off, int len) throws IOException {
+			if (remaining <= 0) {
+				return -1;
+			}
+			int nRead = in.read(buf, off, (int) Math.min(len, remaining));
+			if (nRead < 0) {
+				throw new EOFException("Unexpected end of stream in response body.");
+			}
+			remaining -= nRead;
+			return nRead;
+		}
+
+		@Override
+		public void close() {
+			// The underlying stream is owned by the connection.
+		}
+	}
+
+	/**
+	 * This class is the input stream of a response body with chunked transfer encoding.
+	 */
+	static class ChunkedInputStream extends InputStream {
+		private final InputStream in;
+		private long chunkRemaining = 0L;
+		private boolean eof = false;
+
+		/**
+		 * A constructor.
+		 * @param in the underlying stream.
+		 */
+		ChunkedInputStream(InputStream in) {
+			this.in = in;
+		}
+
+		private boolean nextChunk() throws IOException {
+			if (eof) {
+				return false;
+			}
+			if (chunkRemaining == 0L) {
+				String line = readLine(in);
+				if (line != null && line.isEmpty()) {
+					// CRLF after the previous chunk data.
+					line = readLine(in);
+				}
+				if (line == null) {
+					throw new EOFException("Unexpected end of stream in chunked body.");
+				}
+				int idx = line.indexOf(';');
+				String sSize = (idx >= 0 ? line.substring(0, idx) : line).trim();
+				try {
+					chunkRemaining = Long.parseLong(sSize, HEX_RADIX);
+				} catch (NumberFormatException e) {
+					throw new IOException("Invalid chunk size: " + line, e);
+				}
+				if (chunkRemaining == 0L) {
+					// Skips trailers.
+					while ((line = readLine(in)) != null && !line.isEmpty()) {
+						continue;
+					}
+					eof = true;
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (!nextChunk()) {
+				return -1;
+			}
+			int ch = in.read();
+			if (ch < 0) {
+				throw new EOFException("Unexpected end of stream in chunked body.");
+			}
+			chunkRemaining -= 1;
+			return ch;
+		}
+
+		@Override
+		public int read(byte[] buf, int off, int len) throws IOException {
+			if (!nextChunk()) {
+				return -1;
+			}
+			int nRead = in.read(buf, off, (int) Math.min(len, chunkRemaining));
+			if (nRead < 0) {
+				throw new EOFException("Unexpected end of stream in chunked body.");
+			}
+			chunkRemaining -= nRead;
+			return nRead;
+		}
+
+		@Override
+		public void close() {
+			// The underlying stream is owned by the connection.
+		}
+	}
+}
@@ -0,0 +1,280 @@
+/**
+ * MloHttpConnection.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * This class is a persistent HTTP/1.1 connection to mlo-srv.
+ * An instance is owned by {@link MloConnectionPool}, and is used by one thread at a time.
+ */
+class MloHttpConnection {
+	private static final Log LOG = LogFactory.getLog(MloHttpConnection.class);
+
+	private static final int DEFAULT_HTTP_PORT = 80;
+
+	private static final int DEFAULT_HTTPS_PORT = 443;
+
+	private static final String ENDPOINT_IDENTIFICATION_ALGORITHM = "HTTPS";
+
+	private static final int STALE_CHECK_TIMEOUT_MSEC = 1;
+
+	private static final int IO_BUFFER_SIZE = 8192;
+
+	private final String hostKey;
+
+	private final Socket socket;
+
+	private final InputStream istream;
+
+	private final OutputStream ostream;
+
+	private final long createdAt;
+
+	private volatile long lastUsedAt;
+
+	private int useCount = 0;
+
+	private boolean reusable = true;
+
+	/**
+	 * A constructor.
+	 * @param hostKey the key of the host, which is "scheme://host:port".
+	 * @param socket the connected socket.
+	 * @throws IOException Failed to obtain streams of the socket.
+	 */
+	private MloHttpConnection(String hostKey, Socket socket) throws IOException {
+		this.hostKey = hostKey;
+		this.socket = socket;
+		this.istream = new BufferedInputStream(socket.getInputStream(), IO_BUFFER_SIZE);
+		this.ostream = new BufferedOutputStream(socket.getOutputStream(), IO_BUFFER_SIZE);
+		this.createdAt = System.currentTimeMillis();
+		this.lastUsedAt = createdAt;
+	}
+
+	/**
+	 * Opens a new connection to the host of the URL.
+	 * @param url the URL.
+	 * @param connectTimeoutMsec the connection timeout [msec]. Zero means infinite.
+	 * @return the connection.
+	 * @throws IOException Failed to connect.
+	 */
+	static MloHttpConnection open(URL url, int connectTimeoutMsec) throws IOException {
+		boolean isHttps = "https".equalsIgnoreCase(url.getProtocol());
+		int port = getPort(url);
+		Socket socket = new Socket();
+		try {
+			socket.setTcpNoDelay(true);
+			socket.setKeepAlive(true);
+			socket.connect(new InetSocketAddress(url.getHost(), port), connectTimeoutMsec);
+			if (isHttps) {
+				socket = startTls(socket, url.getHost(), port, connectTimeoutMsec);
+			}
+			return new MloHttpConnection(getHostKey(url), socket);
+		} catch (IOException e) {
+			closeQuietly(socket);
+			throw e;
+		}
+	}
+
+	/**
+	 * Layers TLS over the connected socket, and performs the handshake.
+	 * The host name is verified against the server certificate as {@link javax.net.ssl.HttpsURLConnection} does.
+	 * @param socket the connected socket, which is closed when the returned socket is closed.
+	 * @param host the host name.
+	 * @param port the port number.
+	 * @param handshakeTimeoutMsec the timeout of the handshake [msec]. Zero means infinite.
+	 * @return the TLS socket.
+	 * @throws IOException Failed in the handshake, e.g. the certificate does not match the host name.
+	 */
+	private static SSLSocket startTls(Socket socket, String host, int port, int handshakeTimeoutMsec)
+			throws IOException {
+		SSLSocketFactory factory = (SSLSocketFactory) SSLSocketFactory.getDefault();
+		SSLSocket sslSocket = (SSLSocket) factory.createSocket(socket, host, port, true);
+		try {
+			SSLParameters sslParams = sslSocket.getSSLParameters();
+			sslParams.setEndpointIdentificationAlgorithm(ENDPOINT_IDENTIFICATION_ALGORITHM);
+			sslSocket.setSSLParameters(sslParams);
+			sslSocket.setSoTimeout(handshakeTimeoutMsec);
+			sslSocket.startHandshake();
+		} catch (IOException e) {
+			closeQuietly(sslSocket);
+			throw e;
+		}
+		return sslSocket;
+	}
+
+	/**
+	 * Obtains the key of the host, which identifies the pool for the URL.
+	 * @param url the URL.
+	 * @return the key.
+	 */
+	static String getHostKey(URL url) {
+		return url.getProtocol().toLowerCase() + "://" + url.getHost().toLowerCase() + ":" + getPort(url);
+	}
+
+	private static int getPort(URL url) {
+		int port = url.getPort();
+		if (port < 0) {
+			port = "https".equalsIgnoreCase(url.getProtocol()) ? DEFAULT_HTTPS_PORT : DEFAULT_HTTP_PORT;
+		}
+		return port;
+	}
+
+	/**
+	 * Sends a request, and then receives the status line and headers of the response.
+	 * The response body must be consumed and the response must be finished
+	 * before this connection is used again.
+	 * @param methodName the HTTP method name.
+	 * @param url the URL.
+	 * @param body the request body, or null if no body is sent.
+	 * @param readTimeoutMsec the read timeout [msec]. Zero means infinite.
+	 * @return the response.
+	 * @throws IOException Failed to communicate.
+	 */
+	MloHttpResponse execute(String methodName, URL url, byte[] body, int readTimeoutMsec) throws IOException {
+		useCount += 1;
+		lastUsedAt = System.currentTimeMillis();
+		socket.setSoTimeout(readTimeoutMsec);
+
+		writeRequest(methodName, url, body);
+
+		MloHttpCodec.ResponseHead head = MloHttpCodec.readResponseHead(istream);
+		if (head == null) {
+			reusable = false;
+			throw new NoResponseException("The server closed the connection without response.");
+		}
+		reusable = head.isKeepAlive();
+		InputStream body0 = MloHttpCodec.createBodyStream(head, istream);
+		return new MloHttpResponse(this, head.getStatusCode(), head.getHeaders(), body0);
+	}
+
+	private void writeRequest(String methodName, URL url, byte[] body) throws IOException {
+		ostream.write(MloHttpCodec.encodeRequestHead(methodName, url, body, true));
+		if (body != null) {
+			ostream.write(body);
+		}
+		ostream.flush();
+	}
+
+	/**
+	 * Checks whether the server has closed this idle connection.
+	 * @return true if this connection is stale.
+	 */
+	boolean isStale() {
+		if (socket.isClosed() || socket.isInputShutdown()) {
+			return true;
+		}
+		try {
+			socket.setSoTimeout(STALE_CHECK_TIMEOUT_MSEC);
+			istream.mark(1);
+			int ch = istream.read();
+			if (ch < 0) {
+				return true;
+			}
+			istream.reset();
+			// Unexpected data, which means the last exchange was broken.
+			return true;
+		} catch (SocketTimeoutException e) {
+			return false;
+		} catch (IOException e) {
+			return true;
+		}
+	}
+
+	/**
+	 * Closes this connection.
+	 */
+	void close() {
+		reusable = false;
+		closeQuietly(socket);
+	}
+
+	private static void closeQuietly(Socket socket) {
+		try {
+			socket.close();
+		} catch (IOException e) {
+			LOG.debug("Failed to close socket.", e);
+		}
+	}
+
+	/**
+	 * Specifies whether this connection can be reused after the current exchange.
+	 * @return true if reusable.
+	 */
+	boolean isReusable() {
+		return reusable && !socket.isClosed();
+	}
+
+	/**
+	 * Marks this connection as not reusable.
+	 */
+	void markNotReusable() {
+		reusable = false;
+	}
+
+	/**
+	 * Obtains the host key.
+	 * @return the key.
+	 */
+	String getHostKey() {
+		return hostKey;
+	}
+
+	/**
+	 * Obtains the time when this connection was opened.
+	 * @return the time [msec].
+	 */
+	long getCreatedAt() {
+		return createdAt;
+	}
+
+	/**
+	 * Obtains the time when this connection was used last.
+	 * @return the time [msec].
+	 */
+	long getLastUsedAt() {
+		return lastUsedAt;
+	}
+
+	/**
+	 * Obtains how many times this connection has been used.
+	 * @return the count.
+	 */
+	int getUseCount() {
+		return useCount;
+	}
+
+	/**
+	 * This exception is thrown when the server closes the connection without any response.
+	 * Typically this happens when the server has closed an idle keep-alive connection.
+	 */
+	static class NoResponseException extends IOException {
+		private static final long serialVersionUID = -3190373628475329547L;
+
+		/**
+		 * A constructor.
+		 * @param msg the message.
+		 */
+		NoResponseException(String msg) {
+			super(msg);
+		}
+	}
+}
@@ -0,0 +1,83 @@
+/**
+ * MloHttpResponse.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * This class is a response received on {@link MloHttpConnection}.
+ */
+class MloHttpResponse {
+
+	private static final int DRAIN_BUFFER_SIZE = 4096;
+
+	private final MloHttpConnection conn;
+
+	private final int statusCode;
+
+	private final Map<String, String> headers;
+
+	private final InputStream body;
+
+	/**
+	 * A constructor.
+	 * @param conn the connection.
+	 * @param statusCode the status code.
+	 * @param headers the headers, whose names are lower-cased.
+	 * @param body the body stream.
+	 */
+	MloHttpResponse(MloHttpConnection conn, int statusCode, Map<String, String> headers, InputStream body) {
+		this.conn = conn;
+		this.statusCode = statusCode;
+		this.headers = headers;
+		this.body = body;
+	}
+
+	/**
+	 * Obtains the status code.
+	 * @return the status code.
+	 */
+	int getStatusCode() {
+		return statusCode;
+	}
+
+	/**
+	 * Obtains a header value.
+	 * @param name the header name.
+	 * @return the value, or null.
+	 */
+	String getHeader(String name) {
+		return headers.get(name.toLowerCase());
+	}
+
+	/**
+	 * Obtains the body stream.
+	 * Closing the stream does not close the connection.
+	 * @return the stream.
+	 */
+	InputStream getBody() {
+		return body;
+	}
+
+	/**
+	 * Consumes the rest of the body so that the connection can be reused.
+	 * If the rest cannot be consumed, the connection is marked as not reusable.
+	 */
+	void finish() {
+		if (!conn.isReusable()) {
+			return;
+		}
+		byte[] buf = new byte[DRAIN_BUFFER_SIZE];
+		try {
+			while (body.read(buf) >= 0) {
+				continue;
+			}
+		} catch (IOException e) {
+			conn.markNotReusable();
+		}
+	}
+}
@@ -426,6 +426,16 @@ public class MloInfoViewController implements MloViewController, Initializable {
 		reloadTopologyUrl();
 	}
 	
+	/**
+	 * Updates the topology url, and reloads the topology view only if the url is changed.
+	 * @param topologyViewUrl the topologyViewUrl to set
+	 */
+	public void updateTopologyViewUrl(String topologyViewUrl) {
+		if (topologyViewUrl != null && !topologyViewUrl.equals(this.topologyViewUrl)) {
+			setTopologyViewUrl(topologyViewUrl);
+		}
+	}
+	
 	/**
 	 * Reloads topology url.
 	 */
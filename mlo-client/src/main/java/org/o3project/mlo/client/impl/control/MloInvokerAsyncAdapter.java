@@ -0,0 +1,50 @@
+/**
+ * MloInvokerAsyncAdapter.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.util.Map;
+
+import org.o3project.mlo.client.control.AsyncMloInvoker;
+import org.o3project.mlo.client.control.MloAccessException;
+import org.o3project.mlo.client.control.MloFuture;
+import org.o3project.mlo.client.control.MloInvoker;
+import org.o3project.mlo.client.control.MloMethod;
+
+import org.o3project.mlo.server.dto.RestifRequestDto;
+import org.o3project.mlo.server.dto.RestifResponseDto;
+
+/**
+ * This class adapts {@link MloInvoker} to {@link AsyncMloInvoker} interface.
+ * The request is processed on the calling thread, and the returned future has already completed.
+ * This is used with invokers which do not block, e.g. {@link DummyMloInvoker}.
+ */
+class MloInvokerAsyncAdapter implements AsyncMloInvoker {
+
+	private final MloInvoker mloInvoker;
+
+	/**
+	 * A constructor.
+	 * @param mloInvoker the invoker to be adapted.
+	 */
+	MloInvokerAsyncAdapter(MloInvoker mloInvoker) {
+		this.mloInvoker = mloInvoker;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.AsyncMloInvoker#invokeAsync(org.o3project.mlo.client.control.MloMethod, org.o3project.mlo.server.dto.RestifRequestDto, java.lang.String, java.util.Map)
+	 */
+	@Override
+	public MloFuture<RestifResponseDto> invokeAsync(MloMethod method,
+			RestifRequestDto reqDto, String path, Map<String, String> params) {
+		try {
+			return MloSettableFuture.succeeded(mloInvoker.invoke(method, reqDto, path, params));
+		} catch (MloAccessException e) {
+			return MloSettableFuture.failed(e);
+		} catch (RuntimeException e) {
+			return MloSettableFuture.failed(e);
+		}
+	}
+}
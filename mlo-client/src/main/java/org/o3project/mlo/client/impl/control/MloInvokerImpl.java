@@ -30,6 +30,11 @@ public class MloInvokerImpl implements MloInvoker {
 	private static final int ONE_SECOND = 1000;
 	
 	private static final int SC_400_BAD_REQUEST = 400;
+	
+	private static final int DISCARD_BUFFER_SIZE = 1024;
+	
+	/** The prefix of the message of {@link MloAccessException} which denotes an HTTP error status. */
+	static final String STATUS_ERROR_PREFIX = "MloServerAccessError/";
 
 	/*
 	 * (non-Javadoc)
@@ -91,15 +96,16 @@ public class MloInvokerImpl implements MloInvoker {
 			}
 			
 			int statusCode = conn.getResponseCode();
+			LOG.info("statusCode = " + statusCode);
+			if (statusCode >= SC_400_BAD_REQUEST) {
+				// getInputStream() throws IOException for an error status, so that the status is checked first.
+				discard(conn.getErrorStream());
+				throw new MloAccessException(STATUS_ERROR_PREFIX + statusCode);
+			}
 			
 			try (InputStream istream = conn.getInputStream()) {
 				resDto = method.handleResInput(istream);
 			}
-			
-			LOG.info("statusCode = " + statusCode);
-			if (statusCode >= SC_400_BAD_REQUEST) {
-				throw new MloAccessException("MloServerAccessError/" + statusCode);
-			}
 		} finally {
 			if (conn != null) {
 				conn.disconnect();
@@ -109,4 +115,40 @@ public class MloInvokerImpl implements MloInvoker {
 		
 		return resDto;
 	}
+	
+	/**
+	 * Reads and closes the error body, so that the connection can be kept alive.
+	 * A failure in reading is ignored, because the error status has been received.
+	 * @param istream the error stream, or null if the response has no body.
+	 */
+	private static void discard(InputStream istream) {
+		if (istream == null) {
+			return;
+		}
+		try (InputStream errorStream = istream) {
+			byte[] buf = new byte[DISCARD_BUFFER_SIZE];
+			while (errorStream.read(buf) >= 0) {
+				continue;
+			}
+		} catch (IOException e) {
+			LOG.debug("Failed to read the error body.", e);
+		}
+	}
+	
+	/**
+	 * Obtains the HTTP status code from the exception thrown by invokers.
+	 * @param e the exception.
+	 * @return the status code, or -1 if the exception does not denote an HTTP error status.
+	 */
+	static int getStatusCode(MloAccessException e) {
+		String message = e.getMessage();
+		if (message == null || !message.startsWith(STATUS_ERROR_PREFIX)) {
+			return -1;
+		}
+		try {
+			return Integer.parseInt(message.substring(STATUS_ERROR_PREFIX.length()));
+		} catch (NumberFormatException nfe) {
+			return -1;
+		}
+	}
 }
@@ -0,0 +1,154 @@
+/**
+ * MloJaxbEngine.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.beans.Introspector;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import javax.xml.bind.DataBindingException;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.stream.StreamSource;
+
+import org.o3project.mlo.server.dto.RestifRequestDto;
+import org.o3project.mlo.server.dto.RestifResponseDto;
+import org.o3project.mlo.server.dto.SliceDto;
+
+/**
+ * This class is the XML serialization engine shared in mlo-client.
+ * <p>
+ * The {@link JAXBContext} is built once, and {@link Marshaller} and {@link Unmarshaller} instances,
+ * which are not thread-safe, are pooled and reused.
+ * The output and error handling are the same as {@link javax.xml.bind.JAXB#marshal(Object, OutputStream)}
+ * and {@link javax.xml.bind.JAXB#unmarshal(InputStream, Class)}.
+ * </p>
+ * This class is thread-safe.
+ */
+public final class MloJaxbEngine {
+
+	private static final int MAX_POOLED_INSTANCES = 64;
+
+	private final JAXBContext context;
+
+	private final BlockingQueue<Marshaller> marshallers = new LinkedBlockingQueue<Marshaller>(MAX_POOLED_INSTANCES);
+
+	private final BlockingQueue<Unmarshaller> unmarshallers = new LinkedBlockingQueue<Unmarshaller>(MAX_POOLED_INSTANCES);
+
+	/**
+	 * This class holds the default instance, which is created at the first use.
+	 */
+	private static final class DefaultHolder {
+		private static final MloJaxbEngine INSTANCE =
+				new MloJaxbEngine(RestifRequestDto.class, RestifResponseDto.class, SliceDto.class);
+	}
+
+	/**
+	 * Obtains the default instance, which handles {@link RestifRequestDto},
+	 * {@link RestifResponseDto} and {@link SliceDto}.
+	 * @return the instance.
+	 */
+	public static MloJaxbEngine getDefault() {
+		return DefaultHolder.INSTANCE;
+	}
+
+	/**
+	 * A constructor.
+	 * @param classes the classes bound by the context.
+	 * @throws DataBindingException Failed to create the context.
+	 */
+	public MloJaxbEngine(Class<?>... classes) {
+		try {
+			context = JAXBContext.newInstance(classes);
+		} catch (JAXBException e) {
+			throw new DataBindingException(e);
+		}
+	}
+
+	/**
+	 * Reads an object from XML.
+	 * @param istream the input stream, which is not closed.
+	 * @param type the type of the object.
+	 * @return the object.
+	 * @throws DataBindingException Failed to read.
+	 */
+	public <T> T unmarshal(InputStream istream, Class<T> type) {
+		Unmarshaller unmarshaller = unmarshallers.poll();
+		try {
+			if (unmarshaller == null) {
+				unmarshaller = context.createUnmarshaller();
+			}
+			T obj = unmarshaller.unmarshal(new StreamSource(istream), type).getValue();
+			unmarshallers.offer(unmarshaller);
+			return obj;
+		} catch (JAXBException e) {
+			throw new DataBindingException(e);
+		}
+	}
+
+	/**
+	 * Reads an object from the current element of the XML stream.
+	 * Upon return, the reader points at the event right after the end of the element.
+	 * @param reader the XML stream reader, which points at a start element.
+	 * @param type the type of the object.
+	 * @return the object.
+	 * @throws DataBindingException Failed to read.
+	 */
+	public <T> T unmarshal(XMLStreamReader reader, Class<T> type) {
+		Unmarshaller unmarshaller = unmarshallers.poll();
+		try {
+			if (unmarshaller == null) {
+				unmarshaller = context.createUnmarshaller();
+			}
+			T obj = unmarshaller.unmarshal(reader, type).getValue();
+			unmarshallers.offer(unmarshaller);
+			return obj;
+		} catch (JAXBException e) {
+			throw new DataBindingException(e);
+		}
+	}
+
+	/**
+	 * Writes an object as formatted XML.
+	 * If the class of the object is not a root element, the element name is inferred from the class name.
+	 * @param obj the object.
+	 * @param ostream the output stream, which is not closed.
+	 * @throws DataBindingException Failed to write.
+	 */
+	public void marshal(Object obj, OutputStream ostream) {
+		Marshaller marshaller = marshallers.poll();
+		try {
+			if (marshaller == null) {
+				marshaller = context.createMarshaller();
+				marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+			}
+			marshaller.marshal(toRootElement(obj), ostream);
+			marshallers.offer(marshaller);
+		} catch (JAXBException e) {
+			throw new DataBindingException(e);
+		}
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Object toRootElement(Object obj) {
+		if (obj instanceof JAXBElement) {
+			return obj;
+		}
+		Class clazz = obj.getClass();
+		if (clazz.isAnnotationPresent(XmlRootElement.class)) {
+			return obj;
+		}
+		QName qname = new QName(Introspector.decapitalize(clazz.getSimpleName()));
+		return new JAXBElement(qname, clazz, obj);
+	}
+}
@@ -7,8 +7,6 @@ package org.o3project.mlo.client.impl.control;
 import java.io.InputStream;
 import java.io.OutputStream;
 
-import javax.xml.bind.JAXB;
-
 import org.o3project.mlo.client.control.MloSerdes;
 
 import org.o3project.mlo.server.dto.RestifRequestDto;
@@ -19,12 +17,14 @@ import org.o3project.mlo.server.dto.RestifResponseDto;
  */
 public class MloSerdesImpl implements MloSerdes {
 	
+	private final MloJaxbEngine jaxbEngine = MloJaxbEngine.getDefault();
+	
 	/* (non-Javadoc)
 	 * @see org.o3project.mlo.client.control#deserializeFromXml(java.io.InputStream)
 	 */
 	@Override
 	public RestifResponseDto deserializeFromXml(InputStream istream) {
-		RestifResponseDto response = JAXB.unmarshal(istream , RestifResponseDto.class);
+		RestifResponseDto response = jaxbEngine.unmarshal(istream, RestifResponseDto.class);
 		return response;
 	}
 
@@ -33,6 +33,6 @@ public class MloSerdesImpl implements MloSerdes {
 	 */
 	@Override
 	public void serializeToXml(RestifRequestDto reqDto, OutputStream ostream) {
-		JAXB.marshal(reqDto, ostream);
+		jaxbEngine.marshal(reqDto, ostream);
 	}
 }
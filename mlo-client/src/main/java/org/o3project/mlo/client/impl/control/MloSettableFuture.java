@@ -0,0 +1,243 @@
+/**
+ * MloSettableFuture.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.o3project.mlo.client.control.MloCallback;
+import org.o3project.mlo.client.control.MloFuture;
+
+/**
+ * This class is the implementation class of {@link MloFuture} interface,
+ * which is completed explicitly by {@link #set(Object)} or {@link #setException(Throwable)}.
+ * Only the first completion takes effect.
+ * @param <T> the result type.
+ */
+class MloSettableFuture<T> implements MloFuture<T> {
+	private static final Log LOG = LogFactory.getLog(MloSettableFuture.class);
+
+	private final CountDownLatch latch = new CountDownLatch(1);
+
+	private final Object oMutex = new Object();
+
+	private List<MloCallback<T>> callbacks = new ArrayList<MloCallback<T>>();
+
+	private boolean isDone = false;
+
+	private boolean isCancelled = false;
+
+	private T result = null;
+
+	private Throwable cause = null;
+
+	private Runnable cancelHandler = null;
+
+	/**
+	 * Creates a future which has already succeeded.
+	 * @param result the result.
+	 * @return the future.
+	 */
+	static <T> MloSettableFuture<T> succeeded(T result) {
+		MloSettableFuture<T> future = new MloSettableFuture<T>();
+		future.set(result);
+		return future;
+	}
+
+	/**
+	 * Creates a future which has already failed.
+	 * @param cause the cause.
+	 * @return the future.
+	 */
+	static <T> MloSettableFuture<T> failed(Throwable cause) {
+		MloSettableFuture<T> future = new MloSettableFuture<T>();
+		future.setException(cause);
+		return future;
+	}
+
+	/**
+	 * Completes this future successfully.
+	 * @param value the result.
+	 * @return true if this call completed this future.
+	 */
+	boolean set(T value) {
+		List<MloCallback<T>> toNotify = null;
+		synchronized (oMutex) {
+			if (isDone) {
+				return false;
+			}
+			result = value;
+			toNotify = complete();
+		}
+		for (MloCallback<T> callback : toNotify) {
+			notifyCompleted(callback, value);
+		}
+		return true;
+	}
+
+	/**
+	 * Completes this future with failure.
+	 * @param throwable the cause.
+	 * @return true if this call completed this future.
+	 */
+	boolean setException(Throwable throwable) {
+		List<MloCallback<T>> toNotify = null;
+		synchronized (oMutex) {
+			if (isDone) {
+				return false;
+			}
+			cause = throwable;
+			toNotify = complete();
+		}
+		for (MloCallback<T> callback : toNotify) {
+			notifyFailed(callback, throwable);
+		}
+		return true;
+	}
+
+	/**
+	 * Sets the handler which is run when this future is cancelled, e.g. to abort the request.
+	 * If this future has already been cancelled, the handler is run immediately.
+	 * @param handler the handler.
+	 */
+	void setCancelHandler(Runnable handler) {
+		synchronized (oMutex) {
+			if (!isCancelled) {
+				cancelHandler = handler;
+				return;
+			}
+		}
+		handler.run();
+	}
+
+	private List<MloCallback<T>> complete() {
+		isDone = true;
+		List<MloCallback<T>> toNotify = callbacks;
+		callbacks = null;
+		latch.countDown();
+		return toNotify;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.MloFuture#addCallback(org.o3project.mlo.client.control.MloCallback)
+	 */
+	@Override
+	public void addCallback(MloCallback<T> callback) {
+		synchronized (oMutex) {
+			if (!isDone) {
+				callbacks.add(callback);
+				return;
+			}
+		}
+		if (isCancelled) {
+			notifyFailed(callback, new CancellationException());
+		} else if (cause != null) {
+			notifyFailed(callback, cause);
+		} else {
+			notifyCompleted(callback, result);
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.concurrent.Future#cancel(boolean)
+	 */
+	@Override
+	public boolean cancel(boolean mayInterruptIfRunning) {
+		List<MloCallback<T>> toNotify = null;
+		Runnable handler = null;
+		synchronized (oMutex) {
+			if (isDone) {
+				return false;
+			}
+			isCancelled = true;
+			toNotify = complete();
+			handler = cancelHandler;
+			cancelHandler = null;
+		}
+		if (handler != null) {
+			handler.run();
+		}
+		for (MloCallback<T> callback : toNotify) {
+			notifyFailed(callback, new CancellationException());
+		}
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.concurrent.Future#isCancelled()
+	 */
+	@Override
+	public boolean isCancelled() {
+		synchronized (oMutex) {
+			return isCancelled;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.concurrent.Future#isDone()
+	 */
+	@Override
+	public boolean isDone() {
+		synchronized (oMutex) {
+			return isDone;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.concurrent.Future#get()
+	 */
+	@Override
+	public T get() throws InterruptedException, ExecutionException {
+		latch.await();
+		return getResult();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.concurrent.Future#get(long, java.util.concurrent.TimeUnit)
+	 */
+	@Override
+	public T get(long timeout, TimeUnit unit)
+			throws InterruptedException, ExecutionException, TimeoutException {
+		if (!latch.await(timeout, unit)) {
+			throw new TimeoutException();
+		}
+		return getResult();
+	}
+
+	private T getResult() throws ExecutionException {
+		synchronized (oMutex) {
+			if (isCancelled) {
+				throw new CancellationException();
+			}
+			if (cause != null) {
+				throw new ExecutionException(cause);
+			}
+			return result;
+		}
+	}
+
+	private static <T> void notifyCompleted(MloCallback<T> callback, T value) {
+		try {
+			callback.completed(value);
+		} catch (RuntimeException e) {
+			LOG.error("Callback has thrown an exception.", e);
+		}
+	}
+
+	private static <T> void notifyFailed(MloCallback<T> callback, Throwable throwable) {
+		try {
+			callback.failed(throwable);
+		} catch (RuntimeException e) {
+			LOG.error("Callback has thrown an exception.", e);
+		}
+	}
+}
@@ -0,0 +1,434 @@
+/**
+ * MloSliceStore.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.o3project.mlo.server.dto.FlowDto;
+import org.o3project.mlo.server.dto.LinkInfoDto;
+import org.o3project.mlo.server.dto.RestifCommonDto;
+import org.o3project.mlo.server.dto.RestifComponentDto;
+import org.o3project.mlo.server.dto.RestifErrorDto;
+import org.o3project.mlo.server.dto.RestifRequestDto;
+import org.o3project.mlo.server.dto.RestifResponseDto;
+import org.o3project.mlo.server.dto.SliceDto;
+
+/**
+ * This class keeps slices in memory, and responds to requests as mlo-srv does.
+ * This is shared by {@link MloStubServer} and the synthetic mode of {@link DummyMloInvoker}.
+ * <p>
+ * CREATE assigns slice and flow ids, UPDATE applies "add", "mod" and "del" flows,
+ * and requests for unknown slices or flows receive error responses.
+ * READ responds with the flow parameters decided by mlo-srv, such as PT nodes and link information,
+ * and without the requested parameters, as mlo-srv does.
+ * Responses never share objects with the store, so callers can modify them.
+ * </p>
+ * This class is thread-safe.
+ */
+final class MloSliceStore {
+
+	static final String PATH_LIST_SLICE = "slices";
+	static final String PATH_READ_SLICE = "READ";
+	static final String PATH_CREATE_SLICE = "CREATE";
+	static final String PATH_UPDATE_SLICE = "UPDATE";
+	static final String PATH_DELETE_SLICE = "DELETE";
+
+	private static final String FLOW_TYPE_ADD = "add";
+	private static final String FLOW_TYPE_MOD = "mod";
+	private static final String FLOW_TYPE_DEL = "del";
+
+	private static final String SERVER_COMPONENT_NAME = "mlo";
+	private static final String RESPONSE_OPERATION = "Response";
+	private static final Integer INTERFACE_VERSION = 1;
+
+	private static final String CAUSE_BAD_REQUEST = "BadRequest";
+	private static final String CAUSE_NOT_FOUND = "NotFound";
+
+	private static final String[] SRC_NODE_NAMES = {"tokyo", "tokyo123"};
+	private static final String[] DST_NODE_NAMES = {"osaka", "osaka123"};
+	private static final int BAND_WIDTH = 10;
+	private static final int DELAY = 20;
+
+	private static final String SRC_PT_NODE_NAME = "AMN64001";
+	private static final Integer SRC_PT_NODE_ID = 1;
+	private static final String DST_PT_NODE_NAME = "AMN64003";
+	private static final Integer DST_PT_NODE_ID = 3;
+	private static final Integer LINK_ID = 50000013;
+	private static final String LOGICAL_LIST = "00000001_00000003";
+
+	/**
+	 * A slice kept in the store.
+	 * The instance is locked while it is read or modified.
+	 */
+	private static final class StoredSlice {
+		private final String owner;
+		private final SliceDto slice;
+
+		StoredSlice(String owner, SliceDto slice) {
+			this.owner = owner;
+			this.slice = slice;
+		}
+	}
+
+	/**
+	 * An error response of mlo-srv.
+	 */
+	private static final class ErrorResponseException extends Exception {
+		private static final long serialVersionUID = 1L;
+
+		private final RestifErrorDto error;
+
+		ErrorResponseException(String cause, String detail, SliceDto slice) {
+			super(cause + ": " + detail);
+			error = new RestifErrorDto();
+			error.cause = cause;
+			error.detail = detail;
+			if (slice != null) {
+				error.sliceName = slice.name;
+				error.sliceId = (slice.id == null) ? null : String.format("%08d", slice.id);
+			}
+		}
+	}
+
+	private final Map<Integer, StoredSlice> slices = new ConcurrentHashMap<Integer, StoredSlice>();
+
+	private final AtomicInteger sliceIdSeq = new AtomicInteger();
+
+	private final AtomicInteger flowIdSeq = new AtomicInteger();
+
+	/**
+	 * Determines whether the path is one of slice operations, "CREATE", "READ", "UPDATE" and "DELETE".
+	 * @param path the path.
+	 * @return true if the path is a slice operation.
+	 */
+	static boolean isSliceOperation(String path) {
+		return PATH_READ_SLICE.equals(path) || PATH_CREATE_SLICE.equals(path)
+				|| PATH_UPDATE_SLICE.equals(path) || PATH_DELETE_SLICE.equals(path);
+	}
+
+	/**
+	 * Obtains the number of kept slices.
+	 * @return the count.
+	 */
+	int size() {
+		return slices.size();
+	}
+
+	/**
+	 * Discards all slices.
+	 */
+	void clear() {
+		slices.clear();
+	}
+
+	/**
+	 * Adds synthetic slices.
+	 * The slices are named "slice%08d" and the flows are named "flow%08d" by their ids.
+	 * @param owner the owner of the slices.
+	 * @param sliceCount the number of slices.
+	 * @param flowCount the number of flows per slice.
+	 */
+	void populate(String owner, int sliceCount, int flowCount) {
+		for (int sliceIdx = 0; sliceIdx < sliceCount; sliceIdx += 1) {
+			SliceDto slice = new SliceDto();
+			slice.id = sliceIdSeq.incrementAndGet();
+			slice.name = String.format("slice%08d", slice.id);
+			slice.flows = new ArrayList<FlowDto>();
+			for (int flowIdx = 0; flowIdx < flowCount; flowIdx += 1) {
+				String portNo = String.format("%08d", flowIdx + 1);
+				FlowDto reqFlow = new FlowDto();
+				reqFlow.srcCENodeName = SRC_NODE_NAMES[flowIdx % SRC_NODE_NAMES.length];
+				reqFlow.srcCEPortNo = portNo;
+				reqFlow.dstCENodeName = DST_NODE_NAMES[flowIdx % DST_NODE_NAMES.length];
+				reqFlow.dstCEPortNo = portNo;
+				reqFlow.reqBandWidth = BAND_WIDTH;
+				reqFlow.reqDelay = DELAY;
+				reqFlow.protectionLevel = "0";
+				FlowDto flow = newFlow(reqFlow);
+				flow.name = String.format("flow%08d", flow.id);
+				slice.flows.add(flow);
+			}
+			slices.put(slice.id, new StoredSlice(owner, slice));
+		}
+	}
+
+	/**
+	 * Responds to a slice list request.
+	 * @param owner the owner, or null if slices of all owners are listed.
+	 * @return the response, which has names and ids of slices.
+	 */
+	RestifResponseDto handleList(String owner) {
+		RestifResponseDto resDto = createResponse(null);
+		resDto.slices = new ArrayList<SliceDto>();
+		for (StoredSlice stored : slices.values()) {
+			if (owner != null && !owner.equals(stored.owner)) {
+				continue;
+			}
+			synchronized (stored) {
+				SliceDto slice = new SliceDto();
+				slice.id = stored.slice.id;
+				slice.name = stored.slice.name;
+				resDto.slices.add(slice);
+			}
+		}
+		return resDto;
+	}
+
+	/**
+	 * Responds to a slice operation request.
+	 * @param path the slice operation, "CREATE", "READ", "UPDATE" or "DELETE".
+	 * @param reqDto the request.
+	 * @return the response, which has the slice or the error.
+	 */
+	RestifResponseDto handleSliceOperation(String path, RestifRequestDto reqDto) {
+		try {
+			if (reqDto == null || reqDto.slice == null) {
+				throw new ErrorResponseException(CAUSE_BAD_REQUEST, "No slice.", null);
+			}
+			SliceDto resSlice;
+			switch (path) {
+			case PATH_CREATE_SLICE:
+				resSlice = createSlice(getOwner(reqDto), reqDto.slice);
+				break;
+			case PATH_READ_SLICE:
+				resSlice = readSlice(reqDto.slice);
+				break;
+			case PATH_UPDATE_SLICE:
+				resSlice = updateSlice(reqDto.slice);
+				break;
+			case PATH_DELETE_SLICE:
+				resSlice = deleteSlice(reqDto.slice);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown path: " + path);
+			}
+			RestifResponseDto resDto = createResponse(reqDto.common);
+			resDto.slices = new ArrayList<SliceDto>();
+			resDto.slices.add(resSlice);
+			return resDto;
+		} catch (ErrorResponseException e) {
+			return createErrorResponse((reqDto == null) ? null : reqDto.common, e);
+		}
+	}
+
+	/**
+	 * Creates an error response for a request which cannot be parsed.
+	 * @param detail the detail of the error.
+	 * @return the response.
+	 */
+	static RestifResponseDto createBadRequestResponse(String detail) {
+		return createErrorResponse(null, new ErrorResponseException(CAUSE_BAD_REQUEST, detail, null));
+	}
+
+	private SliceDto createSlice(String owner, SliceDto reqSlice) throws ErrorResponseException {
+		if (reqSlice.name == null) {
+			throw new ErrorResponseException(CAUSE_BAD_REQUEST, "No slice name.", reqSlice);
+		}
+		SliceDto slice = new SliceDto();
+		slice.id = sliceIdSeq.incrementAndGet();
+		slice.name = reqSlice.name;
+		slice.flows = new ArrayList<FlowDto>();
+		if (reqSlice.flows != null) {
+			for (FlowDto reqFlow : reqSlice.flows) {
+				slice.flows.add(newFlow(reqFlow));
+			}
+		}
+		StoredSlice stored = new StoredSlice(owner, slice);
+		synchronized (stored) {
+			slices.put(slice.id, stored);
+			return summarize(slice, slice.flows);
+		}
+	}
+
+	private SliceDto readSlice(SliceDto reqSlice) throws ErrorResponseException {
+		StoredSlice stored = getStoredSlice(reqSlice);
+		synchronized (stored) {
+			SliceDto slice = new SliceDto();
+			slice.id = stored.slice.id;
+			slice.name = stored.slice.name;
+			slice.flows = new ArrayList<FlowDto>();
+			for (FlowDto flow : stored.slice.flows) {
+				slice.flows.add(copyFlow(flow));
+			}
+			return slice;
+		}
+	}
+
+	private SliceDto updateSlice(SliceDto reqSlice) throws ErrorResponseException {
+		StoredSlice stored = getStoredSlice(reqSlice);
+		synchronized (stored) {
+			if (slices.get(stored.slice.id) != stored) {
+				throw new ErrorResponseException(CAUSE_NOT_FOUND, "The slice has been deleted.", reqSlice);
+			}
+			// Validates all flows before modifying the slice.
+			List<FlowDto> reqFlows = (reqSlice.flows == null) ? new ArrayList<FlowDto>() : reqSlice.flows;
+			for (FlowDto reqFlow : reqFlows) {
+				if (FLOW_TYPE_ADD.equals(reqFlow.type)) {
+					continue;
+				} else if (FLOW_TYPE_MOD.equals(reqFlow.type) || FLOW_TYPE_DEL.equals(reqFlow.type)) {
+					if (findFlow(stored.slice, reqFlow.id) == null) {
+						throw new ErrorResponseException(CAUSE_NOT_FOUND, "No flow: " + reqFlow.id, reqSlice);
+					}
+				} else {
+					throw new ErrorResponseException(CAUSE_BAD_REQUEST, "Unknown flow type: " + reqFlow.type, reqSlice);
+				}
+			}
+			List<FlowDto> resFlows = new ArrayList<FlowDto>();
+			for (FlowDto reqFlow : reqFlows) {
+				if (FLOW_TYPE_ADD.equals(reqFlow.type)) {
+					FlowDto flow = newFlow(reqFlow);
+					stored.slice.flows.add(flow);
+					resFlows.add(flow);
+				} else if (FLOW_TYPE_MOD.equals(reqFlow.type)) {
+					FlowDto flow = findFlow(stored.slice, reqFlow.id);
+					applyFlow(flow, reqFlow);
+					resFlows.add(flow);
+				} else {
+					FlowDto flow = findFlow(stored.slice, reqFlow.id);
+					stored.slice.flows.remove(flow);
+					resFlows.add(flow);
+				}
+			}
+			SliceDto resSlice = summarize(stored.slice, resFlows);
+			resSlice.name = null;
+			return resSlice;
+		}
+	}
+
+	private SliceDto deleteSlice(SliceDto reqSlice) throws ErrorResponseException {
+		StoredSlice stored = getStoredSlice(reqSlice);
+		synchronized (stored) {
+			if (!slices.remove(stored.slice.id, stored)) {
+				throw new ErrorResponseException(CAUSE_NOT_FOUND, "The slice has been deleted.", reqSlice);
+			}
+			SliceDto resSlice = summarize(stored.slice, stored.slice.flows);
+			resSlice.name = null;
+			return resSlice;
+		}
+	}
+
+	private StoredSlice getStoredSlice(SliceDto reqSlice) throws ErrorResponseException {
+		if (reqSlice.id == null) {
+			throw new ErrorResponseException(CAUSE_BAD_REQUEST, "No slice id.", reqSlice);
+		}
+		StoredSlice stored = slices.get(reqSlice.id);
+		if (stored == null) {
+			throw new ErrorResponseException(CAUSE_NOT_FOUND, "No slice: " + reqSlice.id, reqSlice);
+		}
+		return stored;
+	}
+
+	private FlowDto newFlow(FlowDto reqFlow) {
+		FlowDto flow = new FlowDto();
+		flow.id = flowIdSeq.incrementAndGet();
+		flow.name = reqFlow.name;
+		flow.srcCENodeName = reqFlow.srcCENodeName;
+		flow.srcCEPortNo = reqFlow.srcCEPortNo;
+		flow.dstCENodeName = reqFlow.dstCENodeName;
+		flow.dstCEPortNo = reqFlow.dstCEPortNo;
+		flow.protectionLevel = reqFlow.protectionLevel;
+		flow.srcPTNodeName = SRC_PT_NODE_NAME;
+		flow.srcPTNodeId = SRC_PT_NODE_ID;
+		flow.dstPTNodeName = DST_PT_NODE_NAME;
+		flow.dstPTNodeId = DST_PT_NODE_ID;
+		flow.underlayLogicalList = LOGICAL_LIST;
+		flow.overlayLogicalList = LOGICAL_LIST;
+		applyFlow(flow, reqFlow);
+		return flow;
+	}
+
+	private static void applyFlow(FlowDto flow, FlowDto reqFlow) {
+		flow.reqBandWidth = reqFlow.reqBandWidth;
+		flow.reqDelay = reqFlow.reqDelay;
+		flow.usedBandWidth = reqFlow.reqBandWidth;
+		flow.delayTime = reqFlow.reqDelay;
+	}
+
+	private static FlowDto findFlow(SliceDto slice, Integer flowId) {
+		if (flowId == null) {
+			return null;
+		}
+		for (FlowDto flow : slice.flows) {
+			if (flowId.equals(flow.id)) {
+				return flow;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Creates a flow of READ response, which has no requested parameters.
+	 */
+	private static FlowDto copyFlow(FlowDto flow) {
+		FlowDto copied = new FlowDto();
+		copied.id = flow.id;
+		copied.srcPTNodeName = flow.srcPTNodeName;
+		copied.srcPTNodeId = flow.srcPTNodeId;
+		copied.dstPTNodeName = flow.dstPTNodeName;
+		copied.dstPTNodeId = flow.dstPTNodeId;
+		copied.usedBandWidth = flow.usedBandWidth;
+		copied.delayTime = flow.delayTime;
+		copied.underlayLogicalList = flow.underlayLogicalList;
+		copied.overlayLogicalList = flow.overlayLogicalList;
+		LinkInfoDto linkInfo = new LinkInfoDto();
+		linkInfo.id = LINK_ID;
+		linkInfo.srcPTNodeName = flow.srcPTNodeName;
+		linkInfo.srcPTNodeId = flow.srcPTNodeId;
+		linkInfo.dstPTNodeName = flow.dstPTNodeName;
+		linkInfo.dstPTNodeId = flow.dstPTNodeId;
+		copied.linkInfoList = new ArrayList<LinkInfoDto>();
+		copied.linkInfoList.add(linkInfo);
+		return copied;
+	}
+
+	/**
+	 * Creates a slice which has only names and ids, as mlo-srv responds to CREATE, UPDATE and DELETE.
+	 */
+	private static SliceDto summarize(SliceDto slice, List<FlowDto> flows) {
+		SliceDto resSlice = new SliceDto();
+		resSlice.id = slice.id;
+		resSlice.name = slice.name;
+		resSlice.flows = new ArrayList<FlowDto>();
+		for (FlowDto flow : flows) {
+			FlowDto resFlow = new FlowDto();
+			resFlow.id = flow.id;
+			resFlow.name = flow.name;
+			resSlice.flows.add(resFlow);
+		}
+		return resSlice;
+	}
+
+	private static String getOwner(RestifRequestDto reqDto) {
+		if (reqDto.common == null || reqDto.common.srcComponent == null) {
+			return null;
+		}
+		return reqDto.common.srcComponent.name;
+	}
+
+	private static RestifResponseDto createResponse(RestifCommonDto reqCommon) {
+		RestifComponentDto srcComponent = new RestifComponentDto();
+		srcComponent.name = SERVER_COMPONENT_NAME;
+		RestifCommonDto common = new RestifCommonDto();
+		common.version = INTERFACE_VERSION;
+		common.srcComponent = srcComponent;
+		if (reqCommon != null) {
+			common.dstComponent = reqCommon.srcComponent;
+		}
+		common.operation = RESPONSE_OPERATION;
+		RestifResponseDto resDto = new RestifResponseDto();
+		resDto.common = common;
+		return resDto;
+	}
+
+	private static RestifResponseDto createErrorResponse(RestifCommonDto reqCommon, ErrorResponseException e) {
+		RestifResponseDto resDto = createResponse(reqCommon);
+		resDto.error = e.error;
+		return resDto;
+	}
+}
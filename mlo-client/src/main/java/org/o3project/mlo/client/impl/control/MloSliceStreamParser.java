@@ -0,0 +1,161 @@
+/**
+ * MloSliceStreamParser.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.io.InputStream;
+
+import javax.xml.bind.DataBindingException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.o3project.mlo.client.control.MloClientException;
+import org.o3project.mlo.client.control.SliceHandler;
+
+import org.o3project.mlo.server.dto.RestifCommonDto;
+import org.o3project.mlo.server.dto.RestifErrorDto;
+import org.o3project.mlo.server.dto.RestifResponseDto;
+import org.o3project.mlo.server.dto.SliceDto;
+
+/**
+ * This class parses a response from mlo-srv incrementally with StAX.
+ * Each Slice element is unmarshalled and passed to {@link SliceHandler} as soon as it is read,
+ * so only one slice is held in memory at a time.
+ * This class is thread-safe.
+ */
+class MloSliceStreamParser {
+	private static final Log LOG = LogFactory.getLog(MloSliceStreamParser.class);
+
+	private static final String ELEM_COMMON = "Common";
+
+	private static final String ELEM_ERROR = "Error";
+
+	private static final String ELEM_SLICE = "Slice";
+
+	private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+	private final MloJaxbEngine jaxbEngine;
+
+	/**
+	 * A constructor.
+	 * @param jaxbEngine the JAXB engine.
+	 */
+	MloSliceStreamParser(MloJaxbEngine jaxbEngine) {
+		this.jaxbEngine = jaxbEngine;
+	}
+
+	private static XMLInputFactory createInputFactory() {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+		return factory;
+	}
+
+	/**
+	 * Parses a response.
+	 * Slices are passed to the handler and are not set to the returned DTO.
+	 * Slices following an Error element are not passed to the handler.
+	 * @param istream the input stream, which is not closed.
+	 * @param handler the slice handler.
+	 * @return the response DTO, which has common and error parts.
+	 * @throws DataBindingException Failed to parse.
+	 * @throws SliceHandlingException The handler has thrown an exception.
+	 */
+	RestifResponseDto parse(InputStream istream, SliceHandler handler) {
+		RestifResponseDto resDto = new RestifResponseDto();
+		XMLStreamReader reader = null;
+		try {
+			reader = INPUT_FACTORY.createXMLStreamReader(istream);
+			// Moves to the root element.
+			reader.nextTag();
+			int event = reader.next();
+			while (event != XMLStreamConstants.END_DOCUMENT && event != XMLStreamConstants.END_ELEMENT) {
+				if (event != XMLStreamConstants.START_ELEMENT) {
+					event = reader.next();
+					continue;
+				}
+				String name = reader.getLocalName();
+				if (ELEM_SLICE.equals(name)) {
+					SliceDto slice = jaxbEngine.unmarshal(reader, SliceDto.class);
+					if (resDto.error == null) {
+						handleSlice(handler, slice);
+					}
+				} else if (ELEM_COMMON.equals(name)) {
+					resDto.common = jaxbEngine.unmarshal(reader, RestifCommonDto.class);
+				} else if (ELEM_ERROR.equals(name)) {
+					resDto.error = jaxbEngine.unmarshal(reader, RestifErrorDto.class);
+				} else {
+					skipElement(reader);
+					reader.next();
+				}
+				// The reader points at the event following the child element.
+				event = reader.getEventType();
+			}
+		} catch (XMLStreamException e) {
+			throw new DataBindingException(e);
+		} finally {
+			closeQuietly(reader);
+		}
+		return resDto;
+	}
+
+	private static void handleSlice(SliceHandler handler, SliceDto slice) {
+		try {
+			handler.handleSlice(slice);
+		} catch (MloClientException e) {
+			throw new SliceHandlingException(e);
+		}
+	}
+
+	private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth += 1;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth -= 1;
+			}
+		}
+	}
+
+	private static void closeQuietly(XMLStreamReader reader) {
+		if (reader == null) {
+			return;
+		}
+		try {
+			reader.close();
+		} catch (XMLStreamException e) {
+			LOG.debug("Failed to close XML stream reader.", e);
+		}
+	}
+
+	/**
+	 * This exception carries the exception thrown by {@link SliceHandler}
+	 * through {@link org.o3project.mlo.client.control.MloMethod#handleResInput(InputStream)}.
+	 */
+	static class SliceHandlingException extends RuntimeException {
+		private static final long serialVersionUID = 2861548209727466915L;
+
+		/**
+		 * A constructor.
+		 * @param cause the exception thrown by the handler.
+		 */
+		SliceHandlingException(MloClientException cause) {
+			super(cause);
+		}
+
+		/* (non-Javadoc)
+		 * @see java.lang.Throwable#getCause()
+		 */
+		@Override
+		public synchronized MloClientException getCause() {
+			return (MloClientException) super.getCause();
+		}
+	}
+}
@@ -0,0 +1,95 @@
+/**
+ * MloSliceStreamingMethod.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+
+import org.o3project.mlo.client.control.MloMethod;
+import org.o3project.mlo.client.control.SliceHandler;
+
+import org.o3project.mlo.server.dto.RestifRequestDto;
+import org.o3project.mlo.server.dto.RestifResponseDto;
+
+/**
+ * This class is the decorator of {@link MloMethod},
+ * which parses the response with {@link MloSliceStreamParser} while it is being received.
+ * Slices are passed to the handler, so the returned response DTO has no slices.
+ */
+class MloSliceStreamingMethod implements MloMethod {
+
+	private static final MloSliceStreamParser PARSER = new MloSliceStreamParser(MloJaxbEngine.getDefault());
+
+	private final MloMethod delegate;
+
+	private final SliceHandler handler;
+
+	/**
+	 * A constructor.
+	 * @param delegate the decorated method.
+	 * @param handler the slice handler.
+	 */
+	MloSliceStreamingMethod(MloMethod delegate, SliceHandler handler) {
+		this.delegate = delegate;
+		this.handler = handler;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.MloMethod#getName()
+	 */
+	@Override
+	public String getName() {
+		return delegate.getName();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.MloMethod#isSetDoOutput()
+	 */
+	@Override
+	public boolean isSetDoOutput() {
+		return delegate.isSetDoOutput();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.MloMethod#handleReqOutput(org.o3project.mlo.server.dto.RestifRequestDto, java.io.OutputStream)
+	 */
+	@Override
+	public void handleReqOutput(RestifRequestDto reqDto, OutputStream ostream) {
+		delegate.handleReqOutput(reqDto, ostream);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.MloMethod#handleResInput(java.io.InputStream)
+	 */
+	@Override
+	public RestifResponseDto handleResInput(InputStream istream) {
+		return PARSER.parse(istream, handler);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.MloMethod#getConnectionTimeoutSec()
+	 */
+	@Override
+	public Integer getConnectionTimeoutSec() {
+		return delegate.getConnectionTimeoutSec();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.MloMethod#getReadTimeoutSec()
+	 */
+	@Override
+	public Integer getReadTimeoutSec() {
+		return delegate.getReadTimeoutSec();
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.MloMethod#constructUrl(java.lang.String, java.util.Map)
+	 */
+	@Override
+	public String constructUrl(String path, Map<String, String> params) {
+		return delegate.constructUrl(path, params);
+	}
+}
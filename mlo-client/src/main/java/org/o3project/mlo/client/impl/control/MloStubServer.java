@@ -0,0 +1,326 @@
+/**
+ * MloStubServer.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.xml.bind.DataBindingException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.o3project.mlo.server.dto.RestifRequestDto;
+import org.o3project.mlo.server.dto.RestifResponseDto;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * This class is an in-process stand-in of the mlo-srv REST interface.
+ * This class is used only for debugging and benchmarking.
+ * <p>
+ * The server handles "slices" (GET), and "CREATE", "READ", "UPDATE" and "DELETE" (POST)
+ * as the last path segment of any base URI, and keeps slices in memory.
+ * Unlike {@link DummyMloInvoker}, requests go through the actual HTTP path of mlo-client,
+ * that is, {@link MloInvokerImpl} or {@link PooledMloInvokerImpl}, methods and {@link MloSerdesImpl}.
+ * </p>
+ * <p>
+ * A fixed latency is added to each response, and a ratio of requests fail with HTTP status 500.
+ * Requests for unknown slices or flows receive error responses as mlo-srv does, see {@link MloSliceStore}.
+ * </p>
+ * This class is thread-safe.
+ */
+public class MloStubServer {
+	private static final Log LOG = LogFactory.getLog(MloStubServer.class);
+
+	/** The default base path, which is the same as the default base URI of mlo-client. */
+	public static final String DEFAULT_BASE_PATH = "/DEMO";
+
+	private static final int SC_200_OK = 200;
+	private static final int SC_404_NOT_FOUND = 404;
+	private static final int SC_405_METHOD_NOT_ALLOWED = 405;
+	private static final int SC_500_INTERNAL_SERVER_ERROR = 500;
+
+	private static final int STOP_DELAY_SEC = 0;
+
+	private static final int PORT_COLUMN = 0;
+	private static final int LATENCY_COLUMN = 1;
+	private static final int ERROR_RATE_COLUMN = 2;
+	private static final int MAX_COLUMNS = 3;
+	private static final int DEFAULT_PORT = 8080;
+
+	private final MloSliceStore store = new MloSliceStore();
+
+	private final AtomicLong requestCount = new AtomicLong();
+
+	private final AtomicLong injectedErrorCount = new AtomicLong();
+
+	private final int port;
+
+	private volatile long latencyMsec = 0L;
+
+	private volatile double errorRate = 0.0;
+
+	private HttpServer server;
+
+	private ExecutorService executor;
+
+	/**
+	 * A constructor.
+	 * @param port the port number, or zero if an ephemeral port is used.
+	 */
+	public MloStubServer(int port) {
+		this.port = port;
+	}
+
+	/**
+	 * Sets the latency added to each response.
+	 * This can be changed while the server is running.
+	 * @param latencyMsec the latency in milliseconds.
+	 */
+	public void setLatencyMsec(long latencyMsec) {
+		if (latencyMsec < 0L) {
+			throw new IllegalArgumentException("latencyMsec must not be negative: " + latencyMsec);
+		}
+		this.latencyMsec = latencyMsec;
+	}
+
+	/**
+	 * Sets the ratio of requests which fail with HTTP status 500.
+	 * This can be changed while the server is running.
+	 * @param errorRate the ratio from 0.0 to 1.0.
+	 */
+	public void setErrorRate(double errorRate) {
+		if (!(0.0 <= errorRate && errorRate <= 1.0)) {
+			throw new IllegalArgumentException("errorRate must be from 0.0 to 1.0: " + errorRate);
+		}
+		this.errorRate = errorRate;
+	}
+
+	/**
+	 * Starts the server on the loopback address.
+	 * @throws IOException Failed to bind the port.
+	 */
+	public synchronized void start() throws IOException {
+		if (server != null) {
+			throw new IllegalStateException("The server has already been started.");
+		}
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+		// Requests wait for the latency in parallel.
+		executor = Executors.newCachedThreadPool();
+		server.setExecutor(executor);
+		server.createContext("/", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				handleExchange(exchange);
+			}
+		});
+		server.start();
+		LOG.info("MloStubServer started: " + getBaseUri());
+	}
+
+	/**
+	 * Stops the server. Kept slices are discarded.
+	 */
+	public synchronized void stop() {
+		if (server == null) {
+			return;
+		}
+		server.stop(STOP_DELAY_SEC);
+		executor.shutdownNow();
+		server = null;
+		executor = null;
+		store.clear();
+		LOG.info("MloStubServer stopped.");
+	}
+
+	/**
+	 * Obtains the base URI to be set to "mlo.client.config.server.baseUri".
+	 * @return the base URI.
+	 */
+	public synchronized String getBaseUri() {
+		if (server == null) {
+			throw new IllegalStateException("The server has not been started.");
+		}
+		return "http://127.0.0.1:" + server.getAddress().getPort() + DEFAULT_BASE_PATH;
+	}
+
+	/**
+	 * Obtains the number of kept slices.
+	 * @return the count.
+	 */
+	public int getSliceCount() {
+		return store.size();
+	}
+
+	/**
+	 * Obtains the number of handled requests.
+	 * @return the count.
+	 */
+	public long getRequestCount() {
+		return requestCount.get();
+	}
+
+	/**
+	 * Obtains the number of requests failed by the error injection.
+	 * @return the count.
+	 */
+	public long getInjectedErrorCount() {
+		return injectedErrorCount.get();
+	}
+
+	private void handleExchange(HttpExchange exchange) throws IOException {
+		requestCount.incrementAndGet();
+		try {
+			byte[] reqBody = readAll(exchange.getRequestBody());
+			if (!sleepLatency()) {
+				sendResponse(exchange, SC_500_INTERNAL_SERVER_ERROR, null);
+				return;
+			}
+			if (errorRate > 0.0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+				injectedErrorCount.incrementAndGet();
+				sendResponse(exchange, SC_500_INTERNAL_SERVER_ERROR, null);
+				return;
+			}
+
+			URI uri = exchange.getRequestURI();
+			String path = uri.getPath();
+			String lastSegment = path.substring(path.lastIndexOf('/') + 1);
+			String method = exchange.getRequestMethod();
+			if (MloSliceStore.PATH_LIST_SLICE.equals(lastSegment)) {
+				if (!"GET".equals(method)) {
+					sendResponse(exchange, SC_405_METHOD_NOT_ALLOWED, null);
+					return;
+				}
+				sendResponse(exchange, SC_200_OK, store.handleList(getQueryParam(uri.getRawQuery(), "owner")));
+				return;
+			}
+			if (!MloSliceStore.isSliceOperation(lastSegment)) {
+				sendResponse(exchange, SC_404_NOT_FOUND, null);
+				return;
+			}
+			if (!"POST".equals(method)) {
+				sendResponse(exchange, SC_405_METHOD_NOT_ALLOWED, null);
+				return;
+			}
+			sendResponse(exchange, SC_200_OK, handleSliceOperation(lastSegment, reqBody));
+		} catch (RuntimeException e) {
+			LOG.warn("Failed to handle a request: " + exchange.getRequestURI(), e);
+			sendResponse(exchange, SC_500_INTERNAL_SERVER_ERROR, null);
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private boolean sleepLatency() {
+		long sleepMsec = latencyMsec;
+		if (sleepMsec <= 0L) {
+			return true;
+		}
+		try {
+			TimeUnit.MILLISECONDS.sleep(sleepMsec);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private RestifResponseDto handleSliceOperation(String path, byte[] reqBody) {
+		RestifRequestDto reqDto;
+		try {
+			reqDto = MloJaxbEngine.getDefault().unmarshal(new ByteArrayInputStream(reqBody), RestifRequestDto.class);
+		} catch (DataBindingException e) {
+			return MloSliceStore.createBadRequestResponse("Invalid XML.");
+		}
+		return store.handleSliceOperation(path, reqDto);
+	}
+
+	private static String getQueryParam(String rawQuery, String name) {
+		if (rawQuery == null) {
+			return null;
+		}
+		for (String param : rawQuery.split("&")) {
+			int idx = param.indexOf('=');
+			if (idx > 0 && name.equals(param.substring(0, idx))) {
+				return param.substring(idx + 1);
+			}
+		}
+		return null;
+	}
+
+	private static void sendResponse(HttpExchange exchange, int statusCode, RestifResponseDto resDto) throws IOException {
+		byte[] resBody;
+		if (resDto == null) {
+			resBody = new byte[0];
+		} else {
+			ByteArrayOutputStream bostream = new ByteArrayOutputStream();
+			MloJaxbEngine.getDefault().marshal(resDto, bostream);
+			resBody = bostream.toByteArray();
+			exchange.getResponseHeaders().set("Content-Type", "application/xml; charset=UTF-8");
+		}
+		exchange.sendResponseHeaders(statusCode, (resBody.length == 0) ? -1 : resBody.length);
+		if (resBody.length > 0) {
+			try (OutputStream ostream = exchange.getResponseBody()) {
+				ostream.write(resBody);
+			}
+		}
+	}
+
+	private static byte[] readAll(InputStream istream) throws IOException {
+		ByteArrayOutputStream bostream = new ByteArrayOutputStream();
+		byte[] buf = new byte[4096];
+		int len;
+		while ((len = istream.read(buf)) >= 0) {
+			bostream.write(buf, 0, len);
+		}
+		return bostream.toByteArray();
+	}
+
+	/**
+	 * Main method.
+	 * Runs the server until the process is terminated.
+	 * @param args the arguments, [&lt;Port&gt; [&lt;LatencyMsec&gt; [&lt;ErrorRate&gt;]]].
+	 * @throws Exception Failed to start.
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length > MAX_COLUMNS) {
+			System.out.println("MLO stub server : [<Port> [<LatencyMsec> [<ErrorRate>]]]");
+			return;
+		}
+		int port = (args.length > PORT_COLUMN) ? Integer.valueOf(args[PORT_COLUMN]) : DEFAULT_PORT;
+		final MloStubServer stubServer = new MloStubServer(port);
+		if (args.length > LATENCY_COLUMN) {
+			stubServer.setLatencyMsec(Long.valueOf(args[LATENCY_COLUMN]));
+		}
+		if (args.length > ERROR_RATE_COLUMN) {
+			stubServer.setErrorRate(Double.valueOf(args[ERROR_RATE_COLUMN]));
+		}
+		final CountDownLatch stopped = new CountDownLatch(1);
+		Runtime.getRuntime().addShutdownHook(new Thread("MloStubServer-shutdown") {
+			@Override
+			public void run() {
+				stubServer.stop();
+				stopped.countDown();
+			}
+		});
+		stubServer.start();
+		System.out.println("MLO stub server started : " + stubServer.getBaseUri());
+		stopped.await();
+	}
+}
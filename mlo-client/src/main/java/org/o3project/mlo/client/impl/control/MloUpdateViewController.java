@@ -161,14 +161,13 @@ public class MloUpdateViewController implements MloViewController, Initializable
 	
 	/**
 	 * Obtains slice DTO from user input.
+	 * Only flows which are changed from the target slice are requested.
 	 * @return the slice DTO.
 	 * @throws MloInputDataException User input error.
 	 */
 	public SliceDto getData() throws MloInputDataException{
 		LOG.info("getData() called.");
-		SliceDto sliceDto= new SliceDto();
-		sliceDto.id = targetSlice.id;
-		List<FlowDto> flowList = new ArrayList<FlowDto>();
+		List<FlowDto> desiredFlows = new ArrayList<FlowDto>();
 		
 		// Checks for each flow.
 		FlowPanel[] flowPanels = sliceFlowsDispVBox.getChildren().toArray(new FlowPanel[0]);
@@ -176,17 +175,17 @@ public class MloUpdateViewController implements MloViewController, Initializable
 			String flowType = flowPanel.getFlowType();
 			
 			if(FlowPanel.FLOW_TYPE_ADD.equals(flowType)){
-				flowList.add(flowPanel.getCreateFlowDto());
+				desiredFlows.add(flowPanel.getCreateFlowDto());
 			}else if(FlowPanel.FLOW_TYPE_UPDATE.equals(flowType)){
-				flowList.add(flowPanel.getUpdateFlowDto());
-			}else if(FlowPanel.FLOW_TYPE_DELETE.equals(flowType)){
-				flowList.add(flowPanel.getDeleteFlowDto());
+				desiredFlows.add(flowPanel.getUpdateFlowDto());
+			}else if(!FlowPanel.FLOW_TYPE_DELETE.equals(flowType)){
+				// No change, which may be not selected explicitly.
+				desiredFlows.add(flowPanel.getTargetFlowDto());
 			}
-			
+			// A deleted flow is absent from the desired flows.
 		}
-		sliceDto.flows = flowList;
 		
-		return sliceDto;
+		return SliceFlowDiff.diff(targetSlice, desiredFlows);
 	}
 	
 	/**
@@ -0,0 +1,277 @@
+/**
+ * OpenLoopLoadGenerator.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.management.ObjectName;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.o3project.mlo.client.control.MloClientException;
+
+/**
+ * This class issues requests at a constant arrival rate, which is an open-loop load.
+ * <p>
+ * Unlike a closed-loop load, the next request does not wait for the previous responses.
+ * Each request has an intended send time derived from the target rate,
+ * and its latency is measured from the intended send time, not from the actual one.
+ * So the time a request waits in the client, because the server or the client is slow,
+ * is included in the latency and is not hidden (coordinated omission).
+ * </p>
+ * <p>
+ * The rate increases linearly from zero to the target rate during the ramp-up time.
+ * If requests start later than intended by more than {@value #LATE_THRESHOLD_MSEC} msec,
+ * the client is regarded as not keeping up with the target rate.
+ * </p>
+ */
+public class OpenLoopLoadGenerator {
+	private static final Log LOG = LogFactory.getLog(OpenLoopLoadGenerator.class);
+
+	private static final long LATE_THRESHOLD_MSEC = 10L;
+
+	private static final long LATE_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(LATE_THRESHOLD_MSEC);
+
+	/** Late requests under this ratio are tolerated as jitter. */
+	private static final double TOLERABLE_LATE_RATIO = 0.01;
+
+	private static final long DRAIN_TIMEOUT_SEC = 60L;
+
+	private static final long NANOS_PER_SEC = TimeUnit.SECONDS.toNanos(1L);
+
+	private static final double NSEC_PER_MSEC = 1000000.0;
+
+	/**
+	 * This interface designates a request issued by the generator.
+	 */
+	public interface Request {
+		/**
+		 * Executes the request.
+		 * @param sequence the sequence number of the request, starting from zero.
+		 * @throws MloClientException Failed to execute.
+		 */
+		void execute(long sequence) throws MloClientException;
+	}
+
+	/**
+	 * This class is the result of a run.
+	 */
+	public static final class Result {
+		private final double targetRate;
+		private final long issuedCount;
+		private final long lateCount;
+		private final long maxStartLagNanos;
+		private final long elapsedNanos;
+		private final boolean isDrained;
+		private final LoadStatistics statistics;
+
+		Result(double targetRate, long issuedCount, long lateCount, long maxStartLagNanos,
+				long elapsedNanos, boolean isDrained, LoadStatistics statistics) {
+			this.targetRate = targetRate;
+			this.issuedCount = issuedCount;
+			this.lateCount = lateCount;
+			this.maxStartLagNanos = maxStartLagNanos;
+			this.elapsedNanos = elapsedNanos;
+			this.isDrained = isDrained;
+			this.statistics = statistics;
+		}
+
+		/**
+		 * Obtains the target rate.
+		 * @return the rate in requests per second.
+		 */
+		public double getTargetRate() {
+			return targetRate;
+		}
+
+		/**
+		 * Obtains the number of issued requests.
+		 * @return the count.
+		 */
+		public long getIssuedCount() {
+			return issuedCount;
+		}
+
+		/**
+		 * Obtains the number of requests which started later than intended beyond the threshold.
+		 * @return the count.
+		 */
+		public long getLateCount() {
+			return lateCount;
+		}
+
+		/**
+		 * Obtains the maximum delay from the intended send time to the actual start of a request.
+		 * @return the delay in nanoseconds.
+		 */
+		public long getMaxStartLagNanos() {
+			return maxStartLagNanos;
+		}
+
+		/**
+		 * Obtains the achieved rate, which is the number of issued requests divided by the elapsed time.
+		 * @return the rate in requests per second.
+		 */
+		public double getAchievedRate() {
+			return (elapsedNanos <= 0) ? 0.0 : ((double) issuedCount) * NANOS_PER_SEC / elapsedNanos;
+		}
+
+		/**
+		 * Checks whether the client has kept up with the target rate.
+		 * @return true if kept up.
+		 */
+		public boolean isKeptUp() {
+			return isDrained && lateCount <= issuedCount * TOLERABLE_LATE_RATIO;
+		}
+
+		/**
+		 * Obtains the statistics, in which latencies are measured from the intended send times.
+		 * @return the statistics.
+		 */
+		public LoadStatistics getStatistics() {
+			return statistics;
+		}
+	}
+
+	private final int maxThreads;
+
+	/**
+	 * A constructor.
+	 * @param maxThreads the maximum number of threads which execute requests concurrently.
+	 */
+	public OpenLoopLoadGenerator(int maxThreads) {
+		this.maxThreads = maxThreads;
+	}
+
+	/**
+	 * Issues requests at the target rate for the duration, and waits for all responses.
+	 * @param operation the operation name recorded in the statistics.
+	 * @param request the request.
+	 * @param targetRate the target rate in requests per second.
+	 * @param durationSec the duration, which includes the ramp-up time.
+	 * @param rampUpSec the ramp-up time.
+	 * @return the result.
+	 * @throws InterruptedException Interrupted.
+	 */
+	public Result run(final String operation, final Request request,
+			double targetRate, int durationSec, int rampUpSec) throws InterruptedException {
+		if (targetRate <= 0.0 || durationSec <= 0 || rampUpSec < 0 || rampUpSec > durationSec) {
+			throw new IllegalArgumentException(String.format(
+					"Invalid rate settings: rate=%s, duration=%d, rampUp=%d", targetRate, durationSec, rampUpSec));
+		}
+		final LoadStatistics statistics = new LoadStatistics();
+		final AtomicLong lateCount = new AtomicLong();
+		final AtomicLong maxStartLagNanos = new AtomicLong();
+		final AtomicInteger inFlight = new AtomicInteger();
+		ExecutorService execService = new ThreadPoolExecutor(maxThreads, maxThreads,
+				0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>());
+		ObjectName objectName = JmxExporter.registerExecutor("OpenLoopLoadGenerator", execService);
+
+		final long durationNanos = TimeUnit.SECONDS.toNanos(durationSec);
+		final long rampUpNanos = TimeUnit.SECONDS.toNanos(rampUpSec);
+		LOG.info(String.format("Open-loop load started: op=%s, rate=%.1f/s, duration=%ds, rampUp=%ds",
+				operation, targetRate, durationSec, rampUpSec));
+
+		statistics.start();
+		final long baseNanos = System.nanoTime();
+		long sequence = 0L;
+		boolean isDrained = false;
+		try {
+			while (true) {
+				final long intendedOffset = intendedOffsetNanos(sequence, targetRate, rampUpNanos);
+				if (intendedOffset >= durationNanos) {
+					break;
+				}
+				final long intendedNanos = baseNanos + intendedOffset;
+				long waitNanos = intendedNanos - System.nanoTime();
+				while (waitNanos > 0) {
+					LockSupport.parkNanos(waitNanos);
+					if (Thread.interrupted()) {
+						throw new InterruptedException();
+					}
+					waitNanos = intendedNanos - System.nanoTime();
+				}
+				final long seq = sequence;
+				inFlight.incrementAndGet();
+				execService.execute(new Runnable() {
+					@Override
+					public void run() {
+						long startLag = System.nanoTime() - intendedNanos;
+						if (startLag > LATE_THRESHOLD_NANOS) {
+							lateCount.incrementAndGet();
+						}
+						updateMax(maxStartLagNanos, startLag);
+						boolean isSucceeded = false;
+						try {
+							request.execute(seq);
+							isSucceeded = true;
+						} catch (MloClientException | RuntimeException e) {
+							LOG.debug("Request failed: " + operation + " #" + seq, e);
+						} finally {
+							statistics.record(operation, System.nanoTime() - intendedNanos, isSucceeded);
+							inFlight.decrementAndGet();
+						}
+					}
+				});
+				sequence += 1;
+			}
+			execService.shutdown();
+			isDrained = execService.awaitTermination(DRAIN_TIMEOUT_SEC, TimeUnit.SECONDS);
+		} finally {
+			JmxExporter.unregister(objectName);
+			execService.shutdownNow();
+			statistics.stop();
+		}
+
+		Result result = new Result(targetRate, sequence, lateCount.get(), maxStartLagNanos.get(),
+				statistics.getElapsedNanos(), isDrained, statistics);
+		report(result, inFlight.get());
+		return result;
+	}
+
+	/**
+	 * Calculates the intended send time of the request.
+	 * The cumulative number of requests is rate * t^2 / (2 * rampUp) during the ramp-up,
+	 * and increases by the rate per second after the ramp-up.
+	 * @param sequence the sequence number of the request.
+	 * @param targetRate the target rate in requests per second.
+	 * @param rampUpNanos the ramp-up time.
+	 * @return the offset from the start in nanoseconds.
+	 */
+	static long intendedOffsetNanos(long sequence, double targetRate, long rampUpNanos) {
+		double ratePerNano = targetRate / NANOS_PER_SEC;
+		double rampUpCount = ratePerNano * rampUpNanos / 2.0;
+		if (sequence < rampUpCount) {
+			return (long) Math.sqrt(2.0 * rampUpNanos * sequence / ratePerNano);
+		}
+		return rampUpNanos + (long) ((sequence - rampUpCount) / ratePerNano);
+	}
+
+	private static void report(Result result, int remaining) {
+		for (String line : result.getStatistics().formatSummary()) {
+			LOG.info(line);
+		}
+		LOG.info(String.format("Target rate: %.1f/s, achieved rate: %.1f/s, issued: %d",
+				result.getTargetRate(), result.getAchievedRate(), result.getIssuedCount()));
+		if (!result.isKeptUp()) {
+			LOG.warn(String.format("The client could not keep up with the target rate: "
+					+ "%d requests started more than %d msec late (max %.3f msec), %d requests remained.",
+					result.getLateCount(), LATE_THRESHOLD_MSEC, result.getMaxStartLagNanos() / NSEC_PER_MSEC, remaining));
+		}
+	}
+
+	private static void updateMax(AtomicLong max, long value) {
+		long current = max.get();
+		while (value > current && !max.compareAndSet(current, value)) {
+			current = max.get();
+		}
+	}
+}
@@ -0,0 +1,124 @@
+/**
+ * PayloadLogger.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UnsupportedEncodingException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.o3project.mlo.server.dto.SliceDto;
+
+/**
+ * This class logs request and response payloads of slices.
+ * <p>
+ * Payloads are logged at INFO level of the category of this class, and are skipped
+ * without being marshaled if the level is disabled.
+ * Slices are sampled by the slice name, so that the request and the response of a slice are
+ * both logged or both skipped.
+ * The payload is marshaled to XML when the logging event is rendered, which is done in the
+ * dispatcher thread if the category is written by {@link DroppingAsyncFileAppender}.
+ * Therefore the slice DTO must not be modified after it is logged.
+ * </p>
+ * This class is thread-safe.
+ */
+final class PayloadLogger {
+	private static final Log LOG = LogFactory.getLog(PayloadLogger.class);
+
+	private static final int PERCENT = 100;
+
+	private static final int HASH_SHIFT = 16;
+
+	private final int sampleRatePercent;
+
+	private final int maxChars;
+
+	/**
+	 * A constructor.
+	 * @param sampleRatePercent the percentage of slices which are logged.
+	 * @param maxChars the maximum number of characters of a payload.
+	 */
+	PayloadLogger(int sampleRatePercent, int maxChars) {
+		if (maxChars <= 0) {
+			throw new IllegalArgumentException("maxChars must be positive: " + maxChars);
+		}
+		this.sampleRatePercent = Math.max(0, Math.min(PERCENT, sampleRatePercent));
+		this.maxChars = maxChars;
+	}
+
+	/**
+	 * Logs the payload of the slice if the slice is sampled.
+	 * @param identifier the identifier (Request/Response).
+	 * @param sliceDto the slice DTO.
+	 */
+	void log(String identifier, SliceDto sliceDto) {
+		if (!LOG.isInfoEnabled() || !isSampled(sliceDto.name)) {
+			return;
+		}
+		LOG.info(new Payload(identifier, sliceDto, maxChars));
+	}
+
+	/**
+	 * Checks whether the slice is sampled.
+	 * @param sliceName the slice name.
+	 * @return true if sampled.
+	 */
+	boolean isSampled(String sliceName) {
+		if (sampleRatePercent >= PERCENT) {
+			return true;
+		}
+		int hash = (sliceName == null) ? 0 : sliceName.hashCode();
+		// Spreads sequential names such as slice00000001.
+		hash ^= hash >>> HASH_SHIFT;
+		hash *= 0x85ebca6b;
+		hash ^= hash >>> HASH_SHIFT;
+		return (hash & Integer.MAX_VALUE) % PERCENT < sampleRatePercent;
+	}
+
+	/**
+	 * This class is the message of a payload, which is formatted when it is rendered.
+	 */
+	static final class Payload {
+		private final String identifier;
+		private final SliceDto sliceDto;
+		private final int maxChars;
+
+		/**
+		 * A constructor.
+		 * @param identifier the identifier.
+		 * @param sliceDto the slice DTO.
+		 * @param maxChars the maximum number of characters of the payload.
+		 */
+		Payload(String identifier, SliceDto sliceDto, int maxChars) {
+			this.identifier = identifier;
+			this.sliceDto = sliceDto;
+			this.maxChars = maxChars;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			ByteArrayOutputStream ostream = new ByteArrayOutputStream();
+			MloJaxbEngine.getDefault().marshal(sliceDto, ostream);
+			String xml = null;
+			try {
+				xml = ostream.toString("UTF-8");
+			} catch (UnsupportedEncodingException e) {
+				xml = e.toString(); // Only if UTF-8 is not supported.
+			}
+			StringBuilder sb = new StringBuilder();
+			sb.append("==== ").append(identifier).append(". slice: ").append(sliceDto.name).append('\n');
+			if (xml.length() > maxChars) {
+				sb.append(xml, 0, maxChars).append("... (truncated ").append(xml.length() - maxChars).append(" chars)");
+			} else {
+				sb.append(xml);
+			}
+			return sb.toString();
+		}
+	}
+}
@@ -0,0 +1,208 @@
+/**
+ * PooledMloInvokerImpl.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.o3project.mlo.client.control.ClientConfig;
+import org.o3project.mlo.client.control.MloAccessException;
+import org.o3project.mlo.client.control.MloInvoker;
+import org.o3project.mlo.client.control.MloMethod;
+import org.seasar.framework.container.annotation.tiger.Binding;
+import org.seasar.framework.container.annotation.tiger.DestroyMethod;
+import org.seasar.framework.container.annotation.tiger.InitMethod;
+
+import org.o3project.mlo.server.dto.RestifRequestDto;
+import org.o3project.mlo.server.dto.RestifResponseDto;
+
+/**
+ * This class is the implementation class of {@link MloInvoker} interface,
+ * which keeps HTTP connections to mlo-srv alive in a bounded per-host pool.
+ * Unlike {@link MloInvokerImpl}, the TCP (and TLS) handshake is paid only when a new connection is opened.
+ */
+public class PooledMloInvokerImpl implements MloInvoker {
+	private static final Log LOG = LogFactory.getLog(PooledMloInvokerImpl.class);
+
+	private static final int ONE_SECOND = 1000;
+
+	private static final int SC_400_BAD_REQUEST = 400;
+
+	private static final int REQ_BUFFER_SIZE = 2048;
+
+	private static final String METHOD_GET = "GET";
+
+	@Binding
+	private ClientConfig clientConfig;
+
+	private MloConnectionPool pool;
+
+	/**
+	 * Setter method (for DI setter injection).
+	 * @param clientConfig the instance.
+	 */
+	public void setClientConfig(ClientConfig clientConfig) {
+		this.clientConfig = clientConfig;
+	}
+
+	/**
+	 * Initializes this component.
+	 * The connection pool is created with the configuration.
+	 */
+	@InitMethod
+	public void init() {
+		int maxPerHost = clientConfig.getPoolMaxConnectionsPerHost();
+		long idleTimeoutMsec = (long) clientConfig.getPoolIdleTimeoutSec() * ONE_SECOND;
+		long maxLifetimeMsec = (long) clientConfig.getPoolMaxLifetimeSec() * ONE_SECOND;
+		pool = new MloConnectionPool(maxPerHost, idleTimeoutMsec, maxLifetimeMsec);
+		LOG.info(String.format("Connection pool created: maxPerHost=%d, idleTimeout=%d[msec], maxLifetime=%d[msec]",
+				maxPerHost, idleTimeoutMsec, maxLifetimeMsec));
+	}
+
+	/**
+	 * Destroys this component.
+	 * All idle connections are closed.
+	 */
+	@DestroyMethod
+	public void destroy() {
+		if (pool != null) {
+			LOG.info("Connection pool stats: " + pool.getStats());
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Obtains the statistics of the connection pool.
+	 * @return the statistics.
+	 */
+	public MloConnectionPoolStats getPoolStats() {
+		return pool.getStats();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.MloInvoker#invoke(org.o3project.mlo.client.control.MloMethod, org.o3project.mlo.server.dto.RestifRequestDto, java.lang.String, java.util.Map)
+	 */
+	@Override
+	public RestifResponseDto invoke(MloMethod method,
+			RestifRequestDto reqDto, String path, Map<String, String> params)
+					throws MloAccessException {
+		RestifResponseDto resDto = null;
+		try {
+			LOG.info("invoke() starts");
+			resDto = invokeInternal(method, reqDto, path, params);
+		} catch (IOException e) {
+			LOG.debug("Exception occurs.", e);
+			throw new MloAccessException("MLO-SERVER cannot be connected:" + e.getMessage(), e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MloAccessException("Interrupted in waiting for connection to MLO-SERVER", e);
+		} finally {
+			LOG.info("invoke() ends.");
+		}
+		return resDto;
+	}
+
+	/**
+	 * This method is the implementation method to execute task.
+	 * @param method the method instance.
+	 * @param reqDto the request DTO.
+	 * @param path URL path.
+	 * @param paramMap the query parameters.
+	 * @return the response DTO.
+	 * @throws IOException IO error.
+	 * @throws InterruptedException Interrupted in waiting for a connection.
+	 * @throws MloAccessException API anomaly error.
+	 */
+	private RestifResponseDto invokeInternal(MloMethod method,
+			RestifRequestDto reqDto, String path, Map<String, String> paramMap)
+					throws IOException, InterruptedException, MloAccessException {
+		URL url = new URL(method.constructUrl(path, paramMap));
+		LOG.info("Invoking to ... " + url);
+
+		byte[] body = null;
+		if (method.isSetDoOutput()) {
+			ByteArrayOutputStream ostream = new ByteArrayOutputStream(REQ_BUFFER_SIZE);
+			method.handleReqOutput(reqDto, ostream);
+			body = ostream.toByteArray();
+		}
+
+		int connectTimeoutMsec = toMsec(method.getConnectionTimeoutSec());
+		int readTimeoutMsec = toMsec(method.getReadTimeoutSec());
+
+		MloHttpConnection conn = pool.lease(url, connectTimeoutMsec);
+		boolean isReused = conn.getUseCount() > 0;
+		MloHttpResponse response = null;
+		try {
+			response = conn.execute(method.getName(), url, body, readTimeoutMsec);
+		} catch (MloHttpConnection.NoResponseException e) {
+			// The connection is closed by the pool, because it is not reusable.
+			pool.release(conn);
+			if (!isReused || !isIdempotent(method)) {
+				// The server may have processed the request, e.g. created a slice.
+				throw e;
+			}
+			// The server has closed the idle connection. Retries once with a new connection.
+			LOG.debug("Reused connection has been closed by server. Retrying with a new connection.", e);
+			conn = pool.lease(url, connectTimeoutMsec);
+			response = executeOrRelease(conn, method.getName(), url, body, readTimeoutMsec);
+		} catch (IOException e) {
+			conn.markNotReusable();
+			pool.release(conn);
+			throw e;
+		}
+
+		RestifResponseDto resDto = null;
+		try {
+			int statusCode = response.getStatusCode();
+			LOG.info("statusCode = " + statusCode);
+			if (statusCode >= SC_400_BAD_REQUEST) {
+				// Discards the error body so that the connection can be reused.
+				response.finish();
+				throw new MloAccessException("MloServerAccessError/" + statusCode);
+			}
+			try (InputStream istream = response.getBody()) {
+				resDto = method.handleResInput(istream);
+			}
+			response.finish();
+		} catch (IOException | RuntimeException e) {
+			conn.markNotReusable();
+			throw e;
+		} finally {
+			pool.release(conn);
+		}
+		return resDto;
+	}
+
+	private MloHttpResponse executeOrRelease(MloHttpConnection conn,
+			String methodName, URL url, byte[] body, int readTimeoutMsec) throws IOException {
+		try {
+			return conn.execute(methodName, url, body, readTimeoutMsec);
+		} catch (IOException e) {
+			conn.markNotReusable();
+			pool.release(conn);
+			throw e;
+		}
+	}
+
+	/**
+	 * Specifies whether the request can be sent again.
+	 * Reads are sent by GET, and CREATE, UPDATE and DELETE are sent by POST.
+	 * @param method the method instance.
+	 * @return true if the method does not change slices.
+	 */
+	private static boolean isIdempotent(MloMethod method) {
+		return METHOD_GET.equals(method.getName());
+	}
+
+	private static int toMsec(Integer sec) {
+		return (sec == null) ? 0 : sec * ONE_SECOND;
+	}
+}
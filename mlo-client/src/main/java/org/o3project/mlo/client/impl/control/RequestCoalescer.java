@@ -0,0 +1,125 @@
+/**
+ * RequestCoalescer.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.o3project.mlo.client.control.MloAccessException;
+import org.o3project.mlo.client.control.MloClientException;
+
+/**
+ * This class coalesces concurrent identical requests into one in-flight call.
+ * <p>
+ * The first caller of a key executes the call, and callers of the same key arriving
+ * before the call completes wait for it, and share its result or exception.
+ * After the call completes, the next caller executes a new call, that is, results are not cached.
+ * Every caller receives a copy of the result, so that the shared result is never modified by callers.
+ * </p>
+ * This class is thread-safe.
+ */
+final class RequestCoalescer {
+
+	/**
+	 * The call executed by the first caller.
+	 * @param <V> the result type.
+	 */
+	interface Call<V> {
+		/**
+		 * Executes the request.
+		 * @return the result.
+		 * @throws MloClientException Failed to request.
+		 */
+		V call() throws MloClientException;
+	}
+
+	/**
+	 * The copier of shared results.
+	 * @param <V> the result type.
+	 */
+	interface Copier<V> {
+		/**
+		 * Copies the result.
+		 * @param result the shared result.
+		 * @return the copy.
+		 */
+		V copy(V result);
+	}
+
+	private final ConcurrentMap<Object, MloSettableFuture<Object>> inFlightCalls =
+			new ConcurrentHashMap<Object, MloSettableFuture<Object>>();
+
+	private final AtomicLong executedCount = new AtomicLong();
+
+	private final AtomicLong coalescedCount = new AtomicLong();
+
+	/**
+	 * Executes the call, or waits for the in-flight call of the same key.
+	 * @param key the key which identifies identical requests.
+	 * @param call the call.
+	 * @param copier the copier of the result.
+	 * @param <V> the result type.
+	 * @return the copy of the result.
+	 * @throws MloClientException Failed to request, or interrupted in waiting.
+	 */
+	@SuppressWarnings("unchecked")
+	<V> V execute(Object key, Call<V> call, Copier<V> copier) throws MloClientException {
+		MloSettableFuture<Object> future = new MloSettableFuture<Object>();
+		MloSettableFuture<Object> inFlight = inFlightCalls.putIfAbsent(key, future);
+		if (inFlight != null) {
+			coalescedCount.incrementAndGet();
+			V result = (V) await(inFlight);
+			return (result == null) ? null : copier.copy(result);
+		}
+		executedCount.incrementAndGet();
+		try {
+			V result = call.call();
+			future.set(result);
+			return (result == null) ? null : copier.copy(result);
+		} catch (MloClientException | RuntimeException | Error e) {
+			future.setException(e);
+			throw e;
+		} finally {
+			inFlightCalls.remove(key, future);
+		}
+	}
+
+	/**
+	 * Obtains the number of executed calls.
+	 * @return the count.
+	 */
+	long getExecutedCount() {
+		return executedCount.get();
+	}
+
+	/**
+	 * Obtains the number of requests which waited for in-flight calls instead of executing calls.
+	 * @return the count.
+	 */
+	long getCoalescedCount() {
+		return coalescedCount.get();
+	}
+
+	private static Object await(MloSettableFuture<Object> inFlight) throws MloClientException {
+		try {
+			return inFlight.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MloAccessException("Interrupted in waiting for the in-flight request", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof MloClientException) {
+				throw (MloClientException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+}
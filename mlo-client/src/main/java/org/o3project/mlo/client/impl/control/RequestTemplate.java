@@ -0,0 +1,100 @@
+/**
+ * RequestTemplate.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.o3project.mlo.server.dto.FlowDto;
+import org.o3project.mlo.server.dto.SliceDto;
+
+/**
+ * This class is the immutable settings of a parallel request run of {@link RequestorServiceImpl}.
+ * <p>
+ * The template slice is copied once on construction, so that the run is not affected by
+ * later changes of the template, and request DTOs can be created from any thread.
+ * Names are partitioned by the sequence number: the request of sequence {@code seq}
+ * uses flow numbers from {@code (seq - 1) * nFlows + 1} to {@code seq * nFlows},
+ * so that no counter is shared between requests.
+ * </p>
+ */
+final class RequestTemplate {
+
+	private final String type;
+
+	private final boolean isIdRequired;
+
+	private final String sliceName;
+
+	private final Integer sliceId;
+
+	private final FlowDto[] flows;
+
+	/**
+	 * A constructor.
+	 * @param type the request type, "create", "update", "delete" or "read".
+	 * @param slice the template slice.
+	 */
+	RequestTemplate(String type, SliceDto slice) {
+		this.type = type;
+		this.isIdRequired = !"create".equals(type);
+		this.sliceName = slice.name;
+		this.sliceId = slice.id;
+		if (slice.flows == null) {
+			this.flows = null;
+		} else {
+			this.flows = new FlowDto[slice.flows.size()];
+			for (int idx = 0; idx < flows.length; idx += 1) {
+				this.flows[idx] = copyFlow(slice.flows.get(idx), slice.flows.get(idx).name);
+			}
+		}
+	}
+
+	/**
+	 * Obtains the request type.
+	 * @return the request type.
+	 */
+	String getType() {
+		return type;
+	}
+
+	/**
+	 * Creates the request DTO for a sequence number.
+	 * @param seq the sequence number, which starts from 1.
+	 * @return the new request DTO.
+	 */
+	SliceDto newRequest(int seq) {
+		SliceDto reqSlice = new SliceDto();
+		reqSlice.name = String.format("%s%04d", sliceName, seq);
+		if (isIdRequired) {
+			reqSlice.id = sliceId;
+		}
+		if (flows != null) {
+			int flowNo = (seq - 1) * flows.length + 1;
+			List<FlowDto> reqFlows = new ArrayList<FlowDto>(flows.length);
+			for (FlowDto flow : flows) {
+				reqFlows.add(copyFlow(flow, String.format("flow%04d", flowNo)));
+				flowNo += 1;
+			}
+			reqSlice.flows = reqFlows;
+		}
+		return reqSlice;
+	}
+
+	private static FlowDto copyFlow(FlowDto flow, String name) {
+		FlowDto reqFlow = new FlowDto();
+		reqFlow.type = flow.type;
+		reqFlow.name = name;
+		reqFlow.id = flow.id;
+		reqFlow.srcCENodeName = flow.srcCENodeName;
+		reqFlow.srcCEPortNo = flow.srcCEPortNo;
+		reqFlow.dstCENodeName = flow.dstCENodeName;
+		reqFlow.dstCEPortNo = flow.dstCEPortNo;
+		reqFlow.reqBandWidth = flow.reqBandWidth;
+		reqFlow.reqDelay = flow.reqDelay;
+		reqFlow.protectionLevel = flow.protectionLevel;
+		return reqFlow;
+	}
+}
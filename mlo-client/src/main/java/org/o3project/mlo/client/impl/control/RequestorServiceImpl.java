@@ -11,12 +11,11 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-
-import javax.xml.bind.JAXB;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -53,28 +52,42 @@ public class RequestorServiceImpl implements RequestorService {
 	private static final int FILE_COLUMN = 2;
 	private static final int THREAD_COLUMN = 3;
 
-	private SliceDataManager sliceDataManager;
-	
-	private String requestType;
+	private static final int SOAK_MIN_COLUMNS = 4;
+	private static final int SOAK_MAX_COLUMNS = 5;
+
+	private static final int USERS_COLUMN = 2;
+	private static final int DURATION_COLUMN = 3;
+	private static final int THINK_TIME_COLUMN = 4;
+
+	private static final int SOAK_REPORT_INTERVAL_SEC = 10;
 
-	private int flowCount = 1;
+	private static final String SERIAL_SLICE_NAME = "slice1";
+
+	private SliceDataManager sliceDataManager;
 	
 	/**
 	 * Concurrent execution task.
+	 * The request DTO is created from the template in the worker thread.
 	 */
-	private class RequestTask implements Callable<SliceDto> {
+	private static final class RequestTask implements Callable<SliceDto> {
 
-		private SliceDto request;
-		public RequestTask(SliceDto request) {
-			this.request = request;
+		private final SliceDataManager sliceDataManager;
+		private final RequestTemplate template;
+		private final int seq;
+
+		RequestTask(SliceDataManager sliceDataManager, RequestTemplate template, int seq) {
+			this.sliceDataManager = sliceDataManager;
+			this.template = template;
+			this.seq = seq;
 		}
 		
 	    @Override
 	    public SliceDto call() throws Exception {
 
+	    	SliceDto request = template.newRequest(seq);
 	    	SliceDto resSlice = null;
 	    	try {
-		    	switch (requestType) {
+		    	switch (template.getType()) {
 		    	case "create":
 		    		resSlice = sliceDataManager.createSliceInfo(request);
 		    		break;
@@ -112,29 +125,30 @@ public class RequestorServiceImpl implements RequestorService {
 	@Override
 	public void request(String type, RestifRequestDto requestTemplate, int threadNum) {
 
-		this.requestType = type;
+		RequestTemplate template = new RequestTemplate(type, requestTemplate.slice);
 		
 		ExecutorService service = Executors.newFixedThreadPool(threadNum);
-		ArrayList<Future<SliceDto>> futures = new ArrayList<Future<SliceDto>>();
-	    
-	    for (int i = 1; i <= threadNum; i++) {
-			SliceDto request = creareRequestDto(type, i, requestTemplate.slice);
-		    futures.add(service.submit(new RequestTask(request)));
-	    }
-	    for (Future<SliceDto> future : futures) {
-	    	try {
-	    		SliceDto res = future.get();
-	    		System.out.println("##### Complete task : " + (res == null ? "null" : res.name));
-			} catch (InterruptedException | ExecutionException e) {
-				e.printStackTrace();
+		CompletionService<SliceDto> completionService = new ExecutorCompletionService<SliceDto>(service);
+		try {
+			for (int i = 1; i <= threadNum; i++) {
+				completionService.submit(new RequestTask(sliceDataManager, template, i));
 			}
-	    }
-	    System.out.println("task end");
-
-	    service.shutdown();
-	    
-		return;
-		
+			// Handles results in the order of completion.
+			for (int i = 1; i <= threadNum; i++) {
+				try {
+					SliceDto res = completionService.take().get();
+					System.out.println("##### Complete task : " + (res == null ? "null" : res.name));
+				} catch (ExecutionException e) {
+					e.printStackTrace();
+				}
+			}
+			System.out.println("task end");
+		} catch (InterruptedException e) {
+			LOG.warn("Interrupted while waiting for requests.");
+			Thread.currentThread().interrupt();
+		} finally {
+			service.shutdownNow();
+		}
 	}
 	
 	/* (non-Javadoc)
@@ -143,7 +157,7 @@ public class RequestorServiceImpl implements RequestorService {
 	@Override
 	public void requestMloClient() {
 		try {
-			SliceDto resSlice1 = sliceDataManager.createSliceInfo(createMloClientDto());
+			SliceDto resSlice1 = sliceDataManager.createSliceInfo(createMloClientDto(SERIAL_SLICE_NAME));
 			displayResponse("CREATE", resSlice1);
 			SliceDto resSlice2 = sliceDataManager.getSliceInfo(readDto(resSlice1));
 			displayResponse("READ", resSlice2);
@@ -172,7 +186,7 @@ public class RequestorServiceImpl implements RequestorService {
 	@Override
 	public void requestDemoApl() {
 		try {
-			SliceDto resSlice1 = sliceDataManager.createSliceInfo(createDemoAplDto());
+			SliceDto resSlice1 = sliceDataManager.createSliceInfo(createDemoAplDto(SERIAL_SLICE_NAME));
 			displayResponse("CREATE", resSlice1);
 			SliceDto resSlice2 = sliceDataManager.getSliceInfo(readDto(resSlice1));
 			displayResponse("READ", resSlice2);
@@ -195,36 +209,23 @@ public class RequestorServiceImpl implements RequestorService {
 		}
 	}
 	
-	private SliceDto creareRequestDto(String type, int seq, SliceDto slice) {
-		
-		SliceDto reqSlice = new SliceDto();
-		
-		reqSlice.name = String.format("%s%04d", slice.name, seq);
-		if (!type.equals("create")) {
-			reqSlice.id = slice.id;
-		}
-		
-		if (null != slice.flows) {
-			List<FlowDto> flows = new ArrayList<FlowDto>();
-			for (FlowDto flow : slice.flows) {
-				FlowDto reqFlow = new FlowDto();
-				reqFlow.type = flow.type;
-				reqFlow.name = String.format("flow%04d", flowCount);
-				flowCount++;
-				reqFlow.id = flow.id;
-				reqFlow.srcCENodeName = flow.srcCENodeName;
-				reqFlow.srcCEPortNo = flow.srcCEPortNo;
-				reqFlow.dstCENodeName = flow.dstCENodeName;
-				reqFlow.dstCEPortNo = flow.dstCEPortNo;
-				reqFlow.reqBandWidth = flow.reqBandWidth;
-				reqFlow.reqDelay = flow.reqDelay;
-				reqFlow.protectionLevel = flow.protectionLevel;
-				flows.add(reqFlow);
-			}
-			reqSlice.flows = flows;
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.RequestorService#requestSoak(java.lang.String, int, int, long)
+	 */
+	@Override
+	public void requestSoak(String clientType, int users, int durationSec, long thinkTimeMsec) {
+		boolean isMloClient;
+		if (ClientConfigConstants.CLIENT_TYPE_HITACHI.equals(clientType)) {
+			isMloClient = true;
+		} else if (ClientConfigConstants.CLIENT_TYPE_OTHER.equals(clientType)) {
+			isMloClient = false;
+		} else {
+			LOG.warn("Soak is not supported for the client type: " + clientType);
+			return;
 		}
-		
-		return reqSlice;
+		SoakRunner runner = new SoakRunner(sliceDataManager, isMloClient, users, durationSec, thinkTimeMsec,
+				SOAK_REPORT_INTERVAL_SEC);
+		runner.run();
 	}
 	
 	private void displayResponse(String operation, SliceDto dto) {
@@ -240,13 +241,14 @@ public class RequestorServiceImpl implements RequestorService {
 	
 	/**
 	 * Creates slice DTO for mloClient.
+	 * @param sliceName the slice name.
 	 * @return the slice DTO.
 	 */
-	private SliceDto createMloClientDto() {
+	static SliceDto createMloClientDto(String sliceName) {
 		
 		SliceDto reqSlice = new SliceDto();
 		
-		reqSlice.name = String.format("slice1");
+		reqSlice.name = sliceName;
 		
 		List<FlowDto> flows = new ArrayList<FlowDto>();
 		FlowDto reqFlow = new FlowDto();
@@ -266,13 +268,14 @@ public class RequestorServiceImpl implements RequestorService {
 	
 	/**
 	 * Creates slice DTO for demoApl.
+	 * @param sliceName the slice name.
 	 * @return the slice DTO.
 	 */
-	private SliceDto createDemoAplDto() {
+	static SliceDto createDemoAplDto(String sliceName) {
 		
 		SliceDto reqSlice = new SliceDto();
 		
-		reqSlice.name = String.format("slice1");
+		reqSlice.name = sliceName;
 		
 		List<FlowDto> flows = new ArrayList<FlowDto>();
 		FlowDto reqFlow = new FlowDto();
@@ -296,7 +299,7 @@ public class RequestorServiceImpl implements RequestorService {
 	 * @param dto the slice DTO.
 	 * @return the slice DTO.
 	 */
-	private SliceDto readDto(SliceDto dto) {
+	static SliceDto readDto(SliceDto dto) {
 		
 		SliceDto reqSlice = new SliceDto();
 		
@@ -310,7 +313,7 @@ public class RequestorServiceImpl implements RequestorService {
 	 * @param dto the obtained slice DTO.
 	 * @return the slice DTO.
 	 */
-	private SliceDto updateAddMloClientDto(SliceDto dto) {
+	static SliceDto updateAddMloClientDto(SliceDto dto) {
 		
 		SliceDto reqSlice = new SliceDto();
 		
@@ -338,7 +341,7 @@ public class RequestorServiceImpl implements RequestorService {
 	 * @param dto the obtained slice DTO.
 	 * @return the slice DTO.
 	 */
-	private SliceDto updateAddDemoAplDto(SliceDto dto) {
+	static SliceDto updateAddDemoAplDto(SliceDto dto) {
 		
 		SliceDto reqSlice = new SliceDto();
 		
@@ -367,7 +370,7 @@ public class RequestorServiceImpl implements RequestorService {
 	 * @param dto the obtained slice DTO.
 	 * @return the slice DTO.
 	 */
-	private SliceDto updateModMloClientDto(SliceDto dto) {
+	static SliceDto updateModMloClientDto(SliceDto dto) {
 		
 		SliceDto reqSlice = new SliceDto();
 		
@@ -396,7 +399,7 @@ public class RequestorServiceImpl implements RequestorService {
 	 * @param dto the obtained slice DTO.
 	 * @return the slice DTO.
 	 */
-	private SliceDto updateModDemoAplDto(SliceDto dto) {
+	static SliceDto updateModDemoAplDto(SliceDto dto) {
 		
 		SliceDto reqSlice = new SliceDto();
 		
@@ -427,7 +430,7 @@ public class RequestorServiceImpl implements RequestorService {
 	 * @param dto the obtained slice DTO.
 	 * @return the slice DTO.
 	 */
-	private SliceDto updateDelDto(SliceDto dto) {
+	static SliceDto updateDelDto(SliceDto dto) {
 		
 		SliceDto reqSlice = new SliceDto();
 		
@@ -448,7 +451,7 @@ public class RequestorServiceImpl implements RequestorService {
 	 * @param dto the obtained slice DTO.
 	 * @return the slice DTO.
 	 */
-	private SliceDto deleteDto(SliceDto dto) {
+	static SliceDto deleteDto(SliceDto dto) {
 		
 		SliceDto reqSlice = new SliceDto();
 		
@@ -478,14 +481,18 @@ public class RequestorServiceImpl implements RequestorService {
 			throw e;
 		}
 		
-		RequestorService requestor = new RequestorServiceImpl(sliceDataManager);
+		LoadStatistics statistics = new LoadStatistics();
+		RequestorService requestor = new RequestorServiceImpl(new MeasuringSliceDataManager(sliceDataManager, statistics));
 
 		LOG.info("Start processing");
 		long startTime = System.currentTimeMillis();
+		statistics.start();
 		doProcess(requestor, clientConfig, args);
+		statistics.stop();
 		long endTime = System.currentTimeMillis();
 		LOG.info("End processing");
 		LOG.info(String.format("Processing time: %d [msec]", (endTime - startTime)));
+		statistics.report(clientConfig.getLoadStatsCsvFile(), clientConfig.getLoadStatsJsonFile());
 
 		try {
 			SingletonS2ContainerFactory.destroy();
@@ -509,6 +516,8 @@ public class RequestorServiceImpl implements RequestorService {
 		if (args.length > 0 && "-t".equals(args[0])) {
 			if (args.length == SERIAL_COLUMNS && "serial".equals(args[1])) {
 				requestType = args[TYPE_COLUMN];
+			} else if (args.length >= SOAK_MIN_COLUMNS && args.length <= SOAK_MAX_COLUMNS && "soak".equals(args[1])) {
+				requestType = args[TYPE_COLUMN];
 			} else if (args.length == REQUEST_COLUMNS) {
 				requestType = args[TYPE_COLUMN];
 				fileName = args[FILE_COLUMN];
@@ -516,21 +525,18 @@ public class RequestorServiceImpl implements RequestorService {
 			} else {
 				System.out.println("Parallel multiple slice request : -t <create/update/delete/read> <request FileName> <ThreadNum>");
 				System.out.println("Continuous operation            : -t serial");
+				System.out.println("Soak with virtual users         : -t soak <Users> <DurationSec> [<ThinkTimeMsec>]");
 				return;
 			}
 			
 			if ("serial".equals(requestType)) {
-				if (ClientConfigConstants.CLIENT_TYPE_HITACHI.equals(clientConfig.getSrcComponentName())) {
-					System.out.println("mloClient sequence START");
-					while (!Thread.currentThread().isInterrupted()) {
-						requestor.requestMloClient();
-					}
-				} else if (ClientConfigConstants.CLIENT_TYPE_OTHER.equals(clientConfig.getSrcComponentName())) {
-					System.out.println("demoApl sequence START");
-					while (!Thread.currentThread().isInterrupted()) {
-						requestor.requestDemoApl();
-					}
-				}
+				// A single virtual user until interrupted.
+				requestor.requestSoak(clientConfig.getSrcComponentName(), 1, 0, 0L);
+			} else if ("soak".equals(requestType)) {
+				int users = Integer.valueOf(args[USERS_COLUMN]);
+				int durationSec = Integer.valueOf(args[DURATION_COLUMN]);
+				long thinkTimeMsec = (args.length > THINK_TIME_COLUMN) ? Long.valueOf(args[THINK_TIME_COLUMN]) : 0L;
+				requestor.requestSoak(clientConfig.getSrcComponentName(), users, durationSec, thinkTimeMsec);
 			} else {
 				InputStream is = null;
 				try {
@@ -540,7 +546,7 @@ public class RequestorServiceImpl implements RequestorService {
 						e.printStackTrace();
 						return;
 					}
-					RestifRequestDto requestTemplate = JAXB.unmarshal(is, RestifRequestDto.class);
+					RestifRequestDto requestTemplate = MloJaxbEngine.getDefault().unmarshal(is, RestifRequestDto.class);
 					requestor.request(requestType, requestTemplate, threadNum);
 				} finally {
 					if (is != null) {
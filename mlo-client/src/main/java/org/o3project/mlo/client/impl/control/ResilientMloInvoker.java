@@ -0,0 +1,265 @@
+/**
+ * ResilientMloInvoker.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.o3project.mlo.client.control.ClientConfig;
+import org.o3project.mlo.client.control.ClientConfigListener;
+import org.o3project.mlo.client.control.MloAccessException;
+import org.o3project.mlo.client.control.MloInvoker;
+import org.o3project.mlo.client.control.MloMethod;
+import org.seasar.framework.container.annotation.tiger.Binding;
+import org.seasar.framework.container.annotation.tiger.BindingType;
+import org.seasar.framework.container.annotation.tiger.InitMethod;
+
+import org.o3project.mlo.server.dto.RestifRequestDto;
+import org.o3project.mlo.server.dto.RestifResponseDto;
+
+/**
+ * This class is the decorator of {@link MloInvoker}, which retries failed requests
+ * and stops requests by {@link CircuitBreaker} while mlo-srv keeps failing.
+ * <p>
+ * Connection failures and HTTP status 5xx and 429 are regarded as failures of mlo-srv.
+ * They are retried up to the maximum number of attempts configured for each operation path,
+ * with an exponential backoff whose delay is randomized between zero and the backed-off delay,
+ * so that concurrent requests do not retry at the same time.
+ * Other errors, such as HTTP status 4xx, are neither retried nor counted as failures of mlo-srv.
+ * Streaming responses are not retried, because slices may have been passed to the handler.
+ * </p>
+ * This class is thread-safe.
+ */
+public class ResilientMloInvoker implements MloInvoker, ClientConfigListener {
+	private static final Log LOG = LogFactory.getLog(ResilientMloInvoker.class);
+
+	private static final int DEFAULT_MAX_ATTEMPTS = 1;
+
+	private static final int DEFAULT_BASE_DELAY_MSEC = 100;
+
+	private static final int DEFAULT_MAX_DELAY_MSEC = 2000;
+
+	private static final int DEFAULT_WINDOW_SIZE = 20;
+
+	private static final int DEFAULT_FAILURE_RATE_PERCENT = 50;
+
+	private static final int DEFAULT_OPEN_SEC = 5;
+
+	private static final int MAX_BACKOFF_SHIFT = 20;
+
+	private static final int SC_429_TOO_MANY_REQUESTS = 429;
+
+	private static final int SC_500_INTERNAL_SERVER_ERROR = 500;
+
+	private ClientConfig clientConfig;
+
+	private volatile MloInvoker delegate;
+
+	private final ConcurrentMap<String, Integer> maxAttemptsMap = new ConcurrentHashMap<String, Integer>();
+
+	private volatile long baseDelayMsec = DEFAULT_BASE_DELAY_MSEC;
+
+	private volatile long maxDelayMsec = DEFAULT_MAX_DELAY_MSEC;
+
+	private volatile CircuitBreaker circuitBreaker = new CircuitBreaker(
+			DEFAULT_WINDOW_SIZE, DEFAULT_FAILURE_RATE_PERCENT, TimeUnit.SECONDS.toMillis(DEFAULT_OPEN_SEC));
+
+	private final AtomicLong retryCount = new AtomicLong();
+
+	private final AtomicLong rejectedCount = new AtomicLong();
+
+	/**
+	 * Setter method (for DI setter injection).
+	 * @param clientConfig The instance.
+	 */
+	@Binding
+	public void setClientConfig(ClientConfig clientConfig) {
+		this.clientConfig = clientConfig;
+	}
+
+	/**
+	 * Sets the decorated invoker.
+	 * This is not injected by DI, because the invoker is selected by {@link SliceDataManagerImpl}.
+	 * @param delegate the invoker.
+	 */
+	@Binding(bindingType = BindingType.NONE)
+	public void setDelegate(MloInvoker delegate) {
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Initializes this instance.
+	 */
+	@InitMethod
+	public void init() {
+		configReloaded(clientConfig);
+		clientConfig.addClientConfigListener(this);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfigListener#configReloaded(org.o3project.mlo.client.control.ClientConfig)
+	 */
+	@Override
+	public void configReloaded(ClientConfig clientConfig) {
+		// Maximum attempts are read again for each path.
+		maxAttemptsMap.clear();
+		setRetryParameters(getConfigValue(clientConfig.getRetryBaseDelayMsec(), DEFAULT_BASE_DELAY_MSEC),
+				getConfigValue(clientConfig.getRetryMaxDelayMsec(), DEFAULT_MAX_DELAY_MSEC));
+		setCircuitBreakerParameters(getConfigValue(clientConfig.getCircuitWindowSize(), DEFAULT_WINDOW_SIZE),
+				getConfigValue(clientConfig.getCircuitFailureRatePercent(), DEFAULT_FAILURE_RATE_PERCENT),
+				TimeUnit.SECONDS.toMillis(getConfigValue(clientConfig.getCircuitOpenSec(), DEFAULT_OPEN_SEC)));
+	}
+
+	/**
+	 * Sets the maximum number of attempts of an operation path.
+	 * @param path the operation path.
+	 * @param maxAttempts the maximum number of attempts, including the first one.
+	 */
+	public void setMaxAttempts(String path, int maxAttempts) {
+		maxAttemptsMap.put(path, Math.max(1, maxAttempts));
+	}
+
+	/**
+	 * Sets the delay of retries.
+	 * @param baseDelayMsec the delay of the first retry, which is doubled for each retry.
+	 * @param maxDelayMsec the maximum delay.
+	 */
+	public void setRetryParameters(long baseDelayMsec, long maxDelayMsec) {
+		this.baseDelayMsec = Math.max(0L, baseDelayMsec);
+		this.maxDelayMsec = Math.max(0L, maxDelayMsec);
+	}
+
+	/**
+	 * Sets the parameters of the circuit breaker.
+	 * The circuit breaker is reset to the CLOSED state.
+	 * @param windowSize the number of the last requests whose results are kept.
+	 * @param failureRatePercent the failure rate which opens the circuit breaker.
+	 * @param openMsec the duration in which requests are rejected.
+	 */
+	public void setCircuitBreakerParameters(int windowSize, int failureRatePercent, long openMsec) {
+		circuitBreaker = new CircuitBreaker(Math.max(1, windowSize), failureRatePercent, Math.max(0L, openMsec));
+		LOG.info("Circuit breaker: windowSize=" + windowSize + ", failureRatePercent=" + failureRatePercent
+				+ ", openMsec=" + openMsec);
+	}
+
+	/**
+	 * Obtains the state of the circuit breaker.
+	 * @return the state, CLOSED, OPEN or HALF_OPEN.
+	 */
+	public String getCircuitState() {
+		return circuitBreaker.getState().name();
+	}
+
+	/**
+	 * Obtains the number of times the circuit breaker has opened since its parameters were set.
+	 * @return the count.
+	 */
+	public long getCircuitOpenCount() {
+		return circuitBreaker.getOpenCount();
+	}
+
+	/**
+	 * Obtains the number of retries.
+	 * @return the count.
+	 */
+	public long getRetryCount() {
+		return retryCount.get();
+	}
+
+	/**
+	 * Obtains the number of requests rejected by the opened circuit breaker.
+	 * @return the count.
+	 */
+	public long getRejectedCount() {
+		return rejectedCount.get();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.MloInvoker#invoke(org.o3project.mlo.client.control.MloMethod, org.o3project.mlo.server.dto.RestifRequestDto, java.lang.String, java.util.Map)
+	 */
+	@Override
+	public RestifResponseDto invoke(MloMethod method, RestifRequestDto reqDto, String path, Map<String, String> params)
+			throws MloAccessException {
+		int maxAttempts = (method instanceof MloSliceStreamingMethod) ? 1 : getMaxAttempts(path);
+		CircuitBreaker breaker = circuitBreaker;
+		for (int attempt = 1; ; attempt += 1) {
+			if (!breaker.tryAcquire()) {
+				rejectedCount.incrementAndGet();
+				throw new MloAccessException("MLO-SERVER is not requested while the circuit breaker is open: " + path);
+			}
+			try {
+				RestifResponseDto resDto = delegate.invoke(method, reqDto, path, params);
+				breaker.record(false);
+				return resDto;
+			} catch (MloAccessException e) {
+				boolean isServerFailure = isServerFailure(e);
+				breaker.record(isServerFailure);
+				if (!isServerFailure || attempt >= maxAttempts) {
+					throw e;
+				}
+				retryCount.incrementAndGet();
+				LOG.warn(String.format("Retrying %s (%d/%d): %s", path, attempt + 1, maxAttempts, e.getMessage()));
+				sleepBackoff(attempt);
+			} catch (RuntimeException e) {
+				// Not a failure of mlo-srv, e.g. the failure of the slice handler.
+				breaker.record(false);
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Checks whether the exception denotes a failure of mlo-srv, which may succeed if retried.
+	 * @param e the exception.
+	 * @return true if mlo-srv has failed.
+	 */
+	static boolean isServerFailure(MloAccessException e) {
+		Throwable cause = e.getCause();
+		if (cause instanceof InterruptedException) {
+			return false;
+		}
+		int statusCode = MloInvokerImpl.getStatusCode(e);
+		if (statusCode >= 0) {
+			return statusCode >= SC_500_INTERNAL_SERVER_ERROR || statusCode == SC_429_TOO_MANY_REQUESTS;
+		}
+		return cause instanceof IOException;
+	}
+
+	private int getMaxAttempts(String path) {
+		Integer maxAttempts = maxAttemptsMap.get(path);
+		if (maxAttempts == null) {
+			maxAttempts = DEFAULT_MAX_ATTEMPTS;
+			if (clientConfig != null) {
+				maxAttempts = Math.max(1, getConfigValue(clientConfig.getRetryMaxAttempts(path), DEFAULT_MAX_ATTEMPTS));
+			}
+			maxAttemptsMap.put(path, maxAttempts);
+		}
+		return maxAttempts;
+	}
+
+	private void sleepBackoff(int attempt) throws MloAccessException {
+		long backoffMsec = Math.min(maxDelayMsec, baseDelayMsec << Math.min(attempt - 1, MAX_BACKOFF_SHIFT));
+		long delayMsec = ThreadLocalRandom.current().nextLong(backoffMsec + 1L);
+		try {
+			TimeUnit.MILLISECONDS.sleep(delayMsec);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MloAccessException("Interrupted in waiting for retry to MLO-SERVER", e);
+		}
+	}
+
+	private static int getConfigValue(Integer value, int defaultValue) {
+		return (value == null) ? defaultValue : value;
+	}
+}
@@ -0,0 +1,381 @@
+/**
+ * Scenario.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+
+import org.o3project.mlo.client.control.MloInputDataException;
+
+/**
+ * This class is a workload scenario, which is loaded from a properties file.
+ * <p>
+ * The file describes the weighted mix of operations, the number of flows per slice,
+ * the pools of CE nodes and ports, the distributions of band width and delay,
+ * the concurrency and the duration. Keys are prefixed with {@value #KEY_PREFIX_},
+ * and see the sample mlo-client-scenario.properties for details.
+ * </p>
+ * A distribution is written in one of the following forms.
+ * <ul>
+ * <li>{@code 100} or {@code fixed:100} : always 100.</li>
+ * <li>{@code uniform:1:100} : uniformly from 1 to 100, inclusive.</li>
+ * <li>{@code choice:10,10,9999} : one of the values, so duplicated values are weighted.</li>
+ * </ul>
+ * This class is immutable.
+ */
+public final class Scenario {
+
+	/** Prefix of keys in a scenario file. */
+	public static final String KEY_PREFIX_ = "scenario.";
+
+	private static final String KEY_NAME = KEY_PREFIX_ + "name";
+	private static final String KEY_DURATION_SEC = KEY_PREFIX_ + "durationSec";
+	private static final String KEY_CONCURRENCY = KEY_PREFIX_ + "concurrency";
+	private static final String KEY_RATE_PER_SEC = KEY_PREFIX_ + "ratePerSec";
+	private static final String KEY_INITIAL_SLICES = KEY_PREFIX_ + "initialSlices";
+	private static final String KEY_MIX_PREFIX_ = KEY_PREFIX_ + "mix.";
+	private static final String KEY_FLOWS_PER_SLICE = KEY_PREFIX_ + "flowsPerSlice";
+	private static final String KEY_SRC_NODES = KEY_PREFIX_ + "srcNodes";
+	private static final String KEY_DST_NODES = KEY_PREFIX_ + "dstNodes";
+	private static final String KEY_PORT_MIN = KEY_PREFIX_ + "portMin";
+	private static final String KEY_PORT_MAX = KEY_PREFIX_ + "portMax";
+	private static final String KEY_BAND_WIDTH = KEY_PREFIX_ + "bandWidth";
+	private static final String KEY_DELAY = KEY_PREFIX_ + "delay";
+	private static final String KEY_PROTECTION_LEVEL = KEY_PREFIX_ + "protectionLevel";
+
+	private static final String[] OPERATIONS = {
+		LoadStatistics.OP_CREATE, LoadStatistics.OP_READ, LoadStatistics.OP_UPDATE,
+		LoadStatistics.OP_DELETE, LoadStatistics.OP_LIST,
+	};
+
+	private static final int DEFAULT_DURATION_SEC = 60;
+	private static final int DEFAULT_CONCURRENCY = 10;
+	private static final int DEFAULT_PORT_MIN = 100;
+	private static final int DEFAULT_PORT_MAX = 99999999;
+
+	private final String name;
+	private final int durationSec;
+	private final int concurrency;
+	private final int ratePerSec;
+	private final int initialSlices;
+	private final Map<String, Integer> mix;
+	private final int totalWeight;
+	private final IntDistribution flowsPerSlice;
+	private final List<String> srcNodes;
+	private final List<String> dstNodes;
+	private final int portMin;
+	private final int portMax;
+	private final IntDistribution bandWidth;
+	private final IntDistribution delay;
+	private final String protectionLevel;
+
+	/**
+	 * This class is a distribution of integer values.
+	 */
+	public static final class IntDistribution {
+		private static final String FIXED_ = "fixed:";
+		private static final String UNIFORM_ = "uniform:";
+		private static final String CHOICE_ = "choice:";
+
+		private final int min;
+		private final int max;
+		private final int[] choices;
+
+		private IntDistribution(int min, int max, int[] choices) {
+			this.min = min;
+			this.max = max;
+			this.choices = choices;
+		}
+
+		/**
+		 * Parses a distribution.
+		 * @param text the text.
+		 * @return the distribution.
+		 * @throws NumberFormatException Invalid number.
+		 * @throws IllegalArgumentException Invalid form.
+		 */
+		public static IntDistribution parse(String text) {
+			String value = text.trim();
+			if (value.startsWith(UNIFORM_)) {
+				String[] bounds = value.substring(UNIFORM_.length()).split(":");
+				if (bounds.length != 2) {
+					throw new IllegalArgumentException("Invalid uniform distribution: " + text);
+				}
+				int min = Integer.parseInt(bounds[0].trim());
+				int max = Integer.parseInt(bounds[1].trim());
+				if (min > max) {
+					throw new IllegalArgumentException("Invalid uniform distribution: " + text);
+				}
+				return new IntDistribution(min, max, null);
+			} else if (value.startsWith(CHOICE_)) {
+				List<String> items = splitList(value.substring(CHOICE_.length()));
+				if (items.isEmpty()) {
+					throw new IllegalArgumentException("Invalid choice distribution: " + text);
+				}
+				int[] choices = new int[items.size()];
+				for (int idx = 0; idx < choices.length; idx += 1) {
+					choices[idx] = Integer.parseInt(items.get(idx));
+				}
+				return new IntDistribution(0, 0, choices);
+			} else if (value.startsWith(FIXED_)) {
+				int fixed = Integer.parseInt(value.substring(FIXED_.length()).trim());
+				return new IntDistribution(fixed, fixed, null);
+			}
+			int fixed = Integer.parseInt(value);
+			return new IntDistribution(fixed, fixed, null);
+		}
+
+		/**
+		 * Obtains a value.
+		 * @param random the random generator.
+		 * @return the value.
+		 */
+		public int next(Random random) {
+			if (choices != null) {
+				return choices[random.nextInt(choices.length)];
+			}
+			return (min == max) ? min : min + random.nextInt(max - min + 1);
+		}
+	}
+
+	private Scenario(Properties props) throws MloInputDataException {
+		name = props.getProperty(KEY_NAME, "scenario");
+		durationSec = getInt(props, KEY_DURATION_SEC, DEFAULT_DURATION_SEC, 1);
+		concurrency = getInt(props, KEY_CONCURRENCY, DEFAULT_CONCURRENCY, 1);
+		ratePerSec = getInt(props, KEY_RATE_PER_SEC, 0, 0);
+		initialSlices = getInt(props, KEY_INITIAL_SLICES, 0, 0);
+
+		Map<String, Integer> weights = new LinkedHashMap<String, Integer>();
+		int total = 0;
+		for (String operation : OPERATIONS) {
+			int weight = getInt(props, KEY_MIX_PREFIX_ + operation, 0, 0);
+			weights.put(operation, weight);
+			total += weight;
+		}
+		if (total <= 0) {
+			throw new MloInputDataException("No operation is weighted in " + KEY_MIX_PREFIX_ + "*");
+		}
+		mix = Collections.unmodifiableMap(weights);
+		totalWeight = total;
+
+		flowsPerSlice = getDistribution(props, KEY_FLOWS_PER_SLICE, "1");
+		srcNodes = getList(props, KEY_SRC_NODES, "tokyo");
+		dstNodes = getList(props, KEY_DST_NODES, "osaka");
+		portMin = getInt(props, KEY_PORT_MIN, DEFAULT_PORT_MIN, 0);
+		portMax = getInt(props, KEY_PORT_MAX, DEFAULT_PORT_MAX, portMin);
+		bandWidth = getDistribution(props, KEY_BAND_WIDTH, "1");
+		delay = getDistribution(props, KEY_DELAY, "choice:10,9999");
+		protectionLevel = props.getProperty(KEY_PROTECTION_LEVEL, "0").trim();
+	}
+
+	/**
+	 * Loads a scenario from the file.
+	 * @param filePath the file path.
+	 * @return the scenario.
+	 * @throws MloInputDataException Failed to read, or the scenario is invalid.
+	 */
+	public static Scenario load(String filePath) throws MloInputDataException {
+		Properties props = new Properties();
+		try (InputStream istream = new FileInputStream(filePath)) {
+			props.load(istream);
+		} catch (IOException e) {
+			throw new MloInputDataException("Failed to read scenario file: " + filePath, e);
+		}
+		return fromProperties(props);
+	}
+
+	/**
+	 * Creates a scenario from the properties.
+	 * @param props the properties.
+	 * @return the scenario.
+	 * @throws MloInputDataException The scenario is invalid.
+	 */
+	public static Scenario fromProperties(Properties props) throws MloInputDataException {
+		return new Scenario(props);
+	}
+
+	/**
+	 * Chooses an operation according to the weights.
+	 * @param random the random generator.
+	 * @return the operation name defined in {@link LoadStatistics}.
+	 */
+	public String nextOperation(Random random) {
+		int point = random.nextInt(totalWeight);
+		for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+			point -= entry.getValue();
+			if (point < 0) {
+				return entry.getKey();
+			}
+		}
+		throw new IllegalStateException("Unreachable");
+	}
+
+	/**
+	 * Obtains the name.
+	 * @return the name.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Obtains the duration.
+	 * @return the duration in seconds.
+	 */
+	public int getDurationSec() {
+		return durationSec;
+	}
+
+	/**
+	 * Obtains the number of concurrent workers.
+	 * @return the number.
+	 */
+	public int getConcurrency() {
+		return concurrency;
+	}
+
+	/**
+	 * Obtains the target rate.
+	 * If positive, operations are issued at the rate (open-loop).
+	 * Otherwise, each worker issues the next operation as soon as the previous one ends (closed-loop).
+	 * @return the rate in operations per second.
+	 */
+	public int getRatePerSec() {
+		return ratePerSec;
+	}
+
+	/**
+	 * Obtains the number of slices created before the scenario starts.
+	 * @return the number.
+	 */
+	public int getInitialSlices() {
+		return initialSlices;
+	}
+
+	/**
+	 * Obtains the weights of operations.
+	 * @return the unmodifiable map from operation names to weights.
+	 */
+	public Map<String, Integer> getMix() {
+		return mix;
+	}
+
+	/**
+	 * Obtains the distribution of the number of flows in a created slice.
+	 * @return the distribution.
+	 */
+	public IntDistribution getFlowsPerSlice() {
+		return flowsPerSlice;
+	}
+
+	/**
+	 * Obtains the pool of source CE node names.
+	 * @return the unmodifiable list.
+	 */
+	public List<String> getSrcNodes() {
+		return srcNodes;
+	}
+
+	/**
+	 * Obtains the pool of destination CE node names.
+	 * @return the unmodifiable list.
+	 */
+	public List<String> getDstNodes() {
+		return dstNodes;
+	}
+
+	/**
+	 * Obtains the minimum CE port number.
+	 * @return the port number.
+	 */
+	public int getPortMin() {
+		return portMin;
+	}
+
+	/**
+	 * Obtains the maximum CE port number.
+	 * @return the port number.
+	 */
+	public int getPortMax() {
+		return portMax;
+	}
+
+	/**
+	 * Obtains the distribution of requested band width.
+	 * @return the distribution.
+	 */
+	public IntDistribution getBandWidth() {
+		return bandWidth;
+	}
+
+	/**
+	 * Obtains the distribution of requested delay.
+	 * @return the distribution.
+	 */
+	public IntDistribution getDelay() {
+		return delay;
+	}
+
+	/**
+	 * Obtains the protection level.
+	 * @return the protection level.
+	 */
+	public String getProtectionLevel() {
+		return protectionLevel;
+	}
+
+	private static int getInt(Properties props, String key, int defaultValue, int minValue) throws MloInputDataException {
+		String value = props.getProperty(key);
+		if (value == null || value.trim().isEmpty()) {
+			return defaultValue;
+		}
+		int intValue;
+		try {
+			intValue = Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			throw new MloInputDataException("Invalid value: " + key + "=" + value, e);
+		}
+		if (intValue < minValue) {
+			throw new MloInputDataException("Too small value: " + key + "=" + value);
+		}
+		return intValue;
+	}
+
+	private static IntDistribution getDistribution(Properties props, String key, String defaultValue) throws MloInputDataException {
+		String value = props.getProperty(key, defaultValue);
+		try {
+			return IntDistribution.parse(value);
+		} catch (IllegalArgumentException e) {
+			throw new MloInputDataException("Invalid distribution: " + key + "=" + value, e);
+		}
+	}
+
+	private static List<String> getList(Properties props, String key, String defaultValue) throws MloInputDataException {
+		List<String> items = splitList(props.getProperty(key, defaultValue));
+		if (items.isEmpty()) {
+			throw new MloInputDataException("Empty list: " + key);
+		}
+		return Collections.unmodifiableList(items);
+	}
+
+	private static List<String> splitList(String value) {
+		List<String> items = new ArrayList<String>();
+		for (String item : Arrays.asList(value.split(","))) {
+			if (!item.trim().isEmpty()) {
+				items.add(item.trim());
+			}
+		}
+		return items;
+	}
+}
@@ -0,0 +1,298 @@
+/**
+ * ScenarioRunner.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.ObjectName;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.o3project.mlo.client.control.MloClientException;
+import org.o3project.mlo.client.control.SliceDataManager;
+
+import org.o3project.mlo.server.dto.FlowDto;
+import org.o3project.mlo.server.dto.SliceDto;
+
+/**
+ * This class executes a {@link Scenario}.
+ * <p>
+ * Slices created in the scenario are kept in a pool, from which read, update and delete operations
+ * pick a slice at random. If the pool is empty, these operations create a slice instead.
+ * An update reads the slice, and modifies all of its flows with new band width and delay.
+ * </p>
+ * Latencies are recorded by the given {@link SliceDataManager}, such as {@link MeasuringSliceDataManager}.
+ */
+public class ScenarioRunner {
+	private static final Log LOG = LogFactory.getLog(ScenarioRunner.class);
+
+	private static final long EXEC_SERVICE_SHUTDOWN_AWAIT_TIMEOUT_SEC = 30L;
+
+	private final SliceDataManager sliceDataManager;
+
+	private final Scenario scenario;
+
+	private final List<SliceDto> slicePool = new ArrayList<SliceDto>();
+
+	private final AtomicLong sliceSeq = new AtomicLong();
+
+	private final AtomicLong portSeq = new AtomicLong();
+
+	private final AtomicLong operationCount = new AtomicLong();
+
+	private final AtomicLong failureCount = new AtomicLong();
+
+	/**
+	 * A constructor.
+	 * @param sliceDataManager the slice data manager.
+	 * @param scenario the scenario.
+	 */
+	public ScenarioRunner(SliceDataManager sliceDataManager, Scenario scenario) {
+		this.sliceDataManager = sliceDataManager;
+		this.scenario = scenario;
+	}
+
+	/**
+	 * Executes the scenario.
+	 * The initial slices are created first, and then operations are issued for the duration.
+	 * @throws InterruptedException Interrupted.
+	 */
+	public void run() throws InterruptedException {
+		LOG.info(String.format("Scenario started: name=%s, mix=%s, concurrency=%d, rate=%d/s, duration=%ds",
+				scenario.getName(), scenario.getMix(), scenario.getConcurrency(),
+				scenario.getRatePerSec(), scenario.getDurationSec()));
+		createInitialSlices();
+		if (scenario.getRatePerSec() > 0) {
+			runOpenLoop();
+		} else {
+			runClosedLoop();
+		}
+		LOG.info(String.format("Scenario ended: operations=%d, failures=%d, remaining slices=%d",
+				getOperationCount(), getFailureCount(), getPooledSliceCount()));
+	}
+
+	/**
+	 * Obtains the number of operations issued after the initial slices.
+	 * @return the count.
+	 */
+	public long getOperationCount() {
+		return operationCount.get();
+	}
+
+	/**
+	 * Obtains the number of failed operations.
+	 * @return the count.
+	 */
+	public long getFailureCount() {
+		return failureCount.get();
+	}
+
+	/**
+	 * Obtains the number of slices in the pool.
+	 * @return the count.
+	 */
+	public int getPooledSliceCount() {
+		synchronized (slicePool) {
+			return slicePool.size();
+		}
+	}
+
+	private void createInitialSlices() throws InterruptedException {
+		ExecutorService execService = Executors.newFixedThreadPool(scenario.getConcurrency());
+		ObjectName objectName = JmxExporter.registerExecutor("ScenarioRunner", execService);
+		try {
+			for (int idx = 0; idx < scenario.getInitialSlices(); idx += 1) {
+				execService.execute(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							create(ThreadLocalRandom.current());
+						} catch (MloClientException | RuntimeException e) {
+							LOG.warn("Failed to create an initial slice.", e);
+						}
+					}
+				});
+			}
+			execService.shutdown();
+			execService.awaitTermination(scenario.getDurationSec() + EXEC_SERVICE_SHUTDOWN_AWAIT_TIMEOUT_SEC, TimeUnit.SECONDS);
+		} finally {
+			JmxExporter.unregister(objectName);
+			execService.shutdownNow();
+		}
+	}
+
+	private void runClosedLoop() throws InterruptedException {
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(scenario.getDurationSec());
+		ExecutorService execService = Executors.newFixedThreadPool(scenario.getConcurrency());
+		ObjectName objectName = JmxExporter.registerExecutor("ScenarioRunner", execService);
+		try {
+			for (int idx = 0; idx < scenario.getConcurrency(); idx += 1) {
+				execService.execute(new Runnable() {
+					@Override
+					public void run() {
+						while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+							executeNext();
+						}
+					}
+				});
+			}
+			execService.shutdown();
+			execService.awaitTermination(scenario.getDurationSec() + EXEC_SERVICE_SHUTDOWN_AWAIT_TIMEOUT_SEC, TimeUnit.SECONDS);
+		} finally {
+			JmxExporter.unregister(objectName);
+			execService.shutdownNow();
+		}
+	}
+
+	private void runOpenLoop() throws InterruptedException {
+		OpenLoopLoadGenerator generator = new OpenLoopLoadGenerator(scenario.getConcurrency());
+		generator.run(scenario.getName(), new OpenLoopLoadGenerator.Request() {
+			@Override
+			public void execute(long sequence) {
+				executeNext();
+			}
+		}, scenario.getRatePerSec(), scenario.getDurationSec(), 0);
+	}
+
+	/**
+	 * Executes an operation chosen according to the mix.
+	 */
+	void executeNext() {
+		Random random = ThreadLocalRandom.current();
+		String operation = scenario.nextOperation(random);
+		operationCount.incrementAndGet();
+		try {
+			switch (operation) {
+			case LoadStatistics.OP_CREATE:
+				create(random);
+				break;
+			case LoadStatistics.OP_READ:
+				read(random);
+				break;
+			case LoadStatistics.OP_UPDATE:
+				update(random);
+				break;
+			case LoadStatistics.OP_DELETE:
+				delete(random);
+				break;
+			case LoadStatistics.OP_LIST:
+				sliceDataManager.getSliceList();
+				break;
+			default:
+				throw new IllegalStateException("Unknown operation: " + operation);
+			}
+		} catch (MloClientException | RuntimeException e) {
+			failureCount.incrementAndGet();
+			LOG.debug("Failed to " + operation, e);
+		}
+	}
+
+	private void create(Random random) throws MloClientException {
+		long seq = sliceSeq.getAndIncrement();
+		SliceDto reqSlice = new SliceDto();
+		reqSlice.name = String.format("slice%08d", seq);
+		reqSlice.flows = new ArrayList<FlowDto>();
+		int nFlow = Math.max(1, scenario.getFlowsPerSlice().next(random));
+		for (int flowIdx = 0; flowIdx < nFlow; flowIdx += 1) {
+			reqSlice.flows.add(createFlowDto(String.format("flow%08d%04d", seq, flowIdx), random));
+		}
+		SliceDto resSlice = sliceDataManager.createSliceInfo(reqSlice);
+		if (resSlice != null && resSlice.id != null) {
+			SliceDto pooled = new SliceDto();
+			pooled.id = resSlice.id;
+			pooled.name = reqSlice.name;
+			synchronized (slicePool) {
+				slicePool.add(pooled);
+			}
+		}
+	}
+
+	private void read(Random random) throws MloClientException {
+		SliceDto slice = pickSlice(random, false);
+		if (slice == null) {
+			create(random);
+			return;
+		}
+		sliceDataManager.getSliceInfo(slice);
+	}
+
+	private void update(Random random) throws MloClientException {
+		SliceDto slice = pickSlice(random, false);
+		if (slice == null) {
+			create(random);
+			return;
+		}
+		SliceDto registered = sliceDataManager.getSliceInfo(slice);
+		SliceDto reqSlice = new SliceDto();
+		reqSlice.id = slice.id;
+		reqSlice.flows = new ArrayList<FlowDto>();
+		if (registered != null && registered.flows != null) {
+			for (FlowDto flow : registered.flows) {
+				FlowDto reqFlow = createFlowDto(flow.name, random);
+				reqFlow.type = "mod";
+				reqFlow.id = flow.id;
+				reqFlow.srcCENodeName = flow.srcCENodeName;
+				reqFlow.srcCEPortNo = flow.srcCEPortNo;
+				reqFlow.dstCENodeName = flow.dstCENodeName;
+				reqFlow.dstCEPortNo = flow.dstCEPortNo;
+				reqSlice.flows.add(reqFlow);
+			}
+		}
+		sliceDataManager.updateSliceInfo(reqSlice);
+	}
+
+	private void delete(Random random) throws MloClientException {
+		SliceDto slice = pickSlice(random, true);
+		if (slice == null) {
+			create(random);
+			return;
+		}
+		SliceDto reqSlice = new SliceDto();
+		reqSlice.id = slice.id;
+		sliceDataManager.deleteSliceInfo(reqSlice);
+	}
+
+	private SliceDto pickSlice(Random random, boolean isRemoved) {
+		synchronized (slicePool) {
+			if (slicePool.isEmpty()) {
+				return null;
+			}
+			int idx = random.nextInt(slicePool.size());
+			if (!isRemoved) {
+				return slicePool.get(idx);
+			}
+			// Swaps with the last one to remove in constant time.
+			SliceDto last = slicePool.remove(slicePool.size() - 1);
+			if (idx == slicePool.size()) {
+				return last;
+			}
+			return slicePool.set(idx, last);
+		}
+	}
+
+	private FlowDto createFlowDto(String name, Random random) {
+		List<String> srcNodes = scenario.getSrcNodes();
+		List<String> dstNodes = scenario.getDstNodes();
+		long nPorts = (long) scenario.getPortMax() - scenario.getPortMin() + 1;
+		String portNo = String.format("%08d", scenario.getPortMin() + (portSeq.getAndIncrement() % nPorts));
+		FlowDto flow = new FlowDto();
+		flow.name = name;
+		flow.srcCENodeName = srcNodes.get(random.nextInt(srcNodes.size()));
+		flow.srcCEPortNo = portNo;
+		flow.dstCENodeName = dstNodes.get(random.nextInt(dstNodes.size()));
+		flow.dstCEPortNo = portNo;
+		flow.reqBandWidth = scenario.getBandWidth().next(random);
+		flow.reqDelay = scenario.getDelay().next(random);
+		flow.protectionLevel = scenario.getProtectionLevel();
+		return flow;
+	}
+}
@@ -0,0 +1,319 @@
+/**
+ * SliceBatchExecutor.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.ObjectName;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.o3project.mlo.client.control.MloAccessException;
+import org.o3project.mlo.client.control.MloClientException;
+import org.o3project.mlo.client.control.SliceBatchResult;
+import org.o3project.mlo.client.control.SliceDataManager;
+import org.o3project.mlo.client.control.SliceHandler;
+
+import org.o3project.mlo.server.dto.SliceDto;
+
+/**
+ * This class executes batch slice operations of {@link SliceDataManager}.
+ * <p>
+ * The request envelope of mlo-srv carries only one slice, so that a batch is executed
+ * as single-slice requests, at most the given number of which are in flight.
+ * Each slice is operated through the given {@link SliceDataManager}, so that decorators
+ * such as caching and measuring are applied to each slice.
+ * The number of slices in flight is either fixed, or adapted by {@link AdaptiveConcurrencyLimiter}.
+ * </p>
+ * <p>
+ * Slices may be given by an iterator, which is pulled one slice ahead of the requests in flight,
+ * or received one by one from {@link SliceDataManager#forEachSlice(SliceHandler)},
+ * and each result is passed to {@link ResultHandler} as soon as it is received,
+ * so that the memory used by a large batch does not grow with the number of slices.
+ * </p>
+ */
+final class SliceBatchExecutor {
+	private static final Log LOG = LogFactory.getLog(SliceBatchExecutor.class);
+
+	private static final long SHUTDOWN_AWAIT_TIMEOUT_SEC = 30L;
+
+	static final SliceOperation CREATE = new SliceOperation() {
+		@Override
+		public SliceDto operate(SliceDataManager sliceDataManager, SliceDto reqSliceDto) throws MloClientException {
+			return sliceDataManager.createSliceInfo(reqSliceDto);
+		}
+	};
+
+	static final SliceOperation UPDATE = new SliceOperation() {
+		@Override
+		public SliceDto operate(SliceDataManager sliceDataManager, SliceDto reqSliceDto) throws MloClientException {
+			return sliceDataManager.updateSliceInfo(reqSliceDto);
+		}
+	};
+
+	static final SliceOperation DELETE = new SliceOperation() {
+		@Override
+		public SliceDto operate(SliceDataManager sliceDataManager, SliceDto reqSliceDto) throws MloClientException {
+			return sliceDataManager.deleteSliceInfo(reqSliceDto);
+		}
+	};
+
+	/**
+	 * This interface handles the result of each slice.
+	 */
+	interface ResultHandler {
+		/**
+		 * Handles the result. This method is called in the thread which has operated the slice.
+		 * @param index the index of the slice in the iteration.
+		 * @param result the result.
+		 */
+		void handleResult(int index, SliceBatchResult result);
+	}
+
+	private SliceBatchExecutor() {
+	}
+
+	/**
+	 * Executes the operation for each slice.
+	 * @param sliceDataManager the slice data manager which operates each slice.
+	 * @param operation the operation.
+	 * @param slices the requested slice DTOs.
+	 * @param parallelism the maximum number of concurrent requests.
+	 * @return the results in the order of the requested slices.
+	 * @throws InterruptedException Interrupted in waiting for the results.
+	 */
+	static List<SliceBatchResult> execute(SliceDataManager sliceDataManager, SliceOperation operation,
+			List<SliceDto> slices, int parallelism) throws InterruptedException {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+		}
+		return execute(sliceDataManager, operation, slices, AdaptiveConcurrencyLimiter.createFixed(parallelism));
+	}
+
+	/**
+	 * Executes the operation for each slice, while the number of concurrent requests is governed by the limiter.
+	 * Access failures are reported to the limiter as failures, and error responses of mlo-srv are not.
+	 * @param sliceDataManager the slice data manager which operates each slice.
+	 * @param operation the operation.
+	 * @param slices the requested slice DTOs.
+	 * @param limiter the concurrency limiter.
+	 * @return the results in the order of the requested slices.
+	 * @throws InterruptedException Interrupted in waiting for the results.
+	 */
+	static List<SliceBatchResult> execute(SliceDataManager sliceDataManager, SliceOperation operation,
+			List<SliceDto> slices, AdaptiveConcurrencyLimiter limiter) throws InterruptedException {
+		final SliceBatchResult[] results = new SliceBatchResult[slices.size()];
+		execute(sliceDataManager, operation, slices.iterator(), limiter, new ResultHandler() {
+			@Override
+			public void handleResult(int index, SliceBatchResult result) {
+				results[index] = result;
+			}
+		});
+		// Termination of the executor makes the results visible.
+		return Arrays.asList(results);
+	}
+
+	/**
+	 * Executes the operation for each slice given by the iterator,
+	 * while the number of concurrent requests is governed by the limiter.
+	 * The next slice is pulled from the iterator before a request is permitted by the limiter,
+	 * so that at most the maximum limit of slices plus one are alive in this method.
+	 * @param sliceDataManager the slice data manager which operates each slice.
+	 * @param operation the operation.
+	 * @param slices the iterator of the requested slice DTOs.
+	 * @param limiter the concurrency limiter.
+	 * @param handler the handler of each result.
+	 * @return the number of the operated slices.
+	 * @throws InterruptedException Interrupted in waiting for the results.
+	 */
+	static int execute(SliceDataManager sliceDataManager, SliceOperation operation,
+			Iterator<SliceDto> slices, AdaptiveConcurrencyLimiter limiter, ResultHandler handler)
+			throws InterruptedException {
+		if (!slices.hasNext()) {
+			return 0;
+		}
+
+		Batch batch = new Batch(sliceDataManager, operation, limiter, handler);
+		try {
+			while (slices.hasNext()) {
+				// The slice is pulled before the permit is taken, so that a failing iterator does not leak the permit.
+				batch.submit(slices.next());
+			}
+			batch.awaitTermination();
+		} finally {
+			batch.close();
+		}
+		return batch.nSubmitted;
+	}
+
+	/**
+	 * Executes the operation for each slice received by {@link SliceDataManager#forEachSlice(SliceHandler)},
+	 * while the number of concurrent requests is governed by the limiter.
+	 * Each slice is submitted as soon as it is received, so that the slice list is not held in memory.
+	 * While the limiter does not permit a request, receiving the slice list is suspended
+	 * with its HTTP connection held, so that the connection pool must allow more connections per host
+	 * than the maximum limit.
+	 * If receiving the slice list fails, the slices already received are operated before the failure is thrown.
+	 * @param sliceDataManager the slice data manager which lists and operates slices.
+	 * @param operation the operation.
+	 * @param limiter the concurrency limiter.
+	 * @param handler the handler of each result.
+	 * @return the number of the operated slices.
+	 * @throws MloClientException Failed to receive the slice list.
+	 * @throws InterruptedException Interrupted in waiting for the results.
+	 */
+	static int executeForEachSlice(SliceDataManager sliceDataManager, SliceOperation operation,
+			AdaptiveConcurrencyLimiter limiter, ResultHandler handler)
+			throws MloClientException, InterruptedException {
+		final Batch batch = new Batch(sliceDataManager, operation, limiter, handler);
+		try {
+			MloClientException receiveFailure = null;
+			try {
+				sliceDataManager.forEachSlice(new SliceHandler() {
+					@Override
+					public void handleSlice(SliceDto slice) throws MloClientException {
+						try {
+							batch.submit(slice);
+						} catch (InterruptedException e) {
+							throw new ReceivingAbortedException(e);
+						}
+					}
+				});
+			} catch (ReceivingAbortedException e) {
+				throw e.getInterruptedException();
+			} catch (MloClientException e) {
+				receiveFailure = e;
+			}
+			batch.awaitTermination();
+			if (receiveFailure != null) {
+				throw receiveFailure;
+			}
+		} finally {
+			batch.close();
+		}
+		return batch.nSubmitted;
+	}
+
+	/**
+	 * This class is the exception which aborts receiving slices in {@link SliceHandler}.
+	 * The cause is the interruption, if the receiving thread has been interrupted, otherwise null.
+	 */
+	static final class ReceivingAbortedException extends MloClientException {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * A constructor, which aborts receiving slices because of the interruption.
+		 * @param cause the interruption.
+		 */
+		ReceivingAbortedException(InterruptedException cause) {
+			super("Receiving slices is interrupted.", cause);
+		}
+
+		/**
+		 * A constructor, which aborts receiving slices because no more slice is needed.
+		 * @param msg the reason.
+		 */
+		ReceivingAbortedException(String msg) {
+			super(msg);
+		}
+
+		/**
+		 * Obtains the interruption.
+		 * @return the interruption, or null if receiving has not been interrupted.
+		 */
+		InterruptedException getInterruptedException() {
+			return (InterruptedException) getCause();
+		}
+	}
+
+	/**
+	 * This class executes the operation for submitted slices in the thread pool.
+	 */
+	private static final class Batch {
+		private final SliceDataManager sliceDataManager;
+		private final SliceOperation operation;
+		private final AdaptiveConcurrencyLimiter limiter;
+		private final ResultHandler handler;
+		private final ThreadPoolExecutor execService;
+		private final ObjectName objectName;
+		private int nSubmitted = 0;
+
+		/**
+		 * A constructor.
+		 * @param sliceDataManager the slice data manager which operates each slice.
+		 * @param operation the operation.
+		 * @param limiter the concurrency limiter.
+		 * @param handler the handler of each result.
+		 */
+		Batch(SliceDataManager sliceDataManager, SliceOperation operation,
+				AdaptiveConcurrencyLimiter limiter, ResultHandler handler) {
+			this.sliceDataManager = sliceDataManager;
+			this.operation = operation;
+			this.limiter = limiter;
+			this.handler = handler;
+			// The queue is bounded by the limit, because tasks are submitted only while the limiter permits.
+			int maxLimit = limiter.getMaxLimit();
+			execService = new ThreadPoolExecutor(maxLimit, maxLimit, 0L, TimeUnit.MILLISECONDS,
+					new ArrayBlockingQueue<Runnable>(maxLimit));
+			objectName = JmxExporter.registerExecutor("SliceBatchExecutor", execService);
+		}
+
+		/**
+		 * Waits for a permit of the limiter, and then submits the slice.
+		 * @param slice the slice DTO.
+		 * @throws InterruptedException Interrupted in waiting for the permit.
+		 */
+		void submit(final SliceDto slice) throws InterruptedException {
+			final long token = limiter.acquire();
+			final int index = nSubmitted;
+			execService.execute(new Runnable() {
+				@Override
+				public void run() {
+					boolean isFailed = false;
+					SliceBatchResult result = null;
+					try {
+						result = new SliceBatchResult(slice, operation.operate(sliceDataManager, slice), null);
+					} catch (MloClientException | RuntimeException e) {
+						LOG.warn("Failed to operate : " + slice.name, e);
+						isFailed = e instanceof MloAccessException;
+						result = new SliceBatchResult(slice, null, e);
+					} finally {
+						limiter.release(token, isFailed);
+					}
+					handler.handleResult(index, result);
+				}
+			});
+			nSubmitted += 1;
+		}
+
+		/**
+		 * Waits until all submitted slices are operated.
+		 * @throws InterruptedException Interrupted in waiting.
+		 */
+		void awaitTermination() throws InterruptedException {
+			execService.shutdown();
+			while (!execService.awaitTermination(SHUTDOWN_AWAIT_TIMEOUT_SEC, TimeUnit.SECONDS)) {
+				LOG.info(String.format("Waiting for %d slices in flight.", execService.getActiveCount()));
+			}
+		}
+
+		/**
+		 * Unregisters the thread pool, and interrupts the slices in flight if they are not operated yet.
+		 * @throws InterruptedException Interrupted in waiting for the termination.
+		 */
+		void close() throws InterruptedException {
+			JmxExporter.unregister(objectName);
+			if (!execService.isTerminated()) {
+				execService.shutdownNow();
+				execService.awaitTermination(SHUTDOWN_AWAIT_TIMEOUT_SEC, TimeUnit.SECONDS);
+			}
+		}
+	}
+}
@@ -4,6 +4,7 @@
  */
 package org.o3project.mlo.client.impl.control;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -11,11 +12,14 @@ import java.util.Map;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.o3project.mlo.client.control.ClientConfig;
+import org.o3project.mlo.client.control.ClientConfigListener;
 import org.o3project.mlo.client.control.MloClientException;
 import org.o3project.mlo.client.control.MloInvoker;
 import org.o3project.mlo.client.control.MloMethod;
 import org.o3project.mlo.client.control.MloNbiException;
+import org.o3project.mlo.client.control.SliceBatchResult;
 import org.o3project.mlo.client.control.SliceDataManager;
+import org.o3project.mlo.client.control.SliceHandler;
 import org.seasar.framework.container.annotation.tiger.Aspect;
 import org.seasar.framework.container.annotation.tiger.Binding;
 import org.seasar.framework.container.annotation.tiger.BindingType;
@@ -29,23 +33,46 @@ import org.o3project.mlo.server.dto.SliceDto;
 
 /**
  * This class is the implementation class of {@link SliceDataManager} interface.
+ * The invoker and the component name are selected again when the configuration is reloaded.
+ * If enabled, the selected invoker is decorated by {@link ResilientMloInvoker}.
+ * <p>
+ * Concurrent identical reads, that is, slice lists of the same owner and slice details of the same id,
+ * share one in-flight request if configured. Each caller receives a copy of the result.
+ * </p>
+ * <p>
+ * Calls are traced, and are measured into {@link MetricsRegistry} by {@link MetricsInterceptor}.
+ * </p>
  */
-@Aspect("traceInterceptor")
-public class SliceDataManagerImpl implements SliceDataManager {
+@Aspect("sliceDataManagerInterceptor")
+public class SliceDataManagerImpl implements SliceDataManager, ClientConfigListener {
 
     private static final Log LOG = LogFactory.getLog(SliceDataManagerImpl.class);
 
-    private static final String PATH_LIST_SLICE = "slices";
-    private static final String PATH_READ_SLICE = "READ";
-    private static final String PATH_CREATE_SLICE = "CREATE";
-    private static final String PATH_UPDATE_SLICE = "UPDATE";
-    private static final String PATH_DELETE_SLICE = "DELETE";
+    public static final String PATH_LIST_SLICE = "slices";
+    public static final String PATH_READ_SLICE = "READ";
+    public static final String PATH_CREATE_SLICE = "CREATE";
+    public static final String PATH_UPDATE_SLICE = "UPDATE";
+    public static final String PATH_DELETE_SLICE = "DELETE";
 
     private static final Integer INTERFACE_VERSION = 1;
     private static final String DEST_COMPONENT_NAME = "mlo";
     private static final String REQUEST_OPERATION = "Request";
 
-    private String srcComponentName;
+    private static final RequestCoalescer.Copier<List<SliceDto>> SLICE_LIST_COPIER = new RequestCoalescer.Copier<List<SliceDto>>() {
+        @Override
+        public List<SliceDto> copy(List<SliceDto> result) {
+            return SliceDtoUtil.copySlices(result);
+        }
+    };
+
+    private static final RequestCoalescer.Copier<SliceDto> SLICE_COPIER = new RequestCoalescer.Copier<SliceDto>() {
+        @Override
+        public SliceDto copy(SliceDto result) {
+            return SliceDtoUtil.copySlice(result);
+        }
+    };
+
+    private volatile String srcComponentName;
     
     @Binding
     private MloInvoker actualInvoker;
@@ -53,8 +80,17 @@ public class SliceDataManagerImpl implements SliceDataManager {
     @Binding
     private MloInvoker dummyInvoker;
     
+    @Binding
+    private MloInvoker pooledInvoker;
+    
+    @Binding(bindingType=BindingType.MAY)
+    private ResilientMloInvoker resilientInvoker;
+    
+    @Binding(bindingType=BindingType.MAY)
+    private MeteredMloInvoker meteredInvoker;
+    
     @Binding(bindingType=BindingType.NONE)
-    private MloInvoker mloInvoker;
+    private volatile MloInvoker mloInvoker;
     
     @Binding
     private MloMethod mloGetMethod;
@@ -65,6 +101,10 @@ public class SliceDataManagerImpl implements SliceDataManager {
     @Binding
     private ClientConfig clientConfig;
 
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+
+    private volatile boolean isCoalesced = false;
+
     /**
      * Setter method (for DI setter injection).
      * @param mloInvoker the instance.
@@ -73,6 +113,22 @@ public class SliceDataManagerImpl implements SliceDataManager {
 		this.mloInvoker = mloInvoker;
 	}
 
+    /**
+     * Setter method (for DI setter injection).
+     * @param resilientInvoker the instance.
+     */
+	public void setResilientInvoker(ResilientMloInvoker resilientInvoker) {
+		this.resilientInvoker = resilientInvoker;
+	}
+
+    /**
+     * Setter method (for DI setter injection).
+     * @param meteredInvoker the instance.
+     */
+	public void setMeteredInvoker(MeteredMloInvoker meteredInvoker) {
+		this.meteredInvoker = meteredInvoker;
+	}
+
     /**
      * Setter method (for DI setter injection).
      * @param mloGetMethod the instance.
@@ -102,14 +158,74 @@ public class SliceDataManagerImpl implements SliceDataManager {
      */
     @InitMethod
     public void init(){
+        selectInvoker();
+        clientConfig.addClientConfigListener(this);
+    }
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.ClientConfigListener#configReloaded(org.o3project.mlo.client.control.ClientConfig)
+	 */
+	@Override
+	public void configReloaded(ClientConfig clientConfig) {
+		selectInvoker();
+	}
+
+    /**
+     * Selects the invoker and the component name by the configuration.
+     * The invoker chain is built from the innermost one, and is published at once,
+     * so that a request never uses a partially built chain.
+     * This is synchronized, because the configuration may be reloaded by another thread.
+     */
+    private synchronized void selectInvoker(){
+        MloInvoker invoker;
         if(clientConfig.getDummyInvokerSetFlag()){
-            this.mloInvoker = dummyInvoker;
+            invoker = dummyInvoker;
             LOG.info("\n dummyInvoker set");
+        }else if(clientConfig.getPooledInvokerSetFlag()){
+            invoker = pooledInvoker;
+            LOG.info("\n pooledInvoker set");
         }else{
-            this.mloInvoker = actualInvoker;
+            invoker = actualInvoker;
             LOG.info("\n trueInvoker set");
         }
+        if(meteredInvoker != null){
+            // Inside of resilientInvoker, so that each attempt is recorded.
+            meteredInvoker.setDelegate(invoker);
+            invoker = meteredInvoker;
+        }
+        if(resilientInvoker != null && clientConfig.getResilienceFlag()){
+            resilientInvoker.setDelegate(invoker);
+            invoker = resilientInvoker;
+            LOG.info("\n resilientInvoker set");
+        }
+        this.mloInvoker = invoker;
         srcComponentName = clientConfig.getSrcComponentName();
+        isCoalesced = clientConfig.getCoalesceFlag();
+    }
+
+    /**
+     * Sets whether concurrent identical reads share one request.
+     * This is overwritten when the configuration is reloaded.
+     * @param isCoalesced true if reads are coalesced.
+     */
+    public void setCoalesced(boolean isCoalesced) {
+        this.isCoalesced = isCoalesced;
+    }
+
+    /**
+     * Obtains the number of reads sent to mlo-srv through coalescing.
+     * @return the count.
+     */
+    public long getCoalescerExecutedCount() {
+        return coalescer.getExecutedCount();
+    }
+
+    /**
+     * Obtains the number of reads which shared in-flight requests.
+     * @return the count.
+     */
+    public long getCoalescedCount() {
+        return coalescer.getCoalescedCount();
     }
 
 	/* (non Javadoc)
@@ -118,32 +234,84 @@ public class SliceDataManagerImpl implements SliceDataManager {
 	@Override
 	public List<SliceDto> getSliceList() throws MloClientException {
 
+        final String owner = srcComponentName;
+        if (!isCoalesced) {
+            return requestSliceList(owner);
+        }
+        return coalescer.execute(Arrays.asList(PATH_LIST_SLICE, owner), new RequestCoalescer.Call<List<SliceDto>>() {
+            @Override
+            public List<SliceDto> call() throws MloClientException {
+                return requestSliceList(owner);
+            }
+        }, SLICE_LIST_COPIER);
+	}
+
+    /**
+     * Requests the slice list.
+     */
+    private List<SliceDto> requestSliceList(String owner) throws MloClientException {
         Map<String, String> params = new HashMap<String, String>();
-        params.put("owner", srcComponentName);
+        params.put("owner", owner);
         
         LOG.debug("########## : owner=" + params.get("owner"));
-        RestifResponseDto resDto = mloInvoker.invoke(mloGetMethod, null, PATH_LIST_SLICE, params);
-		if (null != resDto.error) {
-			throw new MloNbiException("An error response from the MLO-SERVER : getSliceList", resDto.error);
-		}
+        RestifResponseDto resDto = checkResponse(mloInvoker.invoke(mloGetMethod, null, PATH_LIST_SLICE, params), "getSliceList");
 		return resDto.slices;
+    }
+
+	/* (non Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#forEachSlice(org.o3project.mlo.client.control.SliceHandler)
+	 */
+	@Override
+	public void forEachSlice(SliceHandler handler) throws MloClientException {
+
+        Map<String, String> params = new HashMap<String, String>();
+        params.put("owner", srcComponentName);
+        
+        LOG.debug("########## : owner=" + params.get("owner"));
+        MloMethod streamingMethod = new MloSliceStreamingMethod(mloGetMethod, handler);
+        RestifResponseDto resDto = null;
+        try {
+            resDto = mloInvoker.invoke(streamingMethod, null, PATH_LIST_SLICE, params);
+        } catch (MloSliceStreamParser.SliceHandlingException e) {
+            throw e.getCause();
+        }
+        checkResponse(resDto, "forEachSlice");
+        if (resDto.slices != null) {
+            // The invoker has not read the response stream, e.g. the dummy invoker.
+            for (SliceDto slice : resDto.slices) {
+                handler.handleSlice(slice);
+            }
+        }
 	}
 
 	/* (non Javadoc)
 	 * @see org.o3project.mlo.client.control.SliceDataManager#getSliceInfo(org.o3project.mlo.server.dto.SliceDto)
 	 */
 	@Override
-	public SliceDto getSliceInfo(SliceDto slice) throws MloClientException {
+	public SliceDto getSliceInfo(final SliceDto slice) throws MloClientException {
 
 		LOG.debug("##########  SliceId=" + slice.id + ", SliceName=" + slice.name);
-        RestifRequestDto reqDto = createRequestDto(slice);
-        RestifResponseDto resDto = mloInvoker.invoke(mloPostMethod, reqDto, PATH_READ_SLICE, null);
-		if (null != resDto.error) {
-			throw new MloNbiException("An error response from the MLO-SERVER : getSliceInfo", resDto.error);
-		}
-		return resDto.slices.get(0);
+        final String owner = srcComponentName;
+        if (!isCoalesced || slice.id == null) {
+            return requestSliceInfo(owner, slice);
+        }
+        return coalescer.execute(Arrays.asList(PATH_READ_SLICE, owner, slice.id), new RequestCoalescer.Call<SliceDto>() {
+            @Override
+            public SliceDto call() throws MloClientException {
+                return requestSliceInfo(owner, slice);
+            }
+        }, SLICE_COPIER);
 	}
 
+    /**
+     * Requests the slice details.
+     */
+    private SliceDto requestSliceInfo(String owner, SliceDto slice) throws MloClientException {
+        RestifRequestDto reqDto = createRequestDto(owner, slice);
+        RestifResponseDto resDto = checkResponse(mloInvoker.invoke(mloPostMethod, reqDto, PATH_READ_SLICE, null), "getSliceInfo");
+		return resDto.slices.get(0);
+    }
+
 	/* (non Javadoc)
 	 * @see org.o3project.mlo.client.control.SliceDataManager#createSliceInfo(org.o3project.mlo.server.dto.SliceDto)
 	 */
@@ -152,11 +320,8 @@ public class SliceDataManagerImpl implements SliceDataManager {
 
 		LOG.debug("##########  SliceId=" + slice.id + ", SliceName=" + slice.name);
         Map<String, String> params = null;
-        RestifRequestDto reqDto = createRequestDto(slice);
-        RestifResponseDto resDto = mloInvoker.invoke(mloPostMethod, reqDto, PATH_CREATE_SLICE, params);
-		if (null != resDto.error) {
-			throw new MloNbiException("An error response from the MLO-SERVER : createSliceInfo", resDto.error);
-		}
+        RestifRequestDto reqDto = createRequestDto(srcComponentName, slice);
+        RestifResponseDto resDto = checkResponse(mloInvoker.invoke(mloPostMethod, reqDto, PATH_CREATE_SLICE, params), "createSliceInfo");
 		return resDto.slices.get(0);
 	}
 
@@ -167,11 +332,8 @@ public class SliceDataManagerImpl implements SliceDataManager {
 	public SliceDto updateSliceInfo(SliceDto slice) throws MloClientException {
 
 		LOG.debug("##########  SliceId=" + slice.id + ", SliceName=" + slice.name);
-        RestifRequestDto reqDto = createRequestDto(slice);
-        RestifResponseDto resDto = mloInvoker.invoke(mloPostMethod, reqDto, PATH_UPDATE_SLICE, null);
-		if (null != resDto.error) {
-			throw new MloNbiException("An error response from the MLO-SERVER : updateSliceInfo", resDto.error);
-		}
+        RestifRequestDto reqDto = createRequestDto(srcComponentName, slice);
+        RestifResponseDto resDto = checkResponse(mloInvoker.invoke(mloPostMethod, reqDto, PATH_UPDATE_SLICE, null), "updateSliceInfo");
 		return resDto.slices.get(0);
 	}
 
@@ -182,20 +344,56 @@ public class SliceDataManagerImpl implements SliceDataManager {
 	public SliceDto deleteSliceInfo(SliceDto slice) throws MloClientException {
 
 		LOG.debug("##########  SliceId=" + slice.id + ", SliceName=" + slice.name);
-        RestifRequestDto reqDto = createRequestDto(slice);
-        RestifResponseDto resDto = mloInvoker.invoke(mloPostMethod, reqDto, PATH_DELETE_SLICE, null);
+        RestifRequestDto reqDto = createRequestDto(srcComponentName, slice);
+        RestifResponseDto resDto = checkResponse(mloInvoker.invoke(mloPostMethod, reqDto, PATH_DELETE_SLICE, null), "deleteSliceInfo");
+		return resDto.slices.get(0);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#createSliceInfos(java.util.List, int)
+	 */
+	@Override
+	public List<SliceBatchResult> createSliceInfos(List<SliceDto> slices, int parallelism) throws InterruptedException {
+		return SliceBatchExecutor.execute(this, SliceBatchExecutor.CREATE, slices, parallelism);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#updateSliceInfos(java.util.List, int)
+	 */
+	@Override
+	public List<SliceBatchResult> updateSliceInfos(List<SliceDto> slices, int parallelism) throws InterruptedException {
+		return SliceBatchExecutor.execute(this, SliceBatchExecutor.UPDATE, slices, parallelism);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#deleteSliceInfos(java.util.List, int)
+	 */
+	@Override
+	public List<SliceBatchResult> deleteSliceInfos(List<SliceDto> slices, int parallelism) throws InterruptedException {
+		return SliceBatchExecutor.execute(this, SliceBatchExecutor.DELETE, slices, parallelism);
+	}
+
+	/**
+	 * Checks whether the response is an error response.
+	 * @param resDto the response DTO.
+	 * @param operationName the operation name used in the error message.
+	 * @return the response DTO.
+	 * @throws MloNbiException The response is an error response.
+	 */
+	static RestifResponseDto checkResponse(RestifResponseDto resDto, String operationName) throws MloNbiException {
 		if (null != resDto.error) {
-			throw new MloNbiException("An error response from the MLO-SERVER : deleteSliceInfo", resDto.error);
+			throw new MloNbiException("An error response from the MLO-SERVER : " + operationName, resDto.error);
 		}
-		return resDto.slices.get(0);
+		return resDto;
 	}
 
 	/**
 	 * Creates the request DTO.
+	 * @param srcComponentName the source component name.
 	 * @param slice the slice DTO.
 	 * @return the request DTO.
 	 */
-	private RestifRequestDto createRequestDto(SliceDto slice) {
+	public static RestifRequestDto createRequestDto(String srcComponentName, SliceDto slice) {
 
 		RestifComponentDto srcComponent = new RestifComponentDto();
 		srcComponent.name = srcComponentName;
@@ -0,0 +1,89 @@
+/**
+ * SliceDtoUtil.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.o3project.mlo.server.dto.FlowDto;
+import org.o3project.mlo.server.dto.LinkInfoDto;
+import org.o3project.mlo.server.dto.SliceDto;
+
+/**
+ * This class provides utility methods for slice DTOs.
+ */
+final class SliceDtoUtil {
+
+	private SliceDtoUtil() {
+	}
+
+	/**
+	 * Copies slices.
+	 * @param srcSlices the slices, or null.
+	 * @return the copied slices, or null.
+	 */
+	static List<SliceDto> copySlices(List<SliceDto> srcSlices) {
+		// An empty list is unmarshalled as null.
+		if (srcSlices == null) {
+			return null;
+		}
+		List<SliceDto> copiedSlices = new ArrayList<SliceDto>(srcSlices.size());
+		for (SliceDto slice : srcSlices) {
+			copiedSlices.add(copySlice(slice));
+		}
+		return copiedSlices;
+	}
+
+	/**
+	 * Copies a slice and its flows.
+	 * @param slice the slice.
+	 * @return the copied slice.
+	 */
+	static SliceDto copySlice(SliceDto slice) {
+		SliceDto copied = new SliceDto();
+		copied.id = slice.id;
+		copied.name = slice.name;
+		if (slice.flows != null) {
+			copied.flows = new ArrayList<FlowDto>(slice.flows.size());
+			for (FlowDto flow : slice.flows) {
+				copied.flows.add(copyFlow(flow));
+			}
+		}
+		return copied;
+	}
+
+	/**
+	 * Copies a flow.
+	 * Link information elements are shared, because they are not modified by mlo-client.
+	 * @param flow the flow.
+	 * @return the copied flow.
+	 */
+	static FlowDto copyFlow(FlowDto flow) {
+		FlowDto copied = new FlowDto();
+		copied.type = flow.type;
+		copied.name = flow.name;
+		copied.id = flow.id;
+		copied.srcCENodeName = flow.srcCENodeName;
+		copied.srcCEPortNo = flow.srcCEPortNo;
+		copied.dstCENodeName = flow.dstCENodeName;
+		copied.dstCEPortNo = flow.dstCEPortNo;
+		copied.reqBandWidth = flow.reqBandWidth;
+		copied.reqDelay = flow.reqDelay;
+		copied.protectionLevel = flow.protectionLevel;
+		copied.srcPTNodeName = flow.srcPTNodeName;
+		copied.srcPTNodeId = flow.srcPTNodeId;
+		copied.dstPTNodeName = flow.dstPTNodeName;
+		copied.dstPTNodeId = flow.dstPTNodeId;
+		copied.usedBandWidth = flow.usedBandWidth;
+		copied.delayTime = flow.delayTime;
+		copied.underlayLogicalList = flow.underlayLogicalList;
+		copied.overlayLogicalList = flow.overlayLogicalList;
+		copied.flowTypeName = flow.flowTypeName;
+		if (flow.linkInfoList != null) {
+			copied.linkInfoList = new ArrayList<LinkInfoDto>(flow.linkInfoList);
+		}
+		return copied;
+	}
+}
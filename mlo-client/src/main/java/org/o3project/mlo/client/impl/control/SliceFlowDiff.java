@@ -0,0 +1,122 @@
+/**
+ * SliceFlowDiff.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.o3project.mlo.server.dto.FlowDto;
+import org.o3project.mlo.server.dto.SliceDto;
+
+/**
+ * This class computes UPDATE requests which have only changed flows.
+ * <p>
+ * The registered slice is compared with the desired state of the slice, in which
+ * a flow with an id denotes a registered flow, and a flow without an id denotes a new flow.
+ * The request has "add" flows for new flows, "mod" flows for registered flows whose requested
+ * parameters are changed, and "del" flows for registered flows absent from the desired state.
+ * Unchanged flows are omitted, so that mlo-srv does not re-provision them.
+ * </p>
+ */
+final class SliceFlowDiff {
+
+	static final String FLOW_TYPE_ADD = "add";
+
+	static final String FLOW_TYPE_MOD = "mod";
+
+	static final String FLOW_TYPE_DEL = "del";
+
+	private SliceFlowDiff() {
+	}
+
+	/**
+	 * Creates the UPDATE request slice DTO.
+	 * @param registeredSlice the registered slice DTO, which has all flows.
+	 * @param desiredFlows the desired flows of the slice.
+	 * @return the slice DTO for request, whose flows are empty if nothing is changed.
+	 */
+	static SliceDto diff(SliceDto registeredSlice, List<FlowDto> desiredFlows) {
+		List<FlowDto> registeredFlows = (registeredSlice.flows == null) ? new ArrayList<FlowDto>() : registeredSlice.flows;
+		Map<Integer, FlowDto> desiredFlowMap = new HashMap<Integer, FlowDto>();
+		List<FlowDto> newFlows = new ArrayList<FlowDto>();
+		for (FlowDto desiredFlow : desiredFlows) {
+			if (desiredFlow.id == null) {
+				newFlows.add(desiredFlow);
+			} else {
+				desiredFlowMap.put(desiredFlow.id, desiredFlow);
+			}
+		}
+
+		SliceDto reqSlice = new SliceDto();
+		reqSlice.id = registeredSlice.id;
+		reqSlice.flows = new ArrayList<FlowDto>();
+		Set<Integer> registeredFlowIds = new HashSet<Integer>();
+		for (FlowDto registeredFlow : registeredFlows) {
+			registeredFlowIds.add(registeredFlow.id);
+			FlowDto desiredFlow = desiredFlowMap.get(registeredFlow.id);
+			if (desiredFlow == null) {
+				FlowDto delFlow = new FlowDto();
+				delFlow.type = FLOW_TYPE_DEL;
+				delFlow.id = registeredFlow.id;
+				reqSlice.flows.add(delFlow);
+			} else if (isChanged(registeredFlow, desiredFlow)) {
+				reqSlice.flows.add(createReqFlow(FLOW_TYPE_MOD, desiredFlow));
+			}
+		}
+		for (FlowDto desiredFlow : desiredFlows) {
+			// A flow unknown to the registered slice is left to mlo-srv to reject.
+			if (desiredFlow.id != null && !registeredFlowIds.contains(desiredFlow.id)) {
+				reqSlice.flows.add(createReqFlow(FLOW_TYPE_MOD, desiredFlow));
+			}
+		}
+		for (FlowDto newFlow : newFlows) {
+			reqSlice.flows.add(createReqFlow(FLOW_TYPE_ADD, newFlow));
+		}
+		return reqSlice;
+	}
+
+	/**
+	 * Checks whether requested parameters of the flow are changed.
+	 * Parameters decided by mlo-srv, such as used band width, are not compared.
+	 * A parameter absent from the registered flow is unknown and is not compared either,
+	 * because READ response has no requested parameters.
+	 * @param registeredFlow the registered flow.
+	 * @param desiredFlow the desired flow.
+	 * @return true if changed.
+	 */
+	static boolean isChanged(FlowDto registeredFlow, FlowDto desiredFlow) {
+		return isChanged(registeredFlow.name, desiredFlow.name)
+				|| isChanged(registeredFlow.srcCENodeName, desiredFlow.srcCENodeName)
+				|| isChanged(registeredFlow.srcCEPortNo, desiredFlow.srcCEPortNo)
+				|| isChanged(registeredFlow.dstCENodeName, desiredFlow.dstCENodeName)
+				|| isChanged(registeredFlow.dstCEPortNo, desiredFlow.dstCEPortNo)
+				|| isChanged(registeredFlow.reqBandWidth, desiredFlow.reqBandWidth)
+				|| isChanged(registeredFlow.reqDelay, desiredFlow.reqDelay)
+				|| isChanged(registeredFlow.protectionLevel, desiredFlow.protectionLevel);
+	}
+
+	private static FlowDto createReqFlow(String type, FlowDto desiredFlow) {
+		FlowDto reqFlow = new FlowDto();
+		reqFlow.type = type;
+		reqFlow.id = desiredFlow.id;
+		reqFlow.name = desiredFlow.name;
+		reqFlow.srcCENodeName = desiredFlow.srcCENodeName;
+		reqFlow.srcCEPortNo = desiredFlow.srcCEPortNo;
+		reqFlow.dstCENodeName = desiredFlow.dstCENodeName;
+		reqFlow.dstCEPortNo = desiredFlow.dstCEPortNo;
+		reqFlow.reqBandWidth = desiredFlow.reqBandWidth;
+		reqFlow.reqDelay = desiredFlow.reqDelay;
+		reqFlow.protectionLevel = desiredFlow.protectionLevel;
+		return reqFlow;
+	}
+
+	private static boolean isChanged(Object registeredValue, Object desiredValue) {
+		return (registeredValue != null) && !registeredValue.equals(desiredValue);
+	}
+}
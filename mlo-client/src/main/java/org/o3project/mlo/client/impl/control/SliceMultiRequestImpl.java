@@ -4,27 +4,36 @@
  */
 package org.o3project.mlo.client.impl.control;
 
-import java.io.ByteArrayOutputStream;
-import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Random;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
-import javax.xml.bind.JAXB;
+import javax.management.ObjectName;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.o3project.mlo.client.control.ClientConfig;
 import org.o3project.mlo.client.control.ClientConfigConstants;
+import org.o3project.mlo.client.control.FailurePolicy;
+import org.o3project.mlo.client.control.MloAccessException;
 import org.o3project.mlo.client.control.MloClientException;
+import org.o3project.mlo.client.control.MloInputDataException;
 import org.o3project.mlo.client.control.MloNbiException;
+import org.o3project.mlo.client.control.SliceBatchResult;
 import org.o3project.mlo.client.control.SliceDataManager;
+import org.o3project.mlo.client.control.SliceHandler;
 import org.o3project.mlo.client.control.SliceMultiRequest;
 import org.seasar.framework.container.SingletonS2Container;
 import org.seasar.framework.container.factory.SingletonS2ContainerFactory;
@@ -43,6 +52,31 @@ public class SliceMultiRequestImpl implements SliceMultiRequest {
 	
 	private static final Integer EXEC_SERVICE_SHUTDOWN_AWAIT_TIMEOUT_SEC = 30;
 	
+	private static final Integer UPDATE_WINDOW_SIZE = THREAD_POOL_SIZE * 2;
+
+	private static final int NUMBER_DIGITS = 8;
+
+	private static final String SLICE_NAME_PREFIX = "slice";
+
+	private static final String FLOW_NAME_PREFIX = "flow";
+
+	// Slices created in the rate mode are named apart from those of the create mode.
+	private static final String RATE_SLICE_NAME_PREFIX = "rateslice";
+
+	private static final String RATE_FLOW_NAME_PREFIX = "rateflow";
+
+	private static final int DEFAULT_INITIAL_LIMIT = 10;
+
+	private static final int DEFAULT_MIN_LIMIT = 1;
+
+	private static final int DEFAULT_MAX_LIMIT = 200;
+
+	private static final int DEFAULT_LATENCY_TOLERANCE_PERCENT = 200;
+
+	private static final int DEFAULT_PAYLOAD_LOG_SAMPLE_RATE_PERCENT = 100;
+
+	private static final int DEFAULT_PAYLOAD_LOG_MAX_CHARS = 65536;
+	
 	private static final Integer CE_PORT_NO_OFFSET = 100;
 	
 	private static final Integer REQ_BAND_WIDTH = 1; // 1 Mbps
@@ -57,7 +91,12 @@ public class SliceMultiRequestImpl implements SliceMultiRequest {
 	private static final int CREATE_MIN_COLUMNS = 4;
 	private static final int UPDATE_MAX_COLUMNS = 4;
 	private static final int UPDATE_MIN_COLUMNS = 2;
+	private static final int UPDATE_POLICY_MAX_COLUMNS = 5;
+	private static final int UPDATE_POLICY_MIN_COLUMNS = 3;
 	private static final int DELETE_COLUMNS = 2;
+	private static final int RATE_MAX_COLUMNS = 6;
+	private static final int RATE_MIN_COLUMNS = 5;
+	private static final int SCENARIO_COLUMNS = 3;
 
 	private static final int TYPE_COLUMN = 1;
 	private static final int SLICE_NUM_COLUMN = 2;
@@ -66,15 +105,27 @@ public class SliceMultiRequestImpl implements SliceMultiRequest {
 	private static final int CREATE_LATENCY_COLUMN = 5;
 	private static final int UPDATE_BANDWIDTH_COLUMN = 2;
 	private static final int UPDATE_LATENCY_COLUMN = 3;
+	private static final int RATE_OPERATION_COLUMN = 2;
+	private static final int SCENARIO_FILE_COLUMN = 2;
+	private static final int RATE_RATE_COLUMN = 3;
+	private static final int RATE_DURATION_COLUMN = 4;
+	private static final int RATE_RAMPUP_COLUMN = 5;
+	private static final List<String> RATE_OPERATIONS = Arrays.asList(
+			LoadStatistics.OP_CREATE, LoadStatistics.OP_READ, LoadStatistics.OP_LIST);
 
 	private final ClientConfig clientConfig;
 	
+	private final PayloadLogger payloadLogger;
+	
 	/**
 	 * A constructor.
 	 * @param clientConfig the configuration instance.
 	 */
 	public SliceMultiRequestImpl(ClientConfig clientConfig) {
 		this.clientConfig = clientConfig;
+		this.payloadLogger = new PayloadLogger(
+				getConfigValue(clientConfig.getPayloadLogSampleRatePercent(), DEFAULT_PAYLOAD_LOG_SAMPLE_RATE_PERCENT),
+				getConfigValue(clientConfig.getPayloadLogMaxChars(), DEFAULT_PAYLOAD_LOG_MAX_CHARS));
 	}
 	
 	/* (non-Javadoc)
@@ -82,35 +133,24 @@ public class SliceMultiRequestImpl implements SliceMultiRequest {
 	 */
 	@Override
 	public void doCreateSlices(SliceDataManager sliceDataManager, Integer nSlice, Integer nFlowForSlice, Integer nBandWidth, Integer nLatency) throws InterruptedException {
-		final ExecutorService execService = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
-		
-		List<SliceDto> reqSliceDtos = createSliceDtos(nSlice, nFlowForSlice, nBandWidth, nLatency);
-		ClientSliceOperationTask task = null;
-		List<Future<SliceDto>> futures = new ArrayList<>();
-		for (SliceDto reqSliceDto : reqSliceDtos) {
-			log("Request", reqSliceDto);
-			SliceOperation operation = new SliceOperation() {
-				@Override
-				public SliceDto operate(SliceDataManager sdm, SliceDto slice) throws MloClientException {
-					return sdm.createSliceInfo(slice);
-				}
-			};
-			task = new ClientSliceOperationTask(reqSliceDto.name, operation, reqSliceDto, sliceDataManager);
-			futures.add(execService.submit(task));
-		}
-		
-		for (Future<SliceDto> future: futures) {
-			SliceDto resSliceDto = null;
-			try {
-				resSliceDto = future.get();
-				log("Response", resSliceDto);
-			} catch (ExecutionException e) {
-				handleExecutionException(e);
+		// Slices are generated lazily, so that requests are sent before all slices are generated.
+		SliceOperation operation = new SliceOperation() {
+			@Override
+			public SliceDto operate(SliceDataManager sdm, SliceDto reqSliceDto) throws MloClientException {
+				log("Request", reqSliceDto);
+				return sdm.createSliceInfo(reqSliceDto);
 			}
-		}
-		
-		execService.shutdownNow();
-		execService.awaitTermination(EXEC_SERVICE_SHUTDOWN_AWAIT_TIMEOUT_SEC, TimeUnit.SECONDS);
+		};
+		SliceBatchExecutor.ResultHandler handler = new SliceBatchExecutor.ResultHandler() {
+			@Override
+			public void handleResult(int index, SliceBatchResult result) {
+				handleBatchResult(result);
+			}
+		};
+		AdaptiveConcurrencyLimiter limiter = createLimiter(THREAD_POOL_SIZE);
+		SliceBatchExecutor.execute(sliceDataManager, operation,
+				new SliceDtoIterator(nSlice, nFlowForSlice, nBandWidth, nLatency), limiter, handler);
+		LOG.info(limiter.getSummary());
 	}
 
 	/* (non-Javadoc)
@@ -118,53 +158,52 @@ public class SliceMultiRequestImpl implements SliceMultiRequest {
 	 */
 	@Override
 	public void doUpdateAllSlices(SliceDataManager sliceDataManager, Integer bandWidth, Integer latency) throws InterruptedException {
-		List<SliceDto> sliceDtos = null; 
-		try {
-			sliceDtos = sliceDataManager.getSliceList();
-		} catch (MloClientException e) {
-			throw new IllegalStateException("getSliceList is failed", e);
-		}
-		
-		if (sliceDtos == null) {
-			throw new IllegalStateException("getSliceList is null");
-		}
-		
-		final ExecutorService execService = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+		doUpdateAllSlices(sliceDataManager, bandWidth, latency, FailurePolicy.FAIL_FAST);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceMultiRequest#doUpdateAllSlices(org.o3project.mlo.client.control.SliceDataManager, java.lang.Integer, java.lang.Integer, org.o3project.mlo.client.control.FailurePolicy)
+	 */
+	@Override
+	public void doUpdateAllSlices(SliceDataManager sliceDataManager, Integer bandWidth, Integer latency, FailurePolicy failurePolicy) throws InterruptedException {
+		AdaptiveConcurrencyLimiter limiter = createLimiter(UPDATE_WINDOW_SIZE);
+		ExecutorService execService = Executors.newFixedThreadPool(
+				clientConfig.getBulkConcurrencyAdaptiveFlag() ? limiter.getMaxLimit() : THREAD_POOL_SIZE);
+		ObjectName objectName = JmxExporter.registerExecutor("SliceMultiRequest.update", execService);
+		UpdatePipeline pipeline = new UpdatePipeline(sliceDataManager, bandWidth, latency, failurePolicy,
+				limiter, new ExecutorCompletionService<SliceDto>(execService));
 		
-		ClientSliceOperationTask task = null;
-		List<Future<SliceDto>> futures = new ArrayList<>();
-		for (SliceDto listSliceDto : sliceDtos) {
-			SliceDto registeredSlice = null;
+		MloClientException listFailure = null;
+		try {
+			// Each slice is read, transformed and updated in a worker thread as soon as it is received,
+			// so that the slice list is not held in memory, and the limiter governs the number of slices in flight.
 			try {
-				registeredSlice = sliceDataManager.getSliceInfo(listSliceDto);
+				sliceDataManager.forEachSlice(pipeline);
+			} catch (SliceBatchExecutor.ReceivingAbortedException e) {
+				if (e.getInterruptedException() != null) {
+					throw e.getInterruptedException();
+				}
 			} catch (MloClientException e) {
-				throw new IllegalStateException("getSliceInfo is failed", e);
+				listFailure = e;
 			}
-			SliceDto updateSlice = updateSliceDto(registeredSlice, bandWidth, latency);
-			log("Request", updateSlice);
-			SliceOperation operation = new SliceOperation() {
-				@Override
-				public SliceDto operate(SliceDataManager sdm, SliceDto slice) throws MloClientException {
-					return sdm.updateSliceInfo(slice);
-				}
-			};
-			task = new ClientSliceOperationTask(listSliceDto.name, operation, updateSlice, sliceDataManager);
-			futures.add(execService.submit(task));
+			pipeline.awaitCompleted();
+		} finally {
+			JmxExporter.unregister(objectName);
+			execService.shutdownNow();
+			execService.awaitTermination(EXEC_SERVICE_SHUTDOWN_AWAIT_TIMEOUT_SEC, TimeUnit.SECONDS);
 		}
 		
-		for (Future<SliceDto> future: futures) {
-			SliceDto resSliceDto = null;
-			try {
-				resSliceDto = future.get();
-				log("Response", resSliceDto);
-			} catch (ExecutionException e) {
-				handleExecutionException(e);
-			}
+		if (pipeline.isStopped()) {
+			throw new IllegalStateException("getSliceInfo is failed", pipeline.firstReadFailure.get());
+		}
+		if (listFailure != null) {
+			throw new IllegalStateException("getSliceList is failed", listFailure);
+		}
+		LOG.info(limiter.getSummary());
+		if (!pipeline.failures.isEmpty()) {
+			LOG.warn(String.format("%d of %d slices are failed in updating all slices.",
+					pipeline.failures.size(), pipeline.nSubmitted));
 		}
-		
-		execService.shutdownNow();
-		execService.awaitTermination(EXEC_SERVICE_SHUTDOWN_AWAIT_TIMEOUT_SEC, TimeUnit.SECONDS);
-		
 	}
 
 	/* (non-Javadoc)
@@ -172,46 +211,91 @@ public class SliceMultiRequestImpl implements SliceMultiRequest {
 	 */
 	@Override
 	public void doDeleteAllSlices(SliceDataManager sliceDataManager) throws InterruptedException {
-		List<SliceDto> sliceDtos = null; 
+		SliceOperation operation = new SliceOperation() {
+			@Override
+			public SliceDto operate(SliceDataManager sdm, SliceDto reqSliceDto) throws MloClientException {
+				log("Request", reqSliceDto);
+				return SliceBatchExecutor.DELETE.operate(sdm, reqSliceDto);
+			}
+		};
+		AdaptiveConcurrencyLimiter limiter = createLimiter(THREAD_POOL_SIZE);
 		try {
-			sliceDtos = sliceDataManager.getSliceList();
+			// Each slice is deleted as soon as it is received, so that the slice list is not held in memory.
+			SliceBatchExecutor.executeForEachSlice(sliceDataManager, operation, limiter,
+					new SliceBatchExecutor.ResultHandler() {
+						@Override
+						public void handleResult(int index, SliceBatchResult result) {
+							handleBatchResult(result);
+						}
+					});
 		} catch (MloClientException e) {
 			throw new IllegalStateException("getSliceList is failed", e);
 		}
-		
-		if (sliceDtos == null) {
-			throw new IllegalStateException("getSliceList is null");
-		}
-		
-		final ExecutorService execService = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
-		
-		ClientSliceOperationTask task = null;
-		List<Future<SliceDto>> futures = new ArrayList<>();
-		for (SliceDto reqSliceDto : sliceDtos) {
-			log("Request", reqSliceDto);
-			SliceOperation operation = new SliceOperation() {
+		LOG.info(limiter.getSummary());
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceMultiRequest#doRateRequests(org.o3project.mlo.client.control.SliceDataManager, java.lang.String, java.lang.Integer, java.lang.Integer, java.lang.Integer)
+	 */
+	@Override
+	public void doRateRequests(final SliceDataManager sliceDataManager, String operation,
+			Integer ratePerSec, Integer durationSec, Integer rampUpSec) throws InterruptedException {
+		OpenLoopLoadGenerator.Request request = null;
+		if (LoadStatistics.OP_CREATE.equals(operation)) {
+			request = new OpenLoopLoadGenerator.Request() {
 				@Override
-				public SliceDto operate(SliceDataManager sdm, SliceDto slice) throws MloClientException {
-					return sdm.deleteSliceInfo(slice);
+				public void execute(long sequence) throws MloClientException {
+					SliceDto sliceDto = new SliceDto();
+					sliceDto.name = formatNumber(RATE_SLICE_NAME_PREFIX, sequence);
+					sliceDto.flows = new ArrayList<FlowDto>();
+					sliceDto.flows.add(createRequestFlowDto(formatNumber(RATE_FLOW_NAME_PREFIX, sequence), 
+							CE_PORT_NO_OFFSET + (int) sequence, null, null));
+					sliceDataManager.createSliceInfo(sliceDto);
 				}
 			};
-			task = new ClientSliceOperationTask(reqSliceDto.name, operation, reqSliceDto, sliceDataManager);
-			futures.add(execService.submit(task));
-		}
-		
-		for (Future<SliceDto> future: futures) {
-			SliceDto resSliceDto = null;
+		} else if (LoadStatistics.OP_READ.equals(operation)) {
+			final List<SliceDto> sliceDtos;
 			try {
-				resSliceDto = future.get();
-				log("Response", resSliceDto);
-			} catch (ExecutionException e) {
-				handleExecutionException(e);
+				sliceDtos = sliceDataManager.getSliceList();
+			} catch (MloClientException e) {
+				throw new IllegalStateException("getSliceList is failed", e);
+			}
+			if (sliceDtos == null || sliceDtos.isEmpty()) {
+				throw new IllegalStateException("getSliceList is empty");
 			}
+			request = new OpenLoopLoadGenerator.Request() {
+				@Override
+				public void execute(long sequence) throws MloClientException {
+					sliceDataManager.getSliceInfo(sliceDtos.get((int) (sequence % sliceDtos.size())));
+				}
+			};
+		} else if (LoadStatistics.OP_LIST.equals(operation)) {
+			request = new OpenLoopLoadGenerator.Request() {
+				@Override
+				public void execute(long sequence) throws MloClientException {
+					sliceDataManager.getSliceList();
+				}
+			};
+		} else {
+			throw new IllegalArgumentException("Unsupported operation: " + operation);
 		}
 		
-		execService.shutdownNow();
-		execService.awaitTermination(EXEC_SERVICE_SHUTDOWN_AWAIT_TIMEOUT_SEC, TimeUnit.SECONDS);
-		
+		OpenLoopLoadGenerator generator = new OpenLoopLoadGenerator(THREAD_POOL_SIZE);
+		generator.run(operation, request, ratePerSec, durationSec, (rampUpSec == null) ? 0 : rampUpSec);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceMultiRequest#doScenario(org.o3project.mlo.client.control.SliceDataManager, java.lang.String)
+	 */
+	@Override
+	public void doScenario(SliceDataManager sliceDataManager, String scenarioFile) throws InterruptedException {
+		Scenario scenario = null;
+		try {
+			scenario = Scenario.load(scenarioFile);
+		} catch (MloInputDataException e) {
+			throw new IllegalArgumentException(e.getMessage(), e);
+		}
+		new ScenarioRunner(sliceDataManager, scenario).run();
 	}
 
 	/**
@@ -222,46 +306,59 @@ public class SliceMultiRequestImpl implements SliceMultiRequest {
 	 * @param nLatency delay time.
 	 * @return the slice DTO list for request.
 	 */
-	List<SliceDto> createSliceDtos(final Integer nSlice, final Integer nFlowForSlice, final Integer nBandWidth, final Integer nLatency) {
-		List<SliceDto> sliceDtos = new ArrayList<SliceDto>();
-		int nTotalFlowIdx = 0;
-		int portNo = CE_PORT_NO_OFFSET;
-		for (int sliceIdx = 0; sliceIdx < nSlice; sliceIdx += 1) {
-			SliceDto sliceDto = new SliceDto();
-			sliceDto.name = String.format("slice%08d", sliceIdx);
-			sliceDto.flows = new ArrayList<FlowDto>();
-			for (int flowIdx = 0; flowIdx < nFlowForSlice; flowIdx += 1) {
-				String flowName = String.format("flow%08d", nTotalFlowIdx);
-				sliceDto.flows.add(createRequestFlowDto(flowName, portNo, nBandWidth, nLatency));
-				nTotalFlowIdx += 1;
-				portNo += 1;
-			}
-			sliceDtos.add(sliceDto);
+	public List<SliceDto> createSliceDtos(final Integer nSlice, final Integer nFlowForSlice, final Integer nBandWidth, final Integer nLatency) {
+		List<SliceDto> sliceDtos = new ArrayList<SliceDto>(nSlice);
+		Iterator<SliceDto> iterator = new SliceDtoIterator(nSlice, nFlowForSlice, nBandWidth, nLatency);
+		while (iterator.hasNext()) {
+			sliceDtos.add(iterator.next());
 		}
 		return sliceDtos;
 	}
+
+	/**
+	 * Formats the number in 8 digits with leading zeros, after the prefix.
+	 * This is equivalent to {@code String.format(prefix + "%08d", number)} and cheaper.
+	 * @param prefix the prefix.
+	 * @param number the number.
+	 * @return the formatted string.
+	 */
+	static String formatNumber(String prefix, long number) {
+		if (number < 0L) {
+			return String.format("%s%08d", prefix, number);
+		}
+		String digits = Long.toString(number);
+		StringBuilder sb = new StringBuilder(prefix.length() + Math.max(NUMBER_DIGITS, digits.length()));
+		sb.append(prefix);
+		for (int idx = digits.length(); idx < NUMBER_DIGITS; idx += 1) {
+			sb.append('0');
+		}
+		return sb.append(digits).toString();
+	}
 	
 	/**
-	 * Creates slice DTO list for UPDATE request.
+	 * Creates slice DTO for UPDATE request.
+	 * READ response has no requested parameters of flows, such as the flow name, the CE ports and
+	 * the requested delay time, so that no flow is known to be unchanged. Every registered flow is
+	 * requested as a "mod" flow with full parameters, as well as CREATE request.
 	 * @param registeredSlice the slice DTO.
 	 * @param nBandWidth band width.
 	 * @param nLatency delay time.
-	 * @return the slice DTO list for request.
+	 * @return the slice DTO for request.
 	 */
-	SliceDto updateSliceDto(final SliceDto registeredSlice, final Integer nBandWidth, final Integer nLatency) {
-		int nTotalFlowIdx = 0;
-		int portNo = CE_PORT_NO_OFFSET;
+	public SliceDto updateSliceDto(final SliceDto registeredSlice, final Integer nBandWidth, final Integer nLatency) {
 		SliceDto sliceDto = new SliceDto();
 		sliceDto.id = registeredSlice.id;
 		sliceDto.flows = new ArrayList<FlowDto>();
-		for (FlowDto flow : registeredSlice.flows) {
-			String flowName = String.format("flow%08d", nTotalFlowIdx);
-			FlowDto updateFlow = createRequestFlowDto(flowName, portNo, nBandWidth, nLatency);
-			updateFlow.type = "mod";
-			updateFlow.id = flow.id;
-			sliceDto.flows.add(updateFlow);
-			nTotalFlowIdx += 1;
-			portNo += 1;
+		if (registeredSlice.flows != null) {
+			int nTotalFlowIdx = 0;
+			for (FlowDto flow : registeredSlice.flows) {
+				FlowDto updateFlow = createRequestFlowDto(formatNumber(FLOW_NAME_PREFIX, nTotalFlowIdx),
+						CE_PORT_NO_OFFSET + nTotalFlowIdx, nBandWidth, nLatency);
+				updateFlow.type = SliceFlowDiff.FLOW_TYPE_MOD;
+				updateFlow.id = flow.id;
+				sliceDto.flows.add(updateFlow);
+				nTotalFlowIdx += 1;
+			}
 		}
 		return sliceDto;
 	}
@@ -279,7 +376,7 @@ public class SliceMultiRequestImpl implements SliceMultiRequest {
 		if(!ClientConfigConstants.CLIENT_TYPE_OTHER.equals(clientConfig.getSrcComponentName())){
 			nodeNameSuffix = "123";
 		}
-		String sPortNo = String.format("%08d", portNo);
+		String sPortNo = formatNumber("", portNo);
 		FlowDto reqFlowDto = new FlowDto();
 		reqFlowDto.name = name;
 		reqFlowDto.srcCENodeName = "tokyo" + nodeNameSuffix;
@@ -301,28 +398,50 @@ public class SliceMultiRequestImpl implements SliceMultiRequest {
 	}
 
 	/**
-	 * Logs slice DTO.
+	 * Logs slice DTO, if it is sampled by the payload logger.
 	 * @param identifier the identifier (Request/Response)
 	 * @param sliceDto the slice DTO
 	 */
-	static void log(String identifier, SliceDto sliceDto) {
-		ByteArrayOutputStream ostream = null;
-		ostream = new ByteArrayOutputStream();
-		JAXB.marshal(sliceDto, ostream);
-		LOG.info(String.format("==== %s. slice: %s", identifier, sliceDto.name));
-		try {
-			LOG.info(ostream.toString("UTF-8"));
-		} catch (UnsupportedEncodingException e) {
-			LOG.error("UTF-8 unsupported", e); // Only if UTF-8 is not supported.
+	void log(String identifier, SliceDto sliceDto) {
+		payloadLogger.log(identifier, sliceDto);
+	}
+
+	/**
+	 * Creates the concurrency limiter of a bulk operation.
+	 * @param fixedLimit the limit used when the adaptive concurrency is disabled.
+	 * @return the limiter.
+	 */
+	private AdaptiveConcurrencyLimiter createLimiter(int fixedLimit) {
+		if (!clientConfig.getBulkConcurrencyAdaptiveFlag()) {
+			return AdaptiveConcurrencyLimiter.createFixed(fixedLimit);
+		}
+		return new AdaptiveConcurrencyLimiter(
+				getConfigValue(clientConfig.getBulkConcurrencyInitialLimit(), DEFAULT_INITIAL_LIMIT),
+				getConfigValue(clientConfig.getBulkConcurrencyMinLimit(), DEFAULT_MIN_LIMIT),
+				getConfigValue(clientConfig.getBulkConcurrencyMaxLimit(), DEFAULT_MAX_LIMIT),
+				getConfigValue(clientConfig.getBulkConcurrencyLatencyTolerancePercent(), DEFAULT_LATENCY_TOLERANCE_PERCENT));
+	}
+
+	private static int getConfigValue(Integer value, int defaultValue) {
+		return (value == null) ? defaultValue : value;
+	}
+
+	private void handleBatchResult(SliceBatchResult result) {
+		if (result.isSucceeded()) {
+			log("Response", result.getResponse());
+		} else {
+			handleException(result.getException());
 		}
-		// ostream.close(); // Don't need close ByteArrayOutputSteam.
-		ostream = null;
 	}
 
 	private void handleExecutionException(ExecutionException e) {
-		LOG.warn("Error occurs.", e.getCause());
-		if (e.getCause() instanceof MloNbiException) {
-			MloNbiException nbie = (MloNbiException) e.getCause();
+		handleException(e.getCause());
+	}
+
+	private void handleException(Throwable cause) {
+		LOG.warn("Error occurs.", cause);
+		if (cause instanceof MloNbiException) {
+			MloNbiException nbie = (MloNbiException) cause;
 			LOG.warn("An MloNbiException occurs.");
 			LOG.warn("cause : " + nbie.getErrorDto().cause);
 			LOG.warn("detail: " + nbie.getErrorDto().detail);
@@ -351,12 +470,20 @@ public class SliceMultiRequestImpl implements SliceMultiRequest {
 		}
 
 		SliceMultiRequest req = new SliceMultiRequestImpl(clientConfig);
+		LoadStatistics statistics = new LoadStatistics();
 		LOG.info("Start processing");
 		long startTime = System.currentTimeMillis();
-		doProcess(req, sliceDataManager, args);
+		statistics.start();
+		doProcess(req, new MeasuringSliceDataManager(sliceDataManager, statistics), args);
+		statistics.stop();
 		long endTime = System.currentTimeMillis();
 		LOG.info("End processing");
 		LOG.info(String.format("Processing time: %d [msec]", (endTime - startTime)));
+		statistics.report(clientConfig.getLoadStatsCsvFile(), clientConfig.getLoadStatsJsonFile());
+		MetricsRegistry metricsRegistry = SingletonS2Container.getComponent("metricsRegistry");
+		for (String line : metricsRegistry.formatSummary()) {
+			LOG.info(line);
+		}
 
 		try {
 			SingletonS2ContainerFactory.destroy();
@@ -386,40 +513,308 @@ public class SliceMultiRequestImpl implements SliceMultiRequest {
 						nLatency = Integer.valueOf(args[CREATE_LATENCY_COLUMN]);
 					}
 					req.doCreateSlices(sliceDataManager, nSlice, nFlowForSlice, nBandWidth, nLatency);
-				} else if ((args.length == UPDATE_MIN_COLUMNS || args.length == UPDATE_MAX_COLUMNS) && "update".equals(args[TYPE_COLUMN])) {
+				} else if (isUpdateArgs(args)) {
 					Integer nBandWidth = null;
 					Integer nLatency = null;
-					if (args.length == UPDATE_MAX_COLUMNS) {
+					if (args.length >= UPDATE_MAX_COLUMNS) {
 						nBandWidth = Integer.valueOf(args[UPDATE_BANDWIDTH_COLUMN]);
 						nLatency = Integer.valueOf(args[UPDATE_LATENCY_COLUMN]);
 					}
-					req.doUpdateAllSlices(sliceDataManager, nBandWidth, nLatency);
+					FailurePolicy failurePolicy = FailurePolicy.FAIL_FAST;
+					if (args.length == UPDATE_POLICY_MIN_COLUMNS || args.length == UPDATE_POLICY_MAX_COLUMNS) {
+						failurePolicy = FailurePolicy.fromWord(args[args.length - 1]);
+					}
+					req.doUpdateAllSlices(sliceDataManager, nBandWidth, nLatency, failurePolicy);
 				} else if (args.length == DELETE_COLUMNS && "delete".equals(args[TYPE_COLUMN])) {
 					req.doDeleteAllSlices(sliceDataManager);
+				} else if ((args.length == RATE_MIN_COLUMNS || args.length == RATE_MAX_COLUMNS) && "rate".equals(args[TYPE_COLUMN])
+						&& RATE_OPERATIONS.contains(args[RATE_OPERATION_COLUMN])) {
+					Integer rampUpSec = null;
+					if (args.length == RATE_MAX_COLUMNS) {
+						rampUpSec = Integer.valueOf(args[RATE_RAMPUP_COLUMN]);
+					}
+					req.doRateRequests(sliceDataManager, args[RATE_OPERATION_COLUMN], 
+							Integer.valueOf(args[RATE_RATE_COLUMN]), Integer.valueOf(args[RATE_DURATION_COLUMN]), rampUpSec);
+				} else if (args.length == SCENARIO_COLUMNS && "scenario".equals(args[TYPE_COLUMN])) {
+					req.doScenario(sliceDataManager, args[SCENARIO_FILE_COLUMN]);
 				} else {
 					System.out.println("create multiple slices : -m create <SliceNum> <FlowNum> [<BandWidth> <Latency>]");
-					System.out.println("update all slices      : -m update [<BandWidth> <Latency>]");
+					System.out.println("update all slices      : -m update [<BandWidth> <Latency>] [failfast|collect]");
 					System.out.println("delete all slices      : -m delete");
+					System.out.println("constant rate requests : -m rate <create/read/list> <RatePerSec> <DurationSec> [<RampUpSec>]");
+					System.out.println("workload scenario      : -m scenario <ScenarioFile>");
 				}
 			}
 		} catch (InterruptedException e) {
 			LOG.error("doProcess interrupted", e);
 		}
 	}
-}
 
-/**
- * This interface denotes slice operation.
- */
-interface SliceOperation {
 	/**
-	 * Executes to operate slice.
-	 * @param sliceDataManager the slice data manager.
-	 * @param reqSliceDto the requested slice DTO.
-	 * @return the received slice DTO.
-	 * @throws MloClientException Failed to operate.
+	 * Checks whether the arguments designate update-all.
+	 * The optional last argument is a failure policy word.
+	 * @param args the arguments.
+	 * @return true if update-all.
+	 */
+	private static boolean isUpdateArgs(String[] args) {
+		if (args.length < UPDATE_MIN_COLUMNS || !"update".equals(args[TYPE_COLUMN])) {
+			return false;
+		}
+		if (args.length == UPDATE_MIN_COLUMNS || args.length == UPDATE_MAX_COLUMNS) {
+			return true;
+		}
+		if (args.length == UPDATE_POLICY_MIN_COLUMNS || args.length == UPDATE_POLICY_MAX_COLUMNS) {
+			return FailurePolicy.fromWord(args[args.length - 1]) != null;
+		}
+		return false;
+	}
+
+	/**
+	 * This class is the exception which denotes a failure in reading a slice in the update pipeline.
 	 */
-	SliceDto operate(SliceDataManager sliceDataManager, SliceDto reqSliceDto) throws MloClientException;
+	static class SliceReadException extends Exception {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * A constructor.
+		 * @param cause the cause.
+		 */
+		SliceReadException(MloClientException cause) {
+			super(cause);
+		}
+	}
+
+	/**
+	 * This class generates slice DTOs for CREATE request one by one.
+	 * Slices and flows are numbered sequentially, and each flow uses its own CE port.
+	 */
+	private final class SliceDtoIterator implements Iterator<SliceDto> {
+		private final int nSlice;
+		private final int nFlowForSlice;
+		private final Integer nBandWidth;
+		private final Integer nLatency;
+		private int sliceIdx = 0;
+		private int nTotalFlowIdx = 0;
+
+		/**
+		 * A constructor.
+		 * @param nSlice the number of slices.
+		 * @param nFlowForSlice the number of flows per a slice.
+		 * @param nBandWidth band width.
+		 * @param nLatency delay time.
+		 */
+		SliceDtoIterator(Integer nSlice, Integer nFlowForSlice, Integer nBandWidth, Integer nLatency) {
+			this.nSlice = nSlice;
+			this.nFlowForSlice = nFlowForSlice;
+			this.nBandWidth = nBandWidth;
+			this.nLatency = nLatency;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.Iterator#hasNext()
+		 */
+		@Override
+		public boolean hasNext() {
+			return sliceIdx < nSlice;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.Iterator#next()
+		 */
+		@Override
+		public SliceDto next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			SliceDto sliceDto = new SliceDto();
+			sliceDto.name = formatNumber(SLICE_NAME_PREFIX, sliceIdx);
+			sliceDto.flows = new ArrayList<FlowDto>(nFlowForSlice);
+			for (int flowIdx = 0; flowIdx < nFlowForSlice; flowIdx += 1) {
+				sliceDto.flows.add(createRequestFlowDto(formatNumber(FLOW_NAME_PREFIX, nTotalFlowIdx),
+						CE_PORT_NO_OFFSET + nTotalFlowIdx, nBandWidth, nLatency));
+				nTotalFlowIdx += 1;
+			}
+			sliceIdx += 1;
+			return sliceDto;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.Iterator#remove()
+		 */
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	/**
+	 * This class submits each received slice to {@link UpdatePipelineTask}, and handles the results.
+	 * The methods are called in the thread which receives the slice list.
+	 */
+	private final class UpdatePipeline implements SliceHandler {
+		private final SliceDataManager sliceDataManager;
+		private final Integer bandWidth;
+		private final Integer latency;
+		private final FailurePolicy failurePolicy;
+		private final AdaptiveConcurrencyLimiter limiter;
+		private final CompletionService<SliceDto> completionService;
+		private final AtomicReference<MloClientException> firstReadFailure = new AtomicReference<>();
+		private final List<Throwable> failures = new ArrayList<>();
+		private int nSubmitted = 0;
+		private int nCompleted = 0;
+
+		/**
+		 * A constructor.
+		 * @param sliceDataManager the slice data manager.
+		 * @param bandWidth the band width.
+		 * @param latency the delay time.
+		 * @param failurePolicy the policy on failures in reading slices.
+		 * @param limiter the concurrency limiter.
+		 * @param completionService the completion service which executes the tasks.
+		 */
+		UpdatePipeline(SliceDataManager sliceDataManager, Integer bandWidth, Integer latency,
+				FailurePolicy failurePolicy, AdaptiveConcurrencyLimiter limiter,
+				CompletionService<SliceDto> completionService) {
+			this.sliceDataManager = sliceDataManager;
+			this.bandWidth = bandWidth;
+			this.latency = latency;
+			this.failurePolicy = failurePolicy;
+			this.limiter = limiter;
+			this.completionService = completionService;
+		}
+
+		/* (non-Javadoc)
+		 * @see org.o3project.mlo.client.control.SliceHandler#handleSlice(org.o3project.mlo.server.dto.SliceDto)
+		 */
+		@Override
+		public void handleSlice(SliceDto listSliceDto) throws MloClientException {
+			try {
+				long token = limiter.acquire();
+				if (isStopped()) {
+					limiter.release(token, false);
+					throw new SliceBatchExecutor.ReceivingAbortedException("Updating slices is stopped by the failure in reading a slice.");
+				}
+				completionService.submit(new UpdatePipelineTask(
+						listSliceDto, bandWidth, latency, sliceDataManager, limiter, token, firstReadFailure));
+				nSubmitted += 1;
+
+				// The results completed so far are handled, so that they are not held until the end of the list.
+				Future<SliceDto> future = null;
+				while ((future = completionService.poll()) != null) {
+					handleCompleted(future);
+				}
+			} catch (InterruptedException e) {
+				throw new SliceBatchExecutor.ReceivingAbortedException(e);
+			}
+		}
+
+		/**
+		 * Waits for and handles the results of the remaining tasks.
+		 * @throws InterruptedException Interrupted in waiting.
+		 */
+		void awaitCompleted() throws InterruptedException {
+			while (nCompleted < nSubmitted && !isStopped()) {
+				handleCompleted(completionService.take());
+			}
+		}
+
+		/**
+		 * Specifies whether updating is stopped by a failure in reading a slice.
+		 * @return true if stopped.
+		 */
+		boolean isStopped() {
+			return failurePolicy == FailurePolicy.FAIL_FAST && firstReadFailure.get() != null;
+		}
+
+		private void handleCompleted(Future<SliceDto> future) throws InterruptedException {
+			nCompleted += 1;
+			try {
+				SliceDto resSliceDto = future.get();
+				log("Response", resSliceDto);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof SliceReadException) {
+					LOG.warn("Failed to read slice.", e.getCause().getCause());
+					failures.add(e.getCause().getCause());
+				} else {
+					handleExecutionException(e);
+					failures.add(e.getCause());
+				}
+			}
+		}
+	}
+
+	/**
+	 * This class is the task class to read, transform and update a slice.
+	 */
+	private final class UpdatePipelineTask implements Callable<SliceDto> {
+		private final SliceDto listSliceDto;
+		private final Integer bandWidth;
+		private final Integer latency;
+		private final SliceDataManager sliceDataManager;
+		private final AdaptiveConcurrencyLimiter limiter;
+		private final long token;
+		private final AtomicReference<MloClientException> firstReadFailure;
+
+		/**
+		 * A constructor.
+		 * @param listSliceDto the slice DTO in the slice list.
+		 * @param bandWidth the band width.
+		 * @param latency the delay time.
+		 * @param sliceDataManager the slice data manager.
+		 * @param limiter the concurrency limiter, which is released when this task ends.
+		 * @param token the token acquired from the limiter.
+		 * @param firstReadFailure the first failure in reading slices.
+		 */
+		UpdatePipelineTask(SliceDto listSliceDto, Integer bandWidth, Integer latency,
+				SliceDataManager sliceDataManager, AdaptiveConcurrencyLimiter limiter, long token,
+				AtomicReference<MloClientException> firstReadFailure) {
+			this.listSliceDto = listSliceDto;
+			this.bandWidth = bandWidth;
+			this.latency = latency;
+			this.sliceDataManager = sliceDataManager;
+			this.limiter = limiter;
+			this.token = token;
+			this.firstReadFailure = firstReadFailure;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.Callable#call()
+		 */
+		@Override
+		public SliceDto call() throws Exception {
+			boolean isFailed = false;
+			try {
+				SliceDto registeredSlice = null;
+				try {
+					registeredSlice = sliceDataManager.getSliceInfo(listSliceDto);
+				} catch (MloClientException e) {
+					isFailed = e instanceof MloAccessException;
+					firstReadFailure.compareAndSet(null, e);
+					throw new SliceReadException(e);
+				}
+				SliceDto updateSlice = updateSliceDto(registeredSlice, bandWidth, latency);
+				if (updateSlice.flows.isEmpty()) {
+					LOG.info("No flow is changed : " + listSliceDto.name);
+					return registeredSlice;
+				}
+				log("Request", updateSlice);
+				SliceOperation operation = new SliceOperation() {
+					@Override
+					public SliceDto operate(SliceDataManager sdm, SliceDto slice) throws MloClientException {
+						return sdm.updateSliceInfo(slice);
+					}
+				};
+				try {
+					return new ClientSliceOperationTask(listSliceDto.name, operation, updateSlice, sliceDataManager).call();
+				} catch (MloAccessException e) {
+					isFailed = true;
+					throw e;
+				}
+			} finally {
+				limiter.release(token, isFailed);
+			}
+		}
+	}
 }
 
 /**
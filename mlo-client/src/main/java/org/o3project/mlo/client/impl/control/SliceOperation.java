@@ -0,0 +1,24 @@
+/**
+ * SliceOperation.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import org.o3project.mlo.client.control.MloClientException;
+import org.o3project.mlo.client.control.SliceDataManager;
+
+import org.o3project.mlo.server.dto.SliceDto;
+
+/**
+ * This interface denotes slice operation.
+ */
+interface SliceOperation {
+	/**
+	 * Executes to operate slice.
+	 * @param sliceDataManager the slice data manager.
+	 * @param reqSliceDto the requested slice DTO.
+	 * @return the received slice DTO.
+	 * @throws MloClientException Failed to operate.
+	 */
+	SliceDto operate(SliceDataManager sliceDataManager, SliceDto reqSliceDto) throws MloClientException;
+}
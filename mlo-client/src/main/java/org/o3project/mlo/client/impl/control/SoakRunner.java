@@ -0,0 +1,346 @@
+/**
+ * SoakRunner.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.management.ObjectName;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.o3project.mlo.client.control.MloClientException;
+import org.o3project.mlo.client.control.SliceDataManager;
+
+import org.o3project.mlo.server.dto.SliceDto;
+
+/**
+ * This class runs virtual users, each of which repeats the slice lifecycle for a soak test.
+ * <p>
+ * The lifecycle is the same as {@link RequestorServiceImpl#requestMloClient()} and
+ * {@link RequestorServiceImpl#requestDemoApl()}: create, read, add a flow, read, modify the flow,
+ * read, delete the flow, read and delete. Each virtual user uses its own slice names,
+ * and waits for the think time between operations.
+ * </p>
+ * <p>
+ * Throughput, errors and latency of each interval are logged periodically.
+ * When the run ends or is interrupted, virtual users are stopped,
+ * and slices which have been created but not deleted are deleted.
+ * </p>
+ */
+public class SoakRunner {
+	private static final Log LOG = LogFactory.getLog(SoakRunner.class);
+
+	private static final long USER_SHUTDOWN_AWAIT_TIMEOUT_SEC = 30L;
+
+	private static final double NSEC_PER_SEC = 1000000000.0;
+
+	private static final double USEC_PER_MSEC = 1000.0;
+
+	private static final double P50 = 50.0;
+
+	private static final double P99 = 99.0;
+
+	private static final String OP_LIFECYCLE = "lifecycle";
+
+	private final SliceDataManager sliceDataManager;
+
+	private final boolean isMloClient;
+
+	private final int users;
+
+	private final int durationSec;
+
+	private final long thinkTimeMsec;
+
+	private final int reportIntervalSec;
+
+	private final AtomicReference<LoadStatistics> intervalStats = new AtomicReference<LoadStatistics>(new LoadStatistics());
+
+	private final ConcurrentMap<Integer, SliceDto> leftoverSlices = new ConcurrentHashMap<Integer, SliceDto>();
+
+	private final AtomicLong completedLifecycles = new AtomicLong();
+
+	private final AtomicLong failedLifecycles = new AtomicLong();
+
+	private volatile boolean isStopped = false;
+
+	/**
+	 * A constructor.
+	 * @param sliceDataManager the slice data manager.
+	 * @param isMloClient true if the lifecycle for mloClient is used, otherwise the one for demoApl is used.
+	 * @param users the number of virtual users.
+	 * @param durationSec the duration of the run, or zero if the run continues until interrupted.
+	 * @param thinkTimeMsec the think time between operations.
+	 * @param reportIntervalSec the interval of live summaries.
+	 */
+	public SoakRunner(SliceDataManager sliceDataManager, boolean isMloClient, int users,
+			int durationSec, long thinkTimeMsec, int reportIntervalSec) {
+		if (users <= 0 || durationSec < 0 || thinkTimeMsec < 0 || reportIntervalSec <= 0) {
+			throw new IllegalArgumentException(String.format(
+					"Invalid soak settings: users=%d, duration=%d, thinkTime=%d, reportInterval=%d",
+					users, durationSec, thinkTimeMsec, reportIntervalSec));
+		}
+		this.sliceDataManager = sliceDataManager;
+		this.isMloClient = isMloClient;
+		this.users = users;
+		this.durationSec = durationSec;
+		this.thinkTimeMsec = thinkTimeMsec;
+		this.reportIntervalSec = reportIntervalSec;
+	}
+
+	/**
+	 * Runs virtual users until the duration elapses or the calling thread is interrupted.
+	 * Leftover slices are deleted before this method returns.
+	 * If interrupted, the interrupted status of the calling thread is set again upon return.
+	 */
+	public void run() {
+		LOG.info(String.format("Soak started: users=%d, duration=%ds, thinkTime=%dms",
+				users, durationSec, thinkTimeMsec));
+		ExecutorService userService = Executors.newFixedThreadPool(users);
+		ObjectName objectName = JmxExporter.registerExecutor("SoakRunner.users", userService);
+		ScheduledExecutorService reportService = Executors.newSingleThreadScheduledExecutor();
+		intervalStats.set(new LoadStatistics());
+		reportService.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				reportInterval();
+			}
+		}, reportIntervalSec, reportIntervalSec, TimeUnit.SECONDS);
+
+		for (int idx = 0; idx < users; idx += 1) {
+			final int userNo = idx + 1;
+			userService.execute(new Runnable() {
+				@Override
+				public void run() {
+					runUser(userNo);
+				}
+			});
+		}
+
+		boolean isInterrupted = false;
+		try {
+			if (durationSec > 0) {
+				Thread.sleep(TimeUnit.SECONDS.toMillis(durationSec));
+			} else {
+				while (!userService.awaitTermination(reportIntervalSec, TimeUnit.SECONDS)) {
+					continue;
+				}
+			}
+		} catch (InterruptedException e) {
+			isInterrupted = true;
+		}
+
+		isStopped = true;
+		JmxExporter.unregister(objectName);
+		userService.shutdownNow();
+		reportService.shutdownNow();
+		try {
+			if (!userService.awaitTermination(USER_SHUTDOWN_AWAIT_TIMEOUT_SEC, TimeUnit.SECONDS)) {
+				LOG.warn("Some virtual users have not stopped.");
+			}
+		} catch (InterruptedException e) {
+			isInterrupted = true;
+		}
+		reportInterval();
+		deleteLeftoverSlices();
+		LOG.info(String.format("Soak ended: lifecycles=%d, failed=%d",
+				completedLifecycles.get(), failedLifecycles.get()));
+		if (isInterrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Obtains the number of lifecycles completed successfully.
+	 * @return the count.
+	 */
+	public long getCompletedLifecycles() {
+		return completedLifecycles.get();
+	}
+
+	/**
+	 * Obtains the number of failed lifecycles.
+	 * @return the count.
+	 */
+	public long getFailedLifecycles() {
+		return failedLifecycles.get();
+	}
+
+	/**
+	 * Obtains the number of slices which have been created but not deleted.
+	 * @return the count.
+	 */
+	public int getLeftoverSliceCount() {
+		return leftoverSlices.size();
+	}
+
+	private void runUser(int userNo) {
+		long iteration = 0L;
+		while (!isStopped && !Thread.currentThread().isInterrupted()) {
+			String sliceName = String.format("slice%d%06d", userNo, iteration);
+			long startNanos = System.nanoTime();
+			boolean isSucceeded = false;
+			try {
+				runLifecycle(sliceName);
+				isSucceeded = true;
+				completedLifecycles.incrementAndGet();
+			} catch (MloClientException | RuntimeException e) {
+				failedLifecycles.incrementAndGet();
+				LOG.warn("Lifecycle failed: " + sliceName + ": " + e.getMessage());
+				LOG.debug("Lifecycle failed.", e);
+				if (!think()) {
+					break;
+				}
+			} catch (InterruptedException e) {
+				break;
+			} finally {
+				intervalStats.get().record(OP_LIFECYCLE, System.nanoTime() - startNanos, isSucceeded);
+			}
+			iteration += 1;
+		}
+	}
+
+	private void runLifecycle(String sliceName) throws MloClientException, InterruptedException {
+		SliceDto reqCreate = isMloClient ? RequestorServiceImpl.createMloClientDto(sliceName)
+				: RequestorServiceImpl.createDemoAplDto(sliceName);
+		SliceDto created = invoke(LoadStatistics.OP_CREATE, reqCreate);
+		if (created.id != null) {
+			leftoverSlices.put(created.id, RequestorServiceImpl.deleteDto(created));
+		}
+		if (!think()) {
+			throw new InterruptedException();
+		}
+		SliceDto read = execute(LoadStatistics.OP_READ, RequestorServiceImpl.readDto(created));
+		SliceDto updated = execute(LoadStatistics.OP_UPDATE, isMloClient ? RequestorServiceImpl.updateAddMloClientDto(read)
+				: RequestorServiceImpl.updateAddDemoAplDto(read));
+		read = execute(LoadStatistics.OP_READ, RequestorServiceImpl.readDto(updated));
+		updated = execute(LoadStatistics.OP_UPDATE, isMloClient ? RequestorServiceImpl.updateModMloClientDto(read)
+				: RequestorServiceImpl.updateModDemoAplDto(read));
+		read = execute(LoadStatistics.OP_READ, RequestorServiceImpl.readDto(updated));
+		updated = execute(LoadStatistics.OP_UPDATE, RequestorServiceImpl.updateDelDto(read));
+		read = execute(LoadStatistics.OP_READ, RequestorServiceImpl.readDto(updated));
+		invoke(LoadStatistics.OP_DELETE, RequestorServiceImpl.deleteDto(read));
+		// Forgets the slice before the think time, which may be interrupted, so that it is not deleted twice.
+		leftoverSlices.remove(created.id);
+		if (!think()) {
+			throw new InterruptedException();
+		}
+	}
+
+	/**
+	 * Executes an operation, and waits for the think time.
+	 * @param operation the operation name.
+	 * @param reqSlice the requested slice.
+	 * @return the response slice.
+	 * @throws MloClientException Failed.
+	 * @throws InterruptedException Interrupted during the think time.
+	 */
+	private SliceDto execute(String operation, SliceDto reqSlice) throws MloClientException, InterruptedException {
+		SliceDto resSlice = invoke(operation, reqSlice);
+		if (!think()) {
+			throw new InterruptedException();
+		}
+		return resSlice;
+	}
+
+	/**
+	 * Executes an operation, and records its latency.
+	 * @param operation the operation name.
+	 * @param reqSlice the requested slice.
+	 * @return the response slice.
+	 * @throws MloClientException Failed.
+	 */
+	private SliceDto invoke(String operation, SliceDto reqSlice) throws MloClientException {
+		long startNanos = System.nanoTime();
+		boolean isSucceeded = false;
+		SliceDto resSlice = null;
+		try {
+			switch (operation) {
+			case LoadStatistics.OP_CREATE:
+				resSlice = sliceDataManager.createSliceInfo(reqSlice);
+				break;
+			case LoadStatistics.OP_READ:
+				resSlice = sliceDataManager.getSliceInfo(reqSlice);
+				break;
+			case LoadStatistics.OP_UPDATE:
+				resSlice = sliceDataManager.updateSliceInfo(reqSlice);
+				break;
+			case LoadStatistics.OP_DELETE:
+				resSlice = sliceDataManager.deleteSliceInfo(reqSlice);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown operation: " + operation);
+			}
+			if (resSlice == null) {
+				throw new IllegalStateException("Empty response: " + operation);
+			}
+			isSucceeded = true;
+		} finally {
+			intervalStats.get().record(operation, System.nanoTime() - startNanos, isSucceeded);
+		}
+		return resSlice;
+	}
+
+	/**
+	 * Waits for the think time.
+	 * @return false if interrupted.
+	 */
+	private boolean think() {
+		if (thinkTimeMsec <= 0) {
+			return !Thread.currentThread().isInterrupted();
+		}
+		try {
+			Thread.sleep(thinkTimeMsec);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * Logs the summary of the current interval, and starts the next interval.
+	 */
+	void reportInterval() {
+		LoadStatistics stats = intervalStats.getAndSet(new LoadStatistics());
+		stats.stop();
+		double elapsedSec = stats.getElapsedNanos() / NSEC_PER_SEC;
+		List<String> items = new ArrayList<String>();
+		for (String operation : stats.getOperations()) {
+			LoadStatistics.OperationStats opStats = stats.getOperationStats(operation);
+			LatencyHistogram histogram = opStats.getHistogram();
+			items.add(String.format(Locale.US, "%s %.1f/s err=%d p50=%.1fms p99=%.1fms",
+					operation, (elapsedSec <= 0.0) ? 0.0 : opStats.getCount() / elapsedSec, opStats.getErrorCount(),
+					histogram.getValueAtPercentile(P50) / USEC_PER_MSEC,
+					histogram.getValueAtPercentile(P99) / USEC_PER_MSEC));
+		}
+		LOG.info(String.format(Locale.US, "[soak %.1fs] %s", elapsedSec, items.isEmpty() ? "no operations" : items));
+	}
+
+	private void deleteLeftoverSlices() {
+		if (leftoverSlices.isEmpty()) {
+			return;
+		}
+		LOG.info("Deleting leftover slices: " + leftoverSlices.keySet());
+		for (SliceDto reqSlice : new ArrayList<SliceDto>(leftoverSlices.values())) {
+			try {
+				sliceDataManager.deleteSliceInfo(reqSlice);
+				leftoverSlices.remove(reqSlice.id);
+			} catch (MloClientException | RuntimeException e) {
+				LOG.warn("Failed to delete leftover slice: " + reqSlice.id, e);
+			}
+		}
+	}
+}
@@ -0,0 +1,190 @@
+/**
+ * TransportStatistics.java
+ * (C) 2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.o3project.mlo.client.control.MloAccessException;
+
+/**
+ * This class holds statistics of requests to mlo-srv, which are recorded by {@link MeteredMloInvoker}.
+ * <p>
+ * Responses are counted by the HTTP status code. Since invokers report only error status codes,
+ * successful responses are counted as {@value #STATUS_SUCCESS}.
+ * Failures without a response are counted as connect timeouts, read timeouts or other I/O errors.
+ * </p>
+ * This class is thread-safe.
+ */
+public class TransportStatistics {
+
+	/** The status key of successful responses. */
+	public static final String STATUS_SUCCESS = "2xx";
+
+	private static final String CONNECT_TIMEOUT_MESSAGE = "connect";
+
+	private final AtomicLong requestCount = new AtomicLong();
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private final AtomicLong bytesOut = new AtomicLong();
+
+	private final AtomicLong bytesIn = new AtomicLong();
+
+	private final AtomicLong connectTimeoutCount = new AtomicLong();
+
+	private final AtomicLong readTimeoutCount = new AtomicLong();
+
+	private final AtomicLong ioErrorCount = new AtomicLong();
+
+	private final ConcurrentMap<String, AtomicLong> statusCounts = new ConcurrentHashMap<String, AtomicLong>();
+
+	/**
+	 * Records the start of a request.
+	 */
+	void startRequest() {
+		requestCount.incrementAndGet();
+		inFlight.incrementAndGet();
+	}
+
+	/**
+	 * Records the end of a request.
+	 */
+	void endRequest() {
+		inFlight.decrementAndGet();
+	}
+
+	/**
+	 * Records a successful response.
+	 */
+	void recordSuccess() {
+		incrementStatus(STATUS_SUCCESS);
+	}
+
+	/**
+	 * Records a failed request.
+	 * @param e the exception thrown by the invoker.
+	 */
+	void recordFailure(MloAccessException e) {
+		int statusCode = MloInvokerImpl.getStatusCode(e);
+		Throwable cause = e.getCause();
+		if (statusCode >= 0) {
+			incrementStatus(Integer.toString(statusCode));
+		} else if (cause instanceof SocketTimeoutException) {
+			// The message of JDK is "connect timed out" or "Read timed out".
+			String message = cause.getMessage();
+			if (message != null && message.toLowerCase(Locale.US).contains(CONNECT_TIMEOUT_MESSAGE)) {
+				connectTimeoutCount.incrementAndGet();
+			} else {
+				readTimeoutCount.incrementAndGet();
+			}
+		} else if (cause instanceof IOException) {
+			ioErrorCount.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Adds the number of bytes of request bodies.
+	 * @param nBytes the number of bytes.
+	 */
+	void addBytesOut(long nBytes) {
+		bytesOut.addAndGet(nBytes);
+	}
+
+	/**
+	 * Adds the number of bytes of response bodies.
+	 * @param nBytes the number of bytes.
+	 */
+	void addBytesIn(long nBytes) {
+		bytesIn.addAndGet(nBytes);
+	}
+
+	/**
+	 * Obtains the number of requests, including those in flight.
+	 * @return the count.
+	 */
+	public long getRequestCount() {
+		return requestCount.get();
+	}
+
+	/**
+	 * Obtains the number of requests in flight.
+	 * @return the count.
+	 */
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	/**
+	 * Obtains the number of bytes of request bodies.
+	 * @return the number of bytes.
+	 */
+	public long getBytesOut() {
+		return bytesOut.get();
+	}
+
+	/**
+	 * Obtains the number of bytes of response bodies read by methods.
+	 * @return the number of bytes.
+	 */
+	public long getBytesIn() {
+		return bytesIn.get();
+	}
+
+	/**
+	 * Obtains the number of connect timeouts.
+	 * @return the count.
+	 */
+	public long getConnectTimeoutCount() {
+		return connectTimeoutCount.get();
+	}
+
+	/**
+	 * Obtains the number of read timeouts.
+	 * @return the count.
+	 */
+	public long getReadTimeoutCount() {
+		return readTimeoutCount.get();
+	}
+
+	/**
+	 * Obtains the number of I/O errors other than timeouts, e.g. connection refused.
+	 * @return the count.
+	 */
+	public long getIoErrorCount() {
+		return ioErrorCount.get();
+	}
+
+	/**
+	 * Obtains the number of responses by status code.
+	 * @return the counts keyed by the status code or {@value #STATUS_SUCCESS}, in the key order.
+	 */
+	public Map<String, Long> getStatusCounts() {
+		Map<String, Long> counts = new TreeMap<String, Long>();
+		for (Map.Entry<String, AtomicLong> entry : statusCounts.entrySet()) {
+			counts.put(entry.getKey(), entry.getValue().get());
+		}
+		return counts;
+	}
+
+	private void incrementStatus(String status) {
+		AtomicLong count = statusCounts.get(status);
+		if (count == null) {
+			AtomicLong newCount = new AtomicLong();
+			count = statusCounts.putIfAbsent(status, newCount);
+			if (count == null) {
+				count = newCount;
+			}
+		}
+		count.incrementAndGet();
+	}
+}
@@ -515,6 +515,14 @@ public class FlowPanel extends TitledPane {
         return selectType;
     }
 
+    /**
+     * Obtains the displayed flow DTO.
+     * @return the flow DTO, or null if the flow is new.
+     */
+    public FlowDto getTargetFlowDto() {
+        return targetFlowDto;
+    }
+
     /**
      * Sets common table (only for debugging).
      * @param table the common table.
@@ -0,0 +1,91 @@
+package org.o3project.mlo.client.impl.control;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+	@Test
+	public void testAcquire_fixed() throws Exception {
+		final AdaptiveConcurrencyLimiter obj = AdaptiveConcurrencyLimiter.createFixed(2);
+		long token1 = obj.acquire();
+		obj.acquire();
+
+		final CountDownLatch acquired = new CountDownLatch(1);
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					obj.acquire();
+					acquired.countDown();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		thread.start();
+		assertFalse(acquired.await(100L, TimeUnit.MILLISECONDS));
+
+		obj.release(token1, true);
+		assertTrue(acquired.await(1L, TimeUnit.SECONDS));
+		thread.join();
+		// The fixed limit is not adapted.
+		assertEquals(2, obj.getLimit());
+		assertEquals(1, obj.getLimitHistory().size());
+	}
+
+	@Test
+	public void testRelease_additiveIncrease() throws Exception {
+		AdaptiveConcurrencyLimiter obj = new AdaptiveConcurrencyLimiter(2, 1, 3, Integer.MAX_VALUE);
+		for (int idx = 0; idx < 10; idx += 1) {
+			obj.release(obj.acquire(), false);
+		}
+		assertEquals(3, obj.getLimit());
+		assertEquals(3, obj.getMaxObservedLimit());
+
+		List<AdaptiveConcurrencyLimiter.LimitSample> history = obj.getLimitHistory();
+		assertEquals(2, history.size());
+		assertEquals(2, history.get(0).getLimit());
+		assertEquals(3, history.get(1).getLimit());
+		assertTrue(obj.getSummary().startsWith("Concurrency limit: last=3, max=3, history[msec:limit]=0:2, "));
+	}
+
+	@Test
+	public void testRelease_multiplicativeDecrease() throws Exception {
+		AdaptiveConcurrencyLimiter obj = new AdaptiveConcurrencyLimiter(20, 1, 100, Integer.MAX_VALUE);
+		long token1 = obj.acquire();
+		long token2 = obj.acquire();
+		Thread.sleep(1L);
+
+		obj.release(token1, true);
+		assertEquals(18, obj.getLimit());
+		// A request started before the decrease does not decrease the limit again.
+		obj.release(token2, true);
+		assertEquals(18, obj.getLimit());
+
+		obj.release(obj.acquire(), true);
+		assertEquals(16, obj.getLimit());
+		assertEquals(20, obj.getMaxObservedLimit());
+	}
+
+	@Test
+	public void testRelease_minLimit() throws Exception {
+		AdaptiveConcurrencyLimiter obj = new AdaptiveConcurrencyLimiter(2, 1, 10, Integer.MAX_VALUE);
+		for (int idx = 0; idx < 10; idx += 1) {
+			long token = obj.acquire();
+			Thread.sleep(1L);
+			obj.release(token, true);
+		}
+		assertEquals(1, obj.getLimit());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_illegalLimits() {
+		new AdaptiveConcurrencyLimiter(1, 2, 1, 100);
+	}
+}
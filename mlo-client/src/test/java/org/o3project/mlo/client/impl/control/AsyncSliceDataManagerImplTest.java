@@ -0,0 +1,276 @@
+package org.o3project.mlo.client.impl.control;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.o3project.mlo.client.control.MloAccessException;
+import org.o3project.mlo.client.control.MloCallback;
+import org.o3project.mlo.client.control.MloFuture;
+import org.o3project.mlo.client.control.MloNbiException;
+
+import org.o3project.mlo.server.dto.SliceDto;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class AsyncSliceDataManagerImplTest {
+
+	private static final String CONFIG_PATH = "src/test/resources/org/o3project/mlo/client/control/data";
+	private static final String CONFIG_FILE_001 = "client.config.001.properties";
+	private static final String DATA_PATH = "src/test/resources/org/o3project/mlo/client/control/data/base";
+	private static final String ERROR_RES_XML =
+			"<?xml version=\"1.0\" encoding=\"UTF-8\"?><rootTag><Error><Cause>BadRequest</Cause></Error></rootTag>";
+
+	private HttpServer server;
+	private ExecutorService serverExecutor;
+	private AsyncMloInvokerImpl asyncInvoker;
+	private AsyncSliceDataManagerImpl obj;
+	private volatile String baseUri;
+
+	@Before
+	public void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				String path = exchange.getRequestURI().getPath();
+				byte[] resBody = null;
+				int statusCode = 200;
+				if (path.endsWith("/slices")) {
+					resBody = readFile("list.res.xml");
+				} else if (path.endsWith("/READ")) {
+					resBody = readFile("read.res.xml");
+				} else if (path.endsWith("/CREATE")) {
+					resBody = readFile("create.res.xml");
+				} else if (path.endsWith("/UPDATE")) {
+					resBody = ERROR_RES_XML.getBytes("UTF-8");
+				} else {
+					statusCode = 503;
+					resBody = new byte[0];
+				}
+				drain(exchange.getRequestBody());
+				exchange.sendResponseHeaders(statusCode, resBody.length == 0 ? -1 : resBody.length);
+				OutputStream ostream = exchange.getResponseBody();
+				ostream.write(resBody);
+				ostream.close();
+			}
+		});
+		serverExecutor = Executors.newFixedThreadPool(16);
+		server.setExecutor(serverExecutor);
+		server.start();
+		baseUri = "http://127.0.0.1:" + server.getAddress().getPort() + "/DEMO";
+
+		File propFile = new File(CONFIG_PATH, CONFIG_FILE_001);
+		ClientConfigProviderImpl configProvider = new ClientConfigProviderImpl(propFile.getAbsolutePath());
+		ClientConfigImpl clientConfig = new ClientConfigImpl() {
+			@Override
+			public String getServerBaseUri() {
+				return baseUri;
+			}
+
+			@Override
+			public Integer getConnectionTimeoutSec() {
+				return 5;
+			}
+
+			@Override
+			public Integer getReadTimeoutSec() {
+				return 5;
+			}
+
+			@Override
+			public Integer getAsyncIoThreads() {
+				return 2;
+			}
+		};
+		clientConfig.setConfigProvider(configProvider);
+
+		MloSerdesImpl mloSerdes = new MloSerdesImpl();
+		MloGetMethodImpl mloGetMethod = new MloGetMethodImpl();
+		mloGetMethod.setClientConfig(clientConfig);
+		mloGetMethod.setMloSerdes(mloSerdes);
+		MloPostMethodImpl mloPostMethod = new MloPostMethodImpl();
+		mloPostMethod.setClientConfig(clientConfig);
+		mloPostMethod.setMloSerdes(mloSerdes);
+
+		asyncInvoker = new AsyncMloInvokerImpl();
+		asyncInvoker.setClientConfig(clientConfig);
+		asyncInvoker.init();
+
+		obj = new AsyncSliceDataManagerImpl();
+		obj.setClientConfig(clientConfig);
+		obj.setMloGetMethod(mloGetMethod);
+		obj.setMloPostMethod(mloPostMethod);
+		obj.setAsyncMloInvoker(asyncInvoker);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		asyncInvoker.destroy();
+		server.stop(0);
+		serverExecutor.shutdownNow();
+	}
+
+	@Test
+	public void testGetSliceListAsync() throws Exception {
+		List<SliceDto> slices = obj.getSliceListAsync().get(10, TimeUnit.SECONDS);
+		assertEquals(3, slices.size());
+		assertEquals("sliceA", slices.get(0).name);
+	}
+
+	@Test
+	public void testGetSliceInfoAsync() throws Exception {
+		SliceDto slice = obj.getSliceInfoAsync(createSlice(1)).get(10, TimeUnit.SECONDS);
+		assertEquals("sliceA", slice.name);
+		assertEquals(Integer.valueOf(1), slice.id);
+	}
+
+	@Test
+	public void testUpdateSliceInfoAsync_errorResponse() throws Exception {
+		try {
+			obj.updateSliceInfoAsync(createSlice(1)).get(10, TimeUnit.SECONDS);
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof MloNbiException);
+			assertEquals("An error response from the MLO-SERVER : updateSliceInfo", e.getCause().getMessage());
+		}
+	}
+
+	@Test
+	public void testDeleteSliceInfoAsync_errorStatus() throws Exception {
+		try {
+			obj.deleteSliceInfoAsync(createSlice(1)).get(10, TimeUnit.SECONDS);
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof MloAccessException);
+			assertEquals("MloServerAccessError/503", e.getCause().getMessage());
+		}
+	}
+
+	@Test
+	public void testCreateSliceInfoAsync_manyInFlight() throws Exception {
+		final int count = 200;
+		final CountDownLatch latch = new CountDownLatch(count);
+		final List<Throwable> failures = new ArrayList<Throwable>();
+		List<MloFuture<SliceDto>> futures = new ArrayList<MloFuture<SliceDto>>();
+		for (int idx = 0; idx < count; idx++) {
+			MloFuture<SliceDto> future = obj.createSliceInfoAsync(createSlice(idx));
+			future.addCallback(new MloCallback<SliceDto>() {
+				@Override
+				public void completed(SliceDto result) {
+					latch.countDown();
+				}
+
+				@Override
+				public void failed(Throwable cause) {
+					synchronized (failures) {
+						failures.add(cause);
+					}
+					latch.countDown();
+				}
+			});
+			futures.add(future);
+		}
+		assertTrue(latch.await(30, TimeUnit.SECONDS));
+		assertEquals(0, failures.size());
+		for (MloFuture<SliceDto> future : futures) {
+			assertEquals("slice1", future.get().name);
+		}
+		assertEquals(0, asyncInvoker.getInFlightCount());
+	}
+
+	@Test
+	public void testInvokeAsync_serverDown() throws Exception {
+		server.stop(0);
+		try {
+			obj.getSliceListAsync().get(10, TimeUnit.SECONDS);
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof MloAccessException);
+			assertTrue(e.getCause().getMessage().startsWith("MLO-SERVER cannot be connected:"));
+		}
+	}
+
+	@Test
+	public void testInvokeAsync_https() throws Exception {
+		baseUri = "https://127.0.0.1:" + server.getAddress().getPort() + "/DEMO";
+		try {
+			obj.getSliceListAsync().get(10, TimeUnit.SECONDS);
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof MloAccessException);
+			assertTrue(e.getCause().getMessage().startsWith("The asynchronous invoker supports only http"));
+		}
+		assertEquals(0, asyncInvoker.getInFlightCount());
+	}
+
+	@Test
+	public void testInvokeAsync_cancel() throws Exception {
+		try (ServerSocket silentServer = new ServerSocket(0, 0, InetAddress.getByName("127.0.0.1"))) {
+			baseUri = "http://127.0.0.1:" + silentServer.getLocalPort() + "/DEMO";
+			MloFuture<List<SliceDto>> future = obj.getSliceListAsync();
+			try (Socket socket = silentServer.accept()) {
+				assertTrue(future.cancel(true));
+				assertTrue(future.isCancelled());
+				// The request is followed by the end of stream, because the client has closed the connection.
+				socket.setSoTimeout(10000);
+				drain(socket.getInputStream());
+			}
+			assertEquals(0, asyncInvoker.getInFlightCount());
+		}
+	}
+
+	@Test
+	public void testParseResponse_chunked() throws Exception {
+		String raw = "HTTP/1.1 100 Continue\r\n\r\n"
+				+ "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n"
+				+ "5\r\nhello\r\n6;ext=1\r\n world\r\n0\r\n\r\n";
+		MloAsyncHttpClient.Response response = MloAsyncHttpClient.parseResponse(raw.getBytes("ISO-8859-1"));
+		assertEquals(200, response.getStatusCode());
+		assertEquals("hello world", new String(response.getBody(), "ISO-8859-1"));
+	}
+
+	private static SliceDto createSlice(int id) {
+		SliceDto slice = new SliceDto();
+		slice.id = id;
+		slice.name = "slice" + id;
+		return slice;
+	}
+
+	private static byte[] readFile(String fileName) throws IOException {
+		try (InputStream istream = new FileInputStream(new File(DATA_PATH, fileName))) {
+			return drain(istream);
+		}
+	}
+
+	private static byte[] drain(InputStream istream) throws IOException {
+		ByteArrayOutputStream ostream = new ByteArrayOutputStream();
+		byte[] buf = new byte[1024];
+		int len = 0;
+		while ((len = istream.read(buf)) >= 0) {
+			ostream.write(buf, 0, len);
+		}
+		return ostream.toByteArray();
+	}
+}
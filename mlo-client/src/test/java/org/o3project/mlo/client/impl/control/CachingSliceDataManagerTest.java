@@ -0,0 +1,233 @@
+package org.o3project.mlo.client.impl.control;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.o3project.mlo.client.control.MloAccessException;
+import org.o3project.mlo.client.control.MloClientException;
+import org.o3project.mlo.client.control.SliceBatchResult;
+import org.o3project.mlo.client.control.SliceDataManager;
+import org.o3project.mlo.client.control.SliceHandler;
+
+import org.o3project.mlo.server.dto.FlowDto;
+import org.o3project.mlo.server.dto.SliceDto;
+
+public class CachingSliceDataManagerTest {
+
+	/**
+	 * Counts requests, and responds with slices which have one flow.
+	 */
+	private static class CountingSliceDataManager implements SliceDataManager {
+		private final List<SliceDto> slices = new ArrayList<SliceDto>();
+		private int nextId = 1;
+		private int listCount = 0;
+		private int readCount = 0;
+		private boolean isFailed = false;
+
+		@Override
+		public List<SliceDto> getSliceList() throws MloClientException {
+			listCount += 1;
+			checkFailed();
+			List<SliceDto> resSlices = new ArrayList<SliceDto>();
+			for (SliceDto slice : slices) {
+				SliceDto resSlice = new SliceDto();
+				resSlice.id = slice.id;
+				resSlice.name = slice.name;
+				resSlices.add(resSlice);
+			}
+			// An empty list is unmarshalled as null.
+			return resSlices.isEmpty() ? null : resSlices;
+		}
+
+		@Override
+		public void forEachSlice(SliceHandler handler) throws MloClientException {
+			List<SliceDto> resSlices = getSliceList();
+			if (resSlices != null) {
+				for (SliceDto slice : resSlices) {
+					handler.handleSlice(slice);
+				}
+			}
+		}
+
+		@Override
+		public SliceDto getSliceInfo(SliceDto slice) throws MloClientException {
+			readCount += 1;
+			checkFailed();
+			SliceDto resSlice = new SliceDto();
+			resSlice.id = slice.id;
+			resSlice.name = "slice" + slice.id;
+			resSlice.flows = new ArrayList<FlowDto>();
+			FlowDto flow = new FlowDto();
+			flow.id = slice.id;
+			flow.reqBandWidth = readCount;
+			resSlice.flows.add(flow);
+			return resSlice;
+		}
+
+		@Override
+		public SliceDto createSliceInfo(SliceDto slice) throws MloClientException {
+			checkFailed();
+			SliceDto resSlice = new SliceDto();
+			resSlice.id = nextId++;
+			resSlice.name = slice.name;
+			slices.add(resSlice);
+			return resSlice;
+		}
+
+		@Override
+		public SliceDto updateSliceInfo(SliceDto slice) throws MloClientException {
+			checkFailed();
+			return slice;
+		}
+
+		@Override
+		public SliceDto deleteSliceInfo(SliceDto slice) throws MloClientException {
+			checkFailed();
+			for (SliceDto stored : slices) {
+				if (stored.id.equals(slice.id)) {
+					slices.remove(stored);
+					break;
+				}
+			}
+			return slice;
+		}
+
+		@Override
+		public List<SliceBatchResult> createSliceInfos(List<SliceDto> slices, int parallelism) throws InterruptedException {
+			return SliceBatchExecutor.execute(this, SliceBatchExecutor.CREATE, slices, parallelism);
+		}
+
+		@Override
+		public List<SliceBatchResult> updateSliceInfos(List<SliceDto> slices, int parallelism) throws InterruptedException {
+			return SliceBatchExecutor.execute(this, SliceBatchExecutor.UPDATE, slices, parallelism);
+		}
+
+		@Override
+		public List<SliceBatchResult> deleteSliceInfos(List<SliceDto> slices, int parallelism) throws InterruptedException {
+			return SliceBatchExecutor.execute(this, SliceBatchExecutor.DELETE, slices, parallelism);
+		}
+
+		private void checkFailed() throws MloClientException {
+			if (isFailed) {
+				throw new MloAccessException("MloServerAccessError/500");
+			}
+		}
+	}
+
+	private CountingSliceDataManager target;
+
+	private CachingSliceDataManager obj;
+
+	@Before
+	public void setUp() throws Exception {
+		target = new CountingSliceDataManager();
+		obj = new CachingSliceDataManager();
+		obj.setSliceDataManager(target);
+		obj.setCacheParameters(2, 60000L);
+	}
+
+	private SliceDto createReq(Integer id) {
+		SliceDto slice = new SliceDto();
+		slice.id = id;
+		return slice;
+	}
+
+	@Test
+	public void testGetSliceInfo_hit() throws Exception {
+		SliceDto read1 = obj.getSliceInfo(createReq(1));
+		read1.flows.get(0).reqBandWidth = 100;
+		SliceDto read2 = obj.getSliceInfo(createReq(1));
+		assertEquals(1, target.readCount);
+		// The cached slice is not modified by the caller.
+		assertEquals(Integer.valueOf(1), read2.flows.get(0).reqBandWidth);
+		assertEquals(1L, obj.getHitCount());
+		assertEquals(1L, obj.getMissCount());
+	}
+
+	@Test
+	public void testGetSliceInfo_lru() throws Exception {
+		obj.getSliceInfo(createReq(1));
+		obj.getSliceInfo(createReq(2));
+		obj.getSliceInfo(createReq(1));
+		obj.getSliceInfo(createReq(3));
+		assertEquals(2, obj.getCachedSliceCount());
+		assertEquals(1L, obj.getEvictionCount());
+
+		// Slice 2 is least recently used.
+		obj.getSliceInfo(createReq(1));
+		assertEquals(3, target.readCount);
+		obj.getSliceInfo(createReq(2));
+		assertEquals(4, target.readCount);
+	}
+
+	@Test
+	public void testGetSliceInfo_ttl() throws Exception {
+		obj.setCacheParameters(2, 100L);
+		obj.getSliceInfo(createReq(1));
+		Thread.sleep(200L);
+		obj.getSliceInfo(createReq(1));
+		assertEquals(2, target.readCount);
+		assertEquals(1L, obj.getEvictionCount());
+	}
+
+	@Test
+	public void testWriteThrough() throws Exception {
+		SliceDto reqSlice = new SliceDto();
+		reqSlice.name = "sliceA";
+		obj.createSliceInfo(reqSlice);
+		assertEquals(1, obj.getSliceList().size());
+
+		reqSlice.name = "sliceB";
+		SliceDto created = obj.createSliceInfo(reqSlice);
+		List<SliceDto> list = obj.getSliceList();
+		assertEquals(2, list.size());
+		assertEquals("sliceB", list.get(1).name);
+		assertEquals(1, target.listCount);
+
+		obj.getSliceInfo(createReq(created.id));
+		obj.updateSliceInfo(createReq(created.id));
+		obj.getSliceInfo(createReq(created.id));
+		assertEquals(2, target.readCount);
+
+		obj.deleteSliceInfo(createReq(created.id));
+		assertEquals(1, obj.getSliceList().size());
+		assertEquals(1, target.listCount);
+		assertEquals(0, obj.getCachedSliceCount());
+	}
+
+	@Test
+	public void testWriteThrough_emptyList() throws Exception {
+		assertNull(obj.getSliceList());
+
+		SliceDto reqSlice = new SliceDto();
+		reqSlice.name = "sliceA";
+		obj.createSliceInfo(reqSlice);
+		// The created slice is added to the cached empty list.
+		List<SliceDto> list = obj.getSliceList();
+		assertEquals(1, list.size());
+		assertEquals("sliceA", list.get(0).name);
+		assertEquals(1, target.listCount);
+	}
+
+	@Test
+	public void testInvalidateOnError() throws Exception {
+		obj.getSliceList();
+		obj.getSliceInfo(createReq(1));
+		target.isFailed = true;
+		try {
+			obj.updateSliceInfo(createReq(1));
+			fail();
+		} catch (MloAccessException e) {
+			assertEquals("MloServerAccessError/500", e.getMessage());
+		}
+		target.isFailed = false;
+		obj.getSliceList();
+		obj.getSliceInfo(createReq(1));
+		assertEquals(2, target.listCount);
+		assertEquals(2, target.readCount);
+	}
+}
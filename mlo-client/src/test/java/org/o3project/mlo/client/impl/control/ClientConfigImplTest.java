@@ -7,12 +7,19 @@ package org.o3project.mlo.client.impl.control;
 import static org.junit.Assert.*;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.o3project.mlo.server.logic.ConfigProvider;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.o3project.mlo.client.control.ClientConfig;
+import org.o3project.mlo.client.control.ClientConfigListener;
 import org.o3project.mlo.client.impl.control.ClientConfigImpl;
 import org.o3project.mlo.client.impl.control.ClientConfigProviderImpl;
 
@@ -110,4 +117,70 @@ public class ClientConfigImplTest {
 		String expected = "clientMlo";
 		assertEquals(expected, actual);
 	}
+
+	/**
+	 * Test method for {@link ClientConfigImpl#reload()}.
+	 */
+	@Test
+	public void testReload() throws Exception {
+		File propFile = File.createTempFile("mlo-client", ".properties");
+		try {
+			storeBaseUri(propFile, "http://127.0.0.1:8080/A");
+			ClientConfigImpl config = new ClientConfigImpl();
+			config.setConfigProvider(new ClientConfigProviderImpl(propFile.getAbsolutePath()));
+			final String[] reloadedUri = new String[1];
+			config.addClientConfigListener(new ClientConfigListener() {
+				@Override
+				public void configReloaded(ClientConfig clientConfig) {
+					reloadedUri[0] = clientConfig.getServerBaseUri();
+				}
+			});
+			assertEquals("http://127.0.0.1:8080/A", config.getServerBaseUri());
+			
+			storeBaseUri(propFile, "http://127.0.0.1:8080/B");
+			config.reload();
+			assertEquals("http://127.0.0.1:8080/B", config.getServerBaseUri());
+			assertEquals("http://127.0.0.1:8080/B", reloadedUri[0]);
+		} finally {
+			propFile.delete();
+		}
+	}
+	
+	/**
+	 * Test method for {@link ClientConfigImpl#init()}.
+	 */
+	@Test
+	public void testInit_watch() throws Exception {
+		File propFile = File.createTempFile("mlo-client", ".properties");
+		ClientConfigImpl config = new ClientConfigImpl();
+		try {
+			storeBaseUri(propFile, "http://127.0.0.1:8080/A");
+			config.setConfigProvider(new ClientConfigProviderImpl(propFile.getAbsolutePath()));
+			final CountDownLatch reloaded = new CountDownLatch(1);
+			config.addClientConfigListener(new ClientConfigListener() {
+				@Override
+				public void configReloaded(ClientConfig clientConfig) {
+					reloaded.countDown();
+				}
+			});
+			config.init();
+			assertEquals("http://127.0.0.1:8080/A", config.getServerBaseUri());
+			
+			storeBaseUri(propFile, "http://127.0.0.1:8080/B");
+			assertTrue(reloaded.await(30, TimeUnit.SECONDS));
+			assertEquals("http://127.0.0.1:8080/B", config.getServerBaseUri());
+		} finally {
+			config.destroy();
+			propFile.delete();
+		}
+	}
+	
+	private static void storeBaseUri(File propFile, String baseUri) throws Exception {
+		Properties props = new Properties();
+		props.setProperty("mlo.client.config.server.baseUri", baseUri);
+		props.setProperty("mlo.client.config.config.watch.flag", "true");
+		try (OutputStream ostream = new FileOutputStream(propFile)) {
+			props.store(ostream, null);
+		}
+	}
 }
@@ -6,7 +6,11 @@ package org.o3project.mlo.client.impl.control;
 
 import static org.junit.Assert.*;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
 import java.util.Map;
+import java.util.Properties;
 
 
 import org.junit.After;
@@ -191,4 +195,39 @@ public class ClientConfigProviderImplTest implements ClientConfigConstants {
 		assertTrue(map.size() == 0);
 	
 	}
+
+	/**
+	 * Test method for {@link ClientConfigProviderImpl#reload()}.
+	 */
+	@Test
+	public void testReload() throws Exception {
+		String propKey = "mlo.client.config.test.reloadProp";
+		File propFile = File.createTempFile("mlo-client", ".properties");
+		try {
+			storeProp(propFile, propKey, "100");
+			ClientConfigProviderImpl obj = new ClientConfigProviderImpl(propFile.getAbsolutePath());
+			Map<String, String> props = obj.getProperties();
+			assertEquals(Integer.valueOf(100), obj.getIntegerProperty(propKey));
+			assertEquals(Boolean.FALSE, obj.getBooleanProperty(propKey));
+			
+			storeProp(propFile, propKey, "true");
+			assertEquals(Integer.valueOf(100), obj.getIntegerProperty(propKey));
+			obj.reload();
+			assertEquals(null, obj.getIntegerProperty(propKey));
+			assertEquals(Boolean.TRUE, obj.getBooleanProperty(propKey));
+			assertEquals("true", obj.getProperty(propKey));
+			// The snapshot obtained before reloading is not changed.
+			assertEquals("100", props.get(propKey));
+		} finally {
+			propFile.delete();
+		}
+	}
+	
+	private static void storeProp(File propFile, String key, String value) throws Exception {
+		Properties props = new Properties();
+		props.setProperty(key, value);
+		try (OutputStream ostream = new FileOutputStream(propFile)) {
+			props.store(ostream, null);
+		}
+	}
 }
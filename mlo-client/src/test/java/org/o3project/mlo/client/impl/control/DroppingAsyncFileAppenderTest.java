@@ -0,0 +1,92 @@
+package org.o3project.mlo.client.impl.control;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.PatternLayout;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DroppingAsyncFileAppenderTest {
+
+	private File logFile;
+
+	private DroppingAsyncFileAppender obj;
+
+	@Before
+	public void setUp() throws Exception {
+		logFile = File.createTempFile("mlo-client-payload", ".log");
+		obj = new DroppingAsyncFileAppender();
+		obj.setName("TEST");
+		obj.setLayout(new PatternLayout("%m%n"));
+		obj.setFile(logFile.getPath());
+		obj.setBufferSize(2);
+		obj.activateOptions();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		obj.close();
+		logFile.delete();
+	}
+
+	private static LoggingEvent createEvent(Object message) {
+		return new LoggingEvent(DroppingAsyncFileAppenderTest.class.getName(),
+				Logger.getLogger(DroppingAsyncFileAppenderTest.class), Level.INFO, message, null);
+	}
+
+	private String readLog() throws Exception {
+		return new String(Files.readAllBytes(logFile.toPath()), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testDoAppend() throws Exception {
+		obj.doAppend(createEvent("message1"));
+		obj.doAppend(createEvent("message2"));
+		obj.close();
+
+		assertEquals("message1\nmessage2\n", readLog().replace("\r\n", "\n"));
+	}
+
+	@Test
+	public void testDoAppend_dropped() throws Exception {
+		// The dispatcher cannot write while the lock of the appender is held.
+		synchronized (obj) {
+			for (int idx = 0; idx < 10; idx += 1) {
+				obj.doAppend(createEvent("message" + idx));
+			}
+			Thread.sleep(200L);
+			assertTrue(obj.getDroppedCount() >= 10 - 3);
+		}
+		obj.close();
+
+		String log = readLog();
+		assertTrue(log.contains("message0"));
+		assertFalse(log.contains("message9"));
+		assertTrue(log.contains(" logging events are dropped, because the buffer is full."));
+		assertEquals(0L, obj.getDroppedCount());
+	}
+
+	@Test
+	public void testDoAppend_renderedInDispatcher() throws Exception {
+		final String[] threadName = new String[1];
+		obj.doAppend(createEvent(new Object() {
+			@Override
+			public String toString() {
+				threadName[0] = Thread.currentThread().getName();
+				return "rendered";
+			}
+		}));
+		obj.close();
+
+		assertTrue(readLog().contains("rendered"));
+		assertEquals("DroppingAsyncFileAppender-TEST", threadName[0]);
+	}
+}
@@ -0,0 +1,166 @@
+package org.o3project.mlo.client.impl.control;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Test;
+import org.o3project.mlo.client.control.MloAccessException;
+import org.o3project.mlo.client.control.MloNbiException;
+
+import org.o3project.mlo.server.dto.FlowDto;
+import org.o3project.mlo.server.dto.SliceDto;
+
+public class DummyMloInvokerTest {
+
+	private File propFile;
+
+	@After
+	public void tearDown() throws Exception {
+		if (propFile != null) {
+			propFile.delete();
+		}
+	}
+
+	private SliceDataManagerImpl createSliceDataManager(Properties props) throws Exception {
+		props.setProperty("mlo.client.config.server.src.componentName", "mloClient");
+		propFile = File.createTempFile("mlo-client", ".properties");
+		try (OutputStream ostream = new FileOutputStream(propFile)) {
+			props.store(ostream, null);
+		}
+		ClientConfigImpl clientConfig = new ClientConfigImpl();
+		clientConfig.setConfigProvider(new ClientConfigProviderImpl(propFile.getAbsolutePath()));
+
+		DummyMloInvoker invoker = new DummyMloInvoker();
+		invoker.setClientConfig(clientConfig);
+		invoker.init();
+
+		MloSerdesImpl serdes = new MloSerdesImpl();
+		MloGetMethodImpl getMethod = new MloGetMethodImpl();
+		getMethod.setMloSerdes(serdes);
+		getMethod.setClientConfig(clientConfig);
+		MloPostMethodImpl postMethod = new MloPostMethodImpl();
+		postMethod.setMloSerdes(serdes);
+		postMethod.setClientConfig(clientConfig);
+
+		SliceDataManagerImpl sdm = new SliceDataManagerImpl();
+		sdm.setClientConfig(clientConfig);
+		sdm.setMloGetMethod(getMethod);
+		sdm.setMloPostMethod(postMethod);
+		sdm.init();
+		sdm.setMloInvoker(invoker);
+		return sdm;
+	}
+
+	private Properties createSyntheticProps(int sliceCount, int flowCount) {
+		Properties props = new Properties();
+		props.setProperty("mlo.client.config.server.dummy.synthetic.flag", "true");
+		props.setProperty("mlo.client.config.server.dummy.synthetic.sliceCount", String.valueOf(sliceCount));
+		props.setProperty("mlo.client.config.server.dummy.synthetic.flowsPerSlice", String.valueOf(flowCount));
+		return props;
+	}
+
+	@Test
+	public void testFixedResponses() throws Exception {
+		SliceDataManagerImpl sdm = createSliceDataManager(new Properties());
+
+		List<SliceDto> list1 = sdm.getSliceList();
+		assertFalse(list1.isEmpty());
+		list1.get(0).name = "modified";
+		// Responses are unmarshalled for each call.
+		List<SliceDto> list2 = sdm.getSliceList();
+		assertEquals(list1.size(), list2.size());
+		assertFalse("modified".equals(list2.get(0).name));
+	}
+
+	@Test
+	public void testSyntheticSlices() throws Exception {
+		SliceDataManagerImpl sdm = createSliceDataManager(createSyntheticProps(50, 20));
+
+		List<SliceDto> list = sdm.getSliceList();
+		assertEquals(50, list.size());
+		SliceDto reqRead = new SliceDto();
+		reqRead.id = list.get(0).id;
+		SliceDto read = sdm.getSliceInfo(reqRead);
+		assertEquals(20, read.flows.size());
+		assertNotNull(read.flows.get(0).id);
+		// The flow has the parameters of READ response.
+		assertNull(read.flows.get(0).srcCENodeName);
+		assertNotNull(read.flows.get(0).srcPTNodeName);
+		assertEquals(Integer.valueOf(20), read.flows.get(0).delayTime);
+		assertEquals(1, read.flows.get(0).linkInfoList.size());
+	}
+
+	@Test
+	public void testSyntheticLifecycle() throws Exception {
+		SliceDataManagerImpl sdm = createSliceDataManager(createSyntheticProps(1, 1));
+
+		SliceDto reqSlice = new SliceDto();
+		reqSlice.name = "sliceA";
+		reqSlice.flows = new ArrayList<FlowDto>();
+		FlowDto reqFlow = new FlowDto();
+		reqFlow.name = "flowA";
+		reqFlow.srcCENodeName = "tokyo";
+		reqFlow.srcCEPortNo = "00000001";
+		reqFlow.dstCENodeName = "osaka";
+		reqFlow.dstCEPortNo = "00000004";
+		reqFlow.reqBandWidth = 100;
+		reqFlow.reqDelay = 10;
+		reqFlow.protectionLevel = "0";
+		reqSlice.flows.add(reqFlow);
+		SliceDto created = sdm.createSliceInfo(reqSlice);
+		assertEquals(2, sdm.getSliceList().size());
+
+		SliceDto reqUpdate = new SliceDto();
+		reqUpdate.id = created.id;
+		reqUpdate.flows = new ArrayList<FlowDto>();
+		FlowDto delFlow = new FlowDto();
+		delFlow.type = "del";
+		delFlow.id = created.flows.get(0).id;
+		reqUpdate.flows.add(delFlow);
+		sdm.updateSliceInfo(reqUpdate);
+		SliceDto reqRead = new SliceDto();
+		reqRead.id = created.id;
+		assertEquals(0, sdm.getSliceInfo(reqRead).flows.size());
+
+		SliceDto reqDelete = new SliceDto();
+		reqDelete.id = created.id;
+		sdm.deleteSliceInfo(reqDelete);
+		assertEquals(1, sdm.getSliceList().size());
+		try {
+			sdm.getSliceInfo(reqRead);
+			fail();
+		} catch (MloNbiException e) {
+			assertEquals("NotFound", e.getErrorDto().cause);
+		}
+	}
+
+	@Test
+	public void testFault() throws Exception {
+		Properties props = createSyntheticProps(1, 1);
+		props.setProperty("mlo.client.config.server.dummy.faultPercent", "100");
+		SliceDataManagerImpl sdm = createSliceDataManager(props);
+		try {
+			sdm.getSliceList();
+			fail();
+		} catch (MloAccessException e) {
+			assertEquals("MloServerAccessError/500", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testLatency() throws Exception {
+		Properties props = createSyntheticProps(1, 1);
+		props.setProperty("mlo.client.config.server.dummy.latencyMsec", "200");
+		SliceDataManagerImpl sdm = createSliceDataManager(props);
+		long start = System.nanoTime();
+		sdm.getSliceList();
+		assertTrue(System.nanoTime() - start >= 200000000L);
+	}
+}
@@ -0,0 +1,115 @@
+package org.o3project.mlo.client.impl.control;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.o3project.mlo.client.control.MloAccessException;
+
+public class JmxExporterTest {
+
+	private MBeanServer mBeanServer;
+
+	private MetricsRegistry metricsRegistry;
+
+	private JmxExporter obj;
+
+	@Before
+	public void setUp() throws Exception {
+		mBeanServer = ManagementFactory.getPlatformMBeanServer();
+		metricsRegistry = new MetricsRegistry();
+		ClientConfigProviderImpl configProvider = new ClientConfigProviderImpl(null);
+		ClientConfigImpl clientConfig = new ClientConfigImpl();
+		clientConfig.setConfigProvider(configProvider);
+		obj = new JmxExporter();
+		obj.setMetricsRegistry(metricsRegistry);
+		obj.setConfigProvider(configProvider);
+		obj.setClientConfig(clientConfig);
+		obj.setMeteredInvoker(new MeteredMloInvoker());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		obj.unregister();
+	}
+
+	@Test
+	public void testRegister() throws Exception {
+		MetricsRegistry.MethodMetrics metrics = metricsRegistry.getMethodMetrics("SliceDataManager.getSliceInfo");
+		metrics.end(metrics.start(), null);
+		metrics.end(metrics.start(), new MloAccessException("MloServerAccessError/500"));
+		obj.register();
+
+		ObjectName transportName = new ObjectName(JmxExporter.DOMAIN + ":type=Transport");
+		assertEquals(0L, mBeanServer.getAttribute(transportName, "RequestCount"));
+		assertEquals(0, mBeanServer.getAttribute(transportName, "OpenConnections"));
+		assertFalse(mBeanServer.isRegistered(new ObjectName(JmxExporter.DOMAIN + ":type=Resilience")));
+
+		ObjectName sdmName = new ObjectName(JmxExporter.DOMAIN + ":type=SliceDataManager");
+		TabularData callCounts = (TabularData) mBeanServer.getAttribute(sdmName, "CallCounts");
+		CompositeData row = callCounts.get(new Object[] {"SliceDataManager.getSliceInfo"});
+		assertEquals(2L, row.get("value"));
+		TabularData errorCounts = (TabularData) mBeanServer.getAttribute(sdmName, "ErrorCounts");
+		assertNotNull(errorCounts.get(new Object[] {"SliceDataManager.getSliceInfo:MloAccessException"}));
+		assertEquals(2, ((String[]) mBeanServer.getAttribute(sdmName, "Summary")).length);
+
+		ObjectName configName = new ObjectName(JmxExporter.DOMAIN + ":type=ClientConfig");
+		TabularData properties = (TabularData) mBeanServer.getAttribute(configName, "Properties");
+		assertFalse(properties.isEmpty());
+
+		obj.unregister();
+		assertFalse(mBeanServer.isRegistered(transportName));
+		assertFalse(mBeanServer.isRegistered(sdmName));
+	}
+
+	@Test
+	public void testRegister_replaced() throws Exception {
+		obj.register();
+		JmxExporter other = new JmxExporter();
+		other.setMetricsRegistry(new MetricsRegistry());
+		other.register();
+		try {
+			ObjectName sdmName = new ObjectName(JmxExporter.DOMAIN + ":type=SliceDataManager");
+			assertTrue(mBeanServer.isRegistered(sdmName));
+		} finally {
+			other.unregister();
+		}
+	}
+
+	@Test
+	public void testRegisterExecutor() throws Exception {
+		ExecutorService execService = Executors.newFixedThreadPool(2);
+		try {
+			ObjectName objectName = JmxExporter.registerExecutor("test", execService);
+			assertNotNull(objectName);
+			assertEquals(2, mBeanServer.getAttribute(objectName, "MaximumPoolSize"));
+			assertEquals(0, mBeanServer.getAttribute(objectName, "QueueSize"));
+			JmxExporter.unregister(objectName);
+			assertFalse(mBeanServer.isRegistered(objectName));
+		} finally {
+			execService.shutdownNow();
+			execService.awaitTermination(1L, TimeUnit.SECONDS);
+		}
+	}
+
+	@Test
+	public void testRegisterExecutor_notThreadPool() throws Exception {
+		ExecutorService execService = Executors.newSingleThreadExecutor();
+		try {
+			assertNull(JmxExporter.registerExecutor("test", execService));
+		} finally {
+			execService.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package org.o3project.mlo.client.impl.control;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void testIndexOf_boundaries() {
+		long prevLowest = -1L;
+		for (int idx = 0; idx < 2000; idx += 1) {
+			long lowest = LatencyHistogram.lowestEquivalentValue(idx);
+			long highest = LatencyHistogram.highestEquivalentValue(idx);
+			assertTrue(lowest > prevLowest);
+			assertEquals(idx, LatencyHistogram.indexOf(lowest));
+			assertEquals(idx, LatencyHistogram.indexOf(highest));
+			assertEquals(idx + 1, LatencyHistogram.indexOf(highest + 1));
+			prevLowest = lowest;
+		}
+	}
+
+	@Test
+	public void testGetValueAtPercentile() {
+		LatencyHistogram obj = new LatencyHistogram();
+		assertEquals(0L, obj.getValueAtPercentile(99.0));
+
+		for (long usec = 1; usec <= 100000; usec += 1) {
+			obj.recordUsec(usec);
+		}
+		assertEquals(100000L, obj.getTotalCount());
+		assertEquals(100000L, obj.getMaxUsec());
+		assertEquals(50000.5, obj.getMeanUsec(), 0.001);
+		assertWithinPrecision(50000L, obj.getValueAtPercentile(50.0));
+		assertWithinPrecision(99000L, obj.getValueAtPercentile(99.0));
+		assertWithinPrecision(99900L, obj.getValueAtPercentile(99.9));
+		assertEquals(100000L, obj.getValueAtPercentile(100.0));
+		assertEquals(1L, obj.getValueAtPercentile(0.0));
+	}
+
+	@Test
+	public void testRecord_outOfRange() {
+		LatencyHistogram obj = new LatencyHistogram();
+		obj.record(-5, TimeUnit.MILLISECONDS);
+		obj.record(Long.MAX_VALUE, TimeUnit.MICROSECONDS);
+		assertEquals(2L, obj.getTotalCount());
+		assertEquals(0L, obj.getValueAtPercentile(50.0));
+		assertTrue(obj.getMaxUsec() > TimeUnit.DAYS.toMicros(10));
+	}
+
+	@Test
+	public void testAdd() {
+		LatencyHistogram obj = new LatencyHistogram();
+		LatencyHistogram other = new LatencyHistogram();
+		obj.record(1, TimeUnit.MILLISECONDS);
+		other.record(3, TimeUnit.MILLISECONDS);
+		obj.add(other);
+		assertEquals(2L, obj.getTotalCount());
+		assertEquals(3000L, obj.getMaxUsec());
+		assertEquals(2000.0, obj.getMeanUsec(), 0.001);
+	}
+
+	private static void assertWithinPrecision(long expected, long actual) {
+		assertEquals(expected, actual, expected / 64.0);
+	}
+}
@@ -0,0 +1,89 @@
+package org.o3project.mlo.client.impl.control;
+
+import static org.junit.Assert.*;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.o3project.mlo.client.control.MloClientException;
+
+import org.o3project.mlo.server.dto.FlowDto;
+import org.o3project.mlo.server.dto.SliceDto;
+
+public class LoadStatisticsTest {
+
+	private static final long MSEC = 1000000L;
+
+	@Test
+	public void testRecord_reportOrder() throws Exception {
+		LoadStatistics obj = new LoadStatistics();
+		obj.start();
+		obj.record("custom", 1 * MSEC, true);
+		obj.record(LoadStatistics.OP_DELETE, 2 * MSEC, true);
+		obj.record(LoadStatistics.OP_CREATE, 3 * MSEC, false);
+		obj.record(LoadStatistics.OP_CREATE, 5 * MSEC, true);
+		obj.stop();
+
+		assertEquals(Arrays.asList("create", "delete", "custom"), obj.getOperations());
+		assertEquals(2L, obj.getOperationStats(LoadStatistics.OP_CREATE).getCount());
+		assertEquals(1L, obj.getOperationStats(LoadStatistics.OP_CREATE).getErrorCount());
+
+		List<String> summary = obj.formatSummary();
+		assertEquals(2 + 3, summary.size());
+		assertTrue(summary.get(2).startsWith("create"));
+	}
+
+	@Test
+	public void testWriteCsvAndJson() throws Exception {
+		LoadStatistics obj = new LoadStatistics();
+		obj.record(LoadStatistics.OP_READ, 2 * MSEC, true);
+		obj.record(LoadStatistics.OP_READ, 4 * MSEC, false);
+		obj.stop();
+
+		StringWriter csv = new StringWriter();
+		obj.writeCsv(csv);
+		String[] lines = csv.toString().split("\n");
+		assertEquals(2, lines.length);
+		assertEquals("operation,count,errors,elapsed_sec,throughput_per_sec,mean_ms,p50_ms,p90_ms,p99_ms,p99.9_ms,max_ms", lines[0]);
+		String[] columns = lines[1].split(",");
+		assertEquals("read", columns[0]);
+		assertEquals("2", columns[1]);
+		assertEquals("1", columns[2]);
+		assertEquals("3.000", columns[5]);
+		assertEquals("4.000", columns[10]);
+
+		StringWriter json = new StringWriter();
+		obj.writeJson(json);
+		assertTrue(json.toString().contains("\"read\": {\"count\": 2, \"errors\": 1, "));
+		assertTrue(json.toString().contains("\"maxMs\": 4.000}"));
+	}
+
+	@Test
+	public void testMeasuringSliceDataManager() throws Exception {
+		LoadStatistics statistics = new LoadStatistics();
+		SliceDataManagerStubImpl stub = new SliceDataManagerStubImpl();
+		MeasuringSliceDataManager obj = new MeasuringSliceDataManager(stub, statistics);
+
+		SliceDto slice = new SliceDto();
+		slice.name = "slice00000001";
+		slice.flows = new ArrayList<FlowDto>();
+		obj.createSliceInfo(slice);
+		obj.getSliceList();
+		stub.isFailedToGetInfo = true;
+		try {
+			obj.getSliceInfo(slice);
+			fail();
+		} catch (MloClientException e) {
+			// Expected.
+		}
+
+		assertEquals(1L, statistics.getOperationStats(LoadStatistics.OP_CREATE).getCount());
+		assertEquals(1L, statistics.getOperationStats(LoadStatistics.OP_LIST).getCount());
+		assertEquals(1L, statistics.getOperationStats(LoadStatistics.OP_READ).getCount());
+		assertEquals(1L, statistics.getOperationStats(LoadStatistics.OP_READ).getErrorCount());
+		assertEquals(0L, statistics.getOperationStats(LoadStatistics.OP_CREATE).getErrorCount());
+	}
+}
@@ -0,0 +1,149 @@
+package org.o3project.mlo.client.impl.control;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.util.LinkedList;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.o3project.mlo.client.control.MloAccessException;
+import org.o3project.mlo.client.control.MloInvoker;
+import org.o3project.mlo.client.control.MloMethod;
+
+import org.o3project.mlo.server.dto.RestifRequestDto;
+import org.o3project.mlo.server.dto.RestifResponseDto;
+
+public class MeteredMloInvokerTest {
+
+	/**
+	 * Writes and reads bodies through the method, or throws queued exceptions.
+	 */
+	private static class StreamingInvoker implements MloInvoker {
+		private final LinkedList<MloAccessException> failures = new LinkedList<MloAccessException>();
+
+		@Override
+		public RestifResponseDto invoke(MloMethod method, RestifRequestDto reqDto, String path,
+				Map<String, String> params) throws MloAccessException {
+			if (!failures.isEmpty()) {
+				throw failures.removeFirst();
+			}
+			method.handleReqOutput(reqDto, new ByteArrayOutputStream());
+			return method.handleResInput(new ByteArrayInputStream(new byte[100]));
+		}
+	}
+
+	/**
+	 * Writes 10 bytes and reads 30 bytes.
+	 */
+	private static class FixedSizeMethod implements MloMethod {
+		@Override
+		public String getName() {
+			return "POST";
+		}
+
+		@Override
+		public boolean isSetDoOutput() {
+			return true;
+		}
+
+		@Override
+		public void handleReqOutput(RestifRequestDto reqDto, OutputStream ostream) {
+			try {
+				ostream.write(new byte[8]);
+				ostream.write(0);
+				ostream.write(0);
+			} catch (IOException e) {
+				fail();
+			}
+		}
+
+		@Override
+		public RestifResponseDto handleResInput(InputStream istream) {
+			try {
+				assertEquals(20, istream.read(new byte[20]));
+				assertEquals(10L, istream.skip(10L));
+			} catch (IOException e) {
+				fail();
+			}
+			return new RestifResponseDto();
+		}
+
+		@Override
+		public Integer getConnectionTimeoutSec() {
+			return null;
+		}
+
+		@Override
+		public Integer getReadTimeoutSec() {
+			return null;
+		}
+
+		@Override
+		public String constructUrl(String path, Map<String, String> params) {
+			return path;
+		}
+	}
+
+	private StreamingInvoker target;
+
+	private MeteredMloInvoker obj;
+
+	@Before
+	public void setUp() throws Exception {
+		target = new StreamingInvoker();
+		obj = new MeteredMloInvoker();
+		obj.setDelegate(target);
+	}
+
+	@Test
+	public void testInvoke_bytes() throws Exception {
+		assertNotNull(obj.invoke(new FixedSizeMethod(), null, "slices", null));
+		assertNotNull(obj.invoke(new FixedSizeMethod(), null, "slices", null));
+
+		TransportStatistics statistics = obj.getStatistics();
+		assertEquals(2L, statistics.getRequestCount());
+		assertEquals(0, statistics.getInFlight());
+		assertEquals(20L, statistics.getBytesOut());
+		assertEquals(60L, statistics.getBytesIn());
+		assertEquals(Long.valueOf(2L), statistics.getStatusCounts().get(TransportStatistics.STATUS_SUCCESS));
+	}
+
+	@Test
+	public void testInvoke_failures() throws Exception {
+		target.failures.add(new MloAccessException(MloInvokerImpl.STATUS_ERROR_PREFIX + 503));
+		target.failures.add(new MloAccessException(MloInvokerImpl.STATUS_ERROR_PREFIX + 503));
+		target.failures.add(new MloAccessException(MloInvokerImpl.STATUS_ERROR_PREFIX + 404));
+		target.failures.add(new MloAccessException("MLO-SERVER cannot be connected:connect timed out",
+				new SocketTimeoutException("connect timed out")));
+		target.failures.add(new MloAccessException("MLO-SERVER cannot be connected:Read timed out",
+				new SocketTimeoutException("Read timed out")));
+		target.failures.add(new MloAccessException("MLO-SERVER cannot be connected:refused",
+				new IOException("Connection refused")));
+		for (int idx = 0; idx < 6; idx += 1) {
+			try {
+				obj.invoke(new FixedSizeMethod(), null, "slices", null);
+				fail();
+			} catch (MloAccessException e) {
+				assertNotNull(e.getMessage());
+			}
+		}
+
+		TransportStatistics statistics = obj.getStatistics();
+		assertEquals(6L, statistics.getRequestCount());
+		assertEquals(0, statistics.getInFlight());
+		assertEquals(0L, statistics.getBytesOut());
+		assertEquals(Long.valueOf(2L), statistics.getStatusCounts().get("503"));
+		assertEquals(Long.valueOf(1L), statistics.getStatusCounts().get("404"));
+		assertNull(statistics.getStatusCounts().get(TransportStatistics.STATUS_SUCCESS));
+		assertEquals(1L, statistics.getConnectTimeoutCount());
+		assertEquals(1L, statistics.getReadTimeoutCount());
+		assertEquals(1L, statistics.getIoErrorCount());
+	}
+}
@@ -0,0 +1,131 @@
+package org.o3project.mlo.client.impl.control;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.Before;
+import org.junit.Test;
+import org.o3project.mlo.client.control.ClientConfig;
+import org.o3project.mlo.client.control.MloAccessException;
+import org.o3project.mlo.client.control.MloNbiException;
+import org.o3project.mlo.client.control.SliceDataManager;
+
+import org.o3project.mlo.server.dto.SliceDto;
+
+public class MetricsInterceptorTest {
+
+	/**
+	 * Returns the result, or throws the exception.
+	 */
+	private static class StubInvocation implements MethodInvocation {
+		private final Method method;
+		private final Throwable error;
+
+		StubInvocation(Method method, Throwable error) {
+			this.method = method;
+			this.error = error;
+		}
+
+		@Override
+		public Method getMethod() {
+			return method;
+		}
+
+		@Override
+		public Object[] getArguments() {
+			return new Object[0];
+		}
+
+		@Override
+		public Object proceed() throws Throwable {
+			if (error != null) {
+				throw error;
+			}
+			return "result";
+		}
+
+		@Override
+		public Object getThis() {
+			return null;
+		}
+
+		@Override
+		public AccessibleObject getStaticPart() {
+			return method;
+		}
+	}
+
+	private MetricsRegistry registry;
+
+	private MetricsInterceptor obj;
+
+	private Method getSliceInfo;
+
+	@Before
+	public void setUp() throws Exception {
+		registry = new MetricsRegistry();
+		obj = new MetricsInterceptor();
+		obj.setMetricsRegistry(registry);
+		obj.setMeasuredInterface(SliceDataManager.class);
+		getSliceInfo = SliceDataManagerImpl.class.getMethod("getSliceInfo", SliceDto.class);
+	}
+
+	@Test
+	public void testInvoke() throws Throwable {
+		assertEquals("result", obj.invoke(new StubInvocation(getSliceInfo, null)));
+		Throwable[] errors = {
+				new MloAccessException("MloServerAccessError/500"), new MloNbiException("error", null),
+				new MloAccessException("MloServerAccessError/503")};
+		for (Throwable error : errors) {
+			try {
+				obj.invoke(new StubInvocation(getSliceInfo, error));
+				fail();
+			} catch (Throwable e) {
+				assertSame(error, e);
+			}
+		}
+
+		MetricsRegistry.MethodMetrics metrics = registry.getMethodMetrics("SliceDataManager.getSliceInfo");
+		assertEquals(4L, metrics.getCallCount());
+		assertEquals(0, metrics.getInFlight());
+		assertEquals(3L, metrics.getErrorCount());
+		Map<String, Long> errorCounts = metrics.getErrorCounts();
+		assertEquals(Long.valueOf(2L), errorCounts.get("MloAccessException"));
+		assertEquals(Long.valueOf(1L), errorCounts.get("MloNbiException"));
+		assertEquals(4L, metrics.getHistogram().getTotalCount());
+
+		assertEquals(2, registry.formatSummary().size());
+		assertTrue(registry.formatSummary().get(1).startsWith("SliceDataManager.getSliceInfo"));
+	}
+
+	@Test
+	public void testInvoke_notMeasured() throws Throwable {
+		Method configReloaded = SliceDataManagerImpl.class.getMethod("configReloaded", ClientConfig.class);
+		obj.invoke(new StubInvocation(configReloaded, null));
+		assertTrue(registry.getNames().isEmpty());
+
+		// All methods are measured if the interface is not designated.
+		obj.setMeasuredInterface(null);
+		obj.invoke(new StubInvocation(configReloaded, null));
+		assertEquals("SliceDataManagerImpl.configReloaded", registry.getNames().get(0));
+	}
+
+	@Test
+	public void testInvoke_inFlight() throws Throwable {
+		final MetricsRegistry.MethodMetrics metrics = registry.getMethodMetrics("SliceDataManager.getSliceInfo");
+		final int[] inFlight = new int[1];
+		obj.invoke(new StubInvocation(getSliceInfo, null) {
+			@Override
+			public Object proceed() throws Throwable {
+				inFlight[0] = metrics.getInFlight();
+				return super.proceed();
+			}
+		});
+		assertEquals(1, inFlight[0]);
+		assertEquals(0, metrics.getInFlight());
+	}
+}
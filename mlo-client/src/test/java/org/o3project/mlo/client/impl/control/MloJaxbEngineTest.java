@@ -0,0 +1,107 @@
+package org.o3project.mlo.client.impl.control;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.bind.DataBindingException;
+import javax.xml.bind.JAXB;
+
+import org.junit.Test;
+
+import org.o3project.mlo.server.dto.RestifRequestDto;
+import org.o3project.mlo.server.dto.RestifResponseDto;
+import org.o3project.mlo.server.dto.SliceDto;
+
+public class MloJaxbEngineTest {
+
+	private static final String DATA_PATH = "src/test/resources/org/o3project/mlo/client/control/data/base";
+
+	private final MloJaxbEngine obj = MloJaxbEngine.getDefault();
+
+	@Test
+	public void testMarshal_sameAsJaxb() throws Exception {
+		RestifRequestDto reqDto = readFile("create.req.xml", RestifRequestDto.class);
+
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		JAXB.marshal(reqDto, expected);
+		ByteArrayOutputStream actual = new ByteArrayOutputStream();
+		obj.marshal(reqDto, actual);
+		assertEquals(expected.toString("UTF-8"), actual.toString("UTF-8"));
+
+		// SliceDto is not a root element, so the element name is inferred.
+		expected = new ByteArrayOutputStream();
+		JAXB.marshal(reqDto.slice, expected);
+		actual = new ByteArrayOutputStream();
+		obj.marshal(reqDto.slice, actual);
+		assertEquals(expected.toString("UTF-8"), actual.toString("UTF-8"));
+	}
+
+	@Test
+	public void testUnmarshal() throws Exception {
+		RestifResponseDto resDto = readFile("list.res.xml", RestifResponseDto.class);
+		assertEquals(3, resDto.slices.size());
+		assertEquals("sliceA", resDto.slices.get(0).name);
+	}
+
+	@Test
+	public void testUnmarshal_invalidXml() throws Exception {
+		try {
+			obj.unmarshal(new ByteArrayInputStream("<rootTag>".getBytes("UTF-8")), RestifResponseDto.class);
+			fail();
+		} catch (DataBindingException e) {
+			assertNotNull(e.getCause());
+		}
+		// The engine is still usable.
+		assertNotNull(readFile("list.res.xml", RestifResponseDto.class));
+	}
+
+	@Test
+	public void testConcurrentUse() throws Exception {
+		final RestifRequestDto reqDto = readFile("create.req.xml", RestifRequestDto.class);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<String>> futures = new ArrayList<Future<String>>();
+			for (int idx = 0; idx < 200; idx++) {
+				final String name = "slice" + idx;
+				futures.add(executor.submit(new Callable<String>() {
+					@Override
+					public String call() throws Exception {
+						SliceDto slice = new SliceDto();
+						slice.name = name;
+						slice.flows = reqDto.slice.flows;
+						RestifRequestDto dto = new RestifRequestDto();
+						dto.common = reqDto.common;
+						dto.slice = slice;
+						ByteArrayOutputStream ostream = new ByteArrayOutputStream();
+						obj.marshal(dto, ostream);
+						RestifRequestDto result = obj.unmarshal(
+								new ByteArrayInputStream(ostream.toByteArray()), RestifRequestDto.class);
+						return result.slice.name;
+					}
+				}));
+			}
+			for (int idx = 0; idx < futures.size(); idx++) {
+				assertEquals("slice" + idx, futures.get(idx).get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private <T> T readFile(String fileName, Class<T> type) throws Exception {
+		try (InputStream istream = new FileInputStream(new File(DATA_PATH, fileName))) {
+			return obj.unmarshal(istream, type);
+		}
+	}
+}
@@ -0,0 +1,151 @@
+package org.o3project.mlo.client.impl.control;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.o3project.mlo.client.control.MloClientException;
+import org.o3project.mlo.client.control.MloNbiException;
+import org.o3project.mlo.client.control.SliceHandler;
+
+import org.o3project.mlo.server.dto.RestifErrorDto;
+import org.o3project.mlo.server.dto.RestifResponseDto;
+import org.o3project.mlo.server.dto.SliceDto;
+
+public class MloSliceStreamParserTest {
+
+	private static final String DATA_PATH = "src/test/resources/org/o3project/mlo/client/control/data/base";
+
+	private MloSliceStreamParser obj;
+
+	private List<SliceDto> handled;
+
+	private SliceHandler handler;
+
+	@Before
+	public void setUp() throws Exception {
+		obj = new MloSliceStreamParser(MloJaxbEngine.getDefault());
+		handled = new ArrayList<SliceDto>();
+		handler = new SliceHandler() {
+			@Override
+			public void handleSlice(SliceDto slice) {
+				handled.add(slice);
+			}
+		};
+	}
+
+	@Test
+	public void testParse_list() throws Exception {
+		RestifResponseDto resDto = null;
+		try (InputStream istream = new FileInputStream(new File(DATA_PATH, "list.res.xml"))) {
+			resDto = obj.parse(istream, handler);
+		}
+		assertNotNull(resDto.common);
+		assertEquals("Response", resDto.common.operation);
+		assertNull(resDto.error);
+		assertNull(resDto.slices);
+
+		assertEquals(3, handled.size());
+		assertEquals("sliceA", handled.get(0).name);
+		assertEquals(Integer.valueOf(1), handled.get(0).id);
+		assertEquals("sliceC", handled.get(2).name);
+	}
+
+	@Test
+	public void testParse_error() throws Exception {
+		String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+				+ "<rootTag><Common><Operation>Response</Operation></Common>"
+				+ "<Unknown><Slice><SliceName>ignored</SliceName></Slice></Unknown>"
+				+ "<Error><Cause>BadRequest</Cause></Error>"
+				+ "<Slice><SliceName>afterError</SliceName></Slice></rootTag>";
+		RestifResponseDto resDto = obj.parse(new ByteArrayInputStream(xml.getBytes("UTF-8")), handler);
+		assertNotNull(resDto.error);
+		assertEquals(0, handled.size());
+	}
+
+	@Test
+	public void testParse_handlerFailure() throws Exception {
+		final MloNbiException cause = new MloNbiException("aMessage", new RestifErrorDto());
+		SliceHandler failingHandler = new SliceHandler() {
+			@Override
+			public void handleSlice(SliceDto slice) throws MloClientException {
+				handled.add(slice);
+				throw cause;
+			}
+		};
+		try (InputStream istream = new FileInputStream(new File(DATA_PATH, "list.res.xml"))) {
+			obj.parse(istream, failingHandler);
+			fail();
+		} catch (MloSliceStreamParser.SliceHandlingException e) {
+			assertSame(cause, e.getCause());
+		}
+		assertEquals(1, handled.size());
+	}
+
+	@Test
+	public void testParse_incremental() throws Exception {
+		final int sliceCount = 10000;
+		final SliceXmlInputStream istream = new SliceXmlInputStream(sliceCount);
+		final int[] generatedAtFirstSlice = new int[] {-1};
+		SliceHandler countingHandler = new SliceHandler() {
+			private int count = 0;
+
+			@Override
+			public void handleSlice(SliceDto slice) {
+				if (count == 0) {
+					generatedAtFirstSlice[0] = istream.generatedSlices;
+				}
+				assertEquals("slice" + count, slice.name);
+				count += 1;
+				handled.add(null);
+			}
+		};
+		obj.parse(istream, countingHandler);
+		assertEquals(sliceCount, handled.size());
+		// The first slice has been handled long before the whole response is read.
+		assertTrue(generatedAtFirstSlice[0] < sliceCount / 10);
+	}
+
+	/**
+	 * This stream generates a list response with many slices lazily.
+	 */
+	private static class SliceXmlInputStream extends InputStream {
+		private final int sliceCount;
+		private int generatedSlices = 0;
+		private byte[] buf;
+		private int pos = 0;
+		private boolean isEnd = false;
+
+		SliceXmlInputStream(int sliceCount) throws IOException {
+			this.sliceCount = sliceCount;
+			this.buf = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><rootTag>".getBytes("UTF-8");
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (pos >= buf.length) {
+				if (isEnd) {
+					return -1;
+				}
+				if (generatedSlices < sliceCount) {
+					buf = String.format("<Slice><SliceName>slice%d</SliceName><SliceId>%d</SliceId></Slice>",
+							generatedSlices, generatedSlices + 1).getBytes("UTF-8");
+					generatedSlices += 1;
+				} else {
+					buf = "</rootTag>".getBytes("UTF-8");
+					isEnd = true;
+				}
+				pos = 0;
+			}
+			return buf[pos++] & 0xff;
+		}
+	}
+}
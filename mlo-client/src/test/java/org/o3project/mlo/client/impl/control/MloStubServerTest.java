@@ -0,0 +1,261 @@
+package org.o3project.mlo.client.impl.control;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.o3project.mlo.client.control.MloAccessException;
+import org.o3project.mlo.client.control.MloInvoker;
+import org.o3project.mlo.client.control.MloNbiException;
+import org.o3project.mlo.client.control.SliceHandler;
+
+import org.o3project.mlo.server.dto.FlowDto;
+import org.o3project.mlo.server.dto.RestifRequestDto;
+import org.o3project.mlo.server.dto.SliceDto;
+
+public class MloStubServerTest {
+
+	private MloStubServer server;
+
+	private SliceDataManagerImpl sdm;
+
+	private MloGetMethodImpl getMethod;
+
+	private MloPostMethodImpl postMethod;
+
+	private File propFile;
+
+	@Before
+	public void setUp() throws Exception {
+		server = new MloStubServer(0);
+		server.start();
+
+		Properties props = new Properties();
+		props.setProperty("mlo.client.config.server.baseUri", server.getBaseUri());
+		props.setProperty("mlo.client.config.server.src.componentName", "mloClient");
+		props.setProperty("mlo.client.config.server.pooled.invoker.flag", "false");
+		propFile = File.createTempFile("mlo-client", ".properties");
+		try (OutputStream ostream = new FileOutputStream(propFile)) {
+			props.store(ostream, null);
+		}
+		ClientConfigImpl clientConfig = new ClientConfigImpl();
+		clientConfig.setConfigProvider(new ClientConfigProviderImpl(propFile.getAbsolutePath()));
+
+		MloSerdesImpl serdes = new MloSerdesImpl();
+		getMethod = new MloGetMethodImpl();
+		getMethod.setMloSerdes(serdes);
+		getMethod.setClientConfig(clientConfig);
+		postMethod = new MloPostMethodImpl();
+		postMethod.setMloSerdes(serdes);
+		postMethod.setClientConfig(clientConfig);
+
+		sdm = new SliceDataManagerImpl();
+		sdm.setClientConfig(clientConfig);
+		sdm.setMloGetMethod(getMethod);
+		sdm.setMloPostMethod(postMethod);
+		sdm.init();
+		sdm.setMloInvoker(new MloInvokerImpl());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		server.stop();
+		propFile.delete();
+	}
+
+	private FlowDto createFlow(String type, Integer id, String name, Integer bandWidth) {
+		FlowDto flow = new FlowDto();
+		flow.type = type;
+		flow.id = id;
+		flow.name = name;
+		flow.srcCENodeName = "tokyo";
+		flow.srcCEPortNo = "00000001";
+		flow.dstCENodeName = "osaka";
+		flow.dstCEPortNo = "00000004";
+		flow.reqBandWidth = bandWidth;
+		flow.reqDelay = 10;
+		flow.protectionLevel = "0";
+		return flow;
+	}
+
+	@Test
+	public void testSliceLifecycle() throws Exception {
+		SliceDto reqSlice = new SliceDto();
+		reqSlice.name = "sliceA";
+		reqSlice.flows = new ArrayList<FlowDto>();
+		reqSlice.flows.add(createFlow(null, null, "flow1", 100));
+		SliceDto created = sdm.createSliceInfo(reqSlice);
+		assertNotNull(created.id);
+		assertEquals("sliceA", created.name);
+		assertEquals(1, created.flows.size());
+		assertNotNull(created.flows.get(0).id);
+
+		List<SliceDto> list = sdm.getSliceList();
+		assertEquals(1, list.size());
+		assertEquals(created.id, list.get(0).id);
+		assertEquals("sliceA", list.get(0).name);
+
+		SliceDto reqUpdate = new SliceDto();
+		reqUpdate.id = created.id;
+		reqUpdate.flows = new ArrayList<FlowDto>();
+		reqUpdate.flows.add(createFlow("add", null, "flow2", 200));
+		reqUpdate.flows.add(createFlow("mod", created.flows.get(0).id, "flow1", 300));
+		SliceDto updated = sdm.updateSliceInfo(reqUpdate);
+		assertEquals(2, updated.flows.size());
+
+		SliceDto reqRead = new SliceDto();
+		reqRead.id = created.id;
+		SliceDto read = sdm.getSliceInfo(reqRead);
+		assertEquals(2, read.flows.size());
+		assertEquals(Integer.valueOf(300), read.flows.get(0).usedBandWidth);
+		assertEquals(updated.flows.get(0).id, read.flows.get(1).id);
+		assertEquals(Integer.valueOf(200), read.flows.get(1).usedBandWidth);
+		// READ response has no requested parameters, but has link information.
+		assertNull(read.flows.get(1).name);
+		assertNull(read.flows.get(1).reqBandWidth);
+		assertEquals("AMN64001", read.flows.get(1).srcPTNodeName);
+		assertEquals(1, read.flows.get(1).linkInfoList.size());
+		assertEquals("AMN64003", read.flows.get(1).linkInfoList.get(0).dstPTNodeName);
+
+		SliceDto reqDelete = new SliceDto();
+		reqDelete.id = created.id;
+		SliceDto deleted = sdm.deleteSliceInfo(reqDelete);
+		assertEquals(created.id, deleted.id);
+		assertEquals(0, server.getSliceCount());
+		assertEquals(5L, server.getRequestCount());
+	}
+
+	@Test
+	public void testForEachSlice() throws Exception {
+		for (int idx = 0; idx < 3; idx += 1) {
+			SliceDto reqSlice = new SliceDto();
+			reqSlice.name = "slice" + idx;
+			reqSlice.flows = new ArrayList<FlowDto>();
+			sdm.createSliceInfo(reqSlice);
+		}
+		final List<SliceDto> handled = new ArrayList<SliceDto>();
+		sdm.forEachSlice(new SliceHandler() {
+			@Override
+			public void handleSlice(SliceDto slice) {
+				handled.add(slice);
+			}
+		});
+		assertEquals(3, handled.size());
+	}
+
+	@Test
+	public void testNotFound() throws Exception {
+		SliceDto reqRead = new SliceDto();
+		reqRead.id = 12345;
+		try {
+			sdm.getSliceInfo(reqRead);
+			fail();
+		} catch (MloNbiException e) {
+			assertEquals("NotFound", e.getErrorDto().cause);
+		}
+	}
+
+	@Test
+	public void testErrorInjection() throws Exception {
+		server.setErrorRate(1.0);
+		try {
+			sdm.getSliceList();
+			fail();
+		} catch (MloAccessException e) {
+			assertEquals(500, MloInvokerImpl.getStatusCode(e));
+		}
+		assertEquals(1L, server.getInjectedErrorCount());
+
+		server.setErrorRate(0.0);
+		// No slice elements are unmarshalled as null.
+		assertNull(sdm.getSliceList());
+	}
+
+	@Test
+	public void testInvoke_clientErrorStatus() throws Exception {
+		MeteredMloInvoker meteredInvoker = new MeteredMloInvoker();
+		meteredInvoker.setDelegate(new MloInvokerImpl());
+		ResilientMloInvoker resilientInvoker = createResilientInvoker(meteredInvoker);
+		Map<String, String> params = new HashMap<String, String>();
+		params.put("owner", "mloClient");
+
+		// The slice list accepts only GET.
+		for (int idx = 0; idx < 4; idx += 1) {
+			try {
+				resilientInvoker.invoke(postMethod, new RestifRequestDto(), SliceDataManagerImpl.PATH_LIST_SLICE, params);
+				fail();
+			} catch (MloAccessException e) {
+				assertEquals(405, MloInvokerImpl.getStatusCode(e));
+				assertFalse(ResilientMloInvoker.isServerFailure(e));
+			}
+		}
+
+		// 4xx is neither retried nor counted by the circuit breaker.
+		assertEquals(4L, server.getRequestCount());
+		assertEquals(0L, resilientInvoker.getRetryCount());
+		assertEquals("CLOSED", resilientInvoker.getCircuitState());
+		TransportStatistics statistics = meteredInvoker.getStatistics();
+		assertEquals(Long.valueOf(4L), statistics.getStatusCounts().get("405"));
+		assertEquals(0L, statistics.getIoErrorCount());
+	}
+
+	@Test
+	public void testInvoke_serverErrorStatus() throws Exception {
+		MeteredMloInvoker meteredInvoker = new MeteredMloInvoker();
+		meteredInvoker.setDelegate(new MloInvokerImpl());
+		ResilientMloInvoker resilientInvoker = createResilientInvoker(meteredInvoker);
+		Map<String, String> params = new HashMap<String, String>();
+		params.put("owner", "mloClient");
+
+		server.setErrorRate(1.0);
+		try {
+			resilientInvoker.invoke(getMethod, null, SliceDataManagerImpl.PATH_LIST_SLICE, params);
+			fail();
+		} catch (MloAccessException e) {
+			assertEquals(500, MloInvokerImpl.getStatusCode(e));
+		}
+
+		// 5xx is retried.
+		assertEquals(3L, server.getRequestCount());
+		assertEquals(2L, resilientInvoker.getRetryCount());
+		TransportStatistics statistics = meteredInvoker.getStatistics();
+		assertEquals(Long.valueOf(3L), statistics.getStatusCounts().get("500"));
+		assertEquals(0L, statistics.getIoErrorCount());
+
+		server.setErrorRate(0.0);
+		resilientInvoker.invoke(new MloSliceStreamingMethod(getMethod, new SliceHandler() {
+			@Override
+			public void handleSlice(SliceDto slice) {
+				fail();
+			}
+		}), null, SliceDataManagerImpl.PATH_LIST_SLICE, params);
+		assertEquals(Long.valueOf(1L), statistics.getStatusCounts().get(TransportStatistics.STATUS_SUCCESS));
+	}
+
+	private static ResilientMloInvoker createResilientInvoker(MloInvoker delegate) {
+		ResilientMloInvoker resilientInvoker = new ResilientMloInvoker();
+		resilientInvoker.setDelegate(delegate);
+		resilientInvoker.setRetryParameters(1L, 10L);
+		resilientInvoker.setCircuitBreakerParameters(10, 50, 100L);
+		resilientInvoker.setMaxAttempts(SliceDataManagerImpl.PATH_LIST_SLICE, 3);
+		return resilientInvoker;
+	}
+
+	@Test
+	public void testLatency() throws Exception {
+		server.setLatencyMsec(200L);
+		long start = System.nanoTime();
+		sdm.getSliceList();
+		assertTrue(System.nanoTime() - start >= 200000000L);
+	}
+}
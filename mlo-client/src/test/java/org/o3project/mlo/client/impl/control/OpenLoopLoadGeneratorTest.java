@@ -0,0 +1,78 @@
+package org.o3project.mlo.client.impl.control;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.o3project.mlo.client.control.MloClientException;
+import org.o3project.mlo.client.control.MloNbiException;
+
+import org.o3project.mlo.server.dto.RestifErrorDto;
+
+public class OpenLoopLoadGeneratorTest {
+
+	private static final long SEC = TimeUnit.SECONDS.toNanos(1L);
+
+	@Test
+	public void testIntendedOffsetNanos() {
+		// Without ramp-up, requests are evenly spaced.
+		assertEquals(0L, OpenLoopLoadGenerator.intendedOffsetNanos(0, 10.0, 0L));
+		assertEquals(SEC / 10, OpenLoopLoadGenerator.intendedOffsetNanos(1, 10.0, 0L), 1.0);
+		assertEquals(SEC, OpenLoopLoadGenerator.intendedOffsetNanos(10, 10.0, 0L), 1.0);
+
+		// With 2 sec ramp-up at 10/s, 10 requests are issued in the ramp-up, and then 10 per second.
+		assertEquals(Math.sqrt(2.0) * SEC, OpenLoopLoadGenerator.intendedOffsetNanos(5, 10.0, 2 * SEC), 1.0);
+		assertEquals(2 * SEC, OpenLoopLoadGenerator.intendedOffsetNanos(10, 10.0, 2 * SEC), 1.0);
+		assertEquals(3 * SEC, OpenLoopLoadGenerator.intendedOffsetNanos(20, 10.0, 2 * SEC), 1.0);
+	}
+
+	@Test
+	public void testRun_keptUp() throws Exception {
+		final AtomicLong executed = new AtomicLong();
+		OpenLoopLoadGenerator obj = new OpenLoopLoadGenerator(4);
+		OpenLoopLoadGenerator.Result result = obj.run("list", new OpenLoopLoadGenerator.Request() {
+			@Override
+			public void execute(long sequence) throws MloClientException {
+				if (executed.incrementAndGet() % 10 == 0) {
+					throw new MloNbiException("aMessage", new RestifErrorDto());
+				}
+			}
+		}, 100.0, 1, 0);
+
+		assertEquals(100L, result.getIssuedCount());
+		assertEquals(100L, executed.get());
+		LoadStatistics.OperationStats stats = result.getStatistics().getOperationStats("list");
+		assertEquals(100L, stats.getCount());
+		assertEquals(10L, stats.getErrorCount());
+	}
+
+	@Test
+	public void testRun_notKeptUp() throws Exception {
+		OpenLoopLoadGenerator obj = new OpenLoopLoadGenerator(1);
+		OpenLoopLoadGenerator.Result result = obj.run("read", new OpenLoopLoadGenerator.Request() {
+			@Override
+			public void execute(long sequence) {
+				try {
+					Thread.sleep(50L);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}, 40.0, 1, 0);
+
+		// A single thread serves 20 requests per second at most, so requests queue up in the client.
+		assertEquals(40L, result.getIssuedCount());
+		assertFalse(result.isKeptUp());
+		assertTrue(result.getLateCount() > 0);
+		// The queueing delay is included in the latency.
+		LatencyHistogram histogram = result.getStatistics().getOperationStats("read").getHistogram();
+		assertTrue(histogram.getMaxUsec() > TimeUnit.MILLISECONDS.toMicros(500L));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRun_invalidRampUp() throws Exception {
+		new OpenLoopLoadGenerator(1).run("list", null, 10.0, 1, 2);
+	}
+}
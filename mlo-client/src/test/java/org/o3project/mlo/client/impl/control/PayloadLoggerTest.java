@@ -0,0 +1,56 @@
+package org.o3project.mlo.client.impl.control;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import org.o3project.mlo.server.dto.FlowDto;
+import org.o3project.mlo.server.dto.SliceDto;
+
+public class PayloadLoggerTest {
+
+	private static String name(int idx) {
+		return SliceMultiRequestImpl.formatNumber("slice", idx);
+	}
+
+	@Test
+	public void testIsSampled() {
+		PayloadLogger all = new PayloadLogger(100, 100);
+		PayloadLogger none = new PayloadLogger(0, 100);
+		PayloadLogger half = new PayloadLogger(50, 100);
+		int nSampled = 0;
+		for (int idx = 0; idx < 1000; idx += 1) {
+			assertTrue(all.isSampled(name(idx)));
+			assertFalse(none.isSampled(name(idx)));
+			if (half.isSampled(name(idx))) {
+				nSampled += 1;
+				// The same slice is always sampled.
+				assertTrue(half.isSampled(name(idx)));
+			}
+		}
+		assertTrue(nSampled > 400 && nSampled < 600);
+	}
+
+	@Test
+	public void testPayload() {
+		SliceDto sliceDto = new SliceDto();
+		sliceDto.name = "slice00000001";
+		sliceDto.flows = new ArrayList<FlowDto>();
+
+		String message = new PayloadLogger.Payload("Request", sliceDto, 65536).toString();
+		assertTrue(message.startsWith("==== Request. slice: slice00000001\n<?xml"));
+		assertTrue(message.contains("<SliceName>slice00000001</SliceName>"));
+		assertFalse(message.contains("truncated"));
+
+		message = new PayloadLogger.Payload("Response", sliceDto, 10).toString();
+		assertTrue(message.startsWith("==== Response. slice: slice00000001\n<?xml vers... (truncated "));
+		assertTrue(message.endsWith(" chars)"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_illegalMaxChars() {
+		new PayloadLogger(100, 0);
+	}
+}
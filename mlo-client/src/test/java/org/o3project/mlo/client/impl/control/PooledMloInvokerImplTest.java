@@ -0,0 +1,375 @@
+package org.o3project.mlo.client.impl.control;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.o3project.mlo.client.control.MloAccessException;
+import org.o3project.mlo.client.control.MloMethod;
+
+import org.o3project.mlo.server.dto.RestifRequestDto;
+import org.o3project.mlo.server.dto.RestifResponseDto;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class PooledMloInvokerImplTest {
+
+	private static final String DATA_PATH = "src/test/resources/org/o3project/mlo/client/control/data";
+	private static final String DATA_FILE_001 = "client.config.001.properties";
+
+	private HttpServer server;
+	private String baseUri;
+	private final Set<Integer> remotePorts = Collections.synchronizedSet(new HashSet<Integer>());
+	private volatile int statusCode = 200;
+	private volatile byte[] lastReqBody;
+
+	private PooledMloInvokerImpl obj;
+
+	@Before
+	public void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				remotePorts.add(exchange.getRemoteAddress().getPort());
+				lastReqBody = readAll(exchange.getRequestBody());
+				byte[] resBody = "<rootTag/>".getBytes("UTF-8");
+				exchange.sendResponseHeaders(statusCode, resBody.length);
+				OutputStream ostream = exchange.getResponseBody();
+				ostream.write(resBody);
+				ostream.close();
+			}
+		});
+		server.start();
+		baseUri = "http://127.0.0.1:" + server.getAddress().getPort();
+
+		File propFile = new File(DATA_PATH, DATA_FILE_001);
+		ClientConfigProviderImpl configProvider = new ClientConfigProviderImpl(propFile.getAbsolutePath());
+		ClientConfigImpl clientConfig = new ClientConfigImpl();
+		clientConfig.setConfigProvider(configProvider);
+
+		obj = new PooledMloInvokerImpl();
+		obj.setClientConfig(clientConfig);
+		obj.init();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		obj.destroy();
+		obj = null;
+		server.stop(0);
+		server = null;
+	}
+
+	@Test
+	public void testInvoke_reuseConnection() throws Exception {
+		MloMethodStub method = new MloMethodStub("GET", false);
+		for (int cnt = 0; cnt < 5; cnt++) {
+			RestifResponseDto resDto = obj.invoke(method, null, "slices", null);
+			assertNotNull(resDto);
+			assertEquals("<rootTag/>", method.resBody);
+		}
+		assertEquals(1, remotePorts.size());
+
+		MloConnectionPoolStats stats = obj.getPoolStats();
+		assertEquals(1L, stats.getCreated());
+		assertEquals(4L, stats.getReused());
+		assertEquals(0, stats.getLeased());
+		assertEquals(1, stats.getIdle());
+	}
+
+	@Test
+	public void testInvoke_postBody() throws Exception {
+		MloMethodStub method = new MloMethodStub("POST", true);
+		obj.invoke(method, new RestifRequestDto(), "CREATE", null);
+		assertEquals("<request/>", new String(lastReqBody, "UTF-8"));
+
+		obj.invoke(method, new RestifRequestDto(), "UPDATE", null);
+		assertEquals(1, remotePorts.size());
+	}
+
+	@Test
+	public void testInvoke_errorStatus() throws Exception {
+		MloMethodStub method = new MloMethodStub("GET", false);
+		statusCode = 500;
+		try {
+			obj.invoke(method, null, "slices", null);
+			fail();
+		} catch (MloAccessException e) {
+			assertEquals("MloServerAccessError/500", e.getMessage());
+		}
+		assertEquals(0, obj.getPoolStats().getLeased());
+
+		statusCode = 200;
+		RestifResponseDto resDto = obj.invoke(method, null, "slices", null);
+		assertNotNull(resDto);
+	}
+
+	@Test
+	public void testInvoke_serverDown() throws Exception {
+		MloMethodStub method = new MloMethodStub("GET", false);
+		server.stop(0);
+		try {
+			obj.invoke(method, null, "slices", null);
+			fail();
+		} catch (MloAccessException e) {
+			assertTrue(e.getMessage().startsWith("MLO-SERVER cannot be connected:"));
+		}
+		assertEquals(0, obj.getPoolStats().getLeased());
+	}
+
+	@Test
+	public void testInvoke_closedWithoutResponse() throws Exception {
+		DroppingServer droppingServer = new DroppingServer();
+		try {
+			baseUri = "http://127.0.0.1:" + droppingServer.serverSocket.getLocalPort();
+			MloMethodStub getMethod = new MloMethodStub("GET", false);
+			assertNotNull(obj.invoke(getMethod, null, "slices", null));
+			// Retried with a new connection, because reads are idempotent.
+			assertNotNull(obj.invoke(getMethod, null, "slices", null));
+			assertEquals(3, droppingServer.requestCount.get());
+
+			MloMethodStub postMethod = new MloMethodStub("POST", true);
+			try {
+				obj.invoke(postMethod, new RestifRequestDto(), "CREATE", null);
+				fail();
+			} catch (MloAccessException e) {
+				assertTrue(e.getMessage().startsWith("MLO-SERVER cannot be connected:"));
+			}
+			assertEquals(4, droppingServer.requestCount.get());
+			assertEquals(0, obj.getPoolStats().getLeased());
+			assertEquals(2L, obj.getPoolStats().getClosed());
+		} finally {
+			droppingServer.close();
+		}
+	}
+
+	@Test
+	public void testPool_idleTimeout() throws Exception {
+		MloConnectionPool pool = new MloConnectionPool(2, 50L, 0L);
+		try {
+			URL url = new URL(baseUri + "/slices");
+			MloHttpConnection conn = pool.lease(url, 1000);
+			pool.release(conn);
+			assertEquals(1, pool.getStats().getIdle());
+
+			Thread.sleep(100L);
+			pool.evictExpired();
+			MloConnectionPoolStats stats = pool.getStats();
+			assertEquals(0, stats.getIdle());
+			assertEquals(1L, stats.getIdleEvicted());
+			assertEquals(1L, stats.getClosed());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testPool_maxLifetime() throws Exception {
+		MloConnectionPool pool = new MloConnectionPool(2, 0L, 50L);
+		try {
+			URL url = new URL(baseUri + "/slices");
+			MloHttpConnection conn = pool.lease(url, 1000);
+			Thread.sleep(100L);
+			pool.release(conn);
+			MloConnectionPoolStats stats = pool.getStats();
+			assertEquals(0, stats.getIdle());
+			assertEquals(1L, stats.getExpired());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testPool_leaseTimeout() throws Exception {
+		MloConnectionPool pool = new MloConnectionPool(1, 0L, 0L);
+		try {
+			URL url = new URL(baseUri + "/slices");
+			MloHttpConnection conn = pool.lease(url, 1000);
+			try {
+				pool.lease(url, 100);
+				fail();
+			} catch (IOException e) {
+				assertEquals(1L, pool.getStats().getLeaseTimeouts());
+			}
+			pool.release(conn);
+			pool.release(pool.lease(url, 100));
+			assertEquals(1L, pool.getStats().getReused());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private static byte[] readAll(InputStream istream) throws IOException {
+		ByteArrayOutputStream ostream = new ByteArrayOutputStream();
+		byte[] buf = new byte[1024];
+		int len = 0;
+		while ((len = istream.read(buf)) >= 0) {
+			ostream.write(buf, 0, len);
+		}
+		return ostream.toByteArray();
+	}
+
+	/**
+	 * Responds to the first request on each connection, and closes the connection
+	 * without response when the second request is received.
+	 */
+	private static class DroppingServer implements Runnable {
+		private final ServerSocket serverSocket;
+		private final AtomicInteger requestCount = new AtomicInteger();
+
+		DroppingServer() throws IOException {
+			serverSocket = new ServerSocket(0, 0, InetAddress.getByName("127.0.0.1"));
+			Thread thread = new Thread(this, "DroppingServer");
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		@Override
+		public void run() {
+			while (!serverSocket.isClosed()) {
+				try {
+					final Socket socket = serverSocket.accept();
+					Thread thread = new Thread(new Runnable() {
+						@Override
+						public void run() {
+							handle(socket);
+						}
+					});
+					thread.setDaemon(true);
+					thread.start();
+				} catch (IOException e) {
+					return;
+				}
+			}
+		}
+
+		private void handle(Socket socket) {
+			try (Socket s = socket) {
+				InputStream istream = new BufferedInputStream(s.getInputStream());
+				OutputStream ostream = s.getOutputStream();
+				for (int nRequests = 0; readRequest(istream); nRequests += 1) {
+					requestCount.incrementAndGet();
+					if (nRequests > 0) {
+						return;
+					}
+					ostream.write("HTTP/1.1 200 OK\r\nContent-Length: 10\r\n\r\n<rootTag/>".getBytes("UTF-8"));
+					ostream.flush();
+				}
+			} catch (IOException e) {
+				return;
+			}
+		}
+
+		private static boolean readRequest(InputStream istream) throws IOException {
+			int contentLength = 0;
+			StringBuilder line = new StringBuilder();
+			boolean isEmpty = true;
+			int ch = -1;
+			while ((ch = istream.read()) >= 0) {
+				if (ch == '\r') {
+					continue;
+				}
+				if (ch != '\n') {
+					line.append((char) ch);
+					isEmpty = false;
+					continue;
+				}
+				if (line.length() == 0) {
+					break;
+				}
+				String header = line.toString().toLowerCase();
+				if (header.startsWith("content-length:")) {
+					contentLength = Integer.parseInt(header.substring("content-length:".length()).trim());
+				}
+				line.setLength(0);
+			}
+			if (ch < 0) {
+				return false;
+			}
+			for (int idx = 0; idx < contentLength; idx += 1) {
+				istream.read();
+			}
+			return !isEmpty;
+		}
+
+		void close() throws IOException {
+			serverSocket.close();
+		}
+	}
+
+	private class MloMethodStub implements MloMethod {
+		private final String name;
+		private final boolean isSetDoOutput;
+		private String resBody;
+
+		MloMethodStub(String name, boolean isSetDoOutput) {
+			this.name = name;
+			this.isSetDoOutput = isSetDoOutput;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public boolean isSetDoOutput() {
+			return isSetDoOutput;
+		}
+
+		@Override
+		public void handleReqOutput(RestifRequestDto reqDto, OutputStream ostream) {
+			try {
+				ostream.write("<request/>".getBytes("UTF-8"));
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		@Override
+		public RestifResponseDto handleResInput(InputStream istream) {
+			try {
+				resBody = new String(readAll(istream), "UTF-8");
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+			return new RestifResponseDto();
+		}
+
+		@Override
+		public Integer getConnectionTimeoutSec() {
+			return 1;
+		}
+
+		@Override
+		public Integer getReadTimeoutSec() {
+			return 1;
+		}
+
+		@Override
+		public String constructUrl(String path, Map<String, String> params) {
+			return baseUri + "/" + path;
+		}
+	}
+}
@@ -0,0 +1,144 @@
+package org.o3project.mlo.client.impl.control;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.o3project.mlo.client.control.MloAccessException;
+import org.o3project.mlo.client.control.MloClientException;
+
+public class RequestCoalescerTest {
+
+	private static final int N_THREADS = 8;
+
+	private static final RequestCoalescer.Copier<StringBuilder> COPIER = new RequestCoalescer.Copier<StringBuilder>() {
+		@Override
+		public StringBuilder copy(StringBuilder result) {
+			return new StringBuilder(result);
+		}
+	};
+
+	private RequestCoalescer obj;
+
+	private ExecutorService executor;
+
+	@Before
+	public void setUp() throws Exception {
+		obj = new RequestCoalescer();
+		executor = Executors.newFixedThreadPool(N_THREADS);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Submits callers of the same key, whose first call blocks until released.
+	 */
+	private List<Future<StringBuilder>> submitBlockedCalls(final String key, final CountDownLatch release,
+			final AtomicInteger nCalls, final boolean isFailed) throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		final RequestCoalescer.Call<StringBuilder> call = new RequestCoalescer.Call<StringBuilder>() {
+			@Override
+			public StringBuilder call() throws MloClientException {
+				nCalls.incrementAndGet();
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					throw new MloAccessException("interrupted", e);
+				}
+				if (isFailed) {
+					throw new MloAccessException("MloServerAccessError/500");
+				}
+				return new StringBuilder("result");
+			}
+		};
+		List<Future<StringBuilder>> futures = new ArrayList<Future<StringBuilder>>();
+		for (int idx = 0; idx < N_THREADS; idx += 1) {
+			futures.add(executor.submit(new Callable<StringBuilder>() {
+				@Override
+				public StringBuilder call() throws Exception {
+					return obj.execute(key, call, COPIER);
+				}
+			}));
+			if (idx == 0) {
+				assertTrue(started.await(10, TimeUnit.SECONDS));
+			}
+		}
+		// Waits until the followers are coalesced.
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (obj.getCoalescedCount() < N_THREADS - 1 && System.nanoTime() < deadline) {
+			Thread.sleep(10L);
+		}
+		return futures;
+	}
+
+	@Test
+	public void testExecute_coalesced() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger nCalls = new AtomicInteger();
+		List<Future<StringBuilder>> futures = submitBlockedCalls("key", release, nCalls, false);
+		release.countDown();
+
+		List<StringBuilder> results = new ArrayList<StringBuilder>();
+		for (Future<StringBuilder> future : futures) {
+			StringBuilder result = future.get(10, TimeUnit.SECONDS);
+			assertEquals("result", result.toString());
+			for (StringBuilder other : results) {
+				assertNotSame(other, result);
+			}
+			results.add(result);
+		}
+		assertEquals(1, nCalls.get());
+		assertEquals(1L, obj.getExecutedCount());
+		assertEquals((long) (N_THREADS - 1), obj.getCoalescedCount());
+	}
+
+	@Test
+	public void testExecute_errorShared() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger nCalls = new AtomicInteger();
+		List<Future<StringBuilder>> futures = submitBlockedCalls("key", release, nCalls, true);
+		release.countDown();
+
+		for (Future<StringBuilder> future : futures) {
+			try {
+				future.get(10, TimeUnit.SECONDS);
+				fail();
+			} catch (ExecutionException e) {
+				assertTrue(e.getCause() instanceof MloAccessException);
+				assertEquals("MloServerAccessError/500", e.getCause().getMessage());
+			}
+		}
+		assertEquals(1, nCalls.get());
+	}
+
+	@Test
+	public void testExecute_notCached() throws Exception {
+		final AtomicInteger nCalls = new AtomicInteger();
+		RequestCoalescer.Call<StringBuilder> call = new RequestCoalescer.Call<StringBuilder>() {
+			@Override
+			public StringBuilder call() throws MloClientException {
+				return new StringBuilder("result" + nCalls.incrementAndGet());
+			}
+		};
+		assertEquals("result1", obj.execute("key", call, COPIER).toString());
+		assertEquals("result2", obj.execute("key", call, COPIER).toString());
+		assertEquals("result3", obj.execute("otherKey", call, COPIER).toString());
+		assertEquals(0L, obj.getCoalescedCount());
+	}
+}
@@ -28,7 +28,9 @@ import org.junit.Before;
 import org.junit.Test;
 import org.o3project.mlo.client.control.MloClientException;
 import org.o3project.mlo.client.control.MloNbiException;
+import org.o3project.mlo.client.control.SliceBatchResult;
 import org.o3project.mlo.client.control.SliceDataManager;
+import org.o3project.mlo.client.control.SliceHandler;
 import org.o3project.mlo.client.impl.control.ClientConfigImpl;
 import org.o3project.mlo.client.impl.control.ClientConfigProviderImpl;
 import org.o3project.mlo.client.impl.control.RequestorServiceImpl;
@@ -778,6 +780,19 @@ public class RequestServiceImplTest {
 		
 		List<SliceDto> updatedSliceDtos = new ArrayList<SliceDto>();
 
+		/* (non-Javadoc)
+		 * @see org.o3project.mlo.client.control.SliceDataManager#forEachSlice(org.o3project.mlo.client.control.SliceHandler)
+		 */
+		@Override
+		public void forEachSlice(SliceHandler handler) throws MloClientException {
+			List<SliceDto> list = getSliceList();
+			if (list != null) {
+				for (SliceDto slice : list) {
+					handler.handleSlice(slice);
+				}
+			}
+		}
+
 		/* (non-Javadoc)
 		 * @see org.o3project.mlo.client.control.SliceDataManager#getSliceList()
 		 */
@@ -894,6 +909,30 @@ public class RequestServiceImplTest {
 			}
 		}	
 
+		/* (non-Javadoc)
+		 * @see org.o3project.mlo.client.control.SliceDataManager#createSliceInfos(java.util.List, int)
+		 */
+		@Override
+		public List<SliceBatchResult> createSliceInfos(List<SliceDto> slices, int parallelism) throws InterruptedException {
+			return SliceBatchExecutor.execute(this, SliceBatchExecutor.CREATE, slices, parallelism);
+		}
+
+		/* (non-Javadoc)
+		 * @see org.o3project.mlo.client.control.SliceDataManager#updateSliceInfos(java.util.List, int)
+		 */
+		@Override
+		public List<SliceBatchResult> updateSliceInfos(List<SliceDto> slices, int parallelism) throws InterruptedException {
+			return SliceBatchExecutor.execute(this, SliceBatchExecutor.UPDATE, slices, parallelism);
+		}
+
+		/* (non-Javadoc)
+		 * @see org.o3project.mlo.client.control.SliceDataManager#deleteSliceInfos(java.util.List, int)
+		 */
+		@Override
+		public List<SliceBatchResult> deleteSliceInfos(List<SliceDto> slices, int parallelism) throws InterruptedException {
+			return SliceBatchExecutor.execute(this, SliceBatchExecutor.DELETE, slices, parallelism);
+		}
+
 		/**
 		 * @return
 		 */
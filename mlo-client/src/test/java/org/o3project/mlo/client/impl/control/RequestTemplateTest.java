@@ -0,0 +1,93 @@
+package org.o3project.mlo.client.impl.control;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import org.o3project.mlo.server.dto.FlowDto;
+import org.o3project.mlo.server.dto.SliceDto;
+
+public class RequestTemplateTest {
+
+	private SliceDto createTemplateSlice(int nFlow) {
+		SliceDto slice = new SliceDto();
+		slice.name = "slice";
+		slice.id = 7;
+		slice.flows = new ArrayList<FlowDto>();
+		for (int idx = 0; idx < nFlow; idx += 1) {
+			FlowDto flow = new FlowDto();
+			flow.type = "add";
+			flow.name = "flowTemplate";
+			flow.srcCENodeName = "tokyo";
+			flow.reqBandWidth = 100;
+			slice.flows.add(flow);
+		}
+		return slice;
+	}
+
+	@Test
+	public void testNewRequest_create() {
+		RequestTemplate obj = new RequestTemplate("create", createTemplateSlice(3));
+
+		SliceDto req = obj.newRequest(2);
+		assertEquals("slice0002", req.name);
+		assertNull(req.id);
+		assertEquals(3, req.flows.size());
+		assertEquals("flow0004", req.flows.get(0).name);
+		assertEquals("flow0006", req.flows.get(2).name);
+		assertEquals("add", req.flows.get(0).type);
+		assertEquals("tokyo", req.flows.get(0).srcCENodeName);
+		assertEquals(Integer.valueOf(100), req.flows.get(0).reqBandWidth);
+	}
+
+	@Test
+	public void testNewRequest_update() {
+		RequestTemplate obj = new RequestTemplate("update", createTemplateSlice(1));
+
+		SliceDto req = obj.newRequest(1);
+		assertEquals(Integer.valueOf(7), req.id);
+		assertEquals("flow0001", req.flows.get(0).name);
+	}
+
+	@Test
+	public void testNewRequest_partitionedNames() {
+		RequestTemplate obj = new RequestTemplate("create", createTemplateSlice(2));
+		Set<String> flowNames = new HashSet<String>();
+		// Names do not depend on the order in which requests are created.
+		for (int seq = 10; seq >= 1; seq -= 1) {
+			for (FlowDto flow : obj.newRequest(seq).flows) {
+				assertTrue(flowNames.add(flow.name));
+			}
+		}
+		assertEquals(20, flowNames.size());
+	}
+
+	@Test
+	public void testNewRequest_templateIsCopied() {
+		SliceDto slice = createTemplateSlice(1);
+		RequestTemplate obj = new RequestTemplate("create", slice);
+		slice.name = "modified";
+		slice.flows.get(0).reqBandWidth = 1;
+
+		SliceDto req1 = obj.newRequest(1);
+		req1.flows.get(0).reqBandWidth = 2;
+		SliceDto req2 = obj.newRequest(2);
+		assertEquals("slice0002", req2.name);
+		assertEquals(Integer.valueOf(100), req2.flows.get(0).reqBandWidth);
+	}
+
+	@Test
+	public void testNewRequest_noFlows() {
+		SliceDto slice = createTemplateSlice(0);
+		slice.flows = null;
+		RequestTemplate obj = new RequestTemplate("delete", slice);
+
+		SliceDto req = obj.newRequest(1);
+		assertEquals(Integer.valueOf(7), req.id);
+		assertNull(req.flows);
+	}
+}
@@ -0,0 +1,167 @@
+package org.o3project.mlo.client.impl.control;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.o3project.mlo.client.control.MloAccessException;
+import org.o3project.mlo.client.control.MloInvoker;
+import org.o3project.mlo.client.control.MloMethod;
+
+import org.o3project.mlo.server.dto.RestifRequestDto;
+import org.o3project.mlo.server.dto.RestifResponseDto;
+
+public class ResilientMloInvokerTest {
+
+	/**
+	 * Throws queued exceptions in order, and then responds.
+	 */
+	private static class FailingInvoker implements MloInvoker {
+		private final LinkedList<MloAccessException> failures = new LinkedList<MloAccessException>();
+		private int nCalls = 0;
+
+		@Override
+		public RestifResponseDto invoke(MloMethod method, RestifRequestDto reqDto, String path,
+				Map<String, String> params) throws MloAccessException {
+			nCalls += 1;
+			if (!failures.isEmpty()) {
+				throw failures.removeFirst();
+			}
+			return new RestifResponseDto();
+		}
+	}
+
+	private FailingInvoker target;
+
+	private ResilientMloInvoker obj;
+
+	@Before
+	public void setUp() throws Exception {
+		target = new FailingInvoker();
+		obj = new ResilientMloInvoker();
+		obj.setDelegate(target);
+		obj.setRetryParameters(1L, 10L);
+		obj.setCircuitBreakerParameters(4, 50, 100L);
+		obj.setMaxAttempts("READ", 3);
+	}
+
+	private static MloAccessException createStatusError(int statusCode) {
+		return new MloAccessException("MloServerAccessError/" + statusCode);
+	}
+
+	@Test
+	public void testInvoke_retried() throws Exception {
+		target.failures.add(createStatusError(503));
+		target.failures.add(new MloAccessException("MLO-SERVER cannot be connected:refused", new IOException("refused")));
+		assertNotNull(obj.invoke(null, null, "READ", null));
+		assertEquals(3, target.nCalls);
+		assertEquals(2L, obj.getRetryCount());
+	}
+
+	@Test
+	public void testInvoke_attemptsExhausted() throws Exception {
+		for (int idx = 0; idx < 3; idx += 1) {
+			target.failures.add(createStatusError(500));
+		}
+		try {
+			obj.invoke(null, null, "READ", null);
+			fail();
+		} catch (MloAccessException e) {
+			assertEquals("MloServerAccessError/500", e.getMessage());
+		}
+		assertEquals(3, target.nCalls);
+	}
+
+	@Test
+	public void testInvoke_notRetried() throws Exception {
+		// A client error is not retried.
+		target.failures.add(createStatusError(404));
+		try {
+			obj.invoke(null, null, "READ", null);
+			fail();
+		} catch (MloAccessException e) {
+			assertEquals("MloServerAccessError/404", e.getMessage());
+		}
+		// A non-idempotent operation is not retried by default.
+		target.failures.add(createStatusError(500));
+		try {
+			obj.invoke(null, null, "CREATE", null);
+			fail();
+		} catch (MloAccessException e) {
+			assertEquals("MloServerAccessError/500", e.getMessage());
+		}
+		assertEquals(2, target.nCalls);
+		assertEquals(0L, obj.getRetryCount());
+		assertEquals("CLOSED", obj.getCircuitState());
+	}
+
+	@Test
+	public void testInvoke_circuitBreaker() throws Exception {
+		obj.invoke(null, null, "CREATE", null);
+		obj.invoke(null, null, "CREATE", null);
+		for (int idx = 0; idx < 2; idx += 1) {
+			target.failures.add(createStatusError(502));
+			try {
+				obj.invoke(null, null, "CREATE", null);
+				fail();
+			} catch (MloAccessException e) {
+				assertEquals("MloServerAccessError/502", e.getMessage());
+			}
+		}
+		assertEquals("OPEN", obj.getCircuitState());
+		assertEquals(1L, obj.getCircuitOpenCount());
+
+		try {
+			obj.invoke(null, null, "CREATE", null);
+			fail();
+		} catch (MloAccessException e) {
+			assertTrue(e.getMessage().contains("circuit breaker"));
+		}
+		assertEquals(4, target.nCalls);
+		assertEquals(1L, obj.getRejectedCount());
+
+		// A trial request after the open duration closes the breaker.
+		Thread.sleep(200L);
+		obj.invoke(null, null, "CREATE", null);
+		assertEquals("CLOSED", obj.getCircuitState());
+		assertEquals(5, target.nCalls);
+	}
+
+	@Test
+	public void testInvoke_halfOpenFailed() throws Exception {
+		for (int idx = 0; idx < 4; idx += 1) {
+			target.failures.add(createStatusError(500));
+			try {
+				obj.invoke(null, null, "CREATE", null);
+				fail();
+			} catch (MloAccessException e) {
+				assertEquals("MloServerAccessError/500", e.getMessage());
+			}
+		}
+		assertEquals("OPEN", obj.getCircuitState());
+		Thread.sleep(200L);
+		target.failures.add(createStatusError(500));
+		try {
+			obj.invoke(null, null, "CREATE", null);
+			fail();
+		} catch (MloAccessException e) {
+			assertEquals("MloServerAccessError/500", e.getMessage());
+		}
+		assertEquals("OPEN", obj.getCircuitState());
+		assertEquals(2L, obj.getCircuitOpenCount());
+	}
+
+	@Test
+	public void testIsServerFailure() {
+		assertTrue(ResilientMloInvoker.isServerFailure(createStatusError(500)));
+		assertTrue(ResilientMloInvoker.isServerFailure(createStatusError(429)));
+		assertFalse(ResilientMloInvoker.isServerFailure(createStatusError(400)));
+		assertTrue(ResilientMloInvoker.isServerFailure(new MloAccessException("cannot be connected", new IOException())));
+		assertFalse(ResilientMloInvoker.isServerFailure(new MloAccessException("interrupted", new InterruptedException())));
+		assertFalse(ResilientMloInvoker.isServerFailure(new MloAccessException("templete response file is not found")));
+	}
+}
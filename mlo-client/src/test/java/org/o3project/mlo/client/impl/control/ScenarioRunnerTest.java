@@ -0,0 +1,69 @@
+package org.o3project.mlo.client.impl.control;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Properties;
+
+import org.junit.Test;
+
+import org.o3project.mlo.server.dto.FlowDto;
+import org.o3project.mlo.server.dto.SliceDto;
+
+public class ScenarioRunnerTest {
+
+	private static final String DATA_PATH = "src/test/resources/org/o3project/mlo/client/control/data";
+
+	@Test
+	public void testRun_closedLoop() throws Exception {
+		Scenario scenario = Scenario.load(new File(DATA_PATH, "scenario.001.properties").getPath());
+		SliceDataManagerStubImpl sdm = new SliceDataManagerStubImpl();
+		LoadStatistics statistics = new LoadStatistics();
+		ScenarioRunner obj = new ScenarioRunner(new MeasuringSliceDataManager(sdm, statistics), scenario);
+		obj.run();
+
+		assertTrue(obj.getOperationCount() > 0);
+		assertEquals(0L, obj.getFailureCount());
+		assertTrue(statistics.getOperationStats(LoadStatistics.OP_READ).getCount() > 0);
+		assertEquals(0L, statistics.getOperationStats(LoadStatistics.OP_LIST).getCount());
+
+		synchronized (sdm.createdSliceDtos) {
+			assertTrue(sdm.createdSliceDtos.size() >= scenario.getInitialSlices());
+			for (SliceDto slice : sdm.createdSliceDtos) {
+				assertTrue(1 <= slice.flows.size() && slice.flows.size() <= 3);
+				for (FlowDto flow : slice.flows) {
+					assertTrue(scenario.getSrcNodes().contains(flow.srcCENodeName));
+					assertEquals("osaka", flow.dstCENodeName);
+					int portNo = Integer.valueOf(flow.srcCEPortNo);
+					assertTrue(100 <= portNo && portNo <= 199);
+					assertEquals(Integer.valueOf(10), flow.reqDelay);
+				}
+			}
+		}
+		synchronized (sdm.updatedSliceDtos) {
+			for (SliceDto slice : sdm.updatedSliceDtos) {
+				for (FlowDto flow : slice.flows) {
+					assertEquals("mod", flow.type);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testRun_openLoop() throws Exception {
+		Properties props = new Properties();
+		props.setProperty("scenario.durationSec", "1");
+		props.setProperty("scenario.ratePerSec", "50");
+		props.setProperty("scenario.concurrency", "2");
+		props.setProperty("scenario.mix.create", "1");
+		SliceDataManagerStubImpl sdm = new SliceDataManagerStubImpl();
+		ScenarioRunner obj = new ScenarioRunner(sdm, Scenario.fromProperties(props));
+		obj.run();
+
+		assertEquals(50L, obj.getOperationCount());
+		assertEquals(50, obj.getPooledSliceCount());
+		synchronized (sdm.createdSliceDtos) {
+			assertEquals(50, sdm.createdSliceDtos.size());
+		}
+	}
+}
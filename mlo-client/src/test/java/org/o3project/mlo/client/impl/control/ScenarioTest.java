@@ -0,0 +1,95 @@
+package org.o3project.mlo.client.impl.control;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+
+import org.junit.Test;
+import org.o3project.mlo.client.control.MloInputDataException;
+
+public class ScenarioTest {
+
+	private static final String DATA_PATH = "src/test/resources/org/o3project/mlo/client/control/data";
+
+	@Test
+	public void testLoad() throws Exception {
+		Scenario obj = Scenario.load(new File(DATA_PATH, "scenario.001.properties").getPath());
+		assertEquals("test", obj.getName());
+		assertEquals(1, obj.getDurationSec());
+		assertEquals(4, obj.getConcurrency());
+		assertEquals(0, obj.getRatePerSec());
+		assertEquals(5, obj.getInitialSlices());
+		assertEquals(Integer.valueOf(0), obj.getMix().get(LoadStatistics.OP_LIST));
+		assertEquals(Arrays.asList("tokyo", "akashi"), obj.getSrcNodes());
+		assertEquals(199, obj.getPortMax());
+		assertEquals(10, obj.getDelay().next(new Random()));
+		assertEquals("0", obj.getProtectionLevel());
+	}
+
+	@Test
+	public void testNextOperation_weighted() throws Exception {
+		Properties props = new Properties();
+		props.setProperty("scenario.mix.read", "3");
+		props.setProperty("scenario.mix.delete", "1");
+		Scenario obj = Scenario.fromProperties(props);
+
+		Random random = new Random(1L);
+		Map<String, Integer> counts = new HashMap<String, Integer>();
+		counts.put(LoadStatistics.OP_READ, 0);
+		counts.put(LoadStatistics.OP_DELETE, 0);
+		for (int idx = 0; idx < 4000; idx += 1) {
+			String operation = obj.nextOperation(random);
+			counts.put(operation, counts.get(operation) + 1);
+		}
+		assertEquals(2, counts.size());
+		assertEquals(3000, counts.get(LoadStatistics.OP_READ), 150);
+	}
+
+	@Test
+	public void testIntDistribution() {
+		Random random = new Random(1L);
+		for (int idx = 0; idx < 100; idx += 1) {
+			int value = Scenario.IntDistribution.parse("uniform:5:7").next(random);
+			assertTrue(5 <= value && value <= 7);
+			value = Scenario.IntDistribution.parse("choice:10, 9999").next(random);
+			assertTrue(value == 10 || value == 9999);
+		}
+		assertEquals(3, Scenario.IntDistribution.parse("fixed:3").next(random));
+		assertEquals(3, Scenario.IntDistribution.parse(" 3 ").next(random));
+	}
+
+	@Test
+	public void testFromProperties_invalid() throws Exception {
+		Properties props = new Properties();
+		assertInvalid(props, "No operation is weighted in scenario.mix.*");
+
+		props.setProperty("scenario.mix.create", "1");
+		props.setProperty("scenario.concurrency", "0");
+		assertInvalid(props, "Too small value: scenario.concurrency=0");
+
+		props.setProperty("scenario.concurrency", "1");
+		props.setProperty("scenario.bandWidth", "uniform:9:1");
+		assertInvalid(props, "Invalid distribution: scenario.bandWidth=uniform:9:1");
+
+		try {
+			Scenario.load(new File(DATA_PATH, "notExist.properties").getPath());
+			fail();
+		} catch (MloInputDataException e) {
+			assertTrue(e.getMessage().startsWith("Failed to read scenario file: "));
+		}
+	}
+
+	private static void assertInvalid(Properties props, String message) {
+		try {
+			Scenario.fromProperties(props);
+			fail();
+		} catch (MloInputDataException e) {
+			assertEquals(message, e.getMessage());
+		}
+	}
+}
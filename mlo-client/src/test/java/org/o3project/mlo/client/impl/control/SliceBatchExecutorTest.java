@@ -0,0 +1,215 @@
+package org.o3project.mlo.client.impl.control;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.o3project.mlo.client.control.MloAccessException;
+import org.o3project.mlo.client.control.MloClientException;
+import org.o3project.mlo.client.control.SliceBatchResult;
+import org.o3project.mlo.client.control.SliceDataManager;
+import org.o3project.mlo.client.control.SliceHandler;
+
+import org.o3project.mlo.server.dto.SliceDto;
+
+public class SliceBatchExecutorTest {
+
+	private static final int N_SLICES = 20;
+
+	/**
+	 * Records the maximum number of concurrent operations, and fails odd slices.
+	 */
+	private static class ConcurrencyOperation implements SliceOperation {
+		private final AtomicInteger nRunning = new AtomicInteger();
+		private final AtomicInteger maxRunning = new AtomicInteger();
+
+		@Override
+		public SliceDto operate(SliceDataManager sliceDataManager, SliceDto reqSliceDto) throws MloClientException {
+			int running = nRunning.incrementAndGet();
+			while (true) {
+				int max = maxRunning.get();
+				if (running <= max || maxRunning.compareAndSet(max, running)) {
+					break;
+				}
+			}
+			try {
+				Thread.sleep(20L);
+			} catch (InterruptedException e) {
+				throw new MloAccessException("interrupted", e);
+			} finally {
+				nRunning.decrementAndGet();
+			}
+			if (reqSliceDto.id % 2 == 1) {
+				throw new MloAccessException("MloServerAccessError/500");
+			}
+			SliceDto resSlice = new SliceDto();
+			resSlice.id = reqSliceDto.id;
+			resSlice.name = reqSliceDto.name;
+			return resSlice;
+		}
+	}
+
+	private List<SliceDto> createReqs(int nSlices) {
+		List<SliceDto> slices = new ArrayList<SliceDto>();
+		for (int idx = 0; idx < nSlices; idx += 1) {
+			SliceDto slice = new SliceDto();
+			slice.id = idx;
+			slice.name = "slice" + idx;
+			slices.add(slice);
+		}
+		return slices;
+	}
+
+	@Test
+	public void testExecute() throws Exception {
+		ConcurrencyOperation operation = new ConcurrencyOperation();
+		List<SliceDto> reqs = createReqs(N_SLICES);
+		List<SliceBatchResult> results = SliceBatchExecutor.execute(null, operation, reqs, 4);
+
+		assertEquals(N_SLICES, results.size());
+		for (int idx = 0; idx < N_SLICES; idx += 1) {
+			SliceBatchResult result = results.get(idx);
+			assertSame(reqs.get(idx), result.getRequest());
+			if (idx % 2 == 1) {
+				assertFalse(result.isSucceeded());
+				assertNull(result.getResponse());
+				assertEquals("MloServerAccessError/500", result.getException().getMessage());
+			} else {
+				assertTrue(result.isSucceeded());
+				assertEquals(Integer.valueOf(idx), result.getResponse().id);
+			}
+		}
+		assertTrue(operation.maxRunning.get() <= 4);
+		assertTrue(operation.maxRunning.get() > 1);
+	}
+
+	@Test
+	public void testExecute_iterator() throws Exception {
+		final ConcurrencyOperation operation = new ConcurrencyOperation();
+		final AtomicInteger nPulled = new AtomicInteger();
+		final AtomicInteger maxAlive = new AtomicInteger();
+		final AtomicInteger nHandled = new AtomicInteger();
+		final Iterator<SliceDto> reqs = createReqs(N_SLICES).iterator();
+		Iterator<SliceDto> lazyReqs = new Iterator<SliceDto>() {
+			@Override
+			public boolean hasNext() {
+				return reqs.hasNext();
+			}
+
+			@Override
+			public SliceDto next() {
+				int nAlive = nPulled.incrementAndGet() - nHandled.get();
+				maxAlive.set(Math.max(maxAlive.get(), nAlive));
+				return reqs.next();
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+		int nOperated = SliceBatchExecutor.execute(null, operation, lazyReqs, AdaptiveConcurrencyLimiter.createFixed(4),
+				new SliceBatchExecutor.ResultHandler() {
+					@Override
+					public void handleResult(int index, SliceBatchResult result) {
+						assertEquals(Integer.valueOf(index), result.getRequest().id);
+						assertEquals(index % 2 == 0, result.isSucceeded());
+						nHandled.incrementAndGet();
+					}
+				});
+
+		assertEquals(N_SLICES, nOperated);
+		assertEquals(N_SLICES, nHandled.get());
+		// A slice is pulled only one ahead of those in flight,
+		// so that slices alive are at most those in flight, those being handled by the threads and the pulled one.
+		assertTrue(maxAlive.get() <= 4 * 2 + 1);
+		assertTrue(operation.maxRunning.get() <= 4);
+	}
+
+	@Test(timeout = 10000L)
+	public void testExecute_failingIterator() throws Exception {
+		final Iterator<SliceDto> reqs = createReqs(2).iterator();
+		Iterator<SliceDto> failingReqs = new Iterator<SliceDto>() {
+			private int nPulled = 0;
+
+			@Override
+			public boolean hasNext() {
+				return reqs.hasNext();
+			}
+
+			@Override
+			public SliceDto next() {
+				nPulled += 1;
+				if (nPulled == 2) {
+					throw new IllegalStateException("failed to pull");
+				}
+				return reqs.next();
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+		AdaptiveConcurrencyLimiter limiter = AdaptiveConcurrencyLimiter.createFixed(1);
+		try {
+			SliceBatchExecutor.execute(null, new ConcurrencyOperation(), failingReqs, limiter,
+					new SliceBatchExecutor.ResultHandler() {
+						@Override
+						public void handleResult(int index, SliceBatchResult result) {
+							// Does nothing.
+						}
+					});
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("failed to pull", e.getMessage());
+		}
+		// No permit is leaked by the failure, so that the only permit can be acquired.
+		limiter.release(limiter.acquire(), false);
+	}
+
+	@Test
+	public void testExecuteForEachSlice_failedToReceive() throws Exception {
+		SliceDataManagerStubImpl sdm = new SliceDataManagerStubImpl() {
+			@Override
+			public void forEachSlice(SliceHandler handler) throws MloClientException {
+				for (SliceDto slice : createReqs(N_SLICES)) {
+					handler.handleSlice(slice);
+				}
+				throw new MloAccessException("MLO-SERVER cannot be connected:Connection reset");
+			}
+		};
+		final AtomicInteger nHandled = new AtomicInteger();
+		ConcurrencyOperation operation = new ConcurrencyOperation();
+		try {
+			SliceBatchExecutor.executeForEachSlice(sdm, operation, AdaptiveConcurrencyLimiter.createFixed(4),
+					new SliceBatchExecutor.ResultHandler() {
+						@Override
+						public void handleResult(int index, SliceBatchResult result) {
+							assertEquals(Integer.valueOf(index), result.getRequest().id);
+							nHandled.incrementAndGet();
+						}
+					});
+			fail();
+		} catch (MloAccessException e) {
+			assertEquals("MLO-SERVER cannot be connected:Connection reset", e.getMessage());
+		}
+		// The slices received before the failure are operated.
+		assertEquals(N_SLICES, nHandled.get());
+		assertTrue(operation.maxRunning.get() <= 4);
+	}
+
+	@Test
+	public void testExecute_empty() throws Exception {
+		assertTrue(SliceBatchExecutor.execute(null, new ConcurrencyOperation(), createReqs(0), 4).isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testExecute_illegalParallelism() throws Exception {
+		SliceBatchExecutor.execute(null, new ConcurrencyOperation(), createReqs(1), 0);
+	}
+}
@@ -12,6 +12,7 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.xml.bind.JAXB;
@@ -25,6 +26,7 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.o3project.mlo.client.control.MloClientException;
+import org.o3project.mlo.client.control.SliceHandler;
 import org.o3project.mlo.client.impl.control.SliceDataManagerImpl;
 
 public class SliceDataManagerImplTest {
@@ -74,6 +76,22 @@ public class SliceDataManagerImplTest {
         assertEquals("", "");
     }
 
+    @Test
+    public void testForEachSlice() throws Exception {
+        dummyInvoker.setXmlName("list.res.xml");// Specifies response file.
+        sliceDataManagerImpl.setMloInvoker(dummyInvoker);// Sets dummy invoker instance.
+        final List<SliceDto> handled = new ArrayList<SliceDto>();
+        sliceDataManagerImpl.forEachSlice(new SliceHandler() {
+            @Override
+            public void handleSlice(SliceDto slice) {
+                handled.add(slice);
+            }
+        }); // Executes
+        assertEquals(3, handled.size());
+        assertEquals("sliceA", handled.get(0).name);
+        assertEquals("sliceC", handled.get(2).name);
+    }
+
     @Test
     public void testGetSliceInfo() {
         try {
@@ -0,0 +1,178 @@
+/**
+ * SliceDataManagerStubImpl.java
+ * (C) 2014,2015, Hitachi, Ltd.
+ */
+package org.o3project.mlo.client.impl.control;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.o3project.mlo.server.dto.FlowDto;
+import org.o3project.mlo.server.dto.RestifErrorDto;
+import org.o3project.mlo.server.dto.SliceDto;
+
+import org.o3project.mlo.client.control.MloClientException;
+import org.o3project.mlo.client.control.MloNbiException;
+import org.o3project.mlo.client.control.SliceBatchResult;
+import org.o3project.mlo.client.control.SliceDataManager;
+import org.o3project.mlo.client.control.SliceHandler;
+
+/**
+ * This class is the stub of {@link SliceDataManager}, which records the requested slices.
+ */
+class SliceDataManagerStubImpl implements SliceDataManager {
+	
+	Boolean isNullList = false;
+	Boolean isFailedToGetList = false;
+	Boolean isFailedToGetInfo = false;
+	Boolean isFailedToCreateSlice = false;
+	Boolean isFailedToUpdateSlice = false;
+	Boolean isFailedToDeleteSlice = false;
+	
+	List<SliceDto> createdSliceDtos = new ArrayList<>();
+	
+	List<SliceDto> deletedSliceDtos = new ArrayList<>();
+	
+	List<SliceDto> updatedSliceDtos = new ArrayList<>();
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#forEachSlice(org.o3project.mlo.client.control.SliceHandler)
+	 */
+	@Override
+	public void forEachSlice(SliceHandler handler) throws MloClientException {
+		List<SliceDto> list = getSliceList();
+		if (list != null) {
+			for (SliceDto slice : list) {
+				handler.handleSlice(slice);
+			}
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#getSliceList()
+	 */
+	@Override
+	public List<SliceDto> getSliceList() throws MloClientException {
+		if (isFailedToGetList) {
+			throw new MloNbiException("aMessageInGettingSlices", 
+					createErrorDto("InGettingSlices"));
+		}
+		if (isNullList) {
+			return null;
+		}
+		List<SliceDto> list = new ArrayList<SliceDto>();
+		synchronized (createdSliceDtos) {
+			for (SliceDto sliceDto : createdSliceDtos) {
+				SliceDto slice = new SliceDto();
+				slice.id = sliceDto.id;
+				slice.name = sliceDto.name;
+				list.add(slice);
+			}
+		}
+		return list;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#getSliceInfo(org.o3project.mlo.server.dto.SliceDto)
+	 */
+	@Override
+	public SliceDto getSliceInfo(SliceDto slice) throws MloClientException {
+		synchronized (createdSliceDtos) {
+			if (isFailedToGetInfo) {
+				throw new MloNbiException("aMessageInGettingInfo", 
+						createErrorDto("InGettingInfo"));
+			}
+			SliceDto ret = null;
+			for (SliceDto sliceDto : createdSliceDtos) {
+				if (sliceDto.id.equals(slice.id)) {
+					ret = sliceDto;
+					break;
+				}
+			}
+			return ret;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#createSliceInfo(org.o3project.mlo.server.dto.SliceDto)
+	 */
+	@Override
+	public SliceDto createSliceInfo(SliceDto slice) throws MloClientException {
+		synchronized (createdSliceDtos) {
+			slice.id = Integer.valueOf(slice.name.replaceAll("\\D", ""));
+			for (FlowDto flow : slice.flows) {
+				flow.id = Integer.valueOf(flow.name.replaceAll("\\D", ""));
+			}
+			createdSliceDtos.add(slice);
+			if (isFailedToCreateSlice) {
+				throw new MloNbiException("aMessageInCreatingSlice", 
+						createErrorDto("InCreatingSlice"));
+			}
+			return slice;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#updateSliceInfo(org.o3project.mlo.server.dto.SliceDto)
+	 */
+	@Override
+	public SliceDto updateSliceInfo(SliceDto slice) throws MloClientException {
+		synchronized (updatedSliceDtos) {
+			updatedSliceDtos.add(slice);
+			if (isFailedToUpdateSlice) {
+				throw new MloNbiException("aMessageInUpdatingSlice", 
+						createErrorDto("InUpdatingSlice"));
+			}
+			return slice;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#deleteSliceInfo(org.o3project.mlo.server.dto.SliceDto)
+	 */
+	@Override
+	public SliceDto deleteSliceInfo(SliceDto slice) throws MloClientException {
+		synchronized (deletedSliceDtos) {
+			deletedSliceDtos.add(slice);
+			if (isFailedToDeleteSlice) {
+				throw new MloNbiException("aMessageInDeletingSlice", 
+						createErrorDto("InDeletingSlice"));
+			}
+			return slice;
+		}
+	}	
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#createSliceInfos(java.util.List, int)
+	 */
+	@Override
+	public List<SliceBatchResult> createSliceInfos(List<SliceDto> slices, int parallelism) throws InterruptedException {
+		return SliceBatchExecutor.execute(this, SliceBatchExecutor.CREATE, slices, parallelism);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#updateSliceInfos(java.util.List, int)
+	 */
+	@Override
+	public List<SliceBatchResult> updateSliceInfos(List<SliceDto> slices, int parallelism) throws InterruptedException {
+		return SliceBatchExecutor.execute(this, SliceBatchExecutor.UPDATE, slices, parallelism);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.o3project.mlo.client.control.SliceDataManager#deleteSliceInfos(java.util.List, int)
+	 */
+	@Override
+	public List<SliceBatchResult> deleteSliceInfos(List<SliceDto> slices, int parallelism) throws InterruptedException {
+		return SliceBatchExecutor.execute(this, SliceBatchExecutor.DELETE, slices, parallelism);
+	}
+
+	/**
+	 * @return
+	 */
+	RestifErrorDto createErrorDto(String suffix) {
+		RestifErrorDto errorDto = new RestifErrorDto();
+		errorDto.cause = "aCause" + suffix;
+		errorDto.detail = "aDetail" + suffix;
+		return errorDto;
+	}
+}
@@ -0,0 +1,79 @@
+package org.o3project.mlo.client.impl.control;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.o3project.mlo.server.dto.FlowDto;
+import org.o3project.mlo.server.dto.LinkInfoDto;
+import org.o3project.mlo.server.dto.SliceDto;
+
+public class SliceDtoUtilTest {
+
+	@Test
+	public void testCopyFlow_allFields() throws Exception {
+		FlowDto flow = new FlowDto();
+		int value = 1;
+		for (Field field : getInstanceFields()) {
+			field.set(flow, createValue(field, value));
+			value += 1;
+		}
+
+		FlowDto copied = SliceDtoUtil.copyFlow(flow);
+		assertNotSame(flow, copied);
+		for (Field field : getInstanceFields()) {
+			assertNotNull(field.getName(), field.get(copied));
+			assertEquals(field.getName(), field.get(flow), field.get(copied));
+		}
+		assertNotSame(flow.linkInfoList, copied.linkInfoList);
+	}
+
+	@Test
+	public void testCopySlice() throws Exception {
+		SliceDto slice = new SliceDto();
+		slice.id = 1;
+		slice.name = "slice1";
+		slice.flows = new ArrayList<FlowDto>();
+		FlowDto flow = new FlowDto();
+		flow.id = 2;
+		flow.flowTypeName = "osaka11slow";
+		slice.flows.add(flow);
+
+		SliceDto copied = SliceDtoUtil.copySlice(slice);
+		assertEquals(Integer.valueOf(1), copied.id);
+		assertEquals("slice1", copied.name);
+		assertNotSame(slice.flows, copied.flows);
+		assertEquals(Integer.valueOf(2), copied.flows.get(0).id);
+		assertEquals("osaka11slow", copied.flows.get(0).flowTypeName);
+		assertNotSame(flow, copied.flows.get(0));
+	}
+
+	private static List<Field> getInstanceFields() {
+		List<Field> fields = new ArrayList<Field>();
+		for (Field field : FlowDto.class.getFields()) {
+			if (!Modifier.isStatic(field.getModifiers())) {
+				fields.add(field);
+			}
+		}
+		return fields;
+	}
+
+	private static Object createValue(Field field, int value) {
+		Class<?> type = field.getType();
+		if (type == String.class) {
+			return field.getName() + value;
+		} else if (type == Integer.class) {
+			return Integer.valueOf(value);
+		} else if (type == List.class) {
+			List<LinkInfoDto> linkInfoList = new ArrayList<LinkInfoDto>();
+			linkInfoList.add(new LinkInfoDto());
+			return linkInfoList;
+		}
+		throw new IllegalArgumentException("Unsupported field: " + field);
+	}
+}
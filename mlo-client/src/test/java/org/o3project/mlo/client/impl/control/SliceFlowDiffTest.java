@@ -0,0 +1,121 @@
+package org.o3project.mlo.client.impl.control;
+
+import static org.junit.Assert.*;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.o3project.mlo.server.dto.FlowDto;
+import org.o3project.mlo.server.dto.RestifResponseDto;
+import org.o3project.mlo.server.dto.SliceDto;
+
+public class SliceFlowDiffTest {
+
+	private SliceDto registeredSlice;
+
+	@Before
+	public void setUp() throws Exception {
+		registeredSlice = new SliceDto();
+		registeredSlice.id = 1;
+		registeredSlice.name = "slice1";
+		registeredSlice.flows = new ArrayList<FlowDto>();
+		for (int id = 1; id <= 3; id += 1) {
+			registeredSlice.flows.add(createFlow(id, "flow" + id, 10));
+		}
+	}
+
+	private FlowDto createFlow(Integer id, String name, Integer bandWidth) {
+		FlowDto flow = new FlowDto();
+		flow.id = id;
+		flow.name = name;
+		flow.srcCENodeName = "tokyo";
+		flow.srcCEPortNo = "00000001";
+		flow.dstCENodeName = "osaka";
+		flow.dstCEPortNo = "00000002";
+		flow.reqBandWidth = bandWidth;
+		flow.reqDelay = 20;
+		flow.protectionLevel = "0";
+		flow.usedBandWidth = 5;
+		return flow;
+	}
+
+	@Test
+	public void testDiff() {
+		List<FlowDto> desiredFlows = new ArrayList<FlowDto>();
+		// flow1 is unchanged except for a parameter decided by mlo-srv.
+		FlowDto flow1 = createFlow(1, "flow1", 10);
+		flow1.usedBandWidth = 0;
+		desiredFlows.add(flow1);
+		desiredFlows.add(createFlow(2, "flow2", 100));
+		desiredFlows.add(createFlow(null, "flow4", 10));
+		// flow3 is deleted.
+
+		SliceDto reqSlice = SliceFlowDiff.diff(registeredSlice, desiredFlows);
+		assertEquals(Integer.valueOf(1), reqSlice.id);
+		assertNull(reqSlice.name);
+		assertEquals(3, reqSlice.flows.size());
+
+		FlowDto modFlow = reqSlice.flows.get(0);
+		assertEquals("mod", modFlow.type);
+		assertEquals(Integer.valueOf(2), modFlow.id);
+		assertEquals(Integer.valueOf(100), modFlow.reqBandWidth);
+		assertNull(modFlow.usedBandWidth);
+
+		FlowDto delFlow = reqSlice.flows.get(1);
+		assertEquals("del", delFlow.type);
+		assertEquals(Integer.valueOf(3), delFlow.id);
+		assertNull(delFlow.name);
+
+		FlowDto addFlow = reqSlice.flows.get(2);
+		assertEquals("add", addFlow.type);
+		assertNull(addFlow.id);
+		assertEquals("flow4", addFlow.name);
+	}
+
+	@Test
+	public void testDiff_unchanged() {
+		List<FlowDto> desiredFlows = new ArrayList<FlowDto>();
+		for (FlowDto flow : registeredSlice.flows) {
+			desiredFlows.add(createFlow(flow.id, flow.name, flow.reqBandWidth));
+		}
+		assertTrue(SliceFlowDiff.diff(registeredSlice, desiredFlows).flows.isEmpty());
+	}
+
+	@Test
+	public void testIsChanged() {
+		FlowDto registeredFlow = registeredSlice.flows.get(0);
+		FlowDto desiredFlow = createFlow(1, "flow1", 10);
+		assertFalse(SliceFlowDiff.isChanged(registeredFlow, desiredFlow));
+		desiredFlow.dstCEPortNo = "00000003";
+		assertTrue(SliceFlowDiff.isChanged(registeredFlow, desiredFlow));
+		desiredFlow = createFlow(1, "flow1", 10);
+		desiredFlow.protectionLevel = null;
+		assertTrue(SliceFlowDiff.isChanged(registeredFlow, desiredFlow));
+	}
+
+	@Test
+	public void testDiff_readResponse() throws Exception {
+		SliceDto readSlice;
+		try (InputStream istream = getClass().getResourceAsStream("/org/o3project/mlo/client/control/dummyInvoker.read.res.xml")) {
+			readSlice = MloJaxbEngine.getDefault().unmarshal(istream, RestifResponseDto.class).slices.get(0);
+		}
+
+		// The flow which is not edited on the view, whose requested parameters are unknown to READ.
+		List<FlowDto> desiredFlows = new ArrayList<FlowDto>();
+		FlowDto flow1 = createFlow(1, "flow1", 10);
+		desiredFlows.add(flow1);
+		assertFalse(SliceFlowDiff.isChanged(readSlice.flows.get(0), flow1));
+		assertTrue(SliceFlowDiff.diff(readSlice, desiredFlows).flows.isEmpty());
+
+		// A parameter present on the registered flow is compared.
+		readSlice.flows.get(0).reqBandWidth = 100;
+		SliceDto reqSlice = SliceFlowDiff.diff(readSlice, desiredFlows);
+		assertEquals(1, reqSlice.flows.size());
+		assertEquals("mod", reqSlice.flows.get(0).type);
+		assertEquals(Integer.valueOf(10), reqSlice.flows.get(0).reqBandWidth);
+	}
+}
@@ -7,20 +7,24 @@ package org.o3project.mlo.client.impl.control;
 import static org.junit.Assert.*;
 
 import java.io.File;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.o3project.mlo.server.dto.FlowDto;
-import org.o3project.mlo.server.dto.RestifErrorDto;
+import org.o3project.mlo.server.dto.RestifResponseDto;
 import org.o3project.mlo.server.dto.SliceDto;
 import org.o3project.mlo.server.logic.ConfigProvider;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.o3project.mlo.client.control.FailurePolicy;
 import org.o3project.mlo.client.control.MloClientException;
 import org.o3project.mlo.client.control.MloNbiException;
 import org.o3project.mlo.client.control.SliceDataManager;
@@ -203,12 +207,8 @@ public class SliceMultiRequestImplTest {
 		sdm.isNullList = true;
 		
 		obj.doCreateSlices(sdm, 3, 10, 0, 0);
-		try {
-			obj.doUpdateAllSlices(sdm, 1, 2);
-			fail();
-		} catch (IllegalStateException e) {
-			assertEquals(e.getMessage(), "getSliceList is null");
-		}
+		// No slice is received from the null list.
+		obj.doUpdateAllSlices(sdm, 1, 2);
 
 		synchronized (sdm.updatedSliceDtos) {
 			assertEquals(0, sdm.updatedSliceDtos.size());
@@ -239,6 +239,69 @@ public class SliceMultiRequestImplTest {
 		}
 	}
 
+	/**
+	 * Test method for {@link org.o3project.mlo.client.impl.control.SliceMultiRequestImpl#doUpdateAllSlices(org.o3project.mlo.client.control.SliceDataManager, java.lang.Integer, java.lang.Integer, org.o3project.mlo.client.control.FailurePolicy)}.
+	 * @throws InterruptedException 
+	 */
+	@Test
+	public void testDoUpdateAllSlices_Collect_FailedToGetSomeSliceInfo() throws InterruptedException {
+		SliceMultiRequestImpl obj = initObject("client.config.demoApl.properties");
+		
+		SliceDataManagerStubImpl sdm = new SliceDataManagerStubImpl() {
+			@Override
+			public SliceDto getSliceInfo(SliceDto slice) throws MloClientException {
+				if (Integer.valueOf(1).equals(slice.id)) {
+					throw new MloNbiException("aMessageInGettingInfo", createErrorDto("InGettingInfo"));
+				}
+				return super.getSliceInfo(slice);
+			}
+		};
+		
+		obj.doCreateSlices(sdm, 3, 10, 0, 0);
+		obj.doUpdateAllSlices(sdm, 1, 2, FailurePolicy.COLLECT);
+
+		synchronized (sdm.updatedSliceDtos) {
+			assertEquals(2, sdm.updatedSliceDtos.size());
+			for (SliceDto updated : sdm.updatedSliceDtos) {
+				assertFalse(Integer.valueOf(1).equals(updated.id));
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link org.o3project.mlo.client.impl.control.SliceMultiRequestImpl#doUpdateAllSlices(org.o3project.mlo.client.control.SliceDataManager, java.lang.Integer, java.lang.Integer, org.o3project.mlo.client.control.FailurePolicy)}.
+	 * @throws InterruptedException 
+	 */
+	@Test
+	public void testDoUpdateAllSlices_ConcurrentReads() throws InterruptedException {
+		SliceMultiRequestImpl obj = initObject("client.config.demoApl.properties");
+		final int nSlice = 10;
+		final CountDownLatch readLatch = new CountDownLatch(nSlice);
+		
+		// Each read waits until all reads have started, which never happens if reads are serial.
+		SliceDataManagerStubImpl sdm = new SliceDataManagerStubImpl() {
+			@Override
+			public SliceDto getSliceInfo(SliceDto slice) throws MloClientException {
+				readLatch.countDown();
+				try {
+					if (!readLatch.await(10, TimeUnit.SECONDS)) {
+						throw new MloNbiException("aMessageInGettingInfo", createErrorDto("InGettingInfo"));
+					}
+				} catch (InterruptedException e) {
+					throw new MloNbiException("aMessageInGettingInfo", createErrorDto("InGettingInfo"));
+				}
+				return super.getSliceInfo(slice);
+			}
+		};
+		
+		obj.doCreateSlices(sdm, nSlice, 1, 0, 0);
+		obj.doUpdateAllSlices(sdm, 1, 2, FailurePolicy.FAIL_FAST);
+
+		synchronized (sdm.updatedSliceDtos) {
+			assertEquals(nSlice, sdm.updatedSliceDtos.size());
+		}
+	}
+
 	/**
 	 * Test method for {@link org.o3project.mlo.client.impl.control.SliceMultiRequestImpl#doDeleteAllSlices(org.o3project.mlo.client.control.SliceDataManager)}.
 	 * @throws InterruptedException 
@@ -324,12 +387,8 @@ public class SliceMultiRequestImplTest {
 		SliceDataManagerStubImpl sdm = new SliceDataManagerStubImpl();
 		sdm.isNullList = true;
 		
-		try {
-			obj.doDeleteAllSlices(sdm);
-			fail();
-		} catch (IllegalStateException e) {
-			assertEquals(e.getMessage(), "getSliceList is null");
-		}
+		// No slice is received from the null list.
+		obj.doDeleteAllSlices(sdm);
 
 		synchronized (sdm.deletedSliceDtos) {
 			assertEquals(0, sdm.deletedSliceDtos.size());
@@ -405,6 +464,18 @@ public class SliceMultiRequestImplTest {
 	 * @param flowName
 	 * @param cePortNo
 	 */
+	/**
+	 * Test method for {@link org.o3project.mlo.client.impl.control.SliceMultiRequestImpl#formatNumber(java.lang.String, long)}.
+	 */
+	@Test
+	public void testFormatNumber() {
+		assertEquals("slice00000000", SliceMultiRequestImpl.formatNumber("slice", 0L));
+		assertEquals("flow00012345", SliceMultiRequestImpl.formatNumber("flow", 12345L));
+		assertEquals("00000100", SliceMultiRequestImpl.formatNumber("", 100L));
+		assertEquals("slice123456789", SliceMultiRequestImpl.formatNumber("slice", 123456789L));
+		assertEquals(String.format("slice%08d", -1), SliceMultiRequestImpl.formatNumber("slice", -1L));
+	}
+
 	private void _assertRequestFlowDto(FlowDto flowDto, final String flowName,
 			final String cePortNo) {
 		assertEquals(flowName, flowDto.name);
@@ -428,6 +499,47 @@ public class SliceMultiRequestImplTest {
 		assertEquals(null, flowDto.underlayLogicalList);
 	}
 
+	/**
+	 * Test method for {@link org.o3project.mlo.client.impl.control.SliceMultiRequestImpl#updateSliceDto(org.o3project.mlo.server.dto.SliceDto, java.lang.Integer, java.lang.Integer)}.
+	 */
+	@Test
+	public void testUpdateSliceDto_readResponse() throws Exception {
+		SliceMultiRequestImpl obj = initObject("client.config.demoApl.properties");
+
+		// The registered slice has only parameters of READ response.
+		SliceDto registeredSlice = readSliceResource("/org/o3project/mlo/client/control/dummyInvoker.read.res.xml");
+		assertNull(registeredSlice.flows.get(0).name);
+		assertNull(registeredSlice.flows.get(0).reqDelay);
+
+		SliceDto updateSlice = obj.updateSliceDto(registeredSlice, null, 10);
+		assertEquals(Integer.valueOf(1), updateSlice.id);
+		assertEquals(1, updateSlice.flows.size());
+		FlowDto flowDto = updateSlice.flows.get(0);
+		assertEquals("mod", flowDto.type);
+		assertEquals(Integer.valueOf(1), flowDto.id);
+		assertEquals("flow00000000", flowDto.name);
+		assertEquals("tokyo", flowDto.srcCENodeName);
+		assertEquals("00000100", flowDto.srcCEPortNo);
+		assertEquals("osaka", flowDto.dstCENodeName);
+		assertEquals("00000100", flowDto.dstCEPortNo);
+		assertEquals(Integer.valueOf(1), flowDto.reqBandWidth);
+		assertEquals(Integer.valueOf(10), flowDto.reqDelay);
+		assertEquals("0", flowDto.protectionLevel);
+		assertNull(flowDto.usedBandWidth);
+		assertNull(flowDto.linkInfoList);
+
+		// Without the delay time, either of the large one and the small one is requested.
+		flowDto = obj.updateSliceDto(registeredSlice, 100, null).flows.get(0);
+		assertEquals(Integer.valueOf(100), flowDto.reqBandWidth);
+		assertTrue(Integer.valueOf(9999).equals(flowDto.reqDelay) || Integer.valueOf(10).equals(flowDto.reqDelay));
+	}
+
+	private static SliceDto readSliceResource(String resourceName) throws Exception {
+		try (InputStream istream = SliceMultiRequestImplTest.class.getResourceAsStream(resourceName)) {
+			return MloJaxbEngine.getDefault().unmarshal(istream, RestifResponseDto.class).slices.get(0);
+		}
+	}
+
 	/**
 	 * Test method for {@link org.o3project.mlo.client.impl.control.SliceMultiRequestImpl#createRequestFlowDto(java.lang.String, java.lang.Integer)}.
 	 */
@@ -565,6 +677,51 @@ public class SliceMultiRequestImplTest {
 		}
 	}
 
+	/**
+	 * Test method for {@link org.o3project.mlo.client.impl.control.SliceMultiRequestImpl#doProcess(org.o3project.mlo.client.control.SliceMultiRequest, org.o3project.mlo.client.control.SliceDataManager, java.lang.String[])}.
+	 */
+	@Test
+	public void testDoProcess_UpdateAll_FailurePolicy() {
+		SliceMultiRequestImpl obj = initObject("client.config.demoApl.properties");
+		SliceDataManagerStubImpl sdm = new SliceDataManagerStubImpl();
+		String[] createArgs = new String[]{"-m", "create", "3", "3"};
+		
+		SliceMultiRequestImpl.doProcess(obj, sdm, createArgs);
+		SliceMultiRequestImpl.doProcess(obj, sdm, new String[]{"-m", "update", "collect"});
+		SliceMultiRequestImpl.doProcess(obj, sdm, new String[]{"-m", "update", "2", "4", "failfast"});
+
+		synchronized (sdm.updatedSliceDtos) {
+			assertEquals(6, sdm.updatedSliceDtos.size());
+		}
+		assertEquals(FailurePolicy.FAIL_FAST, FailurePolicy.fromWord("fail-fast"));
+		assertEquals(FailurePolicy.COLLECT, FailurePolicy.fromWord("COLLECT"));
+		assertNull(FailurePolicy.fromWord("5000"));
+	}
+
+	/**
+	 * Test method for {@link org.o3project.mlo.client.impl.control.SliceMultiRequestImpl#doProcess(org.o3project.mlo.client.control.SliceMultiRequest, org.o3project.mlo.client.control.SliceDataManager, java.lang.String[])}.
+	 */
+	@Test
+	public void testDoProcess_Rate() {
+		SliceMultiRequestImpl obj = initObject("client.config.demoApl.properties");
+		SliceDataManagerStubImpl sdm = new SliceDataManagerStubImpl();
+		
+		SliceMultiRequestImpl.doProcess(obj, sdm, new String[]{"-m", "rate", "create", "20", "1"});
+		SliceMultiRequestImpl.doProcess(obj, sdm, new String[]{"-m", "rate", "update", "20", "1"});
+
+		synchronized (sdm.createdSliceDtos) {
+			assertEquals(20, sdm.createdSliceDtos.size());
+			// The names do not collide with those of the create mode.
+			for (SliceDto created : sdm.createdSliceDtos) {
+				assertTrue(created.name.startsWith("rateslice"));
+				assertTrue(created.flows.get(0).name.startsWith("rateflow"));
+			}
+		}
+		synchronized (sdm.updatedSliceDtos) {
+			assertEquals(0, sdm.updatedSliceDtos.size());
+		}
+	}
+
 	/**
 	 * Test method for {@link org.o3project.mlo.client.impl.control.SliceMultiRequestImpl#createRequestFlowDto(java.lang.String, java.lang.Integer)}.
 	 */
@@ -647,123 +804,3 @@ public class SliceMultiRequestImplTest {
 		}
 	}
 }
-
-class SliceDataManagerStubImpl implements SliceDataManager {
-	
-	Boolean isNullList = false;
-	Boolean isFailedToGetList = false;
-	Boolean isFailedToGetInfo = false;
-	Boolean isFailedToCreateSlice = false;
-	Boolean isFailedToUpdateSlice = false;
-	Boolean isFailedToDeleteSlice = false;
-	
-	List<SliceDto> createdSliceDtos = new ArrayList<>();
-	
-	List<SliceDto> deletedSliceDtos = new ArrayList<>();
-	
-	List<SliceDto> updatedSliceDtos = new ArrayList<>();
-
-	/* (non-Javadoc)
-	 * @see org.o3project.mlo.client.control.SliceDataManager#getSliceList()
-	 */
-	@Override
-	public List<SliceDto> getSliceList() throws MloClientException {
-		if (isFailedToGetList) {
-			throw new MloNbiException("aMessageInGettingSlices", 
-					createErrorDto("InGettingSlices"));
-		}
-		if (isNullList) {
-			return null;
-		}
-		List<SliceDto> list = new ArrayList<SliceDto>();
-		synchronized (createdSliceDtos) {
-			for (SliceDto sliceDto : createdSliceDtos) {
-				SliceDto slice = new SliceDto();
-				slice.id = sliceDto.id;
-				slice.name = sliceDto.name;
-				list.add(slice);
-			}
-		}
-		return list;
-	}
-
-	/* (non-Javadoc)
-	 * @see org.o3project.mlo.client.control.SliceDataManager#getSliceInfo(org.o3project.mlo.server.dto.SliceDto)
-	 */
-	@Override
-	public SliceDto getSliceInfo(SliceDto slice) throws MloClientException {
-		synchronized (createdSliceDtos) {
-			if (isFailedToGetInfo) {
-				throw new MloNbiException("aMessageInGettingInfo", 
-						createErrorDto("InGettingInfo"));
-			}
-			SliceDto ret = null;
-			for (SliceDto sliceDto : createdSliceDtos) {
-				if (sliceDto.id.equals(slice.id)) {
-					ret = sliceDto;
-					break;
-				}
-			}
-			return ret;
-		}
-	}
-
-	/* (non-Javadoc)
-	 * @see org.o3project.mlo.client.control.SliceDataManager#createSliceInfo(org.o3project.mlo.server.dto.SliceDto)
-	 */
-	@Override
-	public SliceDto createSliceInfo(SliceDto slice) throws MloClientException {
-		synchronized (createdSliceDtos) {
-			slice.id = Integer.valueOf(slice.name.replaceAll("slice", ""));
-			for (FlowDto flow : slice.flows) {
-				flow.id = Integer.valueOf(flow.name.replaceAll("flow", ""));
-			}
-			createdSliceDtos.add(slice);
-			if (isFailedToCreateSlice) {
-				throw new MloNbiException("aMessageInCreatingSlice", 
-						createErrorDto("InCreatingSlice"));
-			}
-			return slice;
-		}
-	}
-
-	/* (non-Javadoc)
-	 * @see org.o3project.mlo.client.control.SliceDataManager#updateSliceInfo(org.o3project.mlo.server.dto.SliceDto)
-	 */
-	@Override
-	public SliceDto updateSliceInfo(SliceDto slice) throws MloClientException {
-		synchronized (updatedSliceDtos) {
-			updatedSliceDtos.add(slice);
-			if (isFailedToUpdateSlice) {
-				throw new MloNbiException("aMessageInUpdatingSlice", 
-						createErrorDto("InUpdatingSlice"));
-			}
-			return slice;
-		}
-	}
-
-	/* (non-Javadoc)
-	 * @see org.o3project.mlo.client.control.SliceDataManager#deleteSliceInfo(org.o3project.mlo.server.dto.SliceDto)
-	 */
-	@Override
-	public SliceDto deleteSliceInfo(SliceDto slice) throws MloClientException {
-		synchronized (deletedSliceDtos) {
-			deletedSliceDtos.add(slice);
-			if (isFailedToDeleteSlice) {
-				throw new MloNbiException("aMessageInDeletingSlice", 
-						createErrorDto("InDeletingSlice"));
-			}
-			return slice;
-		}
-	}	
-
-	/**
-	 * @return
-	 */
-	RestifErrorDto createErrorDto(String suffix) {
-		RestifErrorDto errorDto = new RestifErrorDto();
-		errorDto.cause = "aCause" + suffix;
-		errorDto.detail = "aDetail" + suffix;
-		return errorDto;
-	}
-}
@@ -0,0 +1,71 @@
+package org.o3project.mlo.client.impl.control;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.o3project.mlo.client.impl.control.RequestServiceImplTest.SliceDataManagerSerialStub;
+
+public class SoakRunnerTest {
+
+	private SliceDataManagerSerialStub createStub() {
+		return new RequestServiceImplTest().new SliceDataManagerSerialStub();
+	}
+
+	@Test
+	public void testRun_duration() throws Exception {
+		SliceDataManagerSerialStub sdm = createStub();
+		LoadStatistics statistics = new LoadStatistics();
+		SoakRunner obj = new SoakRunner(new MeasuringSliceDataManager(sdm, statistics), true, 2, 1, 0L, 1);
+		obj.run();
+
+		assertFalse(Thread.currentThread().isInterrupted());
+		assertTrue(obj.getCompletedLifecycles() > 0);
+		assertEquals(0L, obj.getFailedLifecycles());
+		assertEquals(0, obj.getLeftoverSliceCount());
+		assertEquals(0L, statistics.getOperationStats(LoadStatistics.OP_UPDATE).getErrorCount());
+
+		synchronized (sdm.createdSliceDtos) {
+			// Each virtual user uses its own slice names.
+			assertTrue(sdm.createdSliceDtos.containsKey(1000000));
+			assertTrue(sdm.createdSliceDtos.containsKey(2000000));
+			synchronized (sdm.deletedSliceDtos) {
+				assertEquals(sdm.createdSliceDtos.size(), sdm.deletedSliceDtos.size());
+			}
+		}
+	}
+
+	@Test
+	public void testRun_interruptedWithLeftovers() throws Exception {
+		final SliceDataManagerSerialStub sdm = createStub();
+		sdm.isFailedToUpdateSlice = true;
+		final SoakRunner obj = new SoakRunner(sdm, false, 3, 0, 10L, 1);
+		final boolean[] isInterrupted = new boolean[1];
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				obj.run();
+				isInterrupted[0] = Thread.currentThread().isInterrupted();
+			}
+		}, "soak-thread");
+		thread.start();
+		Thread.sleep(500L);
+		thread.interrupt();
+		thread.join(10000L);
+
+		assertFalse(thread.isAlive());
+		assertTrue(isInterrupted[0]);
+		assertEquals(0L, obj.getCompletedLifecycles());
+		assertTrue(obj.getFailedLifecycles() > 0);
+		assertEquals(0, obj.getLeftoverSliceCount());
+		synchronized (sdm.createdSliceDtos) {
+			synchronized (sdm.deletedSliceDtos) {
+				assertEquals(sdm.createdSliceDtos.size(), sdm.deletedSliceDtos.size());
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_invalidUsers() {
+		new SoakRunner(createStub(), true, 0, 1, 0L, 1);
+	}
+}